@@ -0,0 +1,138 @@
+package org.atlasapi.benchmark;
+
+import java.util.Currency;
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Encoding;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Location;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Policy;
+import org.atlasapi.media.entity.Policy.RevenueContract;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Version;
+
+import com.metabroadcast.common.currency.Price;
+import com.metabroadcast.common.intl.Countries;
+import com.metabroadcast.common.media.MimeType;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+
+/**
+ * Deterministic content shared by the benchmarks, shaped like a long-running brand: many
+ * episodes, each with several broadcasts and on-demand locations.
+ */
+final class BenchmarkFixtures {
+
+    static final String CHANNEL_URI = "http://www.bbc.co.uk/services/bbcone/london";
+    static final long CHANNEL_ID = 103828L;
+
+    private static final DateTime FIRST_BROADCAST = new DateTime(2018, 1, 1, 19, 0, DateTimeZone.UTC);
+    private static final Duration BROADCAST_DURATION = Duration.standardMinutes(30);
+
+    private static final List<String> WORDS = ImmutableList.of(
+            "Garden", "Kitchen", "Mystery", "London", "Island", "Winter", "Harbour", "Railway",
+            "Detective", "Village", "Summer", "Castle", "River", "Market", "Doctor", "Ocean"
+    );
+
+    private BenchmarkFixtures() {
+    }
+
+    static Channel channel() {
+        Channel channel = new Channel(
+                Publisher.BBC,
+                "BBC One London",
+                "bbcone-london",
+                true,
+                MediaType.VIDEO,
+                CHANNEL_URI
+        );
+        channel.setId(CHANNEL_ID);
+        return channel;
+    }
+
+    static Brand brand() {
+        Brand brand = new Brand("http://www.bbc.co.uk/programmes/b006m86d", "bbc:b006m86d", Publisher.BBC);
+        brand.setId(1L);
+        brand.setTitle("EastEnders");
+        brand.setDescription("Drama set in the East End of London");
+        return brand;
+    }
+
+    static List<Episode> episodes(Brand brand, int count, int broadcastsPerEpisode,
+            int locationsPerEpisode) {
+        ImmutableList.Builder<Episode> episodes = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            episodes.add(episode(brand, i, broadcastsPerEpisode, locationsPerEpisode));
+        }
+        return episodes.build();
+    }
+
+    static Episode episode(Brand brand, int number, int broadcasts, int locations) {
+        String uri = brand.getCanonicalUri() + "/episodes/" + number;
+        Episode episode = new Episode(uri, "bbc:" + number, brand.getPublisher());
+        episode.setId(1000L + number);
+        episode.setTitle(title(number));
+        episode.setDescription(description(number));
+        episode.setEpisodeNumber(number + 1);
+        episode.setSeriesNumber(number / 20 + 1);
+        episode.setContainer(brand);
+        episode.setMediaType(MediaType.VIDEO);
+
+        Version version = new Version();
+        for (int i = 0; i < broadcasts; i++) {
+            DateTime start = FIRST_BROADCAST.plusDays(number).plusHours(i * 3);
+            version.addBroadcast(new Broadcast(CHANNEL_URI, start, BROADCAST_DURATION));
+        }
+        Encoding encoding = new Encoding();
+        encoding.setDataContainerFormat(MimeType.VIDEO_MP4);
+        for (int i = 0; i < locations; i++) {
+            encoding.addAvailableAt(location(uri, i));
+        }
+        version.addManifestedAs(encoding);
+        episode.addVersion(version);
+        return episode;
+    }
+
+    /**
+     * Titles that share words with their neighbours, so title scoring does real work instead of
+     * rejecting every candidate on the first character.
+     */
+    static String title(int number) {
+        return String.format(
+                "The %s %s: Part %d",
+                WORDS.get(number % WORDS.size()),
+                WORDS.get((number / WORDS.size()) % WORDS.size()),
+                number % 7 + 1
+        );
+    }
+
+    static String description(int number) {
+        return String.format(
+                "%s investigates a %s in %s while %s prepares for the %s.",
+                WORDS.get(number % WORDS.size()),
+                WORDS.get((number + 3) % WORDS.size()).toLowerCase(),
+                WORDS.get((number + 5) % WORDS.size()),
+                WORDS.get((number + 7) % WORDS.size()),
+                WORDS.get((number + 11) % WORDS.size())
+        );
+    }
+
+    private static Location location(String uri, int index) {
+        Location location = new Location();
+        location.setUri(uri + "/locations/" + index);
+        location.setPolicy(new Policy()
+                .withRevenueContract(index % 2 == 0
+                                     ? RevenueContract.FREE_TO_VIEW
+                                     : RevenueContract.PAY_TO_BUY)
+                .withPrice(new Price(Currency.getInstance("GBP"), 99))
+                .withAvailableCountries(Countries.GB));
+        return location;
+    }
+}
@@ -0,0 +1,74 @@
+package org.atlasapi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.query.content.merge.BroadcastMerger;
+import org.atlasapi.query.content.merge.ContentMerger;
+import org.atlasapi.query.content.merge.EpisodeMerger;
+import org.atlasapi.query.content.merge.ItemMerger;
+import org.atlasapi.query.content.merge.SeriesMerger;
+import org.atlasapi.query.content.merge.SongMerger;
+import org.atlasapi.query.content.merge.VersionMerger;
+
+import com.metabroadcast.common.base.Maybe;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Merging an incoming episode into the stored one, as done for every content write. Merging
+ * mutates the existing content, so both sides are rebuilt before each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentMergerBenchmark {
+
+    @Param({ "5", "50" })
+    public int broadcastCount;
+
+    private final ContentMerger merger = ContentMerger.create(
+            ItemMerger.create(VersionMerger.create(), SongMerger.create()),
+            EpisodeMerger.create(),
+            SeriesMerger.create()
+    );
+    private final BroadcastMerger broadcastMerger = BroadcastMerger.defaultMerger();
+
+    private Maybe<Identified> existing;
+    private Episode update;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        Brand brand = BenchmarkFixtures.brand();
+        existing = Maybe.<Identified>just(BenchmarkFixtures.episode(brand, 1, broadcastCount, 4));
+        update = BenchmarkFixtures.episode(brand, 1, broadcastCount, 4);
+        update.setDescription("An updated description");
+    }
+
+    @Benchmark
+    public Content merge() {
+        return merger.merge(existing, update, true, broadcastMerger);
+    }
+
+    @Benchmark
+    public Content replace() {
+        return merger.merge(existing, update, false, broadcastMerger);
+    }
+}
@@ -0,0 +1,119 @@
+package org.atlasapi.benchmark;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.equiv.results.combining.AddingEquivalenceCombiner;
+import org.atlasapi.equiv.results.combining.NullScoreAwareAveragingCombiner;
+import org.atlasapi.equiv.results.description.DefaultDescription;
+import org.atlasapi.equiv.results.extractors.PercentThresholdEquivalenceExtractor;
+import org.atlasapi.equiv.results.scores.DefaultScoredCandidates;
+import org.atlasapi.equiv.results.scores.Score;
+import org.atlasapi.equiv.results.scores.ScoredCandidate;
+import org.atlasapi.equiv.results.scores.ScoredCandidates;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Combining the scores of several scorers and extracting the strongest candidates, the steps of
+ * an equivalence update that follow scoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquivalenceResultBenchmark {
+
+    private static final int SCORER_COUNT = 5;
+    private static final Comparator<Item> BY_URI =
+            (left, right) -> left.getCanonicalUri().compareTo(right.getCanonicalUri());
+
+    @Param({ "10", "100" })
+    public int candidateCount;
+
+    private final NullScoreAwareAveragingCombiner<Item> averagingCombiner =
+            NullScoreAwareAveragingCombiner.get();
+    private final AddingEquivalenceCombiner<Item> addingCombiner =
+            AddingEquivalenceCombiner.create();
+    private final PercentThresholdEquivalenceExtractor<Item> extractor =
+            PercentThresholdEquivalenceExtractor.moreThanPercent(90);
+
+    private Item subject;
+    private List<ScoredCandidates<Item>> scores;
+    private List<ScoredCandidate<Item>> combined;
+
+    @Setup
+    public void setUp() {
+        subject = BenchmarkFixtures.episode(BenchmarkFixtures.brand(), 0, 1, 0);
+
+        Brand candidateBrand = new Brand("http://pressassociation.com/brands/1", "pa:b-1", Publisher.PA);
+        List<Episode> candidates = BenchmarkFixtures.episodes(candidateBrand, candidateCount, 1, 0);
+
+        ImmutableList.Builder<ScoredCandidates<Item>> builder = ImmutableList.builder();
+        for (int scorer = 0; scorer < SCORER_COUNT; scorer++) {
+            DefaultScoredCandidates.Builder<Item> scored =
+                    DefaultScoredCandidates.fromSource("scorer-" + scorer);
+            for (int i = 0; i < candidates.size(); i++) {
+                scored.addEquivalent(candidates.get(i), score(scorer, i));
+            }
+            builder.add(scored.build());
+        }
+        scores = builder.build();
+        combined = averagingCombiner.combine(scores, new DefaultDescription())
+                .orderedCandidates(BY_URI);
+    }
+
+    @Benchmark
+    public ScoredCandidates<Item> nullScoreAwareAveragingCombiner() {
+        return averagingCombiner.combine(scores, new DefaultDescription());
+    }
+
+    @Benchmark
+    public ScoredCandidates<Item> addingCombiner() {
+        return addingCombiner.combine(scores, new DefaultDescription());
+    }
+
+    @Benchmark
+    public Set<ScoredCandidate<Item>> percentThresholdExtractor() {
+        return extractor.extract(
+                combined,
+                subject,
+                new DefaultDescription(),
+                EquivToTelescopeResult.create(
+                        String.valueOf(subject.getId()),
+                        subject.getPublisher().key()
+                )
+        );
+    }
+
+    /**
+     * A spread of scores, with some scorers abstaining, so that the combiners take both their
+     * null and non-null paths.
+     */
+    private static Score score(int scorer, int candidate) {
+        if ((scorer + candidate) % 4 == 0) {
+            return Score.nullScore();
+        }
+        return Score.valueOf(((scorer * 31 + candidate * 17) % 100) / 100.0);
+    }
+}
@@ -0,0 +1,128 @@
+package org.atlasapi.benchmark;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.equiv.generators.ContentTitleScorer;
+import org.atlasapi.equiv.results.description.DefaultDescription;
+import org.atlasapi.equiv.results.scores.Score;
+import org.atlasapi.equiv.results.scores.ScoredCandidates;
+import org.atlasapi.equiv.scorers.DescriptionMatchingScorer;
+import org.atlasapi.equiv.scorers.TitleMatchingItemScorer;
+import org.atlasapi.equiv.scorers.barb.BarbTitleMatchingItemScorer;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeComponent;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+
+import com.google.common.base.Functions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scoring one subject against a set of candidates with the title and description scorers, which
+ * run for every candidate of every equivalence update. The title scorers are dominated by title
+ * normalisation, so compare their allocation per operation from the gc profiler across commits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EquivalenceScoringBenchmark {
+
+    @Param({ "10", "100" })
+    public int candidateCount;
+
+    private final ContentTitleScorer<Item> contentTitleScorer = new ContentTitleScorer<>(
+            "Title",
+            Functions.identity(),
+            Score.valueOf(2.0),
+            Score.ONE
+    );
+    private final TitleMatchingItemScorer titleMatchingScorer = new TitleMatchingItemScorer();
+    private final BarbTitleMatchingItemScorer barbTitleMatchingScorer =
+            BarbTitleMatchingItemScorer.builder().build();
+    private final DescriptionMatchingScorer<Item> descriptionScorer =
+            DescriptionMatchingScorer.makeItemScorer();
+
+    private Item subject;
+    private List<Item> candidates;
+    private Set<Item> candidateSet;
+
+    @Setup
+    public void setUp() {
+        subject = BenchmarkFixtures.episode(BenchmarkFixtures.brand(), 0, 1, 0);
+
+        Brand candidateBrand = new Brand("http://pressassociation.com/brands/1", "pa:b-1", Publisher.PA);
+        candidateBrand.setTitle("EastEnders");
+        ImmutableList.Builder<Item> builder = ImmutableList.builder();
+        for (Episode episode : BenchmarkFixtures.episodes(candidateBrand, candidateCount, 1, 0)) {
+            builder.add(episode);
+        }
+        candidates = builder.build();
+        candidateSet = ImmutableSet.copyOf(candidates);
+    }
+
+    @Benchmark
+    public ScoredCandidates<Item> contentTitleScorer() {
+        return contentTitleScorer.scoreCandidates(
+                subject,
+                candidates,
+                new DefaultDescription(),
+                EquivToTelescopeComponent.create()
+        );
+    }
+
+    @Benchmark
+    public ScoredCandidates<Item> titleMatchingItemScorer() {
+        return titleMatchingScorer.score(
+                subject,
+                candidateSet,
+                new DefaultDescription(),
+                telescopeResult()
+        );
+    }
+
+    @Benchmark
+    public ScoredCandidates<Item> barbTitleMatchingItemScorer() {
+        return barbTitleMatchingScorer.score(
+                subject,
+                candidateSet,
+                new DefaultDescription(),
+                telescopeResult()
+        );
+    }
+
+    @Benchmark
+    public ScoredCandidates<Item> descriptionMatchingScorer() {
+        return descriptionScorer.score(
+                subject,
+                candidateSet,
+                new DefaultDescription(),
+                telescopeResult()
+        );
+    }
+
+    private EquivToTelescopeResult telescopeResult() {
+        return EquivToTelescopeResult.create(
+                String.valueOf(subject.getId()),
+                subject.getPublisher().key()
+        );
+    }
+}
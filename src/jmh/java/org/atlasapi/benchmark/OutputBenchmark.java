@@ -0,0 +1,181 @@
+package org.atlasapi.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.channel.ChannelGroupResolver;
+import org.atlasapi.media.channel.ChannelResolver;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.simple.ContentQueryResult;
+import org.atlasapi.media.product.ProductResolver;
+import org.atlasapi.media.segment.SegmentResolver;
+import org.atlasapi.output.Annotation;
+import org.atlasapi.output.JaxbXmlTranslator;
+import org.atlasapi.output.JsonTranslator;
+import org.atlasapi.output.simple.ChannelGroupSummarySimplifier;
+import org.atlasapi.output.simple.ChannelRefSimplifier;
+import org.atlasapi.output.simple.ChannelSimplifier;
+import org.atlasapi.output.simple.ImageSimplifier;
+import org.atlasapi.output.simple.ItemModelSimplifier;
+import org.atlasapi.output.simple.PublisherSimplifier;
+import org.atlasapi.persistence.content.ContentGroupResolver;
+import org.atlasapi.persistence.content.PeopleQueryResolver;
+import org.atlasapi.persistence.content.ResolvedContent;
+import org.atlasapi.persistence.output.AvailableItemsResolver;
+import org.atlasapi.persistence.output.ContainerSummaryResolver;
+import org.atlasapi.persistence.output.UpcomingItemsResolver;
+import org.atlasapi.persistence.topic.TopicQueryResolver;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.common.base.Maybe;
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.servlet.StubHttpServletRequest;
+import com.metabroadcast.common.servlet.StubHttpServletResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.mockito.Matchers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simplification of full items into the output model, and serialisation of the resulting query
+ * result to JSON and XML, for a brand's worth of richly populated episodes. Resolvers are stubbed
+ * so that only the in-process cost of the read path is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OutputBenchmark {
+
+    @Param({ "10", "300" })
+    public int episodeCount;
+
+    private final Application application = mock(Application.class);
+    private final JsonTranslator<ContentQueryResult> jsonTranslator = new JsonTranslator<>();
+    private final JaxbXmlTranslator<ContentQueryResult> xmlTranslator = new JaxbXmlTranslator<>();
+
+    private Set<Annotation> annotations;
+    private ItemModelSimplifier simplifier;
+    private List<Episode> episodes;
+    private ContentQueryResult simplified;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        SubstitutionTableNumberCodec codec = SubstitutionTableNumberCodec.lowerCaseOnly();
+        ContentGroupResolver contentGroupResolver = mock(ContentGroupResolver.class);
+        TopicQueryResolver topicResolver = mock(TopicQueryResolver.class);
+        SegmentResolver segmentResolver = mock(SegmentResolver.class);
+        ChannelResolver channelResolver = mock(ChannelResolver.class);
+        ChannelGroupResolver channelGroupResolver = mock(ChannelGroupResolver.class);
+
+        when(contentGroupResolver.findByIds(Matchers.anyCollection()))
+                .thenReturn(ResolvedContent.builder().build());
+        when(topicResolver.topicsForIds(Matchers.anyCollection())).thenReturn(ImmutableList.of());
+        when(segmentResolver.resolveById(Matchers.anyCollection())).thenReturn(ImmutableMap.of());
+        when(channelResolver.fromUri(BenchmarkFixtures.CHANNEL_URI))
+                .thenReturn(Maybe.just(BenchmarkFixtures.channel()));
+
+        ChannelSimplifier channelSimplifier = new ChannelSimplifier(
+                codec,
+                codec,
+                channelResolver,
+                new PublisherSimplifier(),
+                new ImageSimplifier(),
+                new ChannelGroupSummarySimplifier(codec, channelGroupResolver),
+                new ChannelRefSimplifier(codec),
+                channelGroupResolver
+        );
+        simplifier = new ItemModelSimplifier(
+                "localhost",
+                contentGroupResolver,
+                topicResolver,
+                mock(ProductResolver.class),
+                segmentResolver,
+                mock(ContainerSummaryResolver.class),
+                channelResolver,
+                new SubstitutionTableNumberCodec(),
+                new SubstitutionTableNumberCodec(),
+                new ImageSimplifier(),
+                mock(PeopleQueryResolver.class),
+                mock(UpcomingItemsResolver.class),
+                mock(AvailableItemsResolver.class),
+                null,
+                null,
+                null,
+                channelSimplifier,
+                null,
+                null,
+                null
+        );
+
+        annotations = Sets.union(
+                Annotation.defaultAnnotations(),
+                ImmutableSet.of(
+                        Annotation.BROADCASTS,
+                        Annotation.AVAILABLE_LOCATIONS,
+                        Annotation.EXTENDED_DESCRIPTION
+                )
+        );
+
+        Brand brand = BenchmarkFixtures.brand();
+        episodes = BenchmarkFixtures.episodes(brand, episodeCount, 5, 4);
+        simplified = simplify();
+    }
+
+    @Benchmark
+    public ContentQueryResult simplify() {
+        ContentQueryResult result = new ContentQueryResult();
+        for (Episode episode : episodes) {
+            result.add(simplifier.simplify(episode, annotations, application));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public String writeJson() throws IOException {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        jsonTranslator.writeTo(
+                new StubHttpServletRequest(),
+                response,
+                simplified,
+                annotations,
+                application
+        );
+        return response.getResponseAsString();
+    }
+
+    @Benchmark
+    public String writeXml() throws IOException {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        xmlTranslator.writeTo(
+                new StubHttpServletRequest(),
+                response,
+                simplified,
+                annotations,
+                application
+        );
+        return response.getResponseAsString();
+    }
+}
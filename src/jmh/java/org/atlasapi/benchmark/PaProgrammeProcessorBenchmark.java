@@ -0,0 +1,110 @@
+package org.atlasapi.benchmark;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.persistence.content.ContentResolver;
+import org.atlasapi.persistence.content.ResolvedContent;
+import org.atlasapi.persistence.logging.NullAdapterLog;
+import org.atlasapi.remotesite.pa.PaListingsParser;
+import org.atlasapi.remotesite.pa.PaProgrammeProcessor;
+import org.atlasapi.remotesite.pa.PaTagMap;
+import org.atlasapi.remotesite.pa.deletes.ExistingItemUnPublisher;
+import org.atlasapi.remotesite.pa.listings.bindings.ChannelData;
+import org.atlasapi.remotesite.pa.listings.bindings.ProgData;
+
+import com.metabroadcast.common.time.DateTimeZones;
+import com.metabroadcast.common.time.Timestamp;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Resources;
+import org.mockito.Matchers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Parsing a PA listings file and turning its programmes into content, with nothing previously
+ * ingested so that every programme takes the full creation path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaProgrammeProcessorBenchmark {
+
+    private static final String LISTINGS_FILE = "20110115_tvdata.xml";
+
+    private final PaListingsParser parser = new PaListingsParser();
+    private final Channel channel = BenchmarkFixtures.channel();
+
+    private File listings;
+    private PaProgrammeProcessor processor;
+    private List<ProgData> programmes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        ContentResolver contentResolver = mock(ContentResolver.class);
+        when(contentResolver.findByCanonicalUris(Matchers.any(Iterable.class)))
+                .thenReturn(ResolvedContent.builder().build());
+        processor = PaProgrammeProcessor.create(
+                contentResolver,
+                new NullAdapterLog(),
+                mock(PaTagMap.class),
+                mock(ExistingItemUnPublisher.class)
+        );
+
+        listings = new File(Resources.getResource(LISTINGS_FILE).getFile());
+        programmes = parse();
+    }
+
+    @Benchmark
+    public List<ProgData> parseListings() throws Exception {
+        return parse();
+    }
+
+    @Benchmark
+    public void processProgrammes(Blackhole blackhole) {
+        for (ProgData programme : programmes) {
+            blackhole.consume(processor.process(
+                    programme,
+                    channel,
+                    DateTimeZones.UTC,
+                    Timestamp.of(0L)
+            ));
+        }
+    }
+
+    private List<ProgData> parse() throws Exception {
+        List<ProgData> parsed = Lists.newArrayList();
+        parser.parse(listings, new PaListingsParser.ChannelHandler() {
+
+            @Override
+            public boolean shouldProcess(ChannelData channel) {
+                return true;
+            }
+
+            @Override
+            public void process(ChannelData channel) {
+                parsed.addAll(channel.getProgData());
+            }
+        });
+        return parsed;
+    }
+}
@@ -17,16 +17,24 @@ package org.atlasapi.equiv;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.metabroadcast.common.queue.MessageSender;
 import com.metabroadcast.common.stream.MoreCollectors;
+import org.atlasapi.AtlasMain;
+import org.atlasapi.equiv.generators.ChannelDayCachingScheduleResolver;
+import org.atlasapi.equiv.generators.LocalTitleIndex;
 import org.atlasapi.equiv.handlers.EquivalenceResultHandler;
 import org.atlasapi.equiv.messengers.EquivalenceResultMessenger;
 import org.atlasapi.equiv.results.persistence.FileEquivalenceResultStore;
+import org.atlasapi.equiv.results.persistence.LogStructuredEquivalenceResultStore;
 import org.atlasapi.equiv.results.persistence.RecentEquivalenceResultStore;
 import org.atlasapi.equiv.update.ContentEquivalenceUpdater;
+import org.atlasapi.equiv.update.EquivalenceComponentExecutor;
 import org.atlasapi.equiv.update.EquivalenceResultUpdater;
 import org.atlasapi.equiv.update.MultipleSourceEquivalenceUpdater;
 import org.atlasapi.equiv.update.SourceSpecificEquivalenceUpdater;
+import org.atlasapi.equiv.update.metrics.EquivalenceMetrics;
+import org.atlasapi.equiv.update.metrics.EquivalenceUpdaterMetrics;
 import org.atlasapi.equiv.update.updaters.configuration.UpdaterConfiguration;
 import org.atlasapi.equiv.update.updaters.configuration.UpdaterConfigurationRegistry;
 import org.atlasapi.equiv.update.updaters.providers.EquivalenceUpdaterProviderDependencies;
@@ -34,6 +42,7 @@ import org.atlasapi.equiv.update.updaters.types.ContainerEquivalenceUpdaterType;
 import org.atlasapi.equiv.update.updaters.types.ItemEquivalenceUpdaterType;
 import org.atlasapi.media.channel.ChannelResolver;
 import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Item;
 import org.atlasapi.media.entity.Publisher;
 import org.atlasapi.messaging.v3.ContentEquivalenceAssertionMessage;
@@ -42,9 +51,11 @@ import org.atlasapi.messaging.v3.KafkaMessagingModule;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ScheduleResolver;
 import org.atlasapi.persistence.content.SearchResolver;
+import org.atlasapi.persistence.content.listing.SelectedContentLister;
 import org.atlasapi.persistence.lookup.LookupWriter;
 import org.atlasapi.persistence.lookup.entry.LookupEntryStore;
 import org.atlasapi.remotesite.amazon.indexer.AmazonTitleIndexStore;
+import org.joda.time.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -54,6 +65,7 @@ import org.springframework.context.annotation.Import;
 
 import java.io.File;
 import java.util.Collection;
+import java.util.concurrent.Executors;
 
 @SuppressWarnings("PublicConstructor")
 @Configuration
@@ -61,9 +73,23 @@ import java.util.Collection;
 public class EquivModule {
 
     @Value("${equiv.results.directory}") private String equivResultsDirectory;
+    @Value("${equiv.results.log.enabled}") private boolean logStructuredResultsEnabled;
+    @Value("${equiv.results.log.directory}") private String logStructuredResultsDirectory;
+    @Value("${equiv.results.log.segmentSizeMb}") private int logStructuredResultsSegmentSizeMb;
+    @Value("${equiv.results.log.retentionDays}") private int logStructuredResultsRetentionDays;
     @Value("${messaging.destination.equiv.assert}") private String equivAssertDest;
     @Value("${equiv.excludedUris}") private String excludedUris;
     @Value("${equiv.excludedIds}") private String excludedIds;
+    @Value("${equiv.components.threads}") private int componentThreads;
+    @Value("${equiv.components.timeoutSeconds}") private int componentTimeoutSeconds;
+    @Value("${equiv.titleIndex.enabled}") private boolean localTitleIndexEnabled;
+    @Value("${equiv.titleIndex.publishers}") private String localTitleIndexPublishers;
+    @Value("${equiv.metrics.enabled}") private boolean metricsEnabled;
+    @Value("${equiv.metrics.slowestSubjects}") private int slowestSubjects;
+    @Value("${equiv.metrics.slowestSubjectsWindowMinutes}") private int slowestSubjectsWindowMinutes;
+    @Value("${equiv.scheduleCache.enabled}") private boolean scheduleCacheEnabled;
+    @Value("${equiv.scheduleCache.maxItems}") private long scheduleCacheMaxItems;
+    @Value("${equiv.scheduleCache.ttlSeconds}") private long scheduleCacheTtlSeconds;
 
     @Autowired private ScheduleResolver scheduleResolver;
     @Autowired @Qualifier("EquivalenceSearchResolver") private SearchResolver owlSearchResolver;
@@ -73,6 +99,7 @@ public class EquivModule {
     @Autowired private EquivalenceSummaryStore equivSummaryStore;
     @Autowired private LookupWriter lookupWriter;
     @Autowired private LookupEntryStore lookupEntryStore;
+    @Autowired private SelectedContentLister contentLister;
 
     @Autowired private KafkaMessagingModule messaging;
 
@@ -80,22 +107,25 @@ public class EquivModule {
 
     @Bean @Qualifier("contentUpdater")
     public MultipleSourceEquivalenceUpdater contentUpdater() {
-        EquivalenceUpdaterProviderDependencies dependencies = EquivalenceUpdaterProviderDependencies
-                .builder()
-                .withScheduleResolver(scheduleResolver)
-                .withOwlSearchResolver(owlSearchResolver)
-                .withSherlockSearchResolver(sherlockSearchResolver)
-                .withContentResolver(contentResolver)
-                .withChannelResolver(channelResolver)
-                .withEquivSummaryStore(equivSummaryStore)
-                .withLookupWriter(lookupWriter)
-                .withLookupEntryStore(lookupEntryStore)
-                .withEquivalenceResultStore(equivalenceResultStore())
-                .withMessageSender(equivAssertDestination())
-                .withExcludedUris(excludedContentFromProperties(excludedUris))
-                .withExcludedIds(excludedContentFromProperties(excludedIds))
-                .withAmazonTitleIndexStore(amazonTitleIndexStore)
-                .build();
+        EquivalenceUpdaterProviderDependencies.BuildStep dependenciesBuilder =
+                EquivalenceUpdaterProviderDependencies.builder()
+                        .withScheduleResolver(equivScheduleResolver())
+                        .withOwlSearchResolver(owlSearchResolver)
+                        .withSherlockSearchResolver(sherlockSearchResolver)
+                        .withContentResolver(contentResolver)
+                        .withChannelResolver(channelResolver)
+                        .withEquivSummaryStore(equivSummaryStore)
+                        .withLookupWriter(lookupWriter)
+                        .withLookupEntryStore(lookupEntryStore)
+                        .withEquivalenceResultStore(equivalenceResultStore())
+                        .withMessageSender(equivAssertDestination())
+                        .withExcludedUris(excludedContentFromProperties(excludedUris))
+                        .withExcludedIds(excludedContentFromProperties(excludedIds))
+                        .withAmazonTitleIndexStore(amazonTitleIndexStore);
+        if (localTitleIndexEnabled) {
+            dependenciesBuilder.withLocalTitleIndex(localTitleIndex());
+        }
+        EquivalenceUpdaterProviderDependencies dependencies = dependenciesBuilder.build();
 
         UpdaterConfigurationRegistry registry = UpdaterConfigurationRegistry.create();
 
@@ -134,9 +164,16 @@ public class EquivModule {
                 = ImmutableSet.builder();
         for (ItemEquivalenceUpdaterType updaterType : configuration.getItemEquivalenceUpdaters().keySet()) {
             itemEquivalenceResultUpdaters.add(
-                    updaterType.getProvider().getUpdater(
-                            dependencies,
-                            configuration.getItemEquivalenceUpdaters().get(updaterType)
+                    withMetrics(
+                            configuration,
+                            updaterType.name(),
+                            withComponentExecutor(
+                                    configuration,
+                                    updaterType.getProvider().getUpdater(
+                                            dependencies,
+                                            configuration.getItemEquivalenceUpdaters().get(updaterType)
+                                    )
+                            )
                     )
             );
         }
@@ -158,12 +195,15 @@ public class EquivModule {
                         .getMessengerProvider()
                         .getMessenger(dependencies, allItemTargetPublishers);
 
-        return ContentEquivalenceUpdater
-                .<Item>builder()
-                .withEquivalenceResultUpdaters(itemEquivalenceResultUpdaters.build())
-                .withHandler(itemEquivalenceResultHandler)
-                .withMessenger(itemEquivalenceResultMessenger)
-                .build();
+        return build(
+                configuration,
+                "item",
+                ContentEquivalenceUpdater
+                        .<Item>builder()
+                        .withEquivalenceResultUpdaters(itemEquivalenceResultUpdaters.build())
+                        .withHandler(itemEquivalenceResultHandler)
+                        .withMessenger(itemEquivalenceResultMessenger)
+        );
     }
 
     private ContentEquivalenceUpdater<Container> createTopLevelContainerEquivalenceUpdater(
@@ -174,9 +214,16 @@ public class EquivModule {
                 = ImmutableSet.builder();
         for (ContainerEquivalenceUpdaterType updaterType : configuration.getTopLevelContainerEquivalenceUpdaters().keySet()) {
             topLevelEquivalenceResultUpdaters.add(
-                    updaterType.getProvider().getUpdater(
-                            dependencies,
-                            configuration.getTopLevelContainerEquivalenceUpdaters().get(updaterType)
+                    withMetrics(
+                            configuration,
+                            updaterType.name(),
+                            withComponentExecutor(
+                                    configuration,
+                                    updaterType.getProvider().getUpdater(
+                                            dependencies,
+                                            configuration.getTopLevelContainerEquivalenceUpdaters().get(updaterType)
+                                    )
+                            )
                     )
             );
         }
@@ -198,12 +245,15 @@ public class EquivModule {
                         .getMessengerProvider()
                         .getMessenger(dependencies, allTopLevelContainerTargetPublishers);
 
-        return ContentEquivalenceUpdater
-                .<Container>builder()
-                .withEquivalenceResultUpdaters(topLevelEquivalenceResultUpdaters.build())
-                .withHandler(topLevelContainerEquivalenceResultHandler)
-                .withMessenger(topLevelContainerEquivalenceResultMessenger)
-                .build();
+        return build(
+                configuration,
+                "topLevelContainer",
+                ContentEquivalenceUpdater
+                        .<Container>builder()
+                        .withEquivalenceResultUpdaters(topLevelEquivalenceResultUpdaters.build())
+                        .withHandler(topLevelContainerEquivalenceResultHandler)
+                        .withMessenger(topLevelContainerEquivalenceResultMessenger)
+        );
     }
 
     private ContentEquivalenceUpdater<Container> createNonTopLevelContainerEquivalenceUpdater(
@@ -214,9 +264,16 @@ public class EquivModule {
                 = ImmutableSet.builder();
         for (ContainerEquivalenceUpdaterType updaterType : configuration.getNonTopLevelContainerEquivalenceUpdaters().keySet()) {
             nonTopLevelEquivalenceResultUpdaters.add(
-                    updaterType.getProvider().getUpdater(
-                            dependencies,
-                            configuration.getNonTopLevelContainerEquivalenceUpdaters().get(updaterType)
+                    withMetrics(
+                            configuration,
+                            updaterType.name(),
+                            withComponentExecutor(
+                                    configuration,
+                                    updaterType.getProvider().getUpdater(
+                                            dependencies,
+                                            configuration.getNonTopLevelContainerEquivalenceUpdaters().get(updaterType)
+                                    )
+                            )
                     )
             );
         }
@@ -238,16 +295,122 @@ public class EquivModule {
                         .getMessengerProvider()
                         .getMessenger(dependencies, allNonTopLevelContainerTargetPublishers);
 
-        return ContentEquivalenceUpdater
-                .<Container>builder()
-                .withEquivalenceResultUpdaters(nonTopLevelEquivalenceResultUpdaters.build())
-                .withHandler(nonTopLevelContainerEquivalenceResultHandler)
-                .withMessenger(nonTopLevelContainerEquivalenceResultMessenger)
+        return build(
+                configuration,
+                "nonTopLevelContainer",
+                ContentEquivalenceUpdater
+                        .<Container>builder()
+                        .withEquivalenceResultUpdaters(nonTopLevelEquivalenceResultUpdaters.build())
+                        .withHandler(nonTopLevelContainerEquivalenceResultHandler)
+                        .withMessenger(nonTopLevelContainerEquivalenceResultMessenger)
+        );
+    }
+
+    private <T> EquivalenceResultUpdater<T> withComponentExecutor(
+            UpdaterConfiguration configuration,
+            EquivalenceResultUpdater<T> updater
+    ) {
+        if (!configuration.isConcurrentComponents()) {
+            return updater;
+        }
+        return updater.withComponentExecutor(equivalenceComponentExecutor());
+    }
+
+    private <T> EquivalenceResultUpdater<T> withMetrics(
+            UpdaterConfiguration configuration,
+            String updaterType,
+            EquivalenceResultUpdater<T> updater
+    ) {
+        if (!metricsEnabled) {
+            return updater;
+        }
+        return updater.withMetrics(updaterMetrics(configuration, updaterType));
+    }
+
+    private <T extends Content> ContentEquivalenceUpdater<T> build(
+            UpdaterConfiguration configuration,
+            String updater,
+            ContentEquivalenceUpdater.BuildStep<T> equivalenceUpdater
+    ) {
+        if (metricsEnabled) {
+            equivalenceUpdater.withMetrics(updaterMetrics(configuration, updater));
+        }
+        return equivalenceUpdater.build();
+    }
+
+    private EquivalenceUpdaterMetrics updaterMetrics(
+            UpdaterConfiguration configuration,
+            String updater
+    ) {
+        return equivalenceMetrics().forUpdater(configuration.getSource().name(), updater);
+    }
+
+    /**
+     * Always available for the slowest subjects endpoint, but only recorded to when enabled.
+     */
+    @Bean
+    public EquivalenceMetrics equivalenceMetrics() {
+        return EquivalenceMetrics.create(
+                AtlasMain.metrics,
+                slowestSubjects,
+                Duration.standardMinutes(slowestSubjectsWindowMinutes)
+        );
+    }
+
+    @Bean
+    public EquivalenceComponentExecutor equivalenceComponentExecutor() {
+        return EquivalenceComponentExecutor.create(
+                Executors.newFixedThreadPool(
+                        componentThreads,
+                        new ThreadFactoryBuilder().setNameFormat("equiv-component-%s").build()
+                ),
+                Duration.standardSeconds(componentTimeoutSeconds)
+        );
+    }
+
+    /**
+     * Shared by the broadcast-matching generators of every updater, so that neighbouring
+     * subjects' schedule windows are answered from the same cached channel-days.
+     */
+    private ScheduleResolver equivScheduleResolver() {
+        if (!scheduleCacheEnabled) {
+            return scheduleResolver;
+        }
+        return ChannelDayCachingScheduleResolver.builder()
+                .withDelegate(scheduleResolver)
+                .withMaximumItems(scheduleCacheMaxItems)
+                .withTimeToLive(Duration.standardSeconds(scheduleCacheTtlSeconds))
+                .withMetrics(AtlasMain.metrics, "equiv.schedule.cache")
                 .build();
     }
 
+    /**
+     * Only searched by the title generators, and kept up to date, when the index is enabled.
+     */
     @Bean
+    public LocalTitleIndex localTitleIndex() {
+        return LocalTitleIndex.create(
+                contentLister,
+                Splitter.on(',').omitEmptyStrings().trimResults()
+                        .splitToList(localTitleIndexPublishers)
+                        .stream()
+                        .map(key -> Publisher.fromKey(key).requireValue())
+                        .collect(MoreCollectors.toImmutableSet())
+        );
+    }
+
+    @Bean(destroyMethod = "close")
     public RecentEquivalenceResultStore equivalenceResultStore() {
+        if (logStructuredResultsEnabled) {
+            File directory = new File(logStructuredResultsDirectory);
+            directory.mkdirs();
+            return new RecentEquivalenceResultStore(
+                    LogStructuredEquivalenceResultStore.builder(directory)
+                            .withMaxSegmentSize(logStructuredResultsSegmentSizeMb * 1024L * 1024L)
+                            .withRetention(Duration.standardDays(logStructuredResultsRetentionDays))
+                            .build()
+            );
+        }
         return new RecentEquivalenceResultStore(
                 new FileEquivalenceResultStore(new File(equivResultsDirectory))
         );
@@ -18,6 +18,8 @@ import com.metabroadcast.common.scheduling.RepetitionRule;
 import com.metabroadcast.common.scheduling.RepetitionRules;
 import com.metabroadcast.common.scheduling.ScheduledTask;
 import com.metabroadcast.common.scheduling.SimpleScheduler;
+import org.atlasapi.AtlasMain;
+import org.atlasapi.equiv.generators.LocalTitleIndex;
 import org.atlasapi.equiv.results.persistence.RecentEquivalenceResultStore;
 import org.atlasapi.equiv.results.probe.EquivalenceProbeStore;
 import org.atlasapi.equiv.results.probe.EquivalenceResultProbeController;
@@ -27,16 +29,20 @@ import org.atlasapi.equiv.results.www.EquivalenceResultController;
 import org.atlasapi.equiv.results.www.RecentResultController;
 import org.atlasapi.equiv.update.MultipleSourceEquivalenceUpdater;
 import org.atlasapi.equiv.update.RecoveringEquivalenceUpdater;
+import org.atlasapi.equiv.update.metrics.EquivalenceMetrics;
 import org.atlasapi.equiv.update.tasks.ContentEquivalenceUpdateTask;
 import org.atlasapi.equiv.update.tasks.DeltaContentEquivalenceUpdateTask;
+import org.atlasapi.equiv.update.tasks.LocalTitleIndexRebuildTask;
 import org.atlasapi.equiv.update.tasks.ScheduleEquivalenceUpdateTask;
 import org.atlasapi.equiv.update.tasks.ScheduleEquivalenceUpdateTask.Builder;
 import org.atlasapi.equiv.update.www.ContentEquivalenceUpdateController;
+import org.atlasapi.equiv.update.www.EquivalenceMetricsController;
 import org.atlasapi.media.channel.Channel;
 import org.atlasapi.media.channel.ChannelResolver;
 import org.atlasapi.media.entity.Container;
 import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.messaging.InstanceConsumerGroups;
 import org.atlasapi.messaging.v3.EntityUpdatedMessage;
 import org.atlasapi.messaging.v3.EquivalenceChangeMessage;
 import org.atlasapi.messaging.v3.JacksonMessageSerializer;
@@ -71,9 +77,11 @@ import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Lazy;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -170,6 +178,8 @@ public class EquivTaskModule {
             RepetitionRules.NEVER;
     private static final RepetitionRule NITRO_EQUIVALENCE_REPETITION =
             RepetitionRules.daily(new LocalTime(5, 0));
+    private static final RepetitionRule LOCAL_TITLE_INDEX_REBUILD_REPETITION =
+            RepetitionRules.daily(new LocalTime(2, 0));
 
     @Value("${equiv.updater.enabled}") private String updaterEnabled;
     @Value("${equiv.updater.youviewschedule.enabled}")private String youViewScheduleUpdaterEnabled;
@@ -179,6 +189,9 @@ public class EquivTaskModule {
     @Value("${equiv.stream-updater.consumers.max}") private Integer maxStreamedEquivUpdateConsumers;
     @Value("${messaging.destination.content.changes}") private String contentChanges;
     @Value("${messaging.destination.equiv.changes.content}") private String equivChangesContent;
+    @Value("${equiv.titleIndex.enabled}") private boolean localTitleIndexEnabled;
+    @Value("${equiv.schedule.parallelism}") private int scheduleEquivalenceParallelism;
+    @Value("${local.host.name}") private String localHostName;
 
     @Autowired private SelectedContentLister contentLister;
     @Autowired private SimpleScheduler taskScheduler;
@@ -194,11 +207,15 @@ public class EquivTaskModule {
 
     @Autowired @Qualifier("contentUpdater") private MultipleSourceEquivalenceUpdater equivUpdater;
     @Autowired private RecentEquivalenceResultStore equivalenceResultStore;
+    @Autowired private LocalTitleIndex localTitleIndex;
+    @Autowired private EquivalenceMetrics equivalenceMetrics;
 
     @Autowired private KafkaMessagingModule messaging;
 
     private final int NUM_OF_THREADS_FOR_STARTUP_JOBS = 3;
 
+    private KafkaConsumer localTitleIndexUpdater;
+
     @PostConstruct
     public void scheduleUpdater() {
         ExecutorService executorService = Executors.newFixedThreadPool(
@@ -214,6 +231,15 @@ public class EquivTaskModule {
             addEquivalenceJobs(jobsAtStartup);
         }
 
+        if (localTitleIndexEnabled) {
+            scheduleEquivalenceJob(
+                    LocalTitleIndexRebuildTask.create(localTitleIndex)
+                            .withName("Local Title Index Rebuild"),
+                    LOCAL_TITLE_INDEX_REBUILD_REPETITION,
+                    jobsAtStartup
+            );
+        }
+
         for (ScheduledTask scheduledTask : jobsAtStartup) {
             executorService.submit(scheduledTask);
         }
@@ -759,7 +785,10 @@ public class EquivTaskModule {
                 .withUpdater(equivUpdater)
                 .withScheduleResolver(scheduleResolver)
                 .withBack(back)
-                .withForward(forward);
+                .withForward(forward)
+                .withExecutor(getNewScheduleExecutor(), scheduleEquivalenceParallelism)
+                .withProgressStore(progressStore())
+                .withMetrics(AtlasMain.metrics);
     }
 
     @Bean
@@ -788,12 +817,27 @@ public class EquivTaskModule {
         return executor;
     }
 
+    private ExecutorService getNewScheduleExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                scheduleEquivalenceParallelism, scheduleEquivalenceParallelism,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>()  //bounded by the task, which keeps at most one channel-day per thread in flight
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     //Controllers...
     @Bean
     public ContentEquivalenceUpdateController contentEquivalenceUpdateController() {
         return ContentEquivalenceUpdateController.create(equivUpdater, contentResolver, lookupStore);
     }
 
+    @Bean
+    public EquivalenceMetricsController equivalenceMetricsController() {
+        return EquivalenceMetricsController.create(equivalenceMetrics);
+    }
+
     @Bean
     public EquivalenceResultController resultEquivalenceResultController() {
         return new EquivalenceResultController(
@@ -977,6 +1021,38 @@ public class EquivTaskModule {
                 .build();
     }
 
+    // Every instance keeps its own index, so each consumes all content changes in a consumer
+    // group of its own.
+    private KafkaConsumer localTitleIndexUpdatingMessageListener() {
+        return messaging.messageConsumerFactory()
+                .createConsumer(
+                        new LocalTitleIndexUpdatingWorker(
+                                contentResolver,
+                                lookupStore,
+                                localTitleIndex
+                        ),
+                        JacksonMessageSerializer.forType(EntityUpdatedMessage.class),
+                        contentChanges,
+                        InstanceConsumerGroups.forInstance("LocalTitleIndex", localHostName)
+                )
+                .build();
+    }
+
+    @PostConstruct
+    public void startLocalTitleIndexUpdater() {
+        if (localTitleIndexEnabled) {
+            localTitleIndexUpdater = localTitleIndexUpdatingMessageListener();
+            localTitleIndexUpdater.startAsync();
+        }
+    }
+
+    @PreDestroy
+    public void stopLocalTitleIndexUpdater() {
+        if (localTitleIndexUpdater != null) {
+            localTitleIndexUpdater.stopAsync();
+        }
+    }
+
     @PostConstruct
     public void startConsumer() {
         if (streamedChangesUpdateEquiv) {
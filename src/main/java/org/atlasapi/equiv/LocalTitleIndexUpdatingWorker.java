@@ -0,0 +1,65 @@
+package org.atlasapi.equiv;
+
+import org.atlasapi.equiv.generators.LocalTitleIndex;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.messaging.v3.EntityUpdatedMessage;
+import org.atlasapi.persistence.content.ContentResolver;
+import org.atlasapi.persistence.lookup.entry.LookupEntry;
+import org.atlasapi.persistence.lookup.entry.LookupEntryStore;
+
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.queue.Worker;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Keeps a {@link LocalTitleIndex} up to date with content as it is written. Only content from
+ * the indexed publishers is resolved.
+ */
+public class LocalTitleIndexUpdatingWorker implements Worker<EntityUpdatedMessage> {
+
+    private final SubstitutionTableNumberCodec idCodec =
+            SubstitutionTableNumberCodec.lowerCaseOnly();
+
+    private final ContentResolver contentResolver;
+    private final LookupEntryStore entryStore;
+    private final LocalTitleIndex index;
+
+    public LocalTitleIndexUpdatingWorker(
+            ContentResolver contentResolver,
+            LookupEntryStore entryStore,
+            LocalTitleIndex index
+    ) {
+        this.contentResolver = checkNotNull(contentResolver);
+        this.entryStore = checkNotNull(entryStore);
+        this.index = checkNotNull(index);
+    }
+
+    @Override
+    public void process(EntityUpdatedMessage message) {
+        long id = idCodec.decode(message.getEntityId()).longValue();
+        LookupEntry entry = Iterables.getOnlyElement(
+                entryStore.entriesForIds(ImmutableSet.of(id)),
+                null
+        );
+        if (entry == null) {
+            index.remove(id);
+            return;
+        }
+        if (!index.getPublishers().contains(entry.lookupRef().publisher())) {
+            return;
+        }
+        Identified identified = contentResolver.findByCanonicalUris(ImmutableSet.of(entry.uri()))
+                .get(entry.uri())
+                .valueOrNull();
+        if (identified instanceof Content) {
+            index.index((Content) identified);
+        } else {
+            index.remove(id);
+        }
+    }
+}
@@ -0,0 +1,469 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Schedule;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.persistence.content.ScheduleResolver;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.Interval;
+import org.joda.time.LocalDate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link ScheduleResolver} for the broadcast-matching generators, which ask for a small window
+ * of unmerged schedule around every broadcast of every subject. Subjects equivalated channel by
+ * channel ask for heavily overlapping windows, so the whole UTC day of a channel's schedule is
+ * loaded once per source and every window inside it is answered from memory.
+ * <p>
+ * Each channel-day is indexed by the start of its items' broadcasts on the channel, with the
+ * running maximum of their ends, so a window only visits the items that can overlap it. As with
+ * the store, an item is in a window if one of its broadcasts on the channel overlaps it. Items
+ * in a window spanning days are returned once, in order of their first broadcast in it.
+ * <p>
+ * Changes to schedules are only seen once the TTL expires. Memory is bounded by the total number
+ * of scheduled items held. Hits, misses and evictions are recorded under the given name in the
+ * metric registry. Merged schedules and item resolution are not cached.
+ */
+public class ChannelDayCachingScheduleResolver implements ScheduleResolver {
+
+    private final ScheduleResolver delegate;
+    private final Cache<ChannelDayKey, ChannelDaySchedule> channelDays;
+
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+
+    private ChannelDayCachingScheduleResolver(Builder builder) {
+        this.delegate = builder.delegate;
+        this.hits = builder.metrics.meter(MetricRegistry.name(builder.metricPrefix, "hits"));
+        this.misses = builder.metrics.meter(MetricRegistry.name(builder.metricPrefix, "misses"));
+        this.evictions = builder.metrics.meter(
+                MetricRegistry.name(builder.metricPrefix, "evictions")
+        );
+
+        RemovalListener<ChannelDayKey, ChannelDaySchedule> evictionListener = notification -> {
+            if (notification.wasEvicted()) {
+                evictions.mark();
+            }
+        };
+        this.channelDays = CacheBuilder.newBuilder()
+                .maximumWeight(builder.maximumItems)
+                .weigher((ChannelDayKey key, ChannelDaySchedule schedule) -> schedule.size() + 1)
+                .expireAfterWrite(builder.timeToLive.getMillis(), TimeUnit.MILLISECONDS)
+                .removalListener(evictionListener)
+                .build();
+    }
+
+    public static DelegateStep builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Schedule schedule(
+            DateTime from,
+            DateTime to,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publisher,
+            Optional<Application> mergeApp
+    ) {
+        return delegate.schedule(from, to, channels, publisher, mergeApp);
+    }
+
+    @Override
+    public Schedule schedule(
+            DateTime from,
+            int count,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publisher,
+            Optional<Application> mergeApp
+    ) {
+        return delegate.schedule(from, count, channels, publisher, mergeApp);
+    }
+
+    @Override
+    public Schedule unmergedSchedule(
+            DateTime from,
+            DateTime to,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publishers
+    ) {
+        if (to.isBefore(from)) {
+            return delegate.unmergedSchedule(from, to, channels, publishers);
+        }
+
+        List<LocalDate> days = daysCovering(from, to);
+        Set<Publisher> sources = ImmutableSet.copyOf(publishers);
+        ImmutableList.Builder<ScheduleChannel> scheduleChannels = ImmutableList.builder();
+        for (Channel channel : channels) {
+            List<ScheduledItem> scheduled = Lists.newArrayList();
+            for (Publisher publisher : sources) {
+                for (LocalDate day : days) {
+                    channelDay(channel, publisher, day).itemsDuring(from, to, scheduled);
+                }
+            }
+            scheduleChannels.add(new ScheduleChannel(channel, distinctInOrder(scheduled)));
+        }
+        return new Schedule(scheduleChannels.build(), new Interval(from, to));
+    }
+
+    @Override
+    public Set<Item> resolveItems(
+            DateTime from,
+            DateTime to,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publishers
+    ) {
+        return delegate.resolveItems(from, to, channels, publishers);
+    }
+
+    public void invalidateAll() {
+        channelDays.invalidateAll();
+    }
+
+    private ChannelDaySchedule channelDay(Channel channel, Publisher publisher, LocalDate day) {
+        ChannelDayKey key = new ChannelDayKey(channel.getUri(), publisher, day);
+        ChannelDaySchedule cached = channelDays.getIfPresent(key);
+        if (cached != null) {
+            hits.mark();
+            return cached;
+        }
+        misses.mark();
+        try {
+            return channelDays.get(key, () -> load(channel, publisher, day));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private ChannelDaySchedule load(Channel channel, Publisher publisher, LocalDate day) {
+        Schedule schedule = delegate.unmergedSchedule(
+                day.toDateTimeAtStartOfDay(DateTimeZone.UTC),
+                day.plusDays(1).toDateTimeAtStartOfDay(DateTimeZone.UTC),
+                ImmutableList.of(channel),
+                ImmutableList.of(publisher)
+        );
+        ImmutableList.Builder<Item> items = ImmutableList.builder();
+        for (ScheduleChannel scheduleChannel : schedule.scheduleChannels()) {
+            items.addAll(scheduleChannel.items());
+        }
+        return ChannelDaySchedule.index(channel.getUri(), items.build());
+    }
+
+    static List<LocalDate> daysCovering(DateTime from, DateTime to) {
+        LocalDate first = from.toDateTime(DateTimeZone.UTC).toLocalDate();
+        // the end of a window is exclusive, unless the window is a single instant
+        DateTime lastInstant = to.isAfter(from) ? to.minusMillis(1) : to;
+        LocalDate last = lastInstant.toDateTime(DateTimeZone.UTC).toLocalDate();
+        ImmutableList.Builder<LocalDate> days = ImmutableList.builder();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            days.add(day);
+        }
+        return days.build();
+    }
+
+    /**
+     * Orders the items by the start of their first broadcast in the window, dropping the copies
+     * of items loaded with more than one channel-day.
+     */
+    private static List<Item> distinctInOrder(List<ScheduledItem> scheduled) {
+        scheduled.sort(Comparator.comparingLong(item -> item.startMillis));
+        Map<String, Item> items = Maps.newLinkedHashMap();
+        for (ScheduledItem item : scheduled) {
+            String key = item.item.getCanonicalUri() + "@" + item.firstStartMillis;
+            if (!items.containsKey(key)) {
+                items.put(key, item.item);
+            }
+        }
+        return ImmutableList.copyOf(items.values());
+    }
+
+    /**
+     * An item in a window, with the start of its first broadcast in the window, to order by, and
+     * of its first broadcast on the channel, to recognise copies of it from other channel-days.
+     */
+    private static final class ScheduledItem {
+
+        private final Item item;
+        private final long startMillis;
+        private final long firstStartMillis;
+
+        private ScheduledItem(Item item, long startMillis, long firstStartMillis) {
+            this.item = item;
+            this.startMillis = startMillis;
+            this.firstStartMillis = firstStartMillis;
+        }
+    }
+
+    /**
+     * The items of one channel-day from one source, sorted by the start of their first broadcast
+     * on the channel. {@code maxEnds[i]} is the latest end of any broadcast of the first
+     * {@code i + 1} items, so a search for a window can stop at the first item, walking
+     * backwards, whose predecessors all end before the window starts.
+     */
+    static final class ChannelDaySchedule {
+
+        private final String channelUri;
+        private final Item[] items;
+        private final long[] starts;
+        private final long[] maxEnds;
+
+        private ChannelDaySchedule(String channelUri, Item[] items, long[] starts, long[] maxEnds) {
+            this.channelUri = channelUri;
+            this.items = items;
+            this.starts = starts;
+            this.maxEnds = maxEnds;
+        }
+
+        static ChannelDaySchedule index(String channelUri, List<Item> scheduleItems) {
+            List<Item> items = Lists.newArrayList();
+            List<long[]> spans = Lists.newArrayList();
+            for (Item item : scheduleItems) {
+                long[] span = span(item, channelUri);
+                if (span != null) {
+                    items.add(item);
+                    spans.add(span);
+                }
+            }
+
+            Integer[] order = new Integer[items.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> spans.get(i)[0]));
+
+            Item[] sortedItems = new Item[order.length];
+            long[] starts = new long[order.length];
+            long[] maxEnds = new long[order.length];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < order.length; i++) {
+                long[] span = spans.get(order[i]);
+                sortedItems[i] = items.get(order[i]);
+                starts[i] = span[0];
+                maxEnd = Math.max(maxEnd, span[1]);
+                maxEnds[i] = maxEnd;
+            }
+            return new ChannelDaySchedule(channelUri, sortedItems, starts, maxEnds);
+        }
+
+        int size() {
+            return items.length;
+        }
+
+        /**
+         * Adds the items with a broadcast on the channel overlapping the window, or on air at it
+         * if it is an instant, to {@code scheduled}.
+         */
+        void itemsDuring(DateTime from, DateTime to, List<ScheduledItem> scheduled) {
+            long fromMillis = from.getMillis();
+            long toMillis = to.getMillis();
+            boolean instant = fromMillis == toMillis;
+            // items starting at or after the end of the window can't overlap it
+            int end = instant ? firstStartAfter(toMillis) : firstStartAfter(toMillis - 1);
+            for (int i = end - 1; i >= 0 && maxEnds[i] > fromMillis; i--) {
+                long start = firstStartDuring(items[i], fromMillis, toMillis, instant);
+                if (start != Long.MIN_VALUE) {
+                    scheduled.add(new ScheduledItem(items[i], start, starts[i]));
+                }
+            }
+        }
+
+        private int firstStartAfter(long millis) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] <= millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * The start of the item's earliest broadcast on the channel that airs during the window,
+         * or {@link Long#MIN_VALUE} if none does.
+         */
+        private long firstStartDuring(Item item, long from, long to, boolean instant) {
+            long first = Long.MIN_VALUE;
+            for (Version version : item.getVersions()) {
+                for (Broadcast broadcast : version.getBroadcasts()) {
+                    if (!isTimedOn(broadcast, channelUri)) {
+                        continue;
+                    }
+                    long start = broadcast.getTransmissionTime().getMillis();
+                    long end = broadcast.getTransmissionEndTime().getMillis();
+                    boolean airs = instant
+                                   ? start <= from && end > from
+                                   : start < to && end > from;
+                    if (airs && (first == Long.MIN_VALUE || start < first)) {
+                        first = start;
+                    }
+                }
+            }
+            return first;
+        }
+
+        /**
+         * The earliest start and latest end of the item's broadcasts on the channel, or null if
+         * it has none.
+         */
+        private static long[] span(Item item, String channelUri) {
+            long[] span = null;
+            for (Version version : item.getVersions()) {
+                for (Broadcast broadcast : version.getBroadcasts()) {
+                    if (!isTimedOn(broadcast, channelUri)) {
+                        continue;
+                    }
+                    long start = broadcast.getTransmissionTime().getMillis();
+                    long end = broadcast.getTransmissionEndTime().getMillis();
+                    if (span == null) {
+                        span = new long[] { start, end };
+                    } else {
+                        span[0] = Math.min(span[0], start);
+                        span[1] = Math.max(span[1], end);
+                    }
+                }
+            }
+            return span;
+        }
+
+        private static boolean isTimedOn(Broadcast broadcast, String channelUri) {
+            return channelUri.equals(broadcast.getBroadcastOn())
+                    && broadcast.getTransmissionTime() != null
+                    && broadcast.getTransmissionEndTime() != null;
+        }
+    }
+
+    private static final class ChannelDayKey {
+
+        private final String channelUri;
+        private final Publisher publisher;
+        private final LocalDate day;
+
+        private ChannelDayKey(String channelUri, Publisher publisher, LocalDate day) {
+            this.channelUri = checkNotNull(channelUri);
+            this.publisher = checkNotNull(publisher);
+            this.day = checkNotNull(day);
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof ChannelDayKey) {
+                ChannelDayKey other = (ChannelDayKey) that;
+                return channelUri.equals(other.channelUri)
+                        && publisher == other.publisher
+                        && day.equals(other.day);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(channelUri, publisher, day);
+        }
+    }
+
+    public interface DelegateStep {
+
+        MaximumItemsStep withDelegate(ScheduleResolver delegate);
+    }
+
+    public interface MaximumItemsStep {
+
+        TimeToLiveStep withMaximumItems(long maximumItems);
+    }
+
+    public interface TimeToLiveStep {
+
+        MetricsStep withTimeToLive(Duration timeToLive);
+    }
+
+    public interface MetricsStep {
+
+        BuildStep withMetrics(MetricRegistry metrics, String metricPrefix);
+    }
+
+    public interface BuildStep {
+
+        ChannelDayCachingScheduleResolver build();
+    }
+
+    public static class Builder
+            implements DelegateStep, MaximumItemsStep, TimeToLiveStep, MetricsStep, BuildStep {
+
+        private ScheduleResolver delegate;
+        private long maximumItems;
+        private Duration timeToLive;
+        private MetricRegistry metrics;
+        private String metricPrefix;
+
+        private Builder() {
+        }
+
+        @Override
+        public MaximumItemsStep withDelegate(ScheduleResolver delegate) {
+            this.delegate = checkNotNull(delegate);
+            return this;
+        }
+
+        @Override
+        public TimeToLiveStep withMaximumItems(long maximumItems) {
+            this.maximumItems = maximumItems;
+            return this;
+        }
+
+        @Override
+        public MetricsStep withTimeToLive(Duration timeToLive) {
+            this.timeToLive = checkNotNull(timeToLive);
+            return this;
+        }
+
+        @Override
+        public BuildStep withMetrics(MetricRegistry metrics, String metricPrefix) {
+            this.metrics = checkNotNull(metrics);
+            this.metricPrefix = checkNotNull(metricPrefix);
+            return this;
+        }
+
+        @Override
+        public ChannelDayCachingScheduleResolver build() {
+            return new ChannelDayCachingScheduleResolver(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.atlasapi.equiv.generators;
 
+import java.util.regex.Pattern;
+
 import javax.annotation.Nonnull;
 
 import org.atlasapi.equiv.results.description.ResultDescription;
@@ -16,7 +18,11 @@ import com.google.common.collect.Iterables;
 
 public final class ContentTitleScorer<T extends Content> {
     
+    private static final Pattern AMPERSAND = Pattern.compile(" & ");
+    private static final Pattern NON_WORD_CHARS = Pattern.compile("[^\\d\\w\\s]");
+
     private final Function<String, String> titleTransform;
+    private final Function<String, String> sanitizedTitles;
     private final String name;
     private final Score exactMatchScore;
     private final Score partialMatchUpperBound;
@@ -43,6 +49,7 @@ public final class ContentTitleScorer<T extends Content> {
         this.exactMatchScore = exactMatchScore;
         this.partialMatchUpperBound = partialMatchUpperBound;
         this.scaleOnPartialMatch = scaleOnPartialMatch;
+        this.sanitizedTitles = TitleNormalisation.memoise(this::sanitize);
     }
 
     public ScoredCandidates<T> scoreCandidates(
@@ -78,8 +85,8 @@ public final class ContentTitleScorer<T extends Content> {
         if (subject.getTitle() == null || candidate.getTitle() == null) {
             return Score.nullScore();
         }
-        String subjectTitle = sanitize(subject.getTitle());
-        String contentTitle = sanitize(candidate.getTitle());
+        String subjectTitle = sanitizedTitles.apply(subject.getTitle());
+        String contentTitle = sanitizedTitles.apply(candidate.getTitle());
         Score score = score(subjectTitle, contentTitle);
         desc.appendText("%s vs. %s (%s): %s", subjectTitle, contentTitle, candidate.getCanonicalUri(), score);
         return score;
@@ -89,16 +96,15 @@ public final class ContentTitleScorer<T extends Content> {
         if (subject.getTitle() == null || candidate.getTitle() == null) {
             return Score.nullScore();
         }
-        String subjectTitle = sanitize(subject.getTitle());
-        String contentTitle = sanitize(candidate.getTitle());
+        String subjectTitle = sanitizedTitles.apply(subject.getTitle());
+        String contentTitle = sanitizedTitles.apply(candidate.getTitle());
         return score(subjectTitle, contentTitle);
     }
 
     @Nonnull
     private String sanitize(@Nonnull String title) {
-        return removeCommonPrefixes(titleTransform.apply(title)
-            .replaceAll(" & ", " and ")
-            .replaceAll("[^\\d\\w\\s]", "").toLowerCase());
+        String replaced = AMPERSAND.matcher(titleTransform.apply(title)).replaceAll(" and ");
+        return removeCommonPrefixes(NON_WORD_CHARS.matcher(replaced).replaceAll("").toLowerCase());
     }
     
     private String removeCommonPrefixes(String title) {
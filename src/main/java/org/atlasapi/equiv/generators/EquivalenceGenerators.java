@@ -1,33 +1,40 @@
 package org.atlasapi.equiv.generators;
 
 import com.google.common.base.Objects;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
 import com.metabroadcast.common.stream.MoreCollectors;
 import org.atlasapi.equiv.results.description.ResultDescription;
 import org.atlasapi.equiv.results.scores.ScoredCandidates;
+import org.atlasapi.equiv.update.EquivalenceComponentExecutor;
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
 import org.atlasapi.media.entity.Content;
 
 import java.util.List;
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 public class EquivalenceGenerators<T extends Content> {
 
     private final List<? extends EquivalenceGenerator<T>> generators;
     private final Set<String> excludedUris;
     private final Set<String> excludedIds;
+    private final Optional<EquivalenceComponentExecutor> componentExecutor;
     private final SubstitutionTableNumberCodec codec;
 
     private EquivalenceGenerators(
             Iterable<? extends EquivalenceGenerator<T>> generators,
             Set<String> excludedUris,
-            Set<String> excludedIds
+            Set<String> excludedIds,
+            Optional<EquivalenceComponentExecutor> componentExecutor
     ) {
         this.generators = ImmutableList.copyOf(generators);
         this.excludedUris = excludedUris;
         this.excludedIds = excludedIds;
+        this.componentExecutor = checkNotNull(componentExecutor);
         this.codec = SubstitutionTableNumberCodec.lowerCaseOnly();
     }
 
@@ -36,7 +43,30 @@ public class EquivalenceGenerators<T extends Content> {
             Set<String> excludedUris,
             Set<String> excludedIds
     ) {
-        return new EquivalenceGenerators<T>(generators, excludedUris, excludedIds);
+        return new EquivalenceGenerators<T>(
+                generators,
+                excludedUris,
+                excludedIds,
+                Optional.absent()
+        );
+    }
+
+    /**
+     * As {@link #create(Iterable, Set, Set)}, but runs the generators concurrently on the
+     * given executor when one is present.
+     */
+    public static <T extends Content> EquivalenceGenerators<T> create(
+            Iterable<? extends EquivalenceGenerator<T>> generators,
+            Set<String> excludedUris,
+            Set<String> excludedIds,
+            Optional<EquivalenceComponentExecutor> componentExecutor
+    ) {
+        return new EquivalenceGenerators<T>(
+                generators,
+                excludedUris,
+                excludedIds,
+                componentExecutor
+        );
     }
 
     public List<ScoredCandidates<T>> generate(
@@ -62,6 +92,18 @@ public class EquivalenceGenerators<T extends Content> {
             return generatedScores.build();
         }
 
+        if (componentExecutor.isPresent()) {
+            generatedScores.addAll(componentExecutor.get().runAll(
+                    generators,
+                    desc,
+                    equivToTelescopeResult,
+                    (generator, generatorDesc, generatorTelescopeResult) ->
+                            generator.generate(content, generatorDesc, generatorTelescopeResult)
+            ));
+            desc.finishStage();
+            return generatedScores.build();
+        }
+
         for (EquivalenceGenerator<T> generator : generators) {
             try {
                 desc.startStage(generator.toString());
@@ -1,6 +1,7 @@
 package org.atlasapi.equiv.generators;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -12,7 +13,7 @@ import com.google.common.collect.ImmutableMap;
 
 public class ExpandingTitleTransformer {
 
-    private final OptionalMap<String, String> WORDS_TO_EXPAND =
+    private static final OptionalMap<String, String> WORDS_TO_EXPAND =
             ImmutableOptionalMap.fromMap(ImmutableMap.<String, String>builder()
                     .put("dr", "doctor")
                     .put("1", "one")
@@ -27,6 +28,28 @@ public class ExpandingTitleTransformer {
                     .put("center", "centre")
                     .build());
 
+    private static final ImmutableMap<String, String> ROMAN_NUMERALS = ImmutableMap.<String, String>builder()
+            .put("i", "one")
+            .put("ii", "two")
+            .put("iii", "three")
+            .put("iv", "four")
+            .put("v", "five")
+            .put("vi", "six")
+            .put("vii", "seven")
+            .put("viii", "eight")
+            .put("ix", "nine")
+            .put("x", "ten")
+            .put("xi", "eleven")
+            .put("xii", "twelve")
+            .put("xiii", "thirteen")
+            .put("xiv", "fourteen")
+            .put("xv", "fifteen")
+            .put("xvi", "sixteen")
+            .put("xvii", "seventeen")
+            .put("xviii", "eighteen")
+            .put("xix", "nineteen")
+            .put("xx", "twenty")
+            .build();
 
     public String expand(String input) {
         input = input.toLowerCase();
@@ -47,55 +70,18 @@ public class ExpandingTitleTransformer {
     }
 
     private String convertRomanNumerals(String word) {
-        Map<String, String> romanNumerals = new HashMap<>();
-        romanNumerals.put("i", "one");
-        romanNumerals.put("ii", "two");
-        romanNumerals.put("iii", "three");
-        romanNumerals.put("iv", "four");
-        romanNumerals.put("v", "five");
-        romanNumerals.put("vi", "six");
-        romanNumerals.put("vii", "seven");
-        romanNumerals.put("viii", "eight");
-        romanNumerals.put("ix", "nine");
-        romanNumerals.put("x", "ten");
-        romanNumerals.put("xi", "eleven");
-        romanNumerals.put("xii", "twelve");
-        romanNumerals.put("xiii", "thirteen");
-        romanNumerals.put("xiv", "fourteen");
-        romanNumerals.put("xv", "fifteen");
-        romanNumerals.put("xvi", "sixteen");
-        romanNumerals.put("xvii", "seventeen");
-        romanNumerals.put("xviii", "eighteen");
-        romanNumerals.put("xix", "nineteen");
-        romanNumerals.put("xx", "twenty");
-
-        if (romanNumerals.containsKey(word)) {
-            return romanNumerals.get(word);
-        }
-        return word;
+        String number = ROMAN_NUMERALS.get(word);
+        return number != null ? number : word;
     }
 
     //This function is a stub and more rules need to be added
     private String americanize(String word) {
         if (word.endsWith("our")) {
-            return replaceLast(word, "our", "or");
+            return word.substring(0, word.length() - "our".length()) + "or";
         }
         return word;
     }
 
-    /**
-     * Replace only the last occurrence that the regex matches.
-     * TODO:If anyone knows a generic place to put this, move it.
-     *
-     * @param text        The string we are editing
-     * @param regex       What to look for
-     * @param replacement what to replace it with
-     * @return the text with the last occurrence of regex replaced with replacement
-     */
-    public static String replaceLast(String text, String regex, String replacement) {
-        return text.replaceFirst("(?s)(.*)" + regex, "$1" + replacement);
-    }
-
     //This function now relies on receiving lowercase letters.
     private Function<String, String> expander = new Function<String, String>() {
         @Nullable
@@ -0,0 +1,418 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nullable;
+
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Specialization;
+import org.atlasapi.persistence.content.listing.ContentListingCriteria;
+import org.atlasapi.persistence.content.listing.SelectedContentLister;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static org.atlasapi.persistence.content.ContentCategory.CHILD_ITEM;
+import static org.atlasapi.persistence.content.ContentCategory.CONTAINER;
+import static org.atlasapi.persistence.content.ContentCategory.TOP_LEVEL_ITEM;
+
+/**
+ * An in-process inverted index from title tokens to the ids of actively published content from
+ * a fixed set of publishers, so that title candidates can be found without a remote search.
+ * <p>
+ * Titles are normalised the way {@link ContentTitleScorer} sanitises them before scoring. Each
+ * entry is posted under its title words and under its whole title with spaces removed, so that
+ * exact matches are always found. Postings are only appended to; entries that have since
+ * changed title or been removed are skipped when they are read, and dropped when the index is
+ * rebuilt.
+ */
+public class LocalTitleIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalTitleIndex.class);
+
+    private static final Splitter WORDS = Splitter.on(' ').omitEmptyStrings();
+    private static final String KEY_PREFIX = "=";
+    private static final int DEFAULT_COMMON_TOKEN_THRESHOLD = 50_000;
+
+    private final SelectedContentLister contentLister;
+    private final ImmutableSet<Publisher> publishers;
+    private final int commonTokenThreshold;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private @Nullable Postings live;
+    private @Nullable Postings building;
+    private @Nullable LongOpenHashSet changedWhileBuilding;
+
+    private LocalTitleIndex(
+            SelectedContentLister contentLister,
+            Iterable<Publisher> publishers,
+            int commonTokenThreshold
+    ) {
+        this.contentLister = checkNotNull(contentLister);
+        this.publishers = ImmutableSet.copyOf(publishers);
+        checkArgument(commonTokenThreshold > 0);
+        this.commonTokenThreshold = commonTokenThreshold;
+    }
+
+    public static LocalTitleIndex create(
+            SelectedContentLister contentLister,
+            Iterable<Publisher> publishers
+    ) {
+        return new LocalTitleIndex(contentLister, publishers, DEFAULT_COMMON_TOKEN_THRESHOLD);
+    }
+
+    /**
+     * @param commonTokenThreshold tokens posted for more entries than this are only used to
+     *                             rank candidates found through rarer tokens
+     */
+    public static LocalTitleIndex create(
+            SelectedContentLister contentLister,
+            Iterable<Publisher> publishers,
+            int commonTokenThreshold
+    ) {
+        return new LocalTitleIndex(contentLister, publishers, commonTokenThreshold);
+    }
+
+    public ImmutableSet<Publisher> getPublishers() {
+        return publishers;
+    }
+
+    /**
+     * Whether the index has been built and holds all content from the given publishers.
+     */
+    public boolean covers(Set<Publisher> requested) {
+        lock.readLock().lock();
+        try {
+            return live != null && publishers.containsAll(requested);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live == null ? 0 : live.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lists all content from the indexed publishers into a new index and swaps it in when done.
+     * Searches keep using the previous index meanwhile. Changes indexed during the rebuild are
+     * applied to both, and the listed version of changed content is ignored.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (building != null) {
+                log.info("Title index rebuild already in progress");
+                return;
+            }
+            building = new Postings();
+            changedWhileBuilding = new LongOpenHashSet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean built = false;
+        try {
+            Iterator<Content> contents = contentLister.listContent(
+                    ContentListingCriteria.defaultCriteria()
+                            .forPublishers(ImmutableList.copyOf(publishers))
+                            .forContent(CONTAINER, TOP_LEVEL_ITEM, CHILD_ITEM)
+                            .build()
+            );
+            while (contents.hasNext()) {
+                Content content = contents.next();
+                lock.writeLock().lock();
+                try {
+                    if (content.getId() != null
+                            && !changedWhileBuilding.contains(content.getId().longValue())) {
+                        building.index(content);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    live = building;
+                    log.info("Title index built with {} entries", live.entries.size());
+                }
+                building = null;
+                changedWhileBuilding = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds, updates or removes the entry for a piece of content after it has changed. Content
+     * from other publishers, inactive content and content with no title is not indexed.
+     */
+    public void index(Content content) {
+        if (content.getId() == null || !publishers.contains(content.getPublisher())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (live != null) {
+                live.index(content);
+            }
+            if (building != null) {
+                building.index(content);
+                changedWhileBuilding.add(content.getId().longValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            if (live != null) {
+                live.entries.remove(id);
+            }
+            if (building != null) {
+                building.entries.remove(id);
+                changedWhileBuilding.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the canonical URIs of up to {@code limit} entries sharing title tokens with the
+     * given title. Entries with the same normalised title come first, then those sharing the
+     * most tokens, then those whose normalised title is closest in length.
+     */
+    public List<String> search(
+            String title,
+            Set<Publisher> publishers,
+            Optional<Specialization> specialization,
+            int limit
+    ) {
+        String key = key(title);
+        if (key.isEmpty()) {
+            return ImmutableList.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (live == null) {
+                return ImmutableList.of();
+            }
+            return live.search(key, tokens(title), publishers, specialization, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The title as {@link ContentTitleScorer} compares it, before spaces are removed.
+     */
+    static String sanitize(String title) {
+        String sanitized = title.replaceAll(" & ", " and ")
+                .replaceAll("[^\\d\\w\\s]", "")
+                .toLowerCase()
+                .replaceAll("\\s+", " ")
+                .trim();
+        return sanitized.startsWith("the ") ? sanitized.substring(4) : sanitized;
+    }
+
+    static String key(String title) {
+        return sanitize(title).replace(" ", "");
+    }
+
+    static String[] tokens(String title) {
+        String sanitized = sanitize(title);
+        Set<String> tokens = Sets.newTreeSet(WORDS.split(sanitized));
+        String key = sanitized.replace(" ", "");
+        if (!key.isEmpty()) {
+            tokens.add(KEY_PREFIX + key);
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    private final class Postings {
+
+        private final Map<String, LongArrayList> postings = new HashMap<>();
+        private final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+
+        void index(Content content) {
+            long id = content.getId();
+            if (!content.isActivelyPublished() || Strings.isNullOrEmpty(content.getTitle())) {
+                entries.remove(id);
+                return;
+            }
+            Entry entry = new Entry(
+                    content.getCanonicalUri(),
+                    content.getPublisher(),
+                    content.getSpecialization(),
+                    key(content.getTitle()),
+                    tokens(content.getTitle())
+            );
+            if (entry.key.isEmpty()) {
+                entries.remove(id);
+                return;
+            }
+            Entry previous = entries.put(id, entry);
+            for (String token : entry.tokens) {
+                if (previous == null || !previous.hasToken(token)) {
+                    LongArrayList ids = postings.get(token);
+                    if (ids == null) {
+                        ids = new LongArrayList(1);
+                        postings.put(token, ids);
+                    }
+                    ids.add(id);
+                }
+            }
+        }
+
+        List<String> search(
+                String key,
+                String[] tokens,
+                Set<Publisher> publishers,
+                Optional<Specialization> specialization,
+                int limit
+        ) {
+            String keyToken = KEY_PREFIX + key;
+            List<String> rarestFirst = Lists.newArrayList(tokens);
+            rarestFirst.sort(Comparator.comparingInt(this::postingsSize));
+
+            Long2IntOpenHashMap shared = new Long2IntOpenHashMap();
+            boolean collecting = true;
+            for (String token : rarestFirst) {
+                LongArrayList ids = postings.get(token);
+                if (ids == null) {
+                    continue;
+                }
+                // Common tokens such as "and" are only used to rank candidates found through
+                // rarer ones, unless nothing else has found any.
+                if (collecting && !shared.isEmpty() && ids.size() > commonTokenThreshold
+                        && !token.equals(keyToken)) {
+                    collecting = false;
+                }
+                LongOpenHashSet counted = new LongOpenHashSet();
+                for (int i = 0; i < ids.size(); i++) {
+                    long id = ids.getLong(i);
+                    if ((collecting || shared.containsKey(id)) && counted.add(id)) {
+                        Entry entry = entries.get(id);
+                        if (entry != null && entry.hasToken(token)
+                                && entry.matches(publishers, specialization)) {
+                            shared.put(id, shared.get(id) + 1);
+                        }
+                    }
+                }
+            }
+
+            List<Candidate> candidates = Lists.newArrayListWithCapacity(shared.size());
+            for (Long2IntMap.Entry match : shared.long2IntEntrySet()) {
+                Entry entry = entries.get(match.getLongKey());
+                candidates.add(new Candidate(
+                        entry,
+                        entry.key.equals(key),
+                        match.getIntValue(),
+                        Math.abs(entry.key.length() - key.length())
+                ));
+            }
+            candidates.sort(Candidate.BEST_FIRST);
+
+            ImmutableList.Builder<String> uris = ImmutableList.builder();
+            for (Candidate candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+                uris.add(candidate.entry.uri);
+            }
+            return uris.build();
+        }
+
+        private int postingsSize(String token) {
+            LongArrayList ids = postings.get(token);
+            return ids == null ? 0 : ids.size();
+        }
+    }
+
+    private static final class Entry {
+
+        private final String uri;
+        private final Publisher publisher;
+        private final @Nullable Specialization specialization;
+        private final String key;
+        private final String[] tokens;
+
+        Entry(
+                String uri,
+                Publisher publisher,
+                @Nullable Specialization specialization,
+                String key,
+                String[] tokens
+        ) {
+            this.uri = uri;
+            this.publisher = publisher;
+            this.specialization = specialization;
+            this.key = key;
+            this.tokens = tokens;
+        }
+
+        boolean hasToken(String token) {
+            return Arrays.binarySearch(tokens, token) >= 0;
+        }
+
+        boolean matches(Set<Publisher> publishers, Optional<Specialization> specialization) {
+            return publishers.contains(publisher)
+                    && (!specialization.isPresent()
+                            || Objects.equals(specialization.get(), this.specialization));
+        }
+    }
+
+    private static final class Candidate {
+
+        private static final Comparator<Candidate> BEST_FIRST = Comparator
+                .comparing((Candidate candidate) -> !candidate.exact)
+                .thenComparingInt(candidate -> -candidate.sharedTokens)
+                .thenComparingInt(candidate -> candidate.lengthDifference)
+                .thenComparing(candidate -> candidate.entry.uri);
+
+        private final Entry entry;
+        private final boolean exact;
+        private final int sharedTokens;
+        private final int lengthDifference;
+
+        Candidate(Entry entry, boolean exact, int sharedTokens, int lengthDifference) {
+            this.entry = entry;
+            this.exact = exact;
+            this.sharedTokens = sharedTokens;
+            this.lengthDifference = lengthDifference;
+        }
+    }
+}
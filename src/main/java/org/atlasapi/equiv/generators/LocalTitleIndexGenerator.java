@@ -0,0 +1,138 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.List;
+import java.util.Set;
+
+import org.atlasapi.equiv.generators.metadata.EquivalenceGeneratorMetadata;
+import org.atlasapi.equiv.generators.metadata.SourceLimitedEquivalenceGeneratorMetadata;
+import org.atlasapi.equiv.results.description.ResultDescription;
+import org.atlasapi.equiv.results.scores.DefaultScoredCandidates;
+import org.atlasapi.equiv.results.scores.ScoredCandidates;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeComponent;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Specialization;
+import org.atlasapi.persistence.content.ContentResolver;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Generates the same candidates as a {@link TitleSearchGenerator}, with the same name, title
+ * normalisation, limit and scoring, but finds them in a {@link LocalTitleIndex} rather than
+ * through the remote search. Falls back to the search generator while the index is being built
+ * or when it does not hold every publisher searched for.
+ */
+public class LocalTitleIndexGenerator<T extends Content> implements EquivalenceGenerator<T> {
+
+    private final LocalTitleIndex index;
+    private final ContentResolver contentResolver;
+    private final TitleSearchGenerator<T> search;
+
+    private LocalTitleIndexGenerator(
+            LocalTitleIndex index,
+            ContentResolver contentResolver,
+            TitleSearchGenerator<T> search
+    ) {
+        this.index = checkNotNull(index);
+        this.contentResolver = checkNotNull(contentResolver);
+        this.search = checkNotNull(search);
+    }
+
+    public static <T extends Content> LocalTitleIndexGenerator<T> create(
+            LocalTitleIndex index,
+            ContentResolver contentResolver,
+            TitleSearchGenerator<T> search
+    ) {
+        return new LocalTitleIndexGenerator<>(index, contentResolver, search);
+    }
+
+    /**
+     * Uses the index in place of the given search generator when there is one.
+     */
+    public static <T extends Content> EquivalenceGenerator<T> preferring(
+            Optional<LocalTitleIndex> index,
+            ContentResolver contentResolver,
+            TitleSearchGenerator<T> search
+    ) {
+        if (!index.isPresent()) {
+            return search;
+        }
+        return create(index.get(), contentResolver, search);
+    }
+
+    @Override
+    public ScoredCandidates<T> generate(
+            T content,
+            ResultDescription desc,
+            EquivToTelescopeResult equivToTelescopeResult
+    ) {
+        Set<Publisher> publishers = search.publishersFor(content);
+        if (!index.covers(publishers)) {
+            return search.generate(content, desc, equivToTelescopeResult);
+        }
+
+        EquivToTelescopeComponent generatorComponent = EquivToTelescopeComponent.create();
+        generatorComponent.setComponentName(search.toString());
+
+        if (Strings.isNullOrEmpty(content.getTitle())) {
+            desc.appendText("subject has no title");
+            return DefaultScoredCandidates.<T>fromSource(search.toString()).build();
+        }
+
+        Optional<Specialization> specialization = search.usesContentSpecialization()
+                                                  ? Optional.fromNullable(content.getSpecialization())
+                                                  : Optional.absent();
+        String title = search.queryTitle(content);
+        String expandedTitle = search.expandedTitle(title);
+
+        desc.appendText("local index query: %s, specialization: %s, publishers: %s",
+                title,
+                specialization.isPresent() ? specialization.get() : "no specialization",
+                publishers);
+
+        List<String> uris = index.search(title, publishers, specialization, search.searchLimit());
+        if (!title.equalsIgnoreCase(expandedTitle)) {
+            uris = ImmutableList.<String>builder()
+                    .addAll(uris)
+                    .addAll(index.search(
+                            expandedTitle,
+                            publishers,
+                            specialization,
+                            search.searchLimit()
+                    ))
+                    .build();
+        }
+
+        Iterable<? extends T> candidates = Iterables.filter(
+                contentResolver.findByCanonicalUris(ImmutableSet.copyOf(uris))
+                        .getAllResolvedResults(),
+                search.candidateClass()
+        );
+        return search.score(
+                content,
+                search.withoutSubject(content, candidates),
+                desc,
+                generatorComponent
+        );
+    }
+
+    @Override
+    public EquivalenceGeneratorMetadata getMetadata() {
+        return SourceLimitedEquivalenceGeneratorMetadata.create(
+                this.getClass().getCanonicalName(),
+                search.searchPublishers()
+        );
+    }
+
+    @Override
+    public String toString() {
+        return search.toString();
+    }
+}
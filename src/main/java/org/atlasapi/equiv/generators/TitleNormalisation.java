@@ -0,0 +1,159 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.base.Function;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * The title normalisation rules shared by the title scorers. Each rule is compiled once rather
+ * than on every call, and {@link #memoise(Function)} keeps the normalised form of recently scored
+ * titles, so a subject's title is normalised once per run instead of once per candidate.
+ */
+public final class TitleNormalisation {
+
+    private static final int MEMOISED_TITLES = 20000;
+    private static final long MEMOISED_TITLE_MINUTES = 10;
+
+    private static final Pattern VERSUS_ABBREVIATION = Pattern.compile(" vs. ");
+    private static final Pattern V_ABBREVIATION = Pattern.compile(" v ");
+    private static final Pattern AMPERSAND = Pattern.compile(" & ");
+    private static final Pattern FOOTBALL_CLUB = Pattern.compile("fc ");
+    private static final Pattern COMMA = Pattern.compile(",");
+    private static final Pattern FULL_STOP = Pattern.compile("\\.");
+    private static final Pattern SLASH = Pattern.compile("\\s?\\/\\s?");
+    private static final Pattern SPECIAL_CHARS = Pattern.compile("[^A-Za-z0-9\\s']+");
+    private static final Pattern APOSTROPHE = Pattern.compile("'");
+    private static final Pattern SPACE = Pattern.compile(" ");
+    private static final String ESCAPED_DASH = Matcher.quoteReplacement("\\-");
+    private static final Pattern APOSTROPHE_BEFORE_DASH = Pattern.compile("'\\\\-");
+    private static final String ANY_WORD_BEFORE_DASH = "(\\\\w+|\\\\W*)\\-";
+    private static final Pattern TRAILING_APOSTROPHE = Pattern.compile("\\w' ");
+    private static final Pattern LEADING_COLONS = Pattern.compile(":+(.*)");
+    //Matches e.g. "2. Kinross"
+    private static final Pattern SEQUENCE_PREFIX = Pattern.compile("\\s*\\d+\\s*[.:-]{1}\\s*(.*)");
+
+    private static final LoadingCache<String, Pattern> COMPILED_EXPRESSIONS = CacheBuilder.newBuilder()
+            .maximumSize(MEMOISED_TITLES)
+            .expireAfterAccess(MEMOISED_TITLE_MINUTES, TimeUnit.MINUTES)
+            .build(new CacheLoader<String, Pattern>() {
+                @Override
+                public Pattern load(String regex) {
+                    return Pattern.compile(regex);
+                }
+            });
+
+    private TitleNormalisation() {
+    }
+
+    /**
+     * Wraps a normalisation so that each distinct title is only normalised once while it is being
+     * scored. The normalisation must depend on nothing but the title.
+     */
+    public static Function<String, String> memoise(Function<String, String> normalisation) {
+        final LoadingCache<String, String> normalised = CacheBuilder.newBuilder()
+                .maximumSize(MEMOISED_TITLES)
+                .expireAfterAccess(MEMOISED_TITLE_MINUTES, TimeUnit.MINUTES)
+                .build(CacheLoader.from(normalisation));
+        return title -> getUnchecked(normalised, title);
+    }
+
+    public static String applyCommonReplaceRules(String title) {
+        String replaced = VERSUS_ABBREVIATION.matcher(title).replaceAll(" vs ");
+        replaced = V_ABBREVIATION.matcher(replaced).replaceAll(" vs ");
+        replaced = AMPERSAND.matcher(replaced).replaceAll(" and ");
+        replaced = FOOTBALL_CLUB.matcher(replaced).replaceAll("");
+        return COMMA.matcher(replaced).replaceAll("");
+    }
+
+    public static String replaceSpecialChars(String title) {
+        String replaced = FULL_STOP.matcher(applyCommonReplaceRules(title)).replaceAll("");
+        // normalize spacing around back-to-back titles
+        replaced = SLASH.matcher(replaced).replaceAll("-");
+        replaced = SPECIAL_CHARS.matcher(replaced).replaceAll("-");
+        return APOSTROPHE.matcher(replaced).replaceAll("").replace(' ', '-');
+    }
+
+    public static String regularExpressionReplaceSpecialChars(String title) {
+        String replaced = SPECIAL_CHARS.matcher(applyCommonReplaceRules(title)).replaceAll("-");
+        replaced = SPACE.matcher(replaced).replaceAll(ESCAPED_DASH);
+        return APOSTROPHE_BEFORE_DASH.matcher(replaced).replaceAll(ANY_WORD_BEFORE_DASH);
+    }
+
+    /**
+     * Whether the whole of {@code title} matches {@code regex}, compiling each distinct
+     * expression only once.
+     */
+    public static boolean matches(String regex, String title) {
+        return getUnchecked(COMPILED_EXPRESSIONS, regex).matcher(title).matches();
+    }
+
+    public static boolean appearsToBeWithApostrophe(String title) {
+        return TRAILING_APOSTROPHE.matcher(title).find();
+    }
+
+    public static String removeLeadingColons(String title) {
+        Matcher titleMatcher = LEADING_COLONS.matcher(title);
+        return titleMatcher.matches() ? titleMatcher.group(1) : title;
+    }
+
+    public static String removeSequencePrefix(String title) {
+        Matcher matcher = SEQUENCE_PREFIX.matcher(title);
+        return matcher.matches() ? matcher.group(1) : title;
+    }
+
+    /**
+     * Removes every occurrence of {@code literal}, without treating it as a regular expression.
+     */
+    public static String removeAll(String title, String literal) {
+        int index = title.indexOf(literal);
+        if (index < 0) {
+            return title;
+        }
+        StringBuilder removed = new StringBuilder(title.length());
+        int from = 0;
+        while (index >= 0) {
+            removed.append(title, from, index);
+            from = index + literal.length();
+            index = title.indexOf(literal, from);
+        }
+        return removed.append(title, from, title.length()).toString();
+    }
+
+    /**
+     * Equivalent to comparing the two titles with their dashes removed, without building the
+     * dashless copies.
+     */
+    public static boolean equalsIgnoringDashes(String first, String second) {
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < first.length() && first.charAt(i) == '-') {
+                i++;
+            }
+            while (j < second.length() && second.charAt(j) == '-') {
+                j++;
+            }
+            if (i == first.length() || j == second.length()) {
+                return i == first.length() && j == second.length();
+            }
+            if (first.charAt(i++) != second.charAt(j++)) {
+                return false;
+            }
+        }
+    }
+
+    private static <V> V getUnchecked(LoadingCache<String, V> cache, String key) {
+        try {
+            return cache.getUnchecked(key);
+        } catch (UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.atlasapi.equiv.generators;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -167,7 +168,7 @@ public class TitleSearchGenerator<T extends Content> implements EquivalenceGener
             return DefaultScoredCandidates.<T>fromSource(name).build();
         }
         Iterable<? extends T> candidates = searchForCandidates(content, desc);
-        return titleScorer.scoreCandidates(content, candidates, desc, generatorComponent);
+        return score(content, candidates, desc, generatorComponent);
     }
 
     @Override
@@ -179,19 +180,11 @@ public class TitleSearchGenerator<T extends Content> implements EquivalenceGener
     }
 
     private Iterable<? extends T> searchForCandidates(T content, ResultDescription desc) {
-        Set<Publisher> publishers;
-        if (includeSelfPublisher) {
-            publishers = searchPublishers;
-        } else {
-            publishers = Sets.difference(
-                    searchPublishers, ImmutableSet.of(content.getPublisher())
-            );
-        }
+        Set<Publisher> publishers = publishersFor(content);
         Application application = DefaultApplication.createWithReads(Lists.newArrayList(
                 publishers));
 
-        String title = titleTransform.apply(content.getTitle());
-        title = normalize(title);
+        String title = queryTitle(content);
         SearchQuery.Builder titleQuery = getSearchQueryBuilder(publishers, title);
 
         if (useContentSpecialization && content.getSpecialization() != null) {
@@ -211,7 +204,7 @@ public class TitleSearchGenerator<T extends Content> implements EquivalenceGener
                 .map(cls::cast)
                 .collect(MoreCollectors.toImmutableList());
 
-        String expandedTitle = titleExpander.expand(title);
+        String expandedTitle = expandedTitle(title);
 
         if (!title.equalsIgnoreCase(expandedTitle)) {
             SearchQuery.Builder expandedTitleQuery = getSearchQueryBuilder(
@@ -231,13 +224,57 @@ public class TitleSearchGenerator<T extends Content> implements EquivalenceGener
             results = Iterables.concat(results, filteredExpandedTitleResults);
         }
 
-        //Return actively published results, and not the subject itself.
+        return withoutSubject(content, results);
+    }
+
+    Set<Publisher> publishersFor(T content) {
+        if (includeSelfPublisher) {
+            return searchPublishers;
+        }
+        return Sets.difference(searchPublishers, ImmutableSet.of(content.getPublisher()));
+    }
+
+    String queryTitle(T content) {
+        return normalize(titleTransform.apply(content.getTitle()));
+    }
+
+    String expandedTitle(String queryTitle) {
+        return titleExpander.expand(queryTitle);
+    }
+
+    //Return actively published results, and not the subject itself.
+    List<? extends T> withoutSubject(T content, Iterable<? extends T> results) {
         return StreamSupport.stream(results.spliterator(), false)
                 .filter(Described::isActivelyPublished)
                 .filter(input-> !Objects.equals(input.getId(), content.getId()))
                 .collect(Collectors.toList());
     }
 
+    ScoredCandidates<T> score(
+            T content,
+            Iterable<? extends T> candidates,
+            ResultDescription desc,
+            EquivToTelescopeComponent generatorComponent
+    ) {
+        return titleScorer.scoreCandidates(content, candidates, desc, generatorComponent);
+    }
+
+    Class<? extends T> candidateClass() {
+        return cls;
+    }
+
+    Set<Publisher> searchPublishers() {
+        return searchPublishers;
+    }
+
+    int searchLimit() {
+        return searchLimit;
+    }
+
+    boolean usesContentSpecialization() {
+        return useContentSpecialization;
+    }
+
     private SearchQuery.Builder getSearchQueryBuilder(Set<Publisher> publishers,
             String expandedTitle) {
         return SearchQuery.builder(expandedTitle)
@@ -0,0 +1,851 @@
+package org.atlasapi.equiv.results.persistence;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.metabroadcast.common.time.Clock;
+import com.metabroadcast.common.time.SystemClock;
+import org.atlasapi.equiv.results.EquivalenceResults;
+import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Item;
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Stores equivalence results as records appended to a sequence of segment files, encoded by
+ * {@link StoredEquivalenceResultsSerializer}. An in-memory index maps each subject to the
+ * location of its latest record, so a read is a single positional read, and
+ * {@link #forIds(Iterable)} reads records in file order, coalescing those that are close
+ * together.
+ * <p>
+ * Once a segment is full a new one is started. Sealed segments in which most records have been
+ * superseded, or which hold results older than the retention period, are compacted in the
+ * background: live records are copied to the current segment and the old segment is deleted.
+ * Every record carries a sequence number, which orders the recent results and decides between
+ * two copies of the same record when the index is rebuilt on start-up.
+ * <p>
+ * On start-up an incomplete record at the end of the last segment, left by a write that failed
+ * part way through, is discarded. A corrupt record in an earlier, sealed segment is never
+ * discarded: the segment is left as it is and is not compacted, and only the records before it
+ * are indexed.
+ */
+public class LogStructuredEquivalenceResultStore implements PagedEquivalenceResultStore, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LogStructuredEquivalenceResultStore.class);
+
+    private static final String SEGMENT_PREFIX = "results-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Records in the same segment are read together when the gap between them is at most this
+     * many bytes, as long as the whole read stays under {@link #MAX_BATCH_READ_SIZE}.
+     */
+    private static final int MAX_BATCH_READ_GAP = 32 * 1024;
+    private static final int MAX_BATCH_READ_SIZE = 4 * 1024 * 1024;
+
+    private static final byte OTHER = 0;
+    private static final byte ITEM = 1;
+    private static final byte CONTAINER = 2;
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private final Duration retention;
+    private final double compactionThreshold;
+    private final Clock clock;
+    private final StoredEquivalenceResultsTranslator translator = new StoredEquivalenceResultsTranslator();
+    private final StoredEquivalenceResultsSerializer serializer = new StoredEquivalenceResultsSerializer();
+
+    private final ConcurrentMap<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final RecentResults recentItems;
+    private final RecentResults recentContainers;
+    private final ScheduledExecutorService compactor;
+
+    private final Object writeLock = new Object();
+    private Segment activeSegment;
+    private long nextSequence;
+
+    private LogStructuredEquivalenceResultStore(Builder builder) {
+        checkArgument(builder.directory.isDirectory(), "Must be a directory");
+        checkArgument(builder.maxSegmentSize > 0, "Segment size must be positive");
+        this.directory = builder.directory;
+        this.maxSegmentSize = builder.maxSegmentSize;
+        this.retention = checkNotNull(builder.retention);
+        this.compactionThreshold = builder.compactionThreshold;
+        this.clock = checkNotNull(builder.clock);
+        this.recentItems = new RecentResults(builder.recentResults);
+        this.recentContainers = new RecentResults(builder.recentResults);
+
+        try {
+            open();
+        } catch (IOException e) {
+            throw Throwables.propagate(e);
+        }
+
+        if (builder.compactionInterval.getMillis() > 0) {
+            this.compactor = Executors.newSingleThreadScheduledExecutor(
+                    new ThreadFactoryBuilder()
+                            .setNameFormat("equiv-results-compactor")
+                            .setDaemon(true)
+                            .build()
+            );
+            long interval = builder.compactionInterval.getMillis();
+            compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.compactor = null;
+        }
+    }
+
+    public static Builder builder(File directory) {
+        return new Builder(directory);
+    }
+
+    @Override
+    public <T extends Content> StoredEquivalenceResults store(EquivalenceResults<T> results) {
+        StoredEquivalenceResults stored = translator.toStoredEquivalenceResults(results);
+        String uri = results.subject().getCanonicalUri();
+        byte kind = kindOf(results.subject());
+        long resultTime = stored.resultTime() == null ? clock.now().getMillis() : stored.resultTime().getMillis();
+        byte[] encoded = serializer.serialize(stored);
+
+        synchronized (writeLock) {
+            byte[] payload = payload(nextSequence, kind, resultTime, uri, encoded);
+            checkArgument(
+                    payload.length <= MAX_RECORD_SIZE,
+                    "Equivalence results for %s are too large to store (%s bytes)",
+                    uri,
+                    payload.length
+            );
+            nextSequence++;
+            try {
+                append(uri, payload);
+            } catch (IOException e) {
+                throw Throwables.propagate(e);
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public StoredEquivalenceResults forId(String canonicalUri) {
+        // A record may be moved by compaction between looking it up and reading it, in which
+        // case the index already points at its new location
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Location location = index.get(canonicalUri);
+            if (location == null || isExpired(location)) {
+                return null;
+            }
+            byte[] record = read(location.segment, location.offset, location.size);
+            if (record != null) {
+                return decode(record, 0, location.size);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Results are returned in the order of the given URIs. URIs without a stored result are
+     * skipped.
+     */
+    @Override
+    public List<StoredEquivalenceResults> forIds(Iterable<String> canonicalUris) {
+        List<String> uris = ImmutableList.copyOf(canonicalUris);
+        List<Lookup> lookups = Lists.newArrayListWithCapacity(uris.size());
+        for (int position = 0; position < uris.size(); position++) {
+            Location location = index.get(uris.get(position));
+            if (location != null && !isExpired(location)) {
+                lookups.add(new Lookup(position, uris.get(position), location));
+            }
+        }
+        Collections.sort(lookups, Lookup.BY_FILE_POSITION);
+
+        StoredEquivalenceResults[] results = new StoredEquivalenceResults[uris.size()];
+        int start = 0;
+        while (start < lookups.size()) {
+            int end = batchEnd(lookups, start);
+            readBatch(lookups.subList(start, end), results);
+            start = end;
+        }
+
+        ImmutableList.Builder<StoredEquivalenceResults> ordered = ImmutableList.builder();
+        for (StoredEquivalenceResults result : results) {
+            if (result != null) {
+                ordered.add(result);
+            }
+        }
+        return ordered.build();
+    }
+
+    @Override
+    public List<StoredEquivalenceResults> recentItemResults(int offset, int limit) {
+        return forIds(recentItems.page(offset, limit));
+    }
+
+    @Override
+    public List<StoredEquivalenceResults> recentContainerResults(int offset, int limit) {
+        return forIds(recentContainers.page(offset, limit));
+    }
+
+    private int batchEnd(List<Lookup> lookups, int start) {
+        Location first = lookups.get(start).location;
+        long batchEnd = first.offset + first.size;
+        int end = start + 1;
+        while (end < lookups.size()) {
+            Location next = lookups.get(end).location;
+            long nextEnd = next.offset + next.size;
+            if (next.segment != first.segment
+                    || next.offset - batchEnd > MAX_BATCH_READ_GAP
+                    || nextEnd - first.offset > MAX_BATCH_READ_SIZE) {
+                break;
+            }
+            batchEnd = Math.max(batchEnd, nextEnd);
+            end++;
+        }
+        return end;
+    }
+
+    private void readBatch(List<Lookup> batch, StoredEquivalenceResults[] results) {
+        Location first = batch.get(0).location;
+        long batchEnd = first.offset;
+        for (Lookup lookup : batch) {
+            batchEnd = Math.max(batchEnd, lookup.location.offset + lookup.location.size);
+        }
+
+        byte[] bytes = read(first.segment, first.offset, (int) (batchEnd - first.offset));
+        for (Lookup lookup : batch) {
+            if (bytes == null) {
+                results[lookup.position] = forId(lookup.uri);
+            } else {
+                int offset = (int) (lookup.location.offset - first.offset);
+                results[lookup.position] = decode(bytes, offset, lookup.location.size);
+            }
+        }
+    }
+
+    /**
+     * @return the bytes read, or null if the segment has since been compacted away
+     */
+    private byte[] read(int segmentId, long offset, int length) {
+        Segment segment = segments.get(segmentId);
+        if (segment == null) {
+            return null;
+        }
+        try {
+            return segment.read(offset, length);
+        } catch (ClosedByInterruptException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+        } catch (ClosedChannelException e) {
+            if (segment.isDeleted()) {
+                return null;
+            }
+            throw Throwables.propagate(e);
+        } catch (IOException e) {
+            throw Throwables.propagate(e);
+        }
+    }
+
+    private StoredEquivalenceResults decode(byte[] bytes, int offset, int size) {
+        Record record = Record.parse(Arrays.copyOfRange(bytes, offset + RECORD_HEADER_SIZE, offset + size));
+        return serializer.deserialize(record.results());
+    }
+
+    private boolean isExpired(Location location) {
+        return location.resultTime < retentionCutoff();
+    }
+
+    private long retentionCutoff() {
+        return clock.now().minus(retention).getMillis();
+    }
+
+    /**
+     * Must be called holding the write lock.
+     */
+    private Location append(String uri, byte[] payload) throws IOException {
+        Record record = Record.parse(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt(checksum(payload));
+        buffer.put(payload);
+        buffer.flip();
+
+        Segment segment = segmentFor(buffer.remaining());
+        long offset = segment.append(buffer);
+        segment.recordResultTime(record.resultTime);
+
+        Location location = new Location(segment.id, offset, buffer.capacity(), record.sequence, record.kind, record.resultTime);
+        index(uri, location);
+        return location;
+    }
+
+    /**
+     * Points the index at a record, unless it already points at a later one. Must be called
+     * holding the write lock, or before the store is in use.
+     */
+    private void index(String uri, Location location) {
+        Location previous = index.get(uri);
+        Segment segment = segments.get(location.segment);
+        if (previous != null && previous.sequence > location.sequence) {
+            return;
+        }
+
+        // A copy made by compaction has the same sequence as the record it replaces, so the
+        // previous location is released before the new one is added
+        if (previous != null) {
+            release(uri, previous);
+        }
+
+        index.put(uri, location);
+        segment.liveBytes.addAndGet(location.size);
+        recentFor(location.kind).add(location.sequence, uri);
+    }
+
+    private void release(String uri, Location location) {
+        Segment segment = segments.get(location.segment);
+        if (segment != null) {
+            segment.liveBytes.addAndGet(-location.size);
+        }
+        recentFor(location.kind).remove(location.sequence, uri);
+    }
+
+    private RecentResults recentFor(byte kind) {
+        switch (kind) {
+        case ITEM:
+            return recentItems;
+        case CONTAINER:
+            return recentContainers;
+        default:
+            return RecentResults.NONE;
+        }
+    }
+
+    private Segment segmentFor(int recordSize) throws IOException {
+        if (activeSegment.size() > 0 && activeSegment.size() + recordSize > maxSegmentSize) {
+            activeSegment.seal();
+            activeSegment = openSegment(activeSegment.id + 1);
+        }
+        return activeSegment;
+    }
+
+    private Segment openSegment(int id) throws IOException {
+        Segment segment = new Segment(id, new File(directory, String.format("%s%010d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private void open() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        Arrays.sort(files);
+
+        long cutoff = retentionCutoff();
+        AtomicLong maxSequence = new AtomicLong(-1);
+        for (int i = 0; i < files.length; i++) {
+            File file = files[i];
+            boolean last = i == files.length - 1;
+            Segment segment = openSegment(segmentId(file));
+            long validLength = scan(segment, (offset, payload) -> {
+                Record record = Record.parse(payload);
+                segment.recordResultTime(record.resultTime);
+                maxSequence.set(Math.max(maxSequence.get(), record.sequence));
+                if (record.resultTime >= cutoff) {
+                    index(record.uri, new Location(segment.id, offset, RECORD_HEADER_SIZE + payload.length, record.sequence, record.kind, record.resultTime));
+                }
+            });
+            if (validLength < segment.size()) {
+                if (last) {
+                    log.warn("Discarding {} bytes of incomplete records at the end of {}", segment.size() - validLength, file);
+                    segment.truncate(validLength);
+                } else {
+                    log.error("Corrupt record at offset {} of sealed segment {}, the {} bytes after it are not indexed and the segment will not be compacted",
+                            validLength, file, segment.size() - validLength);
+                    segment.markDamaged();
+                }
+            }
+        }
+
+        nextSequence = maxSequence.get() + 1;
+        activeSegment = segments.isEmpty() ? openSegment(0) : segments.lastEntry().getValue();
+        for (Segment segment : segments.headMap(activeSegment.id).values()) {
+            segment.seal();
+        }
+        log.info("Opened {} equivalence result segments in {} with {} results", segments.size(), directory, index.size());
+    }
+
+    private int segmentId(File file) {
+        String name = file.getName();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the records of a segment in order, stopping at the first incomplete or corrupt one.
+     *
+     * @return the length of the segment up to the end of the last valid record
+     */
+    private long scan(Segment segment, RecordVisitor visitor) throws IOException {
+        long offset = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(segment.file)))) {
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = input.readInt();
+                    checksum = input.readInt();
+                } catch (EOFException e) {
+                    return offset;
+                }
+                if (length <= 0 || length > MAX_RECORD_SIZE) {
+                    return offset;
+                }
+                byte[] payload = new byte[length];
+                try {
+                    input.readFully(payload);
+                } catch (EOFException e) {
+                    return offset;
+                }
+                if (checksum(payload) != checksum) {
+                    return offset;
+                }
+                visitor.visit(offset, payload);
+                offset += RECORD_HEADER_SIZE + length;
+            }
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (Exception e) {
+            log.error("Failed to compact equivalence results", e);
+        }
+    }
+
+    /**
+     * Rewrites sealed segments that are mostly superseded records, or that hold results older
+     * than the retention period, and deletes them.
+     */
+    void compact() throws IOException {
+        long cutoff = retentionCutoff();
+        for (Segment segment : segments.values()) {
+            if (!segment.isSealed() || segment.isDamaged()) {
+                continue;
+            }
+            boolean sparse = segment.liveBytes.get() < segment.size() * compactionThreshold;
+            if (sparse || segment.oldestResultTime() < cutoff) {
+                compact(segment, cutoff);
+            }
+        }
+    }
+
+    private void compact(Segment segment, long cutoff) throws IOException {
+        long live = segment.liveBytes.get();
+        scan(segment, (offset, payload) -> {
+            Record record = Record.parse(payload);
+            synchronized (writeLock) {
+                Location current = index.get(record.uri);
+                if (current == null || current.segment != segment.id || current.offset != offset) {
+                    return;
+                }
+                if (record.resultTime < cutoff) {
+                    index.remove(record.uri, current);
+                    release(record.uri, current);
+                } else {
+                    append(record.uri, payload);
+                }
+            }
+        });
+
+        synchronized (writeLock) {
+            segments.remove(segment.id);
+            segment.delete();
+        }
+        log.info("Compacted equivalence result segment {}, {} of {} bytes were live", segment.file, live, segment.size());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+        }
+    }
+
+    private static byte kindOf(Content subject) {
+        if (subject instanceof Item) {
+            return ITEM;
+        }
+        if (subject instanceof Container) {
+            return CONTAINER;
+        }
+        return OTHER;
+    }
+
+    private static byte[] payload(long sequence, byte kind, long resultTime, String uri, byte[] results) {
+        byte[] uriBytes = uri.getBytes(Charsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(8 + 1 + 8 + 4 + uriBytes.length + results.length);
+        payload.putLong(sequence);
+        payload.put(kind);
+        payload.putLong(resultTime);
+        payload.putInt(uriBytes.length);
+        payload.put(uriBytes);
+        payload.put(results);
+        return payload.array();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private interface RecordVisitor {
+
+        void visit(long offset, byte[] payload) throws IOException;
+    }
+
+    private static final class Record {
+
+        private final long sequence;
+        private final byte kind;
+        private final long resultTime;
+        private final String uri;
+        private final byte[] payload;
+        private final int resultsOffset;
+
+        private Record(long sequence, byte kind, long resultTime, String uri, byte[] payload, int resultsOffset) {
+            this.sequence = sequence;
+            this.kind = kind;
+            this.resultTime = resultTime;
+            this.uri = uri;
+            this.payload = payload;
+            this.resultsOffset = resultsOffset;
+        }
+
+        static Record parse(byte[] payload) {
+            ByteBuffer buffer = ByteBuffer.wrap(payload);
+            long sequence = buffer.getLong();
+            byte kind = buffer.get();
+            long resultTime = buffer.getLong();
+            int uriLength = buffer.getInt();
+            String uri = new String(payload, buffer.position(), uriLength, Charsets.UTF_8);
+            return new Record(sequence, kind, resultTime, uri, payload, buffer.position() + uriLength);
+        }
+
+        byte[] results() {
+            return Arrays.copyOfRange(payload, resultsOffset, payload.length);
+        }
+    }
+
+    private static final class Location {
+
+        private final int segment;
+        private final long offset;
+        private final int size;
+        private final long sequence;
+        private final byte kind;
+        private final long resultTime;
+
+        Location(int segment, long offset, int size, long sequence, byte kind, long resultTime) {
+            this.segment = segment;
+            this.offset = offset;
+            this.size = size;
+            this.sequence = sequence;
+            this.kind = kind;
+            this.resultTime = resultTime;
+        }
+    }
+
+    private static final class Lookup {
+
+        static final Comparator<Lookup> BY_FILE_POSITION = (first, second) -> {
+            int bySegment = Integer.compare(first.location.segment, second.location.segment);
+            if (bySegment != 0) {
+                return bySegment;
+            }
+            return Long.compare(first.location.offset, second.location.offset);
+        };
+
+        private final int position;
+        private final String uri;
+        private final Location location;
+
+        Lookup(int position, String uri, Location location) {
+            this.position = position;
+            this.uri = uri;
+            this.location = location;
+        }
+    }
+
+    /**
+     * The subjects most recently stored, keyed by sequence. Changes are made holding the store's
+     * write lock, while pages can be read at any time.
+     */
+    private static class RecentResults {
+
+        static final RecentResults NONE = new RecentResults(0);
+
+        private final ConcurrentSkipListMap<Long, String> bySequence = new ConcurrentSkipListMap<>();
+        private final int limit;
+        private int size;
+
+        RecentResults(int limit) {
+            this.limit = limit;
+        }
+
+        void add(long sequence, String uri) {
+            if (limit == 0) {
+                return;
+            }
+            if (bySequence.put(sequence, uri) == null) {
+                size++;
+            }
+            while (size > limit) {
+                bySequence.pollFirstEntry();
+                size--;
+            }
+        }
+
+        void remove(long sequence, String uri) {
+            if (bySequence.remove(sequence, uri)) {
+                size--;
+            }
+        }
+
+        List<String> page(int offset, int limit) {
+            ImmutableList.Builder<String> page = ImmutableList.builder();
+            Iterator<String> newestFirst = bySequence.descendingMap().values().iterator();
+            for (int skipped = 0; skipped < offset && newestFirst.hasNext(); skipped++) {
+                newestFirst.next();
+            }
+            for (int taken = 0; taken < limit && newestFirst.hasNext(); taken++) {
+                page.add(newestFirst.next());
+            }
+            return page.build();
+        }
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final File file;
+        private final AtomicLong size;
+        private final AtomicLong liveBytes = new AtomicLong();
+        private volatile long oldestResultTime = Long.MAX_VALUE;
+        private volatile FileChannel channel;
+        private volatile boolean sealed;
+        private volatile boolean deleted;
+        private volatile boolean damaged;
+
+        Segment(int id, File file) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = new RandomAccessFile(file, "rw").getChannel();
+            this.size = new AtomicLong(channel.size());
+        }
+
+        long size() {
+            return size.get();
+        }
+
+        long oldestResultTime() {
+            return oldestResultTime;
+        }
+
+        void recordResultTime(long resultTime) {
+            if (resultTime < oldestResultTime) {
+                oldestResultTime = resultTime;
+            }
+        }
+
+        boolean isSealed() {
+            return sealed;
+        }
+
+        boolean isDeleted() {
+            return deleted;
+        }
+
+        boolean isDamaged() {
+            return damaged;
+        }
+
+        void markDamaged() {
+            damaged = true;
+        }
+
+        /**
+         * Writes at the end of the last complete record, so that a write that failed part way
+         * through is overwritten by the next one.
+         */
+        long append(ByteBuffer record) throws IOException {
+            long offset = size.get();
+            long position = offset;
+            FileChannel channel = channel();
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            size.set(position);
+            return offset;
+        }
+
+        byte[] read(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            FileChannel channel = channel();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Record beyond the end of " + file);
+                }
+            }
+            return buffer.array();
+        }
+
+        void truncate(long length) throws IOException {
+            channel().truncate(length);
+            size.set(length);
+        }
+
+        void seal() throws IOException {
+            FileChannel channel = channel();
+            channel.truncate(size.get());
+            channel.force(false);
+            sealed = true;
+        }
+
+        void delete() throws IOException {
+            deleted = true;
+            channel.close();
+            if (!file.delete()) {
+                log.warn("Could not delete compacted segment {}", file);
+            }
+        }
+
+        void close() throws IOException {
+            FileChannel channel = this.channel;
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        }
+
+        /**
+         * An interrupted read closes the channel for every thread using it, so it is reopened
+         * unless the segment has been deleted.
+         */
+        private FileChannel channel() throws IOException {
+            FileChannel current = channel;
+            if (current.isOpen() || deleted) {
+                return current;
+            }
+            synchronized (this) {
+                if (!channel.isOpen() && !deleted) {
+                    channel = new RandomAccessFile(file, "rw").getChannel();
+                }
+                return channel;
+            }
+        }
+    }
+
+    public static class Builder {
+
+        private final File directory;
+        private long maxSegmentSize = 256L * 1024 * 1024;
+        private Duration retention = Duration.standardDays(30);
+        private Duration compactionInterval = Duration.standardMinutes(10);
+        private double compactionThreshold = 0.5;
+        private int recentResults = 10000;
+        private Clock clock = new SystemClock();
+
+        private Builder(File directory) {
+            this.directory = checkNotNull(directory);
+        }
+
+        public Builder withMaxSegmentSize(long maxSegmentSize) {
+            this.maxSegmentSize = maxSegmentSize;
+            return this;
+        }
+
+        /**
+         * Results older than this are no longer returned, and are dropped when their segment is
+         * compacted.
+         */
+        public Builder withRetention(Duration retention) {
+            this.retention = retention;
+            return this;
+        }
+
+        /**
+         * How often sealed segments are checked for compaction. A zero interval disables
+         * background compaction.
+         */
+        public Builder withCompactionInterval(Duration compactionInterval) {
+            this.compactionInterval = compactionInterval;
+            return this;
+        }
+
+        /**
+         * Sealed segments in which less than this fraction of bytes belong to live records are
+         * compacted.
+         */
+        public Builder withCompactionThreshold(double compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        /**
+         * The number of recent item results, and of recent container results, that can be paged
+         * through.
+         */
+        public Builder withRecentResults(int recentResults) {
+            this.recentResults = recentResults;
+            return this;
+        }
+
+        public Builder withClock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        public LogStructuredEquivalenceResultStore build() {
+            return new LogStructuredEquivalenceResultStore(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.atlasapi.equiv.results.persistence;
+
+import java.util.List;
+
+/**
+ * An {@link EquivalenceResultStore} that can list the results it most recently stored, newest
+ * first, a page at a time.
+ */
+public interface PagedEquivalenceResultStore extends EquivalenceResultStore {
+
+    List<StoredEquivalenceResults> recentItemResults(int offset, int limit);
+
+    List<StoredEquivalenceResults> recentContainerResults(int offset, int limit);
+
+}
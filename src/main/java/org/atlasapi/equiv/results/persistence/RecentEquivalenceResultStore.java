@@ -2,15 +2,24 @@ package org.atlasapi.equiv.results.persistence;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import org.atlasapi.equiv.results.EquivalenceResults;
 import org.atlasapi.media.entity.Container;
 import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Item;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.List;
 
-public class RecentEquivalenceResultStore implements EquivalenceResultStore {
+/**
+ * Keeps the most recently written results in memory. Recent results are paged from the
+ * delegate when it is a {@link PagedEquivalenceResultStore}, and from the in-memory results
+ * otherwise. Closing it closes the delegate, if that is {@link Closeable}.
+ */
+public class RecentEquivalenceResultStore implements PagedEquivalenceResultStore, Closeable {
 
     private final EquivalenceResultStore delegate;
     private final Cache<String, StoredEquivalenceResults> mrwItemCache;
@@ -61,4 +70,31 @@ public class RecentEquivalenceResultStore implements EquivalenceResultStore {
         return ImmutableList.copyOf(mrwContainerCache.asMap().values());
     }
 
+    @Override
+    public List<StoredEquivalenceResults> recentItemResults(int offset, int limit) {
+        if (delegate instanceof PagedEquivalenceResultStore) {
+            return ((PagedEquivalenceResultStore) delegate).recentItemResults(offset, limit);
+        }
+        return page(latestItemResults(), offset, limit);
+    }
+
+    @Override
+    public List<StoredEquivalenceResults> recentContainerResults(int offset, int limit) {
+        if (delegate instanceof PagedEquivalenceResultStore) {
+            return ((PagedEquivalenceResultStore) delegate).recentContainerResults(offset, limit);
+        }
+        return page(latestContainerResults(), offset, limit);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    private List<StoredEquivalenceResults> page(List<StoredEquivalenceResults> results, int offset, int limit) {
+        return FluentIterable.from(Lists.reverse(results)).skip(offset).limit(limit).toList();
+    }
+
 }
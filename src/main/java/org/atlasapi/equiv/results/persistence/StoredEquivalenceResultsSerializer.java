@@ -0,0 +1,302 @@
+package org.atlasapi.equiv.results.persistence;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.time.DateTimeZones;
+import org.joda.time.DateTime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of {@link StoredEquivalenceResults}. Candidate ids are written as the
+ * longs they encode, scores as doubles, and the source names of each result table are written
+ * once and then referred to by position. Descriptions are nested lists of strings and are
+ * written as such.
+ */
+public class StoredEquivalenceResultsSerializer {
+
+    private static final SubstitutionTableNumberCodec codec = SubstitutionTableNumberCodec.lowerCaseOnly();
+
+    private static final int FORMAT_VERSION = 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final byte ID_NUMERIC = 0;
+    private static final byte ID_TEXT = 1;
+
+    private static final byte DESCRIPTION_NULL = 0;
+    private static final byte DESCRIPTION_TEXT = 1;
+    private static final byte DESCRIPTION_LIST = 2;
+
+    public byte[] serialize(StoredEquivalenceResults results) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeByte(FORMAT_VERSION);
+            writeString(output, results.id());
+            writeString(output, results.getAid());
+            writeString(output, results.title());
+            writeString(output, results.getPublisher());
+            output.writeLong(results.resultTime() == null ? NO_TIME : results.resultTime().getMillis());
+            writeDescription(output, results.description());
+
+            writeVarInt(output, results.getResultTables().size());
+            for (StoredEquivalenceResultTable table : results.getResultTables()) {
+                writeTable(output, table);
+            }
+            output.flush();
+        } catch (IOException e) {
+            // Writing to memory doesn't fail
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public StoredEquivalenceResults deserialize(byte[] bytes) {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes));
+        try {
+            int version = input.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown equivalence results format " + version);
+            }
+            String id = readString(input);
+            String aid = readString(input);
+            String title = readString(input);
+            String publisher = readString(input);
+            long resultTime = input.readLong();
+            List<Object> description = readDescriptionList(input);
+
+            int tableCount = readVarInt(input);
+            List<StoredEquivalenceResultTable> tables = Lists.newArrayListWithCapacity(tableCount);
+            for (int i = 0; i < tableCount; i++) {
+                tables.add(readTable(input));
+            }
+
+            return new StoredEquivalenceResults(
+                    id,
+                    aid,
+                    title,
+                    publisher,
+                    tables,
+                    resultTime == NO_TIME ? null : new DateTime(resultTime, DateTimeZones.UTC),
+                    description
+            );
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated equivalence results", e);
+        }
+    }
+
+    private void writeTable(DataOutput output, StoredEquivalenceResultTable table) throws IOException {
+        Table<String, String, Double> scores = table.sourceResults();
+
+        Map<String, Integer> sourceIndices = Maps.newHashMap();
+        writeVarInt(output, scores.columnKeySet().size());
+        for (String source : scores.columnKeySet()) {
+            sourceIndices.put(source, sourceIndices.size());
+            writeString(output, source);
+        }
+
+        writeVarInt(output, scores.rowKeySet().size());
+        for (Map.Entry<String, Map<String, Double>> row : scores.rowMap().entrySet()) {
+            writeId(output, row.getKey());
+            writeVarInt(output, row.getValue().size());
+            for (Map.Entry<String, Double> cell : row.getValue().entrySet()) {
+                writeVarInt(output, sourceIndices.get(cell.getKey()));
+                writeScore(output, cell.getValue());
+            }
+        }
+
+        writeVarInt(output, table.combinedResults().size());
+        for (CombinedEquivalenceScore total : table.combinedResults()) {
+            writeId(output, total.id());
+            writeString(output, total.title());
+            writeScore(output, total.score());
+            output.writeBoolean(total.strong());
+            writeString(output, total.publisher());
+        }
+
+        writeDescription(output, table.description());
+    }
+
+    private StoredEquivalenceResultTable readTable(DataInput input) throws IOException {
+        int sourceCount = readVarInt(input);
+        String[] sources = new String[sourceCount];
+        for (int i = 0; i < sourceCount; i++) {
+            sources[i] = readString(input);
+        }
+
+        Table<String, String, Double> scores = HashBasedTable.create();
+        int rowCount = readVarInt(input);
+        for (int row = 0; row < rowCount; row++) {
+            String candidate = readId(input);
+            int cellCount = readVarInt(input);
+            for (int cell = 0; cell < cellCount; cell++) {
+                String source = sources[readVarInt(input)];
+                Double score = readScore(input);
+                if (score != null) {
+                    scores.put(candidate, source, score);
+                }
+            }
+        }
+
+        int totalCount = readVarInt(input);
+        ImmutableList.Builder<CombinedEquivalenceScore> totals = ImmutableList.builder();
+        for (int i = 0; i < totalCount; i++) {
+            String id = readId(input);
+            String title = readString(input);
+            Double score = readScore(input);
+            boolean strong = input.readBoolean();
+            String publisher = readString(input);
+            totals.add(new CombinedEquivalenceScore(id, title, score, strong, publisher));
+        }
+
+        return new StoredEquivalenceResultTable(scores, totals.build(), readDescriptionList(input));
+    }
+
+    /**
+     * Ids are written as the number they encode when they round-trip through the codec, and as
+     * text otherwise, so results written before candidates were identified by id still fit.
+     */
+    private void writeId(DataOutput output, String id) throws IOException {
+        Long numeric = numericId(id);
+        if (numeric != null) {
+            output.writeByte(ID_NUMERIC);
+            output.writeLong(numeric);
+        } else {
+            output.writeByte(ID_TEXT);
+            writeString(output, id);
+        }
+    }
+
+    private Long numericId(String id) {
+        if (id == null || id.isEmpty()) {
+            return null;
+        }
+        try {
+            BigInteger decoded = codec.decode(id);
+            if (decoded.bitLength() < Long.SIZE && id.equals(codec.encode(decoded))) {
+                return decoded.longValue();
+            }
+        } catch (RuntimeException e) {
+            // Not an encoded id
+        }
+        return null;
+    }
+
+    private String readId(DataInput input) throws IOException {
+        byte type = input.readByte();
+        if (type == ID_NUMERIC) {
+            return codec.encode(BigInteger.valueOf(input.readLong()));
+        }
+        return readString(input);
+    }
+
+    private void writeScore(DataOutput output, Double score) throws IOException {
+        output.writeBoolean(score != null);
+        if (score != null) {
+            output.writeDouble(score);
+        }
+    }
+
+    private Double readScore(DataInput input) throws IOException {
+        return input.readBoolean() ? input.readDouble() : null;
+    }
+
+    private void writeDescription(DataOutput output, Object part) throws IOException {
+        if (part == null) {
+            output.writeByte(DESCRIPTION_NULL);
+        } else if (part instanceof List) {
+            List<?> parts = (List<?>) part;
+            output.writeByte(DESCRIPTION_LIST);
+            writeVarInt(output, parts.size());
+            for (Object child : parts) {
+                writeDescription(output, child);
+            }
+        } else {
+            output.writeByte(DESCRIPTION_TEXT);
+            writeString(output, part.toString());
+        }
+    }
+
+    private List<Object> readDescriptionList(DataInput input) throws IOException {
+        Object description = readDescription(input);
+        if (description == null) {
+            return ImmutableList.of();
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> parts = (List<Object>) description;
+        return parts;
+    }
+
+    private Object readDescription(DataInput input) throws IOException {
+        byte type = input.readByte();
+        switch (type) {
+        case DESCRIPTION_NULL:
+            return null;
+        case DESCRIPTION_TEXT:
+            return readString(input);
+        case DESCRIPTION_LIST:
+            int size = readVarInt(input);
+            List<Object> parts = Lists.newArrayListWithCapacity(size);
+            for (int i = 0; i < size; i++) {
+                parts.add(readDescription(input));
+            }
+            return parts;
+        default:
+            throw new IOException("Unknown description part type " + type);
+        }
+    }
+
+    private void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(output, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(Charsets.UTF_8);
+        writeVarInt(output, bytes.length + 1);
+        output.write(bytes);
+    }
+
+    private String readString(DataInput input) throws IOException {
+        int length = readVarInt(input);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        input.readFully(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    private void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = input.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+}
@@ -2,6 +2,7 @@ package org.atlasapi.equiv.results.www;
 
 import com.google.api.client.util.Strings;
 import com.google.common.base.Function;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
@@ -9,6 +10,8 @@ import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
 import com.metabroadcast.common.model.SimpleModel;
 import com.metabroadcast.common.model.SimpleModelList;
+import com.metabroadcast.common.query.Selection;
+import com.metabroadcast.common.query.Selection.SelectionBuilder;
 import org.atlasapi.equiv.results.persistence.EquivalenceResultStore;
 import org.atlasapi.equiv.results.persistence.StoredEquivalenceResults;
 import org.atlasapi.equiv.results.probe.EquivalenceProbeStore;
@@ -22,6 +25,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
@@ -33,6 +37,10 @@ import static com.metabroadcast.common.http.HttpStatusCode.NOT_FOUND;
 @Controller
 public class EquivalenceResultController {
 
+    private static final SelectionBuilder SELECTION_BUILDER = Selection.builder()
+            .withMaxLimit(1000)
+            .withDefaultLimit(200);
+
     private final EquivalenceResultStore store;
     private final EquivalenceProbeStore probeStore;
 
@@ -84,7 +92,8 @@ public class EquivalenceResultController {
     }
 
     @RequestMapping(value = "/system/equivalence/results", method = RequestMethod.GET)
-    public String showSubResults(Map<String, Object> model, HttpServletResponse response, @RequestParam(value = "uri", required = true) String uri) throws IOException {
+    public String showSubResults(Map<String, Object> model, HttpServletRequest request,
+            HttpServletResponse response, @RequestParam(value = "uri", required = true) String uri) throws IOException {
 
         Maybe<Identified> ided = contentResolver.findByCanonicalUris(ImmutableList.of(uri)).get(uri);
 
@@ -97,12 +106,18 @@ public class EquivalenceResultController {
 
         if (ided.requireValue() instanceof Container) {
 
-            List<StoredEquivalenceResults> results = store.forIds(Iterables.transform(((Container) ided.requireValue()).getChildRefs(), new Function<ChildRef, String>() {
-                @Override
-                public String apply(ChildRef input) {
-                    return input.getUri();
-                }
-            }));
+            // Children are paged so that large containers don't read every child's result
+            Selection selection = SELECTION_BUILDER.build(request);
+            List<StoredEquivalenceResults> results = store.forIds(FluentIterable
+                    .from(((Container) ided.requireValue()).getChildRefs())
+                    .skip(selection.getOffset())
+                    .limit(selection.getLimit())
+                    .transform(new Function<ChildRef, String>() {
+                        @Override
+                        public String apply(ChildRef input) {
+                            return input.getUri();
+                        }
+                    }));
 
             for (StoredEquivalenceResults result : results) {
                 resultModelList.add(resultModelBuilder.build(result, probeStore.probeFor(uri)));
@@ -1,53 +1,86 @@
 package org.atlasapi.equiv.results.www;
 
-import com.google.common.collect.Lists;
 import com.metabroadcast.common.model.SimpleModelList;
-import org.atlasapi.equiv.results.persistence.RecentEquivalenceResultStore;
+import com.metabroadcast.common.query.Selection;
+import com.metabroadcast.common.query.Selection.SelectionBuilder;
+import org.atlasapi.equiv.results.persistence.PagedEquivalenceResultStore;
 import org.atlasapi.equiv.results.persistence.StoredEquivalenceResults;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Map;
 
 @Controller
 public class RecentResultController {
 
-    private final RecentEquivalenceResultStore resultStore;
+    private static final String RECENT_ITEMS_PATH = "/system/equivalence/results/recent/items";
+    private static final String RECENT_CONTAINERS_PATH = "/system/equivalence/results/recent/containers";
+    private static final SelectionBuilder SELECTION_BUILDER = Selection.builder()
+            .withMaxLimit(500)
+            .withDefaultLimit(50);
+
+    private final PagedEquivalenceResultStore resultStore;
     private final RestoredEquivalenceResultModelBuilder resultModelBuilder;
 
-    public RecentResultController(RecentEquivalenceResultStore resultStore) {
+    public RecentResultController(PagedEquivalenceResultStore resultStore) {
         this.resultStore = resultStore;
         this.resultModelBuilder = new RestoredEquivalenceResultModelBuilder();
     }
 
     @RequestMapping("/system/equivalence/results/recent")
-    public String showRecent(Map<String,Object> model) {
-        model.put("itemResults", compileResults(resultStore.latestItemResults()));
-        model.put("containerResults", compileResults(resultStore.latestContainerResults()));
+    public String showRecent(Map<String,Object> model, HttpServletRequest request) {
+        Selection selection = SELECTION_BUILDER.build(request);
+        model.put("itemResults", compileResults(resultStore.recentItemResults(selection.getOffset(), selection.getLimit())));
+        model.put("containerResults", compileResults(resultStore.recentContainerResults(selection.getOffset(), selection.getLimit())));
         return "equivalence.recent";
     }
 
-    @RequestMapping("/system/equivalence/results/recent/items")
-    public String showRecentItems(Map<String,Object> model) {
-        model.put("itemResults", compileResults(resultStore.latestItemResults()));
+    @RequestMapping(RECENT_ITEMS_PATH)
+    public String showRecentItems(Map<String,Object> model, HttpServletRequest request) {
+        Selection selection = SELECTION_BUILDER.build(request);
+        List<StoredEquivalenceResults> results = resultStore.recentItemResults(selection.getOffset(), selection.getLimit());
+        model.put("itemResults", compileResults(results));
+        putOlderResults(model, RECENT_ITEMS_PATH, selection, results);
         return "equivalence.recentItems";
     }
 
-    @RequestMapping("/system/equivalence/results/recent/containers")
-    public String showRecentContainers(Map<String,Object> model) {
-        model.put("containerResults", compileResults(resultStore.latestContainerResults()));
+    @RequestMapping(RECENT_CONTAINERS_PATH)
+    public String showRecentContainers(Map<String,Object> model, HttpServletRequest request) {
+        Selection selection = SELECTION_BUILDER.build(request);
+        List<StoredEquivalenceResults> results = resultStore.recentContainerResults(selection.getOffset(), selection.getLimit());
+        model.put("containerResults", compileResults(results));
+        putOlderResults(model, RECENT_CONTAINERS_PATH, selection, results);
         return "equivalence.recentContainers";
     }
-    
+
+    /**
+     * Links to the next page when this one is full. Results are newest first, so the next page
+     * holds older results.
+     */
+    private void putOlderResults(Map<String, Object> model, String path, Selection selection,
+            List<StoredEquivalenceResults> results) {
+        if (results.size() < selection.getLimit()) {
+            return;
+        }
+        model.put("olderResults", String.format("%s?%s=%d&%s=%d",
+                path,
+                Selection.START_INDEX_REQUEST_PARAM,
+                selection.getOffset() + selection.getLimit(),
+                Selection.LIMIT_REQUEST_PARAM,
+                selection.getLimit()
+        ));
+    }
+
     private List<Map<String, ?>> compileResults(List<StoredEquivalenceResults> latestResults) {
         SimpleModelList resultsList = new SimpleModelList();
-        
-        for (StoredEquivalenceResults result : Lists.reverse(latestResults)) {
+
+        for (StoredEquivalenceResults result : latestResults) {
             resultsList.add(resultModelBuilder.build(result, null));
         }
-        
+
         return resultsList.asListOfMaps();
     }
-    
+
 }
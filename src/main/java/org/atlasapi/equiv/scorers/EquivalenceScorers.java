@@ -1,25 +1,49 @@
 package org.atlasapi.equiv.scorers;
 
 import com.google.common.base.Objects;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
 import org.atlasapi.equiv.results.description.ResultDescription;
 import org.atlasapi.equiv.results.scores.ScoredCandidates;
+import org.atlasapi.equiv.update.EquivalenceComponentExecutor;
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
 
 import java.util.List;
 import java.util.Set;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 public class EquivalenceScorers<T> {
     
     public static <T> EquivalenceScorers<T> from(Iterable<? extends EquivalenceScorer<T>> generators) {
         return new EquivalenceScorers<T>(generators);
     }
 
+    /**
+     * As {@link #from(Iterable)}, but runs the scorers concurrently on the given executor when
+     * one is present.
+     */
+    public static <T> EquivalenceScorers<T> from(
+            Iterable<? extends EquivalenceScorer<T>> scorers,
+            Optional<EquivalenceComponentExecutor> componentExecutor
+    ) {
+        return new EquivalenceScorers<T>(scorers, componentExecutor);
+    }
+
     private final List<? extends EquivalenceScorer<T>> scorers;
+    private final Optional<EquivalenceComponentExecutor> componentExecutor;
 
     public EquivalenceScorers(Iterable<? extends EquivalenceScorer<T>> scorers) {
+        this(scorers, Optional.absent());
+    }
+
+    private EquivalenceScorers(
+            Iterable<? extends EquivalenceScorer<T>> scorers,
+            Optional<EquivalenceComponentExecutor> componentExecutor
+    ) {
         this.scorers = ImmutableList.copyOf(scorers);
+        this.componentExecutor = checkNotNull(componentExecutor);
     }
 
     public List<ScoredCandidates<T>> score(
@@ -31,6 +55,18 @@ public class EquivalenceScorers<T> {
         desc.startStage("Scoring equivalences");
         Builder<ScoredCandidates<T>> scoredScores = ImmutableList.builder();
 
+        if (componentExecutor.isPresent()) {
+            scoredScores.addAll(componentExecutor.get().runAll(
+                    scorers,
+                    desc,
+                    equivToTelescopeResult,
+                    (scorer, scorerDesc, scorerTelescopeResult) ->
+                            scorer.score(content, candidates, scorerDesc, scorerTelescopeResult)
+            ));
+            desc.finishStage();
+            return scoredScores.build();
+        }
+
         for (EquivalenceScorer<T> scorer : scorers) {
             try {
                 desc.startStage(scorer.toString());
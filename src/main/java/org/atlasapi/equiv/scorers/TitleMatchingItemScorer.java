@@ -1,10 +1,12 @@
 package org.atlasapi.equiv.scorers;
 
+import com.google.common.base.Function;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.apache.commons.lang3.StringUtils;
 import org.atlasapi.equiv.generators.ExpandingTitleTransformer;
+import org.atlasapi.equiv.generators.TitleNormalisation;
 import org.atlasapi.equiv.results.description.ResultDescription;
 import org.atlasapi.equiv.results.scores.DefaultScoredCandidates;
 import org.atlasapi.equiv.results.scores.DefaultScoredCandidates.Builder;
@@ -15,17 +17,21 @@ import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
 import org.atlasapi.media.entity.Item;
 
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class TitleMatchingItemScorer implements EquivalenceScorer<Item> {
     
     public static final String NAME = "Title";
     private static final ImmutableSet<String> PREFIXES = ImmutableSet.of("the ", "Live ");
-    private static final ImmutableSet<String> POSTFIXES = ImmutableSet.of("\\(Unrated\\)", "\\(Rated\\)");
-    private static final Pattern TRAILING_APOSTROPHE_PATTERN =Pattern.compile("\\w' ");
+    private static final ImmutableSet<String> POSTFIXES = ImmutableSet.of("(Unrated)", "(Rated)");
     private static final Score SCORE_ON_PERFECT_MATCH = Score.valueOf(2D);
-    private final ExpandingTitleTransformer titleExpander = new ExpandingTitleTransformer();
+    private static final ExpandingTitleTransformer TITLE_EXPANDER = new ExpandingTitleTransformer();
+    private static final Function<String, String> NORMALIZED_WITHOUT_REPLACING =
+            TitleNormalisation.memoise(TitleMatchingItemScorer::normalizeWithoutReplacing);
+    private static final Function<String, String> NORMALIZED =
+            TitleNormalisation.memoise(TitleMatchingItemScorer::normalize);
+    private static final Function<String, String> NORMALIZED_REGULAR_EXPRESSION =
+            TitleNormalisation.memoise(TitleMatchingItemScorer::normalizeRegularExpression);
 
     public enum TitleType {
         
@@ -144,7 +150,7 @@ public class TitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private String removeRatings(String title) {
         for (String postfix : POSTFIXES) {
-            title = title.replaceAll(postfix, "");
+            title = TitleNormalisation.removeAll(title, postfix);
         }
         return title;
     }
@@ -153,7 +159,7 @@ public class TitleMatchingItemScorer implements EquivalenceScorer<Item> {
         String title = item.getTitle();
 
         if (item.getYear() != null) {
-            return title.replaceAll("\\(" + item.getYear() + "\\)", "");
+            return TitleNormalisation.removeAll(title, "(" + item.getYear() + ")");
         } else {
             return title;
         }
@@ -161,17 +167,18 @@ public class TitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private Score compareTitles(final String subjectTitle, final String suggestionTitle) {
         boolean matches;
-        String subjTitle = normalize(subjectTitle);
-        String suggTitle = normalize(suggestionTitle);
-
-        if (appearsToBeWithApostrophe(subjectTitle)) {
-            String regexp = normalizeRegularExpression(subjectTitle);
-            matches = Pattern.matches(regexp, suggTitle);
-        } else if (appearsToBeWithApostrophe(suggestionTitle)) {
-            String regexp = normalizeRegularExpression(suggestionTitle);
-            matches = Pattern.matches(regexp, subjTitle);
+        String subjTitle = NORMALIZED.apply(subjectTitle);
+        String suggTitle = NORMALIZED.apply(suggestionTitle);
+
+        if (TitleNormalisation.appearsToBeWithApostrophe(subjectTitle)) {
+            String regexp = NORMALIZED_REGULAR_EXPRESSION.apply(subjectTitle);
+            matches = TitleNormalisation.matches(regexp, suggTitle);
+        } else if (TitleNormalisation.appearsToBeWithApostrophe(suggestionTitle)) {
+            String regexp = NORMALIZED_REGULAR_EXPRESSION.apply(suggestionTitle);
+            matches = TitleNormalisation.matches(regexp, subjTitle);
         } else {
-            matches = matchWithoutDashes(subjTitle, suggTitle) || subjTitle.equals(suggTitle);
+            matches = TitleNormalisation.equalsIgnoringDashes(subjTitle, suggTitle)
+                    || subjTitle.equals(suggTitle);
         }
 
         if (!matches) {
@@ -183,11 +190,11 @@ public class TitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private Score partialTitleScore(String subjectTitle, String suggestionTitle) {
 
-        String subjectTitleWithoutLeadingColons = removeLeadingColons(subjectTitle);
-        String suggestionTitleWithoutLeadingColons = removeLeadingColons(suggestionTitle);
+        String subjectTitleWithoutLeadingColons = TitleNormalisation.removeLeadingColons(subjectTitle);
+        String suggestionTitleWithoutLeadingColons = TitleNormalisation.removeLeadingColons(suggestionTitle);
 
-        String subjTitle = normalizeWithoutReplacing(subjectTitleWithoutLeadingColons);
-        String suggTitle = normalizeWithoutReplacing(suggestionTitleWithoutLeadingColons);
+        String subjTitle = NORMALIZED_WITHOUT_REPLACING.apply(subjectTitleWithoutLeadingColons);
+        String suggTitle = NORMALIZED_WITHOUT_REPLACING.apply(suggestionTitleWithoutLeadingColons);
 
         if (subjTitle.contains(":") && suggTitle.contains(":")) {
 
@@ -207,82 +214,35 @@ public class TitleMatchingItemScorer implements EquivalenceScorer<Item> {
         return scoreOnMismatch;
     }
 
-    private String removeLeadingColons(String title) {
-        Pattern colonsAtStart = Pattern.compile(":+(.*)");
-
-        Matcher titleMatcher = colonsAtStart.matcher(title);
-
-        return titleMatcher.matches() ? titleMatcher.group(1) : title;
-    }
-
-    private String normalize(String title) {
-        String normalized = normalizeWithoutReplacing(title);
-        return replaceSpecialChars(normalized);
+    private static String normalize(String title) {
+        String normalized = NORMALIZED_WITHOUT_REPLACING.apply(title);
+        return TitleNormalisation.replaceSpecialChars(normalized);
     }
 
-    private String normalizeWithoutReplacing(String title) {
-        String withoutSequencePrefix = removeSequencePrefix(title);
-        String expandedTitle = titleExpander.expand(withoutSequencePrefix);
+    private static String normalizeWithoutReplacing(String title) {
+        String withoutSequencePrefix = TitleNormalisation.removeSequencePrefix(title);
+        String expandedTitle = TITLE_EXPANDER.expand(withoutSequencePrefix);
         String withoutCommonPrefixes = removeCommonPrefixes(expandedTitle);
         return StringUtils.stripAccents(withoutCommonPrefixes);
     }
 
-    private String normalizeRegularExpression(String title) {
-        return regularExpressionReplaceSpecialChars(removeCommonPrefixes(removeSequencePrefix(title).toLowerCase()));
-    }
-    private boolean appearsToBeWithApostrophe(String title) {
-        return TRAILING_APOSTROPHE_PATTERN.matcher(title).find();
-    }
-
-    private String applyCommonReplaceRules(String title) {
-        return title
-                .replaceAll(" vs. ", " vs ")
-                .replaceAll(" v ", " vs ")
-                .replaceAll(" & ", " and ")
-                .replaceAll("fc ", "")
-                .replaceAll(",", "");
+    private static String normalizeRegularExpression(String title) {
+        return TitleNormalisation.regularExpressionReplaceSpecialChars(
+                removeCommonPrefixes(TitleNormalisation.removeSequencePrefix(title).toLowerCase())
+        );
     }
 
-    private String replaceSpecialChars(String title) {
-        return applyCommonReplaceRules(title)
-                    .replaceAll("\\.", "")
-                    .replaceAll("\\s?\\/\\s?", "-") // normalize spacing around back-to-back titles
-                    .replaceAll("[^A-Za-z0-9\\s']+", "-")
-                    .replace("'","")
-                    .replace(" ", "-");
-                    
-    }
-    
-    private String regularExpressionReplaceSpecialChars(String title) {
-        return applyCommonReplaceRules(title)
-                    .replaceAll("[^A-Za-z0-9\\s']+", "-")
-                    .replace(" ", "\\-")
-                    .replaceAll("'\\\\-", "(\\\\w+|\\\\W*)\\-");
-    }
-    
-    private String removeCommonPrefixes(String title) {
+    private static String removeCommonPrefixes(String title) {
         String titleWithoutPrefix = title;
         for (String prefix : PREFIXES) {
             if (titleWithoutPrefix.length() > prefix.length() &&
-                    titleWithoutPrefix.substring(0, prefix.length()).equalsIgnoreCase(prefix)) {
+                    titleWithoutPrefix.regionMatches(true, 0, prefix, 0, prefix.length())) {
                 titleWithoutPrefix = titleWithoutPrefix.substring(prefix.length());
             }
         }
         return titleWithoutPrefix;
     }
 
-    private boolean matchWithoutDashes(String subject, String suggestion) {
-        return subject.replaceAll("-", "").equals(suggestion.replaceAll("-", ""));
-    }
-
-    //Matches e.g. "2. Kinross"
-    private final Pattern seqTitle = Pattern.compile("\\s*\\d+\\s*[.:-]{1}\\s*(.*)");
-    
-    private String removeSequencePrefix(String title) {
-        Matcher matcher = seqTitle.matcher(title);
-        return matcher.matches() ? matcher.group(1) : title;
-    }
-    
     @Override
     public String toString() {
         return "Title-matching Item Scorer";
@@ -1,11 +1,13 @@
 package org.atlasapi.equiv.scorers.aenetworks;
 
+import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.*;
 import com.metabroadcast.common.stream.MoreCollectors;
 import org.apache.commons.lang3.StringUtils;
 import org.atlasapi.equiv.generators.ExpandingTitleTransformer;
+import org.atlasapi.equiv.generators.TitleNormalisation;
 import org.atlasapi.equiv.results.description.ResultDescription;
 import org.atlasapi.equiv.results.scores.DefaultScoredCandidates;
 import org.atlasapi.equiv.results.scores.Score;
@@ -46,7 +48,13 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private static final Joiner TITLE_PERMUTATION_JOINER = Joiner.on('-').skipNulls();
 
-    private static final Pattern TRAILING_APOSTROPHE_PATTERN = Pattern.compile("\\w' ");
+    private static final ExpandingTitleTransformer TITLE_EXPANDER = new ExpandingTitleTransformer();
+    private static final Function<String, String> NORMALIZED_WITHOUT_REPLACING =
+            TitleNormalisation.memoise(AeTitleMatchingItemScorer::normalizeWithoutReplacing);
+    private static final Function<String, String> NORMALIZED =
+            TitleNormalisation.memoise(AeTitleMatchingItemScorer::normalize);
+    private static final Function<String, String> NORMALIZED_REGULAR_EXPRESSION =
+            TitleNormalisation.memoise(AeTitleMatchingItemScorer::normalizeRegularExpression);
     private static final Score DEFAULT_SCORE_ON_PERFECT_MATCH = Score.valueOf(2D);
     private static final Score DEFAULT_SCORE_ON_PARTIAL_MATCH = Score.ONE;
     private static final Score DEFAULT_SCORE_ON_MISMATCH = Score.ZERO;
@@ -61,8 +69,12 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
     private static final Pattern SERIES_AND_EPISODE_PATTERN = Pattern.compile(".*\\d* - \\d* -(.+)");
     private static final Pattern THE_AT_THE_END_PATTERN = Pattern.compile("(,\\s+the)");
     private static final Pattern PART_PATTERN = Pattern.compile("(part\\s*\\d+)");
+    private static final Pattern REPEATED_SPACES_PATTERN = Pattern.compile("\\s\\s+");
+    private static final Pattern HASH_NUMBER_PATTERN = Pattern.compile("#\\s*\\w+");
+    private static final Pattern BRACKETED_NUMBER_PATTERN = Pattern.compile("\\(\\d+\\)");
+    private static final Pattern COPY_PATTERN = Pattern.compile("<copy>");
+    private static final Pattern SPECIAL_CHARS_PATTERN = Pattern.compile("[^a-z0-9 :]");
 
-    private final ExpandingTitleTransformer titleExpander = new ExpandingTitleTransformer();
     private final Score scoreOnPerfectMatch;
     private final Score scoreOnPartialMatch;
     private final Score scoreOnMismatch;
@@ -390,17 +402,17 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private Score compareTitles(final String subjectTitle, final String suggestionTitle, String txlogTitleClarification, ResultDescription desc) {
         boolean matches;
-        String subjTitle = normalize(subjectTitle);
-        String suggTitle = normalize(suggestionTitle);
-
-        if (appearsToBeWithApostrophe(subjectTitle)) {
-            String regexp = normalizeRegularExpression(subjectTitle);
-            matches = Pattern.matches(regexp, suggTitle);
-        } else if (appearsToBeWithApostrophe(suggestionTitle)) {
-            String regexp = normalizeRegularExpression(suggestionTitle);
-            matches = Pattern.matches(regexp, subjTitle);
+        String subjTitle = NORMALIZED.apply(subjectTitle);
+        String suggTitle = NORMALIZED.apply(suggestionTitle);
+
+        if (TitleNormalisation.appearsToBeWithApostrophe(subjectTitle)) {
+            String regexp = NORMALIZED_REGULAR_EXPRESSION.apply(subjectTitle);
+            matches = TitleNormalisation.matches(regexp, suggTitle);
+        } else if (TitleNormalisation.appearsToBeWithApostrophe(suggestionTitle)) {
+            String regexp = NORMALIZED_REGULAR_EXPRESSION.apply(suggestionTitle);
+            matches = TitleNormalisation.matches(regexp, subjTitle);
         } else {
-            matches = matchWithoutDashes(subjTitle, suggTitle) || subjTitle.equals(suggTitle);
+            matches = TitleNormalisation.equalsIgnoringDashes(subjTitle, suggTitle) || subjTitle.equals(suggTitle);
         }
 
         if (!matches) {
@@ -411,11 +423,11 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
         }
     }
 
-    private String removeCommonPrefixes(String title) {
+    private static String removeCommonPrefixes(String title) {
         return removePrefixes(title, PREFIXES);
     }
 
-    private String removePrefixes(String title, Set<String> prefixes) {
+    private static String removePrefixes(String title, Set<String> prefixes) {
         String remainingTitle = title;
         boolean removedAtLeastOne;
         do {
@@ -433,20 +445,13 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
         return remainingTitle;
     }
 
-    private String regularExpressionReplaceSpecialChars(String title) {
-        return applyCommonReplaceRules(title)
-                .replaceAll("[^A-Za-z0-9\\s']+", "-")
-                .replace(" ", "\\-")
-                .replaceAll("'\\\\-", "(\\\\w+|\\\\W*)\\-");
-    }
-
     private Score partialTitleScore(String subjectTitle, String suggestionTitle, String txlogTitleClarification, ResultDescription desc) {
 
-        String subjectTitleWithoutLeadingColons = removeLeadingColons(subjectTitle);
-        String suggestionTitleWithoutLeadingColons = removeLeadingColons(suggestionTitle);
+        String subjectTitleWithoutLeadingColons = TitleNormalisation.removeLeadingColons(subjectTitle);
+        String suggestionTitleWithoutLeadingColons = TitleNormalisation.removeLeadingColons(suggestionTitle);
 
-        String subjTitle = normalizeWithoutReplacing(subjectTitleWithoutLeadingColons);
-        String suggTitle = normalizeWithoutReplacing(suggestionTitleWithoutLeadingColons);
+        String subjTitle = NORMALIZED_WITHOUT_REPLACING.apply(subjectTitleWithoutLeadingColons);
+        String suggTitle = NORMALIZED_WITHOUT_REPLACING.apply(suggestionTitleWithoutLeadingColons);
 
         if (subjTitle.contains(":") && suggTitle.contains(":")) {
             subjTitle = subjTitle.substring(0, subjTitle.indexOf(":"));
@@ -473,80 +478,39 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
         return scoreOnMismatch;
     }
 
-    private String removeLeadingColons(String title) {
-        Pattern colonsAtStart = Pattern.compile(":+(.*)");
-
-        Matcher titleMatcher = colonsAtStart.matcher(title);
-
-        return titleMatcher.matches() ? titleMatcher.group(1) : title;
-    }
-
-    private String normalize(String title) {
-        String normalized = normalizeWithoutReplacing(title);
-        return replaceSpecialChars(normalized);
+    private static String normalize(String title) {
+        String normalized = NORMALIZED_WITHOUT_REPLACING.apply(title);
+        return TitleNormalisation.replaceSpecialChars(normalized);
     }
 
-    private String normalizeWithoutReplacing(String title) {
-        String withoutSequencePrefix = removeSequencePrefix(title).trim();
-        String expandedTitle = titleExpander.expand(withoutSequencePrefix).trim();
+    private static String normalizeWithoutReplacing(String title) {
+        String withoutSequencePrefix = TitleNormalisation.removeSequencePrefix(title).trim();
+        String expandedTitle = TITLE_EXPANDER.expand(withoutSequencePrefix).trim();
         String withoutCommonPrefixes = removeCommonPrefixes(expandedTitle).trim();
         return StringUtils.stripAccents(withoutCommonPrefixes);
     }
 
-    private String normalizeRegularExpression(String title) {
-        return regularExpressionReplaceSpecialChars(removeCommonPrefixes(removeSequencePrefix(title)));
-    }
-
-    private boolean appearsToBeWithApostrophe(String title) {
-        return TRAILING_APOSTROPHE_PATTERN.matcher(title).find();
-    }
-
-    private String applyCommonReplaceRules(String title) {
-        return title
-                .replaceAll(" vs. ", " vs ")
-                .replaceAll(" v ", " vs ")
-                .replaceAll(" & ", " and ")
-                .replaceAll("fc ", "")
-                .replaceAll(",", "");
-    }
-
-    private String replaceSpecialChars(String title) {
-        return applyCommonReplaceRules(title)
-                .replaceAll("\\.", "")
-                .replaceAll("\\s?\\/\\s?", "-") // normalize spacing around back-to-back titles
-                .replaceAll("[^A-Za-z0-9\\s']+", "-")
-                .replace("'", "")
-                .replace(" ", "-");
-
-    }
-
-    private boolean matchWithoutDashes(String subject, String suggestion) {
-        return subject.replaceAll("-", "").equals(suggestion.replaceAll("-", ""));
-    }
-
-    //Matches e.g. "2. Kinross"
-    private final Pattern seqTitle = Pattern.compile("\\s*\\d+\\s*[.:-]{1}\\s*(.*)");
-
-    private String removeSequencePrefix(String title) {
-        Matcher matcher = seqTitle.matcher(title);
-        return matcher.matches() ? matcher.group(1) : title;
+    private static String normalizeRegularExpression(String title) {
+        return TitleNormalisation.regularExpressionReplaceSpecialChars(
+                removeCommonPrefixes(TitleNormalisation.removeSequencePrefix(title))
+        );
     }
 
     /**
      * Used for custom rules between txlogs and AE Networks
      */
     private String processTitle(String title, Map<String, String> customFields, boolean removeEpisodeNumber) {
-        title = title.replaceAll("\\s\\s+", " ");
+        title = REPEATED_SPACES_PATTERN.matcher(title).replaceAll(" ");
         Matcher seriesEpisodeMatcher = SERIES_AND_EPISODE_PATTERN.matcher(title);
         if (seriesEpisodeMatcher.find()) {
             title = seriesEpisodeMatcher.group(1);
         }
         //Removes # number
-        title = title.replaceAll("#\\s*\\w+", "");
+        title = HASH_NUMBER_PATTERN.matcher(title).replaceAll("");
         //Removes (number)
-        title = title.replaceAll("\\(\\d+\\)", "");
+        title = BRACKETED_NUMBER_PATTERN.matcher(title).replaceAll("");
         //Removes <copy>
-        title = title.replaceAll("<copy>", "");
+        title = COPY_PATTERN.matcher(title).replaceAll("");
         //Places the word 'the' at the start
         Matcher theAtTheEndMatcher = THE_AT_THE_END_PATTERN.matcher(title);
         if (theAtTheEndMatcher.find()) {
@@ -567,7 +531,7 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
 
         //Removes special characters
-        title = title.replaceAll("[^a-z0-9 :]", "");
+        title = SPECIAL_CHARS_PATTERN.matcher(title).replaceAll("");
 
         //Checks if contains 'part #'
         Matcher partMatcher = PART_PATTERN.matcher(title);
@@ -589,7 +553,7 @@ public class AeTitleMatchingItemScorer implements EquivalenceScorer<Item> {
         title = title + " " + partNumber;
 
         //Removes more than one spaces
-        title = title.replaceAll("\\s\\s+", " ");
+        title = REPEATED_SPACES_PATTERN.matcher(title).replaceAll(" ");
         return title.trim();
     }
 
@@ -1,5 +1,6 @@
 package org.atlasapi.equiv.scorers.barb;
 
+import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.cache.CacheBuilder;
@@ -15,6 +16,7 @@ import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.stream.MoreCollectors;
 import org.apache.commons.lang3.StringUtils;
 import org.atlasapi.equiv.generators.ExpandingTitleTransformer;
+import org.atlasapi.equiv.generators.TitleNormalisation;
 import org.atlasapi.equiv.results.description.ResultDescription;
 import org.atlasapi.equiv.results.scores.DefaultScoredCandidates;
 import org.atlasapi.equiv.results.scores.Score;
@@ -61,13 +63,19 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
     private static final ImmutableSet<String> PREFIXES = ImmutableSet.of(
             "the ", "live ", "film:", "new:", "live:"
     );
-    private static final ImmutableSet<String> POSTFIXES = ImmutableSet.of("\\(unrated\\)", "\\(rated\\)");
+    private static final ImmutableSet<String> POSTFIXES = ImmutableSet.of("(unrated)", "(rated)");
     private static final Pattern TRAILING_YEAR_PATTERN = Pattern.compile("^(.*)\\(\\d{4}\\)$");
     private static final Pattern GENERIC_TITLE_PATTERN = Pattern.compile("^(([Ss]eries)|([Ee]pisode)) \\d+$");
 
     private static final Joiner TITLE_PERMUTATION_JOINER = Joiner.on('-').skipNulls();
 
-    private static final Pattern TRAILING_APOSTROPHE_PATTERN = Pattern.compile("\\w' ");
+    private static final ExpandingTitleTransformer TITLE_EXPANDER = new ExpandingTitleTransformer();
+    private static final Function<String, String> NORMALIZED_WITHOUT_REPLACING =
+            TitleNormalisation.memoise(BarbTitleMatchingItemScorer::normalizeWithoutReplacing);
+    private static final Function<String, String> NORMALIZED =
+            TitleNormalisation.memoise(BarbTitleMatchingItemScorer::normalize);
+    private static final Function<String, String> NORMALIZED_REGULAR_EXPRESSION =
+            TitleNormalisation.memoise(BarbTitleMatchingItemScorer::normalizeRegularExpression);
     private static final Score DEFAULT_SCORE_ON_PERFECT_MATCH = Score.valueOf(2D);
     private static final Score DEFAULT_SCORE_ON_PARTIAL_MATCH = Score.ONE;
     private static final Score DEFAULT_SCORE_ON_MISMATCH = Score.ZERO;
@@ -91,7 +99,6 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
             "highlights"
     );
 
-    private final ExpandingTitleTransformer titleExpander = new ExpandingTitleTransformer();
     private final Score scoreOnPerfectMatch;
     private final Score scoreOnPartialMatch;
     private final Score scoreOnMismatch;
@@ -456,7 +463,7 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private String removeRatings(String title) {
         for (String postfix : POSTFIXES) {
-            title = title.replaceAll(postfix, "");
+            title = TitleNormalisation.removeAll(title, postfix);
         }
         return title;
     }
@@ -464,7 +471,7 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
     private String removeYearFromTitle(String title, @Nullable Integer year) {
 
         if (year != null) {
-            return title.replaceAll("\\(" + year + "\\)", "");
+            return TitleNormalisation.removeAll(title, "(" + year + ")");
         } else {
             return title;
         }
@@ -472,17 +479,17 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private Score compareTitles(final String subjectTitle, final String suggestionTitle) {
         boolean matches;
-        String subjTitle = normalize(subjectTitle);
-        String suggTitle = normalize(suggestionTitle);
-
-        if (appearsToBeWithApostrophe(subjectTitle)) {
-            String regexp = normalizeRegularExpression(subjectTitle);
-            matches = Pattern.matches(regexp, suggTitle);
-        } else if (appearsToBeWithApostrophe(suggestionTitle)) {
-            String regexp = normalizeRegularExpression(suggestionTitle);
-            matches = Pattern.matches(regexp, subjTitle);
+        String subjTitle = NORMALIZED.apply(subjectTitle);
+        String suggTitle = NORMALIZED.apply(suggestionTitle);
+
+        if (TitleNormalisation.appearsToBeWithApostrophe(subjectTitle)) {
+            String regexp = NORMALIZED_REGULAR_EXPRESSION.apply(subjectTitle);
+            matches = TitleNormalisation.matches(regexp, suggTitle);
+        } else if (TitleNormalisation.appearsToBeWithApostrophe(suggestionTitle)) {
+            String regexp = NORMALIZED_REGULAR_EXPRESSION.apply(suggestionTitle);
+            matches = TitleNormalisation.matches(regexp, subjTitle);
         } else {
-            matches = matchWithoutDashes(subjTitle, suggTitle) || subjTitle.equals(suggTitle);
+            matches = TitleNormalisation.equalsIgnoringDashes(subjTitle, suggTitle) || subjTitle.equals(suggTitle);
         }
 
         if (!matches) {
@@ -494,11 +501,11 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
 
     private Score partialTitleScore(String subjectTitle, String suggestionTitle) {
 
-        String subjectTitleWithoutLeadingColons = removeLeadingColons(subjectTitle);
-        String suggestionTitleWithoutLeadingColons = removeLeadingColons(suggestionTitle);
+        String subjectTitleWithoutLeadingColons = TitleNormalisation.removeLeadingColons(subjectTitle);
+        String suggestionTitleWithoutLeadingColons = TitleNormalisation.removeLeadingColons(suggestionTitle);
 
-        String subjTitle = normalizeWithoutReplacing(subjectTitleWithoutLeadingColons);
-        String suggTitle = normalizeWithoutReplacing(suggestionTitleWithoutLeadingColons);
+        String subjTitle = NORMALIZED_WITHOUT_REPLACING.apply(subjectTitleWithoutLeadingColons);
+        String suggTitle = NORMALIZED_WITHOUT_REPLACING.apply(suggestionTitleWithoutLeadingColons);
 
         if (subjTitle.contains(":") && suggTitle.contains(":")) {
 
@@ -518,65 +525,29 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
         return scoreOnMismatch;
     }
 
-    private String removeLeadingColons(String title) {
-        Pattern colonsAtStart = Pattern.compile(":+(.*)");
-
-        Matcher titleMatcher = colonsAtStart.matcher(title);
-
-        return titleMatcher.matches() ? titleMatcher.group(1) : title;
+    private static String normalize(String title) {
+        String normalized = NORMALIZED_WITHOUT_REPLACING.apply(title);
+        return TitleNormalisation.replaceSpecialChars(normalized);
     }
 
-    private String normalize(String title) {
-        String normalized = normalizeWithoutReplacing(title);
-        return replaceSpecialChars(normalized);
-    }
-
-    private String normalizeWithoutReplacing(String title) {
-        String withoutSequencePrefix = removeSequencePrefix(title).trim();
-        String expandedTitle = titleExpander.expand(withoutSequencePrefix).trim();
+    private static String normalizeWithoutReplacing(String title) {
+        String withoutSequencePrefix = TitleNormalisation.removeSequencePrefix(title).trim();
+        String expandedTitle = TITLE_EXPANDER.expand(withoutSequencePrefix).trim();
         String withoutCommonPrefixes = removeCommonPrefixes(expandedTitle).trim();
         return StringUtils.stripAccents(withoutCommonPrefixes);
     }
 
-    private String normalizeRegularExpression(String title) {
-        return regularExpressionReplaceSpecialChars(removeCommonPrefixes(removeSequencePrefix(title)));
-    }
-
-    private boolean appearsToBeWithApostrophe(String title) {
-        return TRAILING_APOSTROPHE_PATTERN.matcher(title).find();
-    }
-
-    private String applyCommonReplaceRules(String title) {
-        return title
-                .replaceAll(" vs. ", " vs ")
-                .replaceAll(" v ", " vs ")
-                .replaceAll(" & ", " and ")
-                .replaceAll("fc ", "")
-                .replaceAll(",", "");
-    }
-
-    private String replaceSpecialChars(String title) {
-        return applyCommonReplaceRules(title)
-                .replaceAll("\\.", "")
-                .replaceAll("\\s?\\/\\s?", "-") // normalize spacing around back-to-back titles
-                .replaceAll("[^A-Za-z0-9\\s']+", "-")
-                .replace("'", "")
-                .replace(" ", "-");
-
-    }
-
-    private String regularExpressionReplaceSpecialChars(String title) {
-        return applyCommonReplaceRules(title)
-                .replaceAll("[^A-Za-z0-9\\s']+", "-")
-                .replace(" ", "\\-")
-                .replaceAll("'\\\\-", "(\\\\w+|\\\\W*)\\-");
+    private static String normalizeRegularExpression(String title) {
+        return TitleNormalisation.regularExpressionReplaceSpecialChars(
+                removeCommonPrefixes(TitleNormalisation.removeSequencePrefix(title))
+        );
     }
 
-    private String removeCommonPrefixes(String title) {
+    private static String removeCommonPrefixes(String title) {
         return removePrefixes(title, PREFIXES);
     }
 
-    private String removePrefixes(String title, Set<String> prefixes) {
+    private static String removePrefixes(String title, Set<String> prefixes) {
         String remainingTitle = title;
         boolean removedAtLeastOne;
         do {
@@ -612,18 +583,6 @@ public class BarbTitleMatchingItemScorer implements EquivalenceScorer<Item> {
         return remainingTitle;
     }
 
-    private boolean matchWithoutDashes(String subject, String suggestion) {
-        return subject.replaceAll("-", "").equals(suggestion.replaceAll("-", ""));
-    }
-
-    //Matches e.g. "2. Kinross"
-    private final Pattern seqTitle = Pattern.compile("\\s*\\d+\\s*[.:-]{1}\\s*(.*)");
-
-    private String removeSequencePrefix(String title) {
-        Matcher matcher = seqTitle.matcher(title);
-        return matcher.matches() ? matcher.group(1) : title;
-    }
-
     /**
      * Used for custom rules between BBC txlogs and Nitro
      */
@@ -1,5 +1,6 @@
 package org.atlasapi.equiv.update;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
@@ -21,11 +22,13 @@ import org.atlasapi.equiv.update.metadata.ContentEquivalenceResultProviderMetada
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResults;
 import org.atlasapi.equiv.update.metadata.EquivalenceUpdaterMetadata;
+import org.atlasapi.equiv.update.metrics.EquivalenceUpdaterMetrics;
 import org.atlasapi.media.entity.Content;
 
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.StreamSupport;
 
 public class ContentEquivalenceResultUpdater<T extends Content> implements EquivalenceResultUpdater<T> {
@@ -41,23 +44,64 @@ public class ContentEquivalenceResultUpdater<T extends Content> implements Equiv
 
     private final EquivalenceUpdaterMetadata metadata;
 
+    private final Builder<T> builder;
+    private final Optional<EquivalenceComponentExecutor> componentExecutor;
+    private final Optional<EquivalenceUpdaterMetrics> updaterMetrics;
+
     private ContentEquivalenceResultUpdater(Builder<T> builder) {
+        this(builder, Optional.absent(), Optional.absent());
+    }
+
+    private ContentEquivalenceResultUpdater(
+            Builder<T> builder,
+            Optional<EquivalenceComponentExecutor> componentExecutor,
+            Optional<EquivalenceUpdaterMetrics> updaterMetrics
+    ) {
+        this.builder = builder;
+        this.componentExecutor = componentExecutor;
+        this.updaterMetrics = updaterMetrics;
         ImmutableSet<EquivalenceGenerator<T>> builtGenerators = builder.generators.build();
         ImmutableSet<EquivalenceScorer<T>> builtScorers = builder.scorers.build();
         ImmutableList<EquivalenceExtractor<T>> builtExtractors = builder.extractors.build();
 
         this.merger = new ScoredEquivalentsMerger();
-        this.generators = EquivalenceGenerators.create(
-                builtGenerators,
-                builder.excludedUris,
-                builder.excludedIds
-        );
-        this.scorers = EquivalenceScorers.from(builtScorers);
-        this.resultBuilder = new DefaultEquivalenceResultBuilder<>(
-                builder.combiner,
-                builder.filter,
-                builtExtractors
-        );
+        if (updaterMetrics.isPresent()) {
+            EquivalenceUpdaterMetrics metrics = updaterMetrics.get();
+            this.generators = EquivalenceGenerators.create(
+                    builtGenerators.stream()
+                            .map(metrics::instrument)
+                            .collect(MoreCollectors.toImmutableList()),
+                    builder.excludedUris,
+                    builder.excludedIds,
+                    componentExecutor
+            );
+            this.scorers = EquivalenceScorers.from(
+                    builtScorers.stream()
+                            .map(metrics::instrument)
+                            .collect(MoreCollectors.toImmutableList()),
+                    componentExecutor
+            );
+            this.resultBuilder = new DefaultEquivalenceResultBuilder<>(
+                    metrics.instrument(builder.combiner),
+                    metrics.instrument(builder.filter),
+                    builtExtractors.stream()
+                            .map(metrics::instrument)
+                            .collect(MoreCollectors.toImmutableList())
+            );
+        } else {
+            this.generators = EquivalenceGenerators.create(
+                    builtGenerators,
+                    builder.excludedUris,
+                    builder.excludedIds,
+                    componentExecutor
+            );
+            this.scorers = EquivalenceScorers.from(builtScorers, componentExecutor);
+            this.resultBuilder = new DefaultEquivalenceResultBuilder<>(
+                    builder.combiner,
+                    builder.filter,
+                    builtExtractors
+            );
+        }
 
         this.metadata = ContentEquivalenceResultProviderMetadata.builder()
                 .withGenerators(builtGenerators)
@@ -85,19 +129,16 @@ public class ContentEquivalenceResultUpdater<T extends Content> implements Equiv
                 content.getPublisher().toString()
         );
 
-        List<ScoredCandidates<T>> generatedScores = generators.generate(
-                content,
-                desc,
-                resultForTelescope
+        List<ScoredCandidates<T>> generatedScores = timeStage(
+                "generation",
+                () -> generators.generate(content, desc, resultForTelescope)
         );
 
         Set<T> candidates = ImmutableSet.copyOf(extractCandidates(generatedScores));
         
-        List<ScoredCandidates<T>> scoredScores = scorers.score(
-                content,
-                candidates,
-                desc,
-                resultForTelescope
+        List<ScoredCandidates<T>> scoredScores = timeStage(
+                "scoring",
+                () -> scorers.score(content, candidates, desc, resultForTelescope)
         );
         
         List<ScoredCandidates<T>> mergedScores = merger.merge(
@@ -105,11 +146,9 @@ public class ContentEquivalenceResultUpdater<T extends Content> implements Equiv
                 scoredScores
         );
         
-        EquivalenceResult<T> result = resultBuilder.resultFor(
-                content,
-                mergedScores,
-                desc,
-                resultForTelescope
+        EquivalenceResult<T> result = timeStage(
+                "results",
+                () -> resultBuilder.resultFor(content, mergedScores, desc, resultForTelescope)
         );
 
         resultsForTelescope.addResult(resultForTelescope);
@@ -122,6 +161,33 @@ public class ContentEquivalenceResultUpdater<T extends Content> implements Equiv
         return metadata;
     }
 
+    @Override
+    public ContentEquivalenceResultUpdater<T> withComponentExecutor(
+            EquivalenceComponentExecutor componentExecutor
+    ) {
+        return new ContentEquivalenceResultUpdater<>(
+                builder,
+                Optional.of(componentExecutor),
+                updaterMetrics
+        );
+    }
+
+    @Override
+    public ContentEquivalenceResultUpdater<T> withMetrics(EquivalenceUpdaterMetrics metrics) {
+        return new ContentEquivalenceResultUpdater<>(
+                builder,
+                componentExecutor,
+                Optional.of(metrics)
+        );
+    }
+
+    private <R> R timeStage(String stage, Supplier<R> work) {
+        if (!updaterMetrics.isPresent()) {
+            return work.get();
+        }
+        return updaterMetrics.get().timeStage(stage, work);
+    }
+
     private Iterable<T> extractCandidates(Iterable<ScoredCandidates<T>> generatedScores) {
 
         return StreamSupport.stream(generatedScores.spliterator(), false)
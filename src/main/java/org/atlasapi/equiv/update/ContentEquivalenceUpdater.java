@@ -1,5 +1,6 @@
 package org.atlasapi.equiv.update;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.atlasapi.equiv.handlers.EquivalenceResultHandler;
@@ -12,6 +13,7 @@ import org.atlasapi.equiv.results.scores.ScoredCandidates;
 import org.atlasapi.equiv.update.metadata.ContentEquivalenceUpdaterMetadata;
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResults;
 import org.atlasapi.equiv.update.metadata.EquivalenceUpdaterMetadata;
+import org.atlasapi.equiv.update.metrics.EquivalenceUpdaterMetrics;
 import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Publisher;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporter;
@@ -19,6 +21,7 @@ import org.atlasapi.reporting.telescope.OwlTelescopeReporter;
 import java.math.BigInteger;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
 
@@ -35,14 +38,19 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
 
     private final EquivalenceUpdaterMetadata metadata;
 
+    private final Optional<EquivalenceUpdaterMetrics> updaterMetrics;
+
     private ContentEquivalenceUpdater(Builder<T> builder) {
        this.equivalenceResultUpdaters = ImmutableSet.copyOf(builder.equivalenceResultUpdaters);
-        this.handler = checkNotNull(builder.handler);
         this.messenger = checkNotNull(builder.messenger);
+        this.updaterMetrics = builder.updaterMetrics;
         this.metadata = ContentEquivalenceUpdaterMetadata.builder()
                 .withEquivalenceResultUpdaters(this.equivalenceResultUpdaters)
-                .withHandler(handler)
+                .withHandler(checkNotNull(builder.handler))
                 .build();
+        this.handler = updaterMetrics.isPresent()
+                       ? updaterMetrics.get().instrument(builder.handler)
+                       : builder.handler;
     }
 
     public static <T extends Content> EquivalenceResultUpdatersStep<T> builder() {
@@ -51,6 +59,13 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
 
     @Override
     public boolean updateEquivalences(T content, OwlTelescopeReporter telescope) {
+        if (!updaterMetrics.isPresent()) {
+            return update(content, telescope);
+        }
+        return updaterMetrics.get().timeSubject(content, () -> update(content, telescope));
+    }
+
+    private boolean update(T content, OwlTelescopeReporter telescope) {
         ReadableDescription desc = new DefaultDescription();
 
         EquivToTelescopeResults resultsForTelescope = EquivToTelescopeResults.create(
@@ -72,10 +87,13 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
 
         EquivalenceResults<T> results = new EquivalenceResults<>(content, resultsBuilder.build(), desc);
 
-        boolean handledWithStateChange = handler.handle(results);
+        boolean handledWithStateChange = timeStage("handling", () -> handler.handle(results));
 
         if (handledWithStateChange) {
-            messenger.sendMessage(results);
+            timeStage("messaging", () -> {
+                messenger.sendMessage(results);
+                return null;
+            });
         }
 
         telescope.reportSuccessfulEvent(
@@ -97,6 +115,13 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
         return metadata;
     }
 
+    private <R> R timeStage(String stage, Supplier<R> work) {
+        if (!updaterMetrics.isPresent()) {
+            return work.get();
+        }
+        return updaterMetrics.get().timeStage(stage, work);
+    }
+
     public interface  EquivalenceResultUpdatersStep<T extends Content> {
         HandlerStep<T> withEquivalenceResultUpdaters(Set<EquivalenceResultUpdater<T>> equivalenceResultUpdaters);
     }
@@ -113,6 +138,8 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
 
     public interface BuildStep<T extends Content> {
 
+        BuildStep<T> withMetrics(EquivalenceUpdaterMetrics updaterMetrics);
+
         ContentEquivalenceUpdater<T> build();
     }
 
@@ -122,6 +149,7 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
         private Set<EquivalenceResultUpdater<T>> equivalenceResultUpdaters;
         private EquivalenceResultHandler<T> handler;
         private EquivalenceResultMessenger<T> messenger;
+        private Optional<EquivalenceUpdaterMetrics> updaterMetrics = Optional.absent();
 
         private Builder() {
         }
@@ -146,6 +174,12 @@ public class ContentEquivalenceUpdater<T extends Content> implements Equivalence
             return this;
         }
 
+        @Override
+        public BuildStep<T> withMetrics(EquivalenceUpdaterMetrics updaterMetrics) {
+            this.updaterMetrics = Optional.of(updaterMetrics);
+            return this;
+        }
+
         public ContentEquivalenceUpdater<T> build() {
             return new ContentEquivalenceUpdater<>(this);
         }
@@ -0,0 +1,178 @@
+package org.atlasapi.equiv.update;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.atlasapi.equiv.results.description.DefaultDescription;
+import org.atlasapi.equiv.results.description.ResultDescription;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.joda.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Runs the independent components of an equivalence stage, e.g. each generator or each scorer,
+ * concurrently on a bounded executor.
+ * <p>
+ * Each component writes to its own {@link DefaultDescription} and {@link EquivToTelescopeResult}.
+ * Once every component has finished these are copied onto the shared description and telescope
+ * result in component order, so both read exactly as they would had the components been run one
+ * after another. Results are likewise returned in component order.
+ * <p>
+ * A component that fails, or does not finish within the timeout, fails the whole stage, as it
+ * would when run sequentially. A component's timeout runs from when it starts running, not from
+ * when it is submitted, so time spent queued behind other subjects' components on a busy pool
+ * doesn't count against it.
+ */
+public class EquivalenceComponentExecutor {
+
+    private final ExecutorService executor;
+    private final Duration componentTimeout;
+
+    private EquivalenceComponentExecutor(ExecutorService executor, Duration componentTimeout) {
+        this.executor = checkNotNull(executor);
+        this.componentTimeout = checkNotNull(componentTimeout);
+        checkArgument(componentTimeout.getMillis() > 0, "Component timeout must be positive");
+    }
+
+    public static EquivalenceComponentExecutor create(
+            ExecutorService executor,
+            Duration componentTimeout
+    ) {
+        return new EquivalenceComponentExecutor(executor, componentTimeout);
+    }
+
+    public <C, R> List<R> runAll(
+            List<? extends C> components,
+            ResultDescription desc,
+            EquivToTelescopeResult equivToTelescopeResult,
+            ComponentTask<C, R> task
+    ) {
+        List<Future<R>> futures = Lists.newArrayListWithCapacity(components.size());
+        List<Start> starts = Lists.newArrayListWithCapacity(components.size());
+        List<DefaultDescription> descriptions = Lists.newArrayListWithCapacity(components.size());
+        List<EquivToTelescopeResult> telescopeResults =
+                Lists.newArrayListWithCapacity(components.size());
+
+        for (C component : components) {
+            DefaultDescription componentDesc = new DefaultDescription();
+            EquivToTelescopeResult componentTelescopeResult = EquivToTelescopeResult.create(
+                    equivToTelescopeResult.getContentId(),
+                    equivToTelescopeResult.getPublisher()
+            );
+            Start start = new Start();
+            descriptions.add(componentDesc);
+            telescopeResults.add(componentTelescopeResult);
+            starts.add(start);
+            futures.add(executor.submit(() -> {
+                start.started();
+                return task.run(component, componentDesc, componentTelescopeResult);
+            }));
+        }
+
+        ImmutableList.Builder<R> results = ImmutableList.builder();
+        try {
+            for (int i = 0; i < components.size(); i++) {
+                C component = components.get(i);
+                results.add(await(component, starts.get(i), futures.get(i)));
+
+                desc.startStage(component.toString());
+                replay(descriptions.get(i).parts(), desc);
+                desc.finishStage();
+                equivToTelescopeResult.addComponentResultsFrom(telescopeResults.get(i));
+            }
+        } finally {
+            for (Future<R> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results.build();
+    }
+
+    private <R> R await(Object component, Start start, Future<R> future) {
+        try {
+            long startedAt = start.await(future);
+            long remaining = TimeUnit.MILLISECONDS.toNanos(componentTimeout.getMillis())
+                    - (System.nanoTime() - startedAt);
+            return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("Interrupted waiting for %s", component), e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(String.format("Exception running %s", component), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException(String.format(
+                    "%s did not finish within %sms",
+                    component,
+                    componentTimeout.getMillis()
+            ), e);
+        }
+    }
+
+    /**
+     * {@link DefaultDescription} stores a stage as its name followed by the list of its parts.
+     */
+    private void replay(List<Object> parts, ResultDescription desc) {
+        for (int i = 0; i < parts.size(); i++) {
+            Object part = parts.get(i);
+            if (i + 1 < parts.size() && parts.get(i + 1) instanceof List) {
+                desc.startStage(String.valueOf(part));
+                replay(castParts(parts.get(++i)), desc);
+                desc.finishStage();
+            } else if (part instanceof List) {
+                replay(castParts(part), desc);
+            } else {
+                desc.appendText("%s", part);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> castParts(Object parts) {
+        return (List<Object>) parts;
+    }
+
+    /**
+     * Records when a component starts running on the executor.
+     */
+    private static final class Start {
+
+        private static final long POLL_MILLIS = 100;
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile long startedAt;
+
+        void started() {
+            startedAt = System.nanoTime();
+            latch.countDown();
+        }
+
+        /**
+         * Waits for the component to start, or for its future to complete without it having
+         * run, e.g. because it was cancelled, and returns when the clock started.
+         */
+        long await(Future<?> future) throws InterruptedException {
+            while (!latch.await(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (future.isDone()) {
+                    return System.nanoTime();
+                }
+            }
+            return startedAt;
+        }
+    }
+
+    public interface ComponentTask<C, R> {
+
+        R run(C component, ResultDescription desc, EquivToTelescopeResult equivToTelescopeResult)
+                throws Exception;
+    }
+}
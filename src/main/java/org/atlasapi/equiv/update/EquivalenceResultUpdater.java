@@ -4,6 +4,7 @@ import org.atlasapi.equiv.results.EquivalenceResult;
 import org.atlasapi.equiv.results.description.ReadableDescription;
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResults;
 import org.atlasapi.equiv.update.metadata.EquivalenceUpdaterMetadata;
+import org.atlasapi.equiv.update.metrics.EquivalenceUpdaterMetrics;
 
 
 public interface EquivalenceResultUpdater<T> {
@@ -15,4 +16,22 @@ public interface EquivalenceResultUpdater<T> {
     );
 
     EquivalenceUpdaterMetadata getMetadata();
+
+    /**
+     * Returns an updater that runs its independent components on the given executor. Updaters
+     * with nothing to run concurrently return themselves.
+     */
+    default EquivalenceResultUpdater<T> withComponentExecutor(
+            EquivalenceComponentExecutor componentExecutor
+    ) {
+        return this;
+    }
+
+    /**
+     * Returns an updater that records the time taken by, and the results of, each of its
+     * components and stages in the given metrics. Updaters with no components return themselves.
+     */
+    default EquivalenceResultUpdater<T> withMetrics(EquivalenceUpdaterMetrics metrics) {
+        return this;
+    }
 }
@@ -7,6 +7,7 @@ import org.atlasapi.equiv.results.description.ReadableDescription;
 import org.atlasapi.equiv.update.metadata.EquivToTelescopeResults;
 import org.atlasapi.equiv.update.metadata.EquivalenceUpdaterMetadata;
 import org.atlasapi.equiv.update.metadata.FirstMatchingPredicateContentEquivalenceResultProviderMetadata;
+import org.atlasapi.equiv.update.metrics.EquivalenceUpdaterMetrics;
 import org.atlasapi.media.entity.Content;
 
 import java.util.List;
@@ -98,6 +99,28 @@ public class FirstMatchingPredicateContentEquivalenceResultUpdater<T extends Con
         return metadata;
     }
 
+    @Override
+    public EquivalenceResultUpdater<T> withComponentExecutor(
+            EquivalenceComponentExecutor componentExecutor
+    ) {
+        return new FirstMatchingPredicateContentEquivalenceResultUpdater<>(
+                equivalenceResultUpdaters.stream()
+                        .map(updater -> updater.withComponentExecutor(componentExecutor))
+                        .collect(MoreCollectors.toImmutableList()),
+                equivalenceResultPredicate
+        );
+    }
+
+    @Override
+    public EquivalenceResultUpdater<T> withMetrics(EquivalenceUpdaterMetrics metrics) {
+        return new FirstMatchingPredicateContentEquivalenceResultUpdater<>(
+                equivalenceResultUpdaters.stream()
+                        .map(updater -> updater.withMetrics(metrics))
+                        .collect(MoreCollectors.toImmutableList()),
+                equivalenceResultPredicate
+        );
+    }
+
     public static class EquivalencePredicate<T extends Content> {
         private final Predicate<EquivalenceResult<T>> predicate;
         private final String predicateName;
@@ -48,6 +48,18 @@ public class EquivToTelescopeResult {
         extractors.add(extractor);
     }
 
+    /**
+     * Appends every component result recorded on {@code other}, e.g. when a component has been
+     * run against its own result so that it could run concurrently with others.
+     */
+    public void addComponentResultsFrom(EquivToTelescopeResult other) {
+        generators.addAll(other.getGenerators());
+        scorers.addAll(other.getScorers());
+        combiners.addAll(other.getCombiners());
+        filters.addAll(other.getFilters());
+        extractors.addAll(other.getExtractors());
+    }
+
     public String getContentId() {
         return contentId;
     }
@@ -0,0 +1,147 @@
+package org.atlasapi.equiv.update.metrics;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import org.atlasapi.media.entity.Content;
+
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.time.Clock;
+import com.metabroadcast.common.time.SystemClock;
+
+import com.codahale.metrics.MetricRegistry;
+import org.joda.time.Duration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Records how long each part of the equivalence pipeline takes, and how it behaves, in the metric
+ * registry. Every generator, scorer, combiner, filter, extractor and handler gets a timer, an
+ * error meter and, where it produces candidates, a histogram of how many, all named after the
+ * source and updater it is configured for.
+ * <p>
+ * The time spent on each stage for each subject is also recorded, so that the slowest subjects
+ * of the recent past can be looked at with a breakdown of where their time went.
+ */
+public class EquivalenceMetrics {
+
+    private final MetricRegistry metrics;
+    private final SlowestEquivalenceSubjects slowestSubjects;
+    private final Clock clock;
+    private final SubstitutionTableNumberCodec codec = SubstitutionTableNumberCodec.lowerCaseOnly();
+    private final ThreadLocal<SubjectTimer> currentSubject = new ThreadLocal<>();
+
+    private EquivalenceMetrics(
+            MetricRegistry metrics,
+            SlowestEquivalenceSubjects slowestSubjects,
+            Clock clock
+    ) {
+        this.metrics = checkNotNull(metrics);
+        this.slowestSubjects = checkNotNull(slowestSubjects);
+        this.clock = checkNotNull(clock);
+    }
+
+    /**
+     * @param slowestSubjects how many of the slowest subjects to keep
+     * @param window how long a subject is kept as one of the slowest
+     */
+    public static EquivalenceMetrics create(
+            MetricRegistry metrics,
+            int slowestSubjects,
+            Duration window
+    ) {
+        return create(metrics, slowestSubjects, window, new SystemClock());
+    }
+
+    public static EquivalenceMetrics create(
+            MetricRegistry metrics,
+            int slowestSubjects,
+            Duration window,
+            Clock clock
+    ) {
+        return new EquivalenceMetrics(
+                metrics,
+                SlowestEquivalenceSubjects.create(slowestSubjects, window, clock),
+                clock
+        );
+    }
+
+    /**
+     * Metrics for one updater of a source's configuration, e.g. its item updater or one of the
+     * result updaters that contributes to it.
+     */
+    public EquivalenceUpdaterMetrics forUpdater(String source, String updater) {
+        return new EquivalenceUpdaterMetrics(this, metrics, source, updater);
+    }
+
+    public List<EquivalenceSubjectTiming> slowestSubjects() {
+        return slowestSubjects.get();
+    }
+
+    <R> R timeSubject(String source, String updater, Content subject, Supplier<R> update) {
+        SubjectTimer previous = currentSubject.get();
+        SubjectTimer timer = new SubjectTimer(source, updater, subject, System.nanoTime());
+        currentSubject.set(timer);
+        boolean failed = true;
+        try {
+            R result = update.get();
+            failed = false;
+            return result;
+        } finally {
+            restore(previous);
+            slowestSubjects.offer(timer.finish(System.nanoTime(), failed));
+        }
+    }
+
+    <R> R timeStage(String stage, Supplier<R> work) {
+        SubjectTimer timer = currentSubject.get();
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            if (timer != null) {
+                timer.addStage(stage, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void restore(@Nullable SubjectTimer previous) {
+        if (previous == null) {
+            currentSubject.remove();
+        } else {
+            currentSubject.set(previous);
+        }
+    }
+
+    /**
+     * Only ever used by the thread equivalating the subject. Components that run on the
+     * component executor are timed as a whole by the stage that runs them.
+     */
+    private final class SubjectTimer {
+
+        private final EquivalenceSubjectTiming.Builder timing;
+        private final long start;
+
+        private SubjectTimer(String source, String updater, Content subject, long start) {
+            this.timing = EquivalenceSubjectTiming.builder()
+                    .withSubject(subject.getId() == null
+                                 ? null
+                                 : codec.encode(BigInteger.valueOf(subject.getId())),
+                            subject.getCanonicalUri())
+                    .withUpdater(source, updater)
+                    .withStarted(clock.now());
+            this.start = start;
+        }
+
+        private void addStage(String stage, long nanos) {
+            timing.addStage(stage, nanos);
+        }
+
+        private EquivalenceSubjectTiming finish(long end, boolean failed) {
+            return timing.build(end - start, failed);
+        }
+    }
+}
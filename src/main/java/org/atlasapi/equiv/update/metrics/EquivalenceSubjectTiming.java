@@ -0,0 +1,140 @@
+package org.atlasapi.equiv.update.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+import org.joda.time.DateTime;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * How long equivalating a subject took, and how much of that was spent in each stage. Stages
+ * are named after the result updater they ran in, e.g. {@code STANDARD_ITEM.generation}, and
+ * listed in the order they ran.
+ */
+public class EquivalenceSubjectTiming {
+
+    private final @Nullable String id;
+    private final String uri;
+    private final String source;
+    private final String updater;
+    private final DateTime started;
+    private final long durationNanos;
+    private final ImmutableMap<String, Long> stageNanos;
+    private final boolean failed;
+
+    private EquivalenceSubjectTiming(Builder builder, long durationNanos, boolean failed) {
+        this.id = builder.id;
+        this.uri = checkNotNull(builder.uri);
+        this.source = checkNotNull(builder.source);
+        this.updater = checkNotNull(builder.updater);
+        this.started = checkNotNull(builder.started);
+        this.durationNanos = durationNanos;
+        this.stageNanos = ImmutableMap.copyOf(builder.stageNanos);
+        this.failed = failed;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getUpdater() {
+        return updater;
+    }
+
+    public String getStarted() {
+        return started.toString();
+    }
+
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    public Map<String, Long> getStageMillis() {
+        Map<String, Long> stageMillis = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> stage : stageNanos.entrySet()) {
+            stageMillis.put(stage.getKey(), TimeUnit.NANOSECONDS.toMillis(stage.getValue()));
+        }
+        return stageMillis;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    DateTime getStartedTime() {
+        return started;
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("uri", uri)
+                .add("updater", source + "." + updater)
+                .add("millis", getMillis())
+                .add("stages", getStageMillis())
+                .add("failed", failed)
+                .toString();
+    }
+
+    static final class Builder {
+
+        private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+        private @Nullable String id;
+        private String uri;
+        private String source;
+        private String updater;
+        private DateTime started;
+
+        private Builder() {
+        }
+
+        Builder withSubject(@Nullable String id, String uri) {
+            this.id = id;
+            this.uri = uri;
+            return this;
+        }
+
+        Builder withUpdater(String source, String updater) {
+            this.source = source;
+            this.updater = updater;
+            return this;
+        }
+
+        Builder withStarted(DateTime started) {
+            this.started = started;
+            return this;
+        }
+
+        Builder addStage(String stage, long nanos) {
+            stageNanos.merge(stage, nanos, Long::sum);
+            return this;
+        }
+
+        EquivalenceSubjectTiming build(long durationNanos, boolean failed) {
+            return new EquivalenceSubjectTiming(this, durationNanos, failed);
+        }
+    }
+}
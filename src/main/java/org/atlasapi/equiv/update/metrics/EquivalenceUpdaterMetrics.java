@@ -0,0 +1,318 @@
+package org.atlasapi.equiv.update.metrics;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.atlasapi.equiv.generators.EquivalenceGenerator;
+import org.atlasapi.equiv.generators.metadata.EquivalenceGeneratorMetadata;
+import org.atlasapi.equiv.handlers.EquivalenceResultHandler;
+import org.atlasapi.equiv.results.EquivalenceResults;
+import org.atlasapi.equiv.results.combining.ScoreCombiner;
+import org.atlasapi.equiv.results.description.ResultDescription;
+import org.atlasapi.equiv.results.extractors.EquivalenceExtractor;
+import org.atlasapi.equiv.results.filters.EquivalenceFilter;
+import org.atlasapi.equiv.results.scores.ScoredCandidate;
+import org.atlasapi.equiv.results.scores.ScoredCandidates;
+import org.atlasapi.equiv.scorers.EquivalenceScorer;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+import org.atlasapi.media.entity.Content;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The metrics of one updater, named {@code equiv.<source>.<updater>}. Components are instrumented
+ * by wrapping them, and their metrics named after the kind and class of component, e.g.
+ * {@code equiv.PA.STANDARD_ITEM.generator.TitleSearchGenerator.time}. Components of the same
+ * class in the same updater share their metrics.
+ */
+public class EquivalenceUpdaterMetrics {
+
+    private final EquivalenceMetrics equivalenceMetrics;
+    private final MetricRegistry metrics;
+    private final String source;
+    private final String updater;
+    private final ComponentMetrics subjects;
+
+    EquivalenceUpdaterMetrics(
+            EquivalenceMetrics equivalenceMetrics,
+            MetricRegistry metrics,
+            String source,
+            String updater
+    ) {
+        this.equivalenceMetrics = checkNotNull(equivalenceMetrics);
+        this.metrics = checkNotNull(metrics);
+        this.source = checkNotNull(source);
+        this.updater = checkNotNull(updater);
+        this.subjects = new ComponentMetrics(MetricRegistry.name("equiv", source, updater));
+    }
+
+    public <T> EquivalenceGenerator<T> instrument(EquivalenceGenerator<T> generator) {
+        return new InstrumentedGenerator<>(generator, componentMetrics("generator", generator));
+    }
+
+    public <T> EquivalenceScorer<T> instrument(EquivalenceScorer<T> scorer) {
+        return new InstrumentedScorer<>(scorer, componentMetrics("scorer", scorer));
+    }
+
+    public <T> ScoreCombiner<T> instrument(ScoreCombiner<T> combiner) {
+        return new InstrumentedCombiner<>(combiner, componentMetrics("combiner", combiner));
+    }
+
+    public <T> EquivalenceFilter<T> instrument(EquivalenceFilter<T> filter) {
+        return new InstrumentedFilter<>(filter, componentMetrics("filter", filter));
+    }
+
+    public <T> EquivalenceExtractor<T> instrument(EquivalenceExtractor<T> extractor) {
+        return new InstrumentedExtractor<>(extractor, componentMetrics("extractor", extractor));
+    }
+
+    public <T> EquivalenceResultHandler<T> instrument(EquivalenceResultHandler<T> handler) {
+        return new InstrumentedHandler<>(handler, componentMetrics("handler", handler));
+    }
+
+    /**
+     * Times the whole of equivalating {@code subject}, which becomes one of the slowest subjects
+     * if it takes long enough. Stages timed on the same thread meanwhile make up its breakdown.
+     */
+    public <R> R timeSubject(Content subject, Supplier<R> update) {
+        return subjects.time(
+                () -> equivalenceMetrics.timeSubject(source, updater, subject, update),
+                result -> -1
+        );
+    }
+
+    /**
+     * Times a stage of the subject currently being equivalated, e.g. {@code generation}.
+     */
+    public <R> R timeStage(String stage, Supplier<R> work) {
+        return equivalenceMetrics.timeStage(updater + "." + stage, work);
+    }
+
+    private ComponentMetrics componentMetrics(String kind, Object component) {
+        return new ComponentMetrics(MetricRegistry.name(
+                "equiv",
+                source,
+                updater,
+                kind,
+                componentName(component)
+        ));
+    }
+
+    private static String componentName(Object component) {
+        String name = component.getClass().getSimpleName();
+        return name.isEmpty() ? component.getClass().getName() : name;
+    }
+
+    private final class ComponentMetrics {
+
+        private final Timer time;
+        private final Meter errors;
+        private final String candidates;
+
+        private ComponentMetrics(String name) {
+            this.time = metrics.timer(MetricRegistry.name(name, "time"));
+            this.errors = metrics.meter(MetricRegistry.name(name, "errors"));
+            this.candidates = MetricRegistry.name(name, "candidates");
+        }
+
+        /**
+         * @param candidateCount the number of candidates in the result, or a negative number if
+         *                       it doesn't have candidates
+         */
+        private <R> R time(Supplier<R> call, ToIntFunction<? super R> candidateCount) {
+            Timer.Context timing = time.time();
+            try {
+                R result = call.get();
+                int count = candidateCount.applyAsInt(result);
+                if (count >= 0) {
+                    metrics.histogram(candidates).update(count);
+                }
+                return result;
+            } catch (RuntimeException | Error e) {
+                errors.mark();
+                throw e;
+            } finally {
+                timing.stop();
+            }
+        }
+    }
+
+    private static int candidateCount(ScoredCandidates<?> scores) {
+        return scores.candidates().size();
+    }
+
+    private static final class InstrumentedGenerator<T> implements EquivalenceGenerator<T> {
+
+        private final EquivalenceGenerator<T> delegate;
+        private final ComponentMetrics metrics;
+
+        private InstrumentedGenerator(EquivalenceGenerator<T> delegate, ComponentMetrics metrics) {
+            this.delegate = checkNotNull(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public ScoredCandidates<T> generate(
+                T subject,
+                ResultDescription desc,
+                EquivToTelescopeResult equivToTelescopeResult
+        ) {
+            return metrics.time(
+                    () -> delegate.generate(subject, desc, equivToTelescopeResult),
+                    EquivalenceUpdaterMetrics::candidateCount
+            );
+        }
+
+        @Override
+        public EquivalenceGeneratorMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class InstrumentedScorer<T> implements EquivalenceScorer<T> {
+
+        private final EquivalenceScorer<T> delegate;
+        private final ComponentMetrics metrics;
+
+        private InstrumentedScorer(EquivalenceScorer<T> delegate, ComponentMetrics metrics) {
+            this.delegate = checkNotNull(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public ScoredCandidates<T> score(
+                T subject,
+                Set<? extends T> candidates,
+                ResultDescription desc,
+                EquivToTelescopeResult equivToTelescopeResult
+        ) {
+            return metrics.time(
+                    () -> delegate.score(subject, candidates, desc, equivToTelescopeResult),
+                    EquivalenceUpdaterMetrics::candidateCount
+            );
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class InstrumentedCombiner<T> implements ScoreCombiner<T> {
+
+        private final ScoreCombiner<T> delegate;
+        private final ComponentMetrics metrics;
+
+        private InstrumentedCombiner(ScoreCombiner<T> delegate, ComponentMetrics metrics) {
+            this.delegate = checkNotNull(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public ScoredCandidates<T> combine(
+                List<ScoredCandidates<T>> scoredEquivalents,
+                ResultDescription desc
+        ) {
+            return metrics.time(
+                    () -> delegate.combine(scoredEquivalents, desc),
+                    EquivalenceUpdaterMetrics::candidateCount
+            );
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class InstrumentedFilter<T> implements EquivalenceFilter<T> {
+
+        private final EquivalenceFilter<T> delegate;
+        private final ComponentMetrics metrics;
+
+        private InstrumentedFilter(EquivalenceFilter<T> delegate, ComponentMetrics metrics) {
+            this.delegate = checkNotNull(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public List<ScoredCandidate<T>> apply(
+                Iterable<ScoredCandidate<T>> candidates,
+                T subject,
+                ResultDescription desc,
+                EquivToTelescopeResult equivToTelescopeResult
+        ) {
+            return metrics.time(
+                    () -> delegate.apply(candidates, subject, desc, equivToTelescopeResult),
+                    Collection::size
+            );
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class InstrumentedExtractor<T> implements EquivalenceExtractor<T> {
+
+        private final EquivalenceExtractor<T> delegate;
+        private final ComponentMetrics metrics;
+
+        private InstrumentedExtractor(EquivalenceExtractor<T> delegate, ComponentMetrics metrics) {
+            this.delegate = checkNotNull(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public Set<ScoredCandidate<T>> extract(
+                List<ScoredCandidate<T>> candidates,
+                T subject,
+                ResultDescription desc,
+                EquivToTelescopeResult equivToTelescopeResult
+        ) {
+            return metrics.time(
+                    () -> delegate.extract(candidates, subject, desc, equivToTelescopeResult),
+                    Collection::size
+            );
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+
+    private static final class InstrumentedHandler<T> implements EquivalenceResultHandler<T> {
+
+        private final EquivalenceResultHandler<T> delegate;
+        private final ComponentMetrics metrics;
+
+        private InstrumentedHandler(EquivalenceResultHandler<T> delegate, ComponentMetrics metrics) {
+            this.delegate = checkNotNull(delegate);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public boolean handle(EquivalenceResults<T> results) {
+            return metrics.time(() -> delegate.handle(results), changed -> -1);
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
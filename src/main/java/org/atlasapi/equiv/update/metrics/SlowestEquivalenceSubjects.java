@@ -0,0 +1,66 @@
+package org.atlasapi.equiv.update.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.metabroadcast.common.time.Clock;
+
+import com.google.common.collect.Ordering;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Keeps the slowest subjects equivalated within a recent window. The fastest of those kept is
+ * at the head of a bounded heap, so a subject that isn't among the slowest is turned away
+ * without touching the rest.
+ */
+class SlowestEquivalenceSubjects {
+
+    private static final Ordering<EquivalenceSubjectTiming> FASTEST_FIRST = Ordering.from(
+            Comparator.comparingLong(EquivalenceSubjectTiming::getDurationNanos)
+    );
+
+    private final int capacity;
+    private final Duration window;
+    private final Clock clock;
+    private final PriorityQueue<EquivalenceSubjectTiming> slowest;
+
+    private SlowestEquivalenceSubjects(int capacity, Duration window, Clock clock) {
+        checkArgument(capacity > 0, "capacity must be positive");
+        this.capacity = capacity;
+        this.window = checkNotNull(window);
+        this.clock = checkNotNull(clock);
+        this.slowest = new PriorityQueue<>(capacity, FASTEST_FIRST);
+    }
+
+    static SlowestEquivalenceSubjects create(int capacity, Duration window, Clock clock) {
+        return new SlowestEquivalenceSubjects(capacity, window, clock);
+    }
+
+    synchronized void offer(EquivalenceSubjectTiming timing) {
+        removeExpired();
+        if (slowest.size() < capacity) {
+            slowest.add(timing);
+        } else if (FASTEST_FIRST.compare(timing, slowest.peek()) > 0) {
+            slowest.poll();
+            slowest.add(timing);
+        }
+    }
+
+    /**
+     * The subjects kept, slowest first.
+     */
+    synchronized List<EquivalenceSubjectTiming> get() {
+        removeExpired();
+        return FASTEST_FIRST.reverse().immutableSortedCopy(slowest);
+    }
+
+    private void removeExpired() {
+        DateTime cutoff = clock.now().minus(window);
+        slowest.removeIf(timing -> timing.getStartedTime().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,4 @@
+@NonNullByDefault
+package org.atlasapi.equiv.update.metrics;
+
+import com.metabroadcast.common.annotation.NonNullByDefault;
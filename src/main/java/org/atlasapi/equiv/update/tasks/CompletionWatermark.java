@@ -0,0 +1,61 @@
+package org.atlasapi.equiv.update.tasks;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.base.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Tracks elements that are processed concurrently but listed in order, and reports the last
+ * element before which everything has completed. That element is safe to checkpoint: resuming
+ * from it only repeats the elements that were in flight at the time.
+ * <p>
+ * Elements must be started in ascending position order; they may complete in any order.
+ */
+final class CompletionWatermark<T> {
+
+    private final TreeMap<Long, InFlight<T>> inFlight = new TreeMap<>();
+    private long nextPosition = 0;
+    private Optional<T> lowWatermark = Optional.absent();
+
+    /**
+     * Records that {@code element} has started, returning the position to complete it with.
+     */
+    synchronized long started(T element) {
+        long position = nextPosition++;
+        inFlight.put(position, new InFlight<>(element));
+        return position;
+    }
+
+    synchronized void completed(long position) {
+        InFlight<T> completed = inFlight.get(position);
+        checkArgument(completed != null, "Position %s is not in flight", position);
+        checkState(!completed.done, "Position %s already completed", position);
+        completed.done = true;
+
+        while (!inFlight.isEmpty() && inFlight.firstEntry().getValue().done) {
+            Map.Entry<Long, InFlight<T>> first = inFlight.pollFirstEntry();
+            lowWatermark = Optional.of(first.getValue().element);
+        }
+    }
+
+    /**
+     * The last element such that it and every element started before it have completed.
+     */
+    synchronized Optional<T> lowWatermark() {
+        return lowWatermark;
+    }
+
+    private static final class InFlight<T> {
+
+        private final T element;
+        private boolean done = false;
+
+        private InFlight(T element) {
+            this.element = element;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.atlasapi.equiv.update.tasks;
 import com.google.common.base.Joiner;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.metabroadcast.columbus.telescope.api.Event;
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.scheduling.ScheduledTask;
@@ -25,14 +26,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
-import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 import static com.metabroadcast.common.scheduling.UpdateProgress.FAILURE;
@@ -58,6 +56,8 @@ public final class ContentEquivalenceUpdateTask extends ScheduledTask {
     private final OwlTelescopeReporter telescope;
 
     public static final int SAVE_EVERY_BLOCK_SIZE = 50;
+    public static final int MAX_IN_FLIGHT = SAVE_EVERY_BLOCK_SIZE;
+    private static final int RESOLVE_BATCH_SIZE = 50;
 
     private String schedulingKey = "equivalence";
     private List<Publisher> publishers;
@@ -119,67 +119,80 @@ public final class ContentEquivalenceUpdateTask extends ScheduledTask {
 
         onStart(progress);
 
-        Iterator<String> uriIterator = contentLister.listContentUris(listingCriteria(progress));
-        Queue<String> contentUris = new LinkedList<>();
-        uriIterator.forEachRemaining(contentUris::add);
+        Iterator<Content> contents = resolveInBatches(
+                contentLister.listContentUris(listingCriteria(progress))
+        );
 
         log.info("Running equiv on all content from {}", progress.getPublisher());
         if (executor == null) {
-            runSynchronously(contentUris);
+            runSynchronously(contents);
         } else {
-            runAsynchronously(contentUris);
+            runAsynchronously(contents);
         }
     }
 
-    private void runAsynchronously(Queue<String> uris) {
-        String currentUri = null;
-        Content currentContent = null;
+    /**
+     * Keeps at most {@link #MAX_IN_FLIGHT} items submitted to the executor at once, and
+     * checkpoints the low watermark of completed items rather than waiting for whole blocks to
+     * finish, so a single slow item does not hold up the others. On resume only items that were
+     * in flight can be processed again.
+     */
+    private void runAsynchronously(Iterator<Content> contents) {
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        CompletionWatermark<Content> watermark = new CompletionWatermark<>();
+        Content lastCheckpointed = null;
+        int submitted = 0;
         try {
-            while (shouldContinue() && !uris.isEmpty()) {
-                //Normally this saves progress to the db every 10 items. With multithreading
-                //we need to make sure that when progress is written, everything before that item
-                //has completed successfully. The strategy chosen was to batch tasks into
-                //blocks of SAVE_EVERY_BLOCK_SIZE, add them to the executor, wait for the whole
-                //batch to finish, write progress, repeat until done.
-                CountDownLatch latch = new CountDownLatch(SAVE_EVERY_BLOCK_SIZE);
-                int submitted = 0;
-                while (shouldContinue() && !uris.isEmpty() && submitted < SAVE_EVERY_BLOCK_SIZE) {
-                    currentUri = uris.poll();
-                    //We don't check the result of handle, because that was always true. If you
-                    //ever need to check that result you probably need to refactor the code
-                    //using invokeAll instead of the countdown latch.
-                    currentContent = resolveUri(currentUri);
-                    executor.submit(handleAsync(currentContent, latch));
-                    submitted++;
+            while (shouldContinue() && contents.hasNext()) {
+                Content content = contents.next();
+                inFlight.acquire();
+                long position = watermark.started(content);
+                try {
+                    executor.submit(() -> {
+                        try {
+                            //We don't check the result of handle, because that was always
+                            //true. A failure is logged and counted in the task progress.
+                            handle(content);
+                        } finally {
+                            watermark.completed(position);
+                            inFlight.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
                 }
 
-                //reduce the latch by the difference between the wanted amount,
-                // and the amount we managed to submit. (i.e. manage the last few).
-                while (submitted < SAVE_EVERY_BLOCK_SIZE) {
-                    latch.countDown();
-                    submitted++;
+                if (++submitted % SAVE_EVERY_BLOCK_SIZE == 0) {
+                    lastCheckpointed = checkpoint(watermark, lastCheckpointed);
                 }
-                //wait for the block to finish, write progress in the db, continue with next block.
-                latch.await();
-                updateProgress(progressFrom(currentContent));
             }
+            //wait for everything still in flight before finishing
+            inFlight.acquire(MAX_IN_FLIGHT);
+            inFlight.release(MAX_IN_FLIGHT);
         } catch (Exception e) {
             log.error(getName(), e);
-            onFinish(false, null);  //pass null so as to not persist state
+            onFinish(false, watermark.lowWatermark().orNull());
             Throwables.propagate(e);    //in order to set the task as failed
         }
-        onFinish(shouldContinue(), null);
+        onFinish(shouldContinue(), watermark.lowWatermark().orNull());
+    }
+
+    private Content checkpoint(CompletionWatermark<Content> watermark, Content lastCheckpointed) {
+        Content lowWatermark = watermark.lowWatermark().orNull();
+        if (lowWatermark != null && lowWatermark != lastCheckpointed) {
+            updateProgress(progressFrom(lowWatermark));
+        }
+        return lowWatermark;
     }
 
-    private void runSynchronously(Queue<String> uris) {
+    private void runSynchronously(Iterator<Content> contents) {
         boolean proceed = true;
-        String currentUri = null;
         Content currentContent = null;
         int processed = 0;
         try {
-            while (shouldContinue() && proceed && !uris.isEmpty()) {
-                currentUri = uris.poll();
-                currentContent = resolveUri(currentUri);
+            while (shouldContinue() && proceed && contents.hasNext()) {
+                currentContent = contents.next();
                 proceed = handle(currentContent);
                 if (++processed % 10 == 0) {
                     updateProgress(progressFrom(currentContent));
@@ -193,17 +206,34 @@ public final class ContentEquivalenceUpdateTask extends ScheduledTask {
         onFinish(proceed && shouldContinue(), currentContent);
     }
 
-    private boolean isContent(Maybe<Identified> possibleContent) {
-        return possibleContent.valueOrNull() instanceof Content;
+    /**
+     * Lazily resolves the listed URIs {@link #RESOLVE_BATCH_SIZE} at a time, so neither the full
+     * URI listing nor more than one batch of content is held in memory.
+     */
+    private Iterator<Content> resolveInBatches(Iterator<String> uris) {
+        return Iterators.concat(Iterators.transform(
+                Iterators.partition(uris, RESOLVE_BATCH_SIZE),
+                this::resolveUris
+        ));
+    }
+
+    private Iterator<Content> resolveUris(List<String> uris) {
+        ResolvedContent resolvedContent = contentResolver.findByCanonicalUris(uris);
+        ImmutableList.Builder<Content> contents = ImmutableList.builder();
+        for (String uri : uris) {
+            Maybe<Identified> possibleContent = resolvedContent.get(uri);
+            if (isContent(possibleContent)) {
+                contents.add((Content) possibleContent.requireValue());
+            } else {
+                //shouldn't happen; should always be found as uris were taken from db
+                log.warn("Could not resolve {} listed for equivalence", uri);
+            }
+        }
+        return contents.build().iterator();
     }
 
-    private Content resolveUri(String currentUri) {
-        ResolvedContent resolvedContent = contentResolver.findByCanonicalUris(Collections
-                .singleton(currentUri));
-        Maybe<Identified> possibleContent = resolvedContent.get(currentUri);
-        return isContent(possibleContent)
-               ? (Content) possibleContent.requireValue()
-               : null;    //shouldn't happen; should always be found as uris were taken from db
+    private boolean isContent(Maybe<Identified> possibleContent) {
+        return possibleContent.valueOrNull() instanceof Content;
     }
 
     protected void onStart(ContentListingProgress progress) {
@@ -238,11 +268,6 @@ public final class ContentEquivalenceUpdateTask extends ScheduledTask {
         return true;
     }
 
-
-    protected Runnable handleAsync(Content content, CountDownLatch latch){
-        return () -> {handle(content); latch.countDown();};
-    }
-
     protected void onFinish(boolean finished, @Nullable Content lastProcessed) {
         telescope.endReporting();
         persistProgress(finished, lastProcessed);
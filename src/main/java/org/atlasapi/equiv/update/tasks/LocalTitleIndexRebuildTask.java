@@ -0,0 +1,31 @@
+package org.atlasapi.equiv.update.tasks;
+
+import org.atlasapi.equiv.generators.LocalTitleIndex;
+
+import com.metabroadcast.common.scheduling.ScheduledTask;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Rebuilds a {@link LocalTitleIndex} from the content store, dropping the entries and postings
+ * left behind by content that has changed since the last build.
+ */
+public class LocalTitleIndexRebuildTask extends ScheduledTask {
+
+    private final LocalTitleIndex index;
+
+    private LocalTitleIndexRebuildTask(LocalTitleIndex index) {
+        this.index = checkNotNull(index);
+    }
+
+    public static LocalTitleIndexRebuildTask create(LocalTitleIndex index) {
+        return new LocalTitleIndexRebuildTask(index);
+    }
+
+    @Override
+    protected void runTask() {
+        reportStatus("Rebuilding");
+        index.rebuild();
+        reportStatus(String.format("Indexed %s titles", index.size()));
+    }
+}
@@ -5,6 +5,13 @@ import static com.metabroadcast.common.scheduling.UpdateProgress.SUCCESS;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nullable;
 
 import org.atlasapi.equiv.update.EquivalenceUpdater;
 import org.atlasapi.media.channel.Channel;
@@ -17,13 +24,22 @@ import org.atlasapi.media.entity.Schedule.ScheduleChannel;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ResolvedContent;
 import org.atlasapi.persistence.content.ScheduleResolver;
+import org.atlasapi.persistence.content.listing.ContentListingProgress;
+import org.atlasapi.persistence.content.tasks.ScheduleTaskProgressStore;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporter;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporterFactory;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporters;
 
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,6 +53,20 @@ import com.metabroadcast.common.scheduling.UpdateProgress;
 import com.metabroadcast.common.time.DayRange;
 import com.metabroadcast.common.time.DayRangeGenerator;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Equivalates the items in the schedules of the given publishers and channels over a window of
+ * days. The work is sharded into channel-days, which run concurrently on the executor if one is
+ * given, and each channel-day's items are resolved in a single batch.
+ * <p>
+ * If a progress store is given, the last channel-day before which everything has completed is
+ * checkpointed, so an interrupted run resumes after it rather than from the start. The checkpoint
+ * is scoped to the run's window of days, and is ignored by a run over a different window, since
+ * channel-days are started furthest day first and a new window begins with a day the
+ * interrupted run never reached.
+ */
 public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
 
     private final EquivalenceUpdater<Content> updater;
@@ -46,9 +76,19 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
     private final ContentResolver contentResolver;
     private final int back;
     private final int forward;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final @Nullable ScheduleTaskProgressStore progressStore;
+    private final String schedulingKey;
+    private final Timer channelDayTimer;
+    private final Meter itemsMeter;
+    private final Meter failuresMeter;
 
     private final Logger log = LoggerFactory.getLogger(ScheduleEquivalenceUpdateTask.class);
 
+    private UpdateProgress progress = UpdateProgress.START;
+    private final AtomicInteger completedChannelDays = new AtomicInteger();
+
     public static Builder builder() {
         return new Builder();
     }
@@ -56,7 +96,8 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
     private ScheduleEquivalenceUpdateTask(ContentResolver contentResolver, EquivalenceUpdater<Content> updater,
             ScheduleResolver scheduleResolver, List<Publisher> publishers,
             Supplier<Iterable<Channel>> channelsSupplier,
-            int back, int forward) {
+            int back, int forward, ExecutorService executor, int maxInFlight,
+            @Nullable ScheduleTaskProgressStore progressStore, MetricRegistry metrics) {
         this.contentResolver = contentResolver;
         this.updater = updater;
         this.scheduleResolver = scheduleResolver;
@@ -64,28 +105,28 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
         this.channelsSupplier = channelsSupplier;
         this.back = back;
         this.forward = forward;
+        this.executor = checkNotNull(executor);
+        this.maxInFlight = maxInFlight;
+        this.progressStore = progressStore;
+        this.schedulingKey = Joiner.on("-").join(Lists.transform(publishers, Publisher.TO_KEY))
+                + "-schedule-equivalence";
+
+        String metricPrefix = MetricRegistry.name("equiv", "schedule", schedulingKey);
+        this.channelDayTimer = metrics.timer(MetricRegistry.name(metricPrefix, "channelDay"));
+        this.itemsMeter = metrics.meter(MetricRegistry.name(metricPrefix, "items"));
+        this.failuresMeter = metrics.meter(MetricRegistry.name(metricPrefix, "failures"));
     }
 
     @Override
     protected void runTask() {
-        UpdateProgress progress = UpdateProgress.START;
-
         DayRange range = new DayRangeGenerator()
             .withLookBack(back)
             .withLookAhead(forward)
             .generate(new LocalDate());
 
-        // It's better to run in reverse order, since the furthest point in the schedule
-        // is likely to have not been run before, and if run last it's more subject
-        // to job interruptions.
-        //
-        // If we were to run forwards, we would first recompute days which have been
-        // computed before, rather than first running days at the end of the schedule for
-        // the first time.
-
-        Iterator<LocalDate> dayIterator = Lists.reverse(Lists.newArrayList(range.iterator()))
-                .iterator();
-        LocalDate start, end;
+        List<ChannelDay> channelDays = channelDays(range);
+        String window = window(channelDays);
+        int resumeFrom = resumePosition(window, channelDays);
 
         OwlTelescopeReporter telescope = OwlTelescopeReporterFactory.getInstance().getTelescopeReporter(
                 OwlTelescopeReporters.CHANNEL_SCHEDULE_EQUIVALENCE,
@@ -93,87 +134,239 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
         );
 
         telescope.startReporting();
-        
-        while(dayIterator.hasNext()) {
-            start = dayIterator.next();
-            end = start.plusDays(1);
-            progress = progress.reduce(equivalateSchedule(start, end, telescope));
+        progress = UpdateProgress.START;
+        completedChannelDays.set(resumeFrom);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+
+        CompletionWatermark<ChannelDay> watermark = new CompletionWatermark<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Optional<ChannelDay> lastCheckpointed = Optional.absent();
+        try {
+            Iterator<ChannelDay> remaining = channelDays.subList(resumeFrom, channelDays.size())
+                    .iterator();
+            while (shouldContinue() && remaining.hasNext()) {
+                ChannelDay channelDay = remaining.next();
+                inFlight.acquire();
+                long position = watermark.started(channelDay);
+                try {
+                    executor.submit(() -> {
+                        try {
+                            if (equivalate(channelDay, telescope, channelDays.size(), stopwatch)) {
+                                watermark.completed(position);
+                            }
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                lastCheckpointed = checkpoint(window, watermark, lastCheckpointed);
+            }
+            //wait for everything still in flight before finishing
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while equivalating schedules for {}", schedulingKey);
+        } catch (RuntimeException e) {
+            log.error(getName(), e);
+            checkpoint(window, watermark, lastCheckpointed);
+            throw e;
+        } finally {
+            telescope.endReporting();
+        }
+
+        if (shouldContinue() && !Thread.currentThread().isInterrupted()) {
+            storeProgress(ContentListingProgress.START);
+        } else {
+            checkpoint(window, watermark, lastCheckpointed);
         }
 
-        telescope.endReporting();
-        
         reportStatus(String.format(
-                "Finished. %d Items processed, %d failed",
+                "Finished. %d Items processed, %d failed, in %d channel-days at %.1f items/s",
                 progress.getProcessed(),
-                progress.getFailures()
+                progress.getFailures(),
+                completedChannelDays.get() - resumeFrom,
+                throughput(progress, stopwatch)
         ));
     }
 
-    public UpdateProgress equivalateSchedule(
-            LocalDate start,
-            LocalDate end,
-            OwlTelescopeReporter telescope
+    /**
+     * The channel-days to equivalate, in the order they are started. It's better to run days in
+     * reverse order, since the furthest point in the schedule is likely to have not been run
+     * before, and if run last it's more subject to job interruptions.
+     * <p>
+     * If we were to run forwards, we would first recompute days which have been computed before,
+     * rather than first running days at the end of the schedule for the first time.
+     */
+    private List<ChannelDay> channelDays(DayRange range) {
+        List<Channel> channels = ImmutableList.copyOf(channelsSupplier.get());
+        ImmutableList.Builder<ChannelDay> channelDays = ImmutableList.builder();
+        for (LocalDate day : Lists.reverse(Lists.newArrayList(range.iterator()))) {
+            for (Publisher publisher : publishers) {
+                for (Channel channel : channels) {
+                    channelDays.add(new ChannelDay(publisher, channel, day));
+                }
+            }
+        }
+        return channelDays.build();
+    }
+
+    /**
+     * The first and last days of the window, which prefix the checkpointed channel-day's key.
+     */
+    private String window(List<ChannelDay> channelDays) {
+        if (channelDays.isEmpty()) {
+            return "";
+        }
+        LocalDate first = channelDays.get(channelDays.size() - 1).day;
+        LocalDate last = channelDays.get(0).day;
+        return first + ".." + last;
+    }
+
+    private String checkpointKey(String window, ChannelDay channelDay) {
+        return Joiner.on('/').join(window, channelDay.key());
+    }
+
+    /**
+     * The position after the checkpointed channel-day, or the start if there isn't one or it was
+     * checkpointed by a run over a different window.
+     */
+    private int resumePosition(String window, List<ChannelDay> channelDays) {
+        if (progressStore == null) {
+            return 0;
+        }
+        ContentListingProgress stored = progressStore.progressForTask(schedulingKey);
+        if (stored == null || stored.getUri() == null) {
+            return 0;
+        }
+        for (int i = 0; i < channelDays.size(); i++) {
+            if (checkpointKey(window, channelDays.get(i)).equals(stored.getUri())) {
+                log.info("Resuming {} after {}", schedulingKey, stored.getUri());
+                return i + 1;
+            }
+        }
+        log.info("Ignoring checkpoint {} for {} outside window {}", stored.getUri(), schedulingKey, window);
+        return 0;
+    }
+
+    private Optional<ChannelDay> checkpoint(
+            String window,
+            CompletionWatermark<ChannelDay> watermark,
+            Optional<ChannelDay> lastCheckpointed
     ) {
-        UpdateProgress progress = UpdateProgress.START;
+        Optional<ChannelDay> lowWatermark = watermark.lowWatermark();
+        if (lowWatermark.isPresent() && !lowWatermark.equals(lastCheckpointed)) {
+            ChannelDay channelDay = lowWatermark.get();
+            storeProgress(new ContentListingProgress(null, channelDay.publisher, checkpointKey(window, channelDay)));
+        }
+        return lowWatermark;
+    }
 
-        for (Publisher publisher : publishers) {
-            for (Channel channel : channelsSupplier.get()) {
+    private void storeProgress(ContentListingProgress progress) {
+        if (progressStore != null) {
+            progressStore.storeProgress(schedulingKey, progress);
+        }
+    }
 
+    /**
+     * Equivalates the items of one channel-day, returning whether all of them were attempted. A
+     * channel-day whose schedule can't be resolved counts as attempted, and is reported as failed.
+     */
+    private boolean equivalate(
+            ChannelDay channelDay,
+            OwlTelescopeReporter telescope,
+            int totalChannelDays,
+            Stopwatch stopwatch
+    ) {
+        Timer.Context timing = channelDayTimer.time();
+        try {
+            Set<String> uris = scheduleItemUris(channelDay);
+            if (uris.isEmpty()) {
+                return true;
+            }
+            ResolvedContent resolvedContent = contentResolver.findByCanonicalUris(uris);
+            for (String uri : uris) {
                 if (!shouldContinue()) {
-                    return progress;
-                }
-                
-                Schedule schedule = scheduleResolver.unmergedSchedule(
-                        start.toDateTimeAtStartOfDay(),
-                        end.toDateTimeAtStartOfDay(),
-                        ImmutableList.of(channel),
-                        ImmutableList.of(publisher));
-                
-                Iterator<ScheduleChannel> channelItr = schedule.scheduleChannels().iterator();
-                if (!channelItr.hasNext()) {
-                    throw new RuntimeException(String.format(
-                        "No schedule channel in schedule for %s, channel %s, from %s to %s", 
-                        publisher.name(), 
-                        channel.getTitle(), 
-                        start.toString(), 
-                        end.toString()
-                    ));
+                    return false;
                 }
-                ScheduleChannel scheduleChannel = channelItr.next();
-
-                Iterator<Item> channelItems = scheduleChannel.items().iterator();
-                while (channelItems.hasNext() && shouldContinue()) {
-                    Item scheduleItem = channelItems.next();
-                    ResolvedContent resolvedContent = contentResolver.findByCanonicalUris(
-                            ImmutableSet.of(scheduleItem.getCanonicalUri()));
-                    Maybe<Identified> identified = resolvedContent.get(scheduleItem.getCanonicalUri());
-                    if (identified.hasValue()) {
-                        Item value = (Item) identified.requireValue();
-                        progress = progress.reduce(process(value, telescope));
-                        reportStatus(generateStatus(start, end, progress, publisher, scheduleItem, channel));
-                    }
+                Maybe<Identified> identified = resolvedContent.get(uri);
+                if (identified.hasValue() && identified.requireValue() instanceof Item) {
+                    Item item = (Item) identified.requireValue();
+                    recordProgress(process(item, telescope));
                 }
+            }
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Error equivalating schedule for " + channelDay, e);
+            telescope.reportFailedEvent(
+                    String.format("Error equivalating schedule for %s: %s", channelDay, e.getMessage())
+            );
+            failuresMeter.mark();
+            return true;
+        } finally {
+            timing.stop();
+            reportStatus(generateStatus(
+                    channelDay,
+                    completedChannelDays.incrementAndGet(),
+                    totalChannelDays,
+                    stopwatch
+            ));
+        }
+    }
 
+    private Set<String> scheduleItemUris(ChannelDay channelDay) {
+        Schedule schedule = scheduleResolver.unmergedSchedule(
+                channelDay.day.toDateTimeAtStartOfDay(),
+                channelDay.day.plusDays(1).toDateTimeAtStartOfDay(),
+                ImmutableList.of(channelDay.channel),
+                ImmutableList.of(channelDay.publisher));
+
+        Iterator<ScheduleChannel> channelItr = schedule.scheduleChannels().iterator();
+        if (!channelItr.hasNext()) {
+            throw new RuntimeException(String.format(
+                "No schedule channel in schedule for %s, channel %s, on %s",
+                channelDay.publisher.name(),
+                channelDay.channel.getTitle(),
+                channelDay.day.toString()
+            ));
+        }
 
-            }   
+        ImmutableSet.Builder<String> uris = ImmutableSet.builder();
+        for (Item scheduleItem : channelItr.next().items()) {
+            uris.add(scheduleItem.getCanonicalUri());
         }
+        return uris.build();
+    }
 
-        return progress;
+    private synchronized void recordProgress(UpdateProgress itemProgress) {
+        progress = progress.reduce(itemProgress);
+        itemsMeter.mark();
+        if (itemProgress.getFailures() > 0) {
+            failuresMeter.mark();
+        }
     }
 
-    private String generateStatus(LocalDate start, LocalDate end, UpdateProgress progress, Publisher publisher, Item item, Channel channel) {
+    private synchronized String generateStatus(ChannelDay channelDay, int completed, int total,
+            Stopwatch stopwatch) {
         return String.format(
-            "Updating %s on %s, with publisher %s, between %s and %s. Current progress: %d processed, %d failures",
-            item.getCanonicalUri(),
-            channel.getCanonicalUri(),
-            publisher.name(), 
-            start.toString(), 
-            end.toString(),
+            "Updated %s. %d of %d channel-days done. Current progress: %d processed, %d failures, %.1f items/s",
+            channelDay,
+            completed,
+            total,
             progress.getProcessed(),
-            progress.getFailures()
+            progress.getFailures(),
+            throughput(progress, stopwatch)
         );
     }
 
+    private static double throughput(UpdateProgress progress, Stopwatch stopwatch) {
+        long millis = Math.max(1, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+        return progress.getTotalProgress() * 1000.0 / millis;
+    }
+
     private UpdateProgress process(Item item, OwlTelescopeReporter telescope) {
         try {
             updater.updateEquivalences(item, telescope);
@@ -185,6 +378,28 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
         }
     }
 
+    private static final class ChannelDay {
+
+        private final Publisher publisher;
+        private final Channel channel;
+        private final LocalDate day;
+
+        private ChannelDay(Publisher publisher, Channel channel, LocalDate day) {
+            this.publisher = publisher;
+            this.channel = channel;
+            this.day = day;
+        }
+
+        private String key() {
+            return Joiner.on('/').join(day, publisher.key(), channel.getCanonicalUri());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s on %s from %s", channel.getCanonicalUri(), day, publisher.name());
+        }
+    }
+
     public static class Builder {
 
         private EquivalenceUpdater<Content> updater;
@@ -194,6 +409,10 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
         private Supplier<Iterable<Channel>> channelsSupplier;
         private int back;
         private int forward;
+        private ExecutorService executor = MoreExecutors.sameThreadExecutor();
+        private int maxInFlight = 1;
+        private ScheduleTaskProgressStore progressStore;
+        private MetricRegistry metrics = new MetricRegistry();
 
         public ScheduleEquivalenceUpdateTask build() {
             return new ScheduleEquivalenceUpdateTask(
@@ -203,7 +422,11 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
                     publishers,
                     channelsSupplier,
                     back,
-                    forward);
+                    forward,
+                    executor,
+                    maxInFlight,
+                    progressStore,
+                    metrics);
         }
 
         private Builder() {
@@ -247,5 +470,26 @@ public class ScheduleEquivalenceUpdateTask extends ScheduledTask {
             this.forward = forward;
             return this;
         }
+
+        /**
+         * Runs up to {@code maxInFlight} channel-days at once on {@code executor}. Without an
+         * executor channel-days run one at a time on the task's thread.
+         */
+        public Builder withExecutor(ExecutorService executor, int maxInFlight) {
+            checkArgument(maxInFlight > 0, "maxInFlight must be positive");
+            this.executor = checkNotNull(executor);
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder withProgressStore(ScheduleTaskProgressStore progressStore) {
+            this.progressStore = progressStore;
+            return this;
+        }
+
+        public Builder withMetrics(MetricRegistry metrics) {
+            this.metrics = checkNotNull(metrics);
+            return this;
+        }
     }
 }
@@ -28,6 +28,8 @@ public class UpdaterConfiguration {
     private final ContainerEquivalenceHandlerType nonTopLevelContainerEquivalenceHandlerType;
     private final ContainerEquivalenceMessengerType nonTopLevelContainerEquivalenceMessengerType;
 
+    private final boolean concurrentComponents;
+
     private UpdaterConfiguration(
             Publisher source,
             ImmutableMap<ItemEquivalenceUpdaterType, ImmutableSet<Publisher>> itemEquivalenceUpdaters,
@@ -38,7 +40,8 @@ public class UpdaterConfiguration {
             ContainerEquivalenceMessengerType topLevelContainerEquivalenceMessengerType,
             ImmutableMap<ContainerEquivalenceUpdaterType, ImmutableSet<Publisher>> nonTopLevelContainerEquivalenceUpdaters,
             ContainerEquivalenceHandlerType nonTopLevelContainerEquivalenceHandlerType,
-            ContainerEquivalenceMessengerType nonTopLevelContainerEquivalenceMessengerType
+            ContainerEquivalenceMessengerType nonTopLevelContainerEquivalenceMessengerType,
+            boolean concurrentComponents
     ) {
         this.source = checkNotNull(source);
         this.itemEquivalenceUpdaters = ImmutableMap.copyOf(itemEquivalenceUpdaters);
@@ -50,6 +53,7 @@ public class UpdaterConfiguration {
         this.nonTopLevelContainerEquivalenceUpdaters = ImmutableMap.copyOf(nonTopLevelContainerEquivalenceUpdaters);
         this.nonTopLevelContainerEquivalenceHandlerType = checkNotNull(nonTopLevelContainerEquivalenceHandlerType);
         this.nonTopLevelContainerEquivalenceMessengerType = checkNotNull(nonTopLevelContainerEquivalenceMessengerType);
+        this.concurrentComponents = concurrentComponents;
     }
 
     public static SourceStep builder() {
@@ -96,6 +100,14 @@ public class UpdaterConfiguration {
         return nonTopLevelContainerEquivalenceMessengerType;
     }
 
+    /**
+     * Whether the generators, and then the scorers, of this source's updaters should be run
+     * concurrently rather than one after another.
+     */
+    public boolean isConcurrentComponents() {
+        return concurrentComponents;
+    }
+
     public interface SourceStep {
 
         ItemEquivalenceUpdaterStep withSource(Publisher source);
@@ -130,6 +142,8 @@ public class UpdaterConfiguration {
 
     public interface BuildStep {
 
+        BuildStep withConcurrentComponents();
+
         UpdaterConfiguration build();
     }
 
@@ -148,6 +162,7 @@ public class UpdaterConfiguration {
         private ImmutableMap<ContainerEquivalenceUpdaterType, ImmutableSet<Publisher>> nonTopLevelContainerEquivalenceUpdaters;
         private ContainerEquivalenceHandlerType nonTopLevelContainerEquivalenceHandlerType;
         private ContainerEquivalenceMessengerType nonTopLevelContainerEquivalenceMessengerType;
+        private boolean concurrentComponents = false;
 
         private Builder() {
         }
@@ -194,6 +209,12 @@ public class UpdaterConfiguration {
             return this;
         }
 
+        @Override
+        public BuildStep withConcurrentComponents() {
+            this.concurrentComponents = true;
+            return this;
+        }
+
         @Override
         public UpdaterConfiguration build() {
             return new UpdaterConfiguration(
@@ -206,7 +227,8 @@ public class UpdaterConfiguration {
                     this.topLevelContainerEquivalenceMessengerType,
                     this.nonTopLevelContainerEquivalenceUpdaters,
                     this.nonTopLevelContainerEquivalenceHandlerType,
-                    this.nonTopLevelContainerEquivalenceMessengerType
+                    this.nonTopLevelContainerEquivalenceMessengerType,
+                    this.concurrentComponents
             );
         }
     }
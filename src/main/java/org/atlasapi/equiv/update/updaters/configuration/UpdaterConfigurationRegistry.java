@@ -56,6 +56,10 @@ import static org.atlasapi.media.entity.Publisher.*;
  * WHEN CREATING A NEW CONFIG, keep in mind to remove your source from the DEFAULT_EQUIV_SOURCE list if present.
  * If you don't, standard equivalence will run on top of whatever config you have set, and
  * might equiv to undesired sources.
+ * <p>
+ * A configuration can opt in to running the generators, and then the scorers, of its updaters
+ * concurrently with {@code withConcurrentComponents()}. This is worth it for sources whose
+ * generators each make their own slow lookups.
  */
 public class UpdaterConfigurationRegistry {
 
@@ -1090,6 +1094,7 @@ public class UpdaterConfigurationRegistry {
                         STANDARD_SERIES_HANDLER,
                         STANDARD_SERIES_MESSENGER
                 )
+                .withConcurrentComponents()
                 .build();
     }
 
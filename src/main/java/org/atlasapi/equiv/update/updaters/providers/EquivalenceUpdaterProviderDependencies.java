@@ -1,10 +1,16 @@
 package org.atlasapi.equiv.update.updaters.providers;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
 import com.metabroadcast.common.queue.MessageSender;
 import org.atlasapi.equiv.EquivalenceSummaryStore;
+import org.atlasapi.equiv.generators.EquivalenceGenerator;
+import org.atlasapi.equiv.generators.LocalTitleIndex;
+import org.atlasapi.equiv.generators.LocalTitleIndexGenerator;
+import org.atlasapi.equiv.generators.TitleSearchGenerator;
 import org.atlasapi.equiv.results.persistence.RecentEquivalenceResultStore;
 import org.atlasapi.media.channel.ChannelResolver;
+import org.atlasapi.media.entity.Content;
 import org.atlasapi.messaging.v3.ContentEquivalenceAssertionMessage;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ScheduleResolver;
@@ -31,6 +37,7 @@ public class EquivalenceUpdaterProviderDependencies {
     private final ImmutableSet<String> excludedIds;
 
     private final AmazonTitleIndexStore amazonTitleIndexStore;
+    private final Optional<LocalTitleIndex> localTitleIndex;
 
     private EquivalenceUpdaterProviderDependencies(
             ScheduleResolver scheduleResolver,
@@ -45,7 +52,8 @@ public class EquivalenceUpdaterProviderDependencies {
             MessageSender<ContentEquivalenceAssertionMessage> messageSender,
             ImmutableSet<String> excludedUris,
             ImmutableSet<String> excludedIds,
-            AmazonTitleIndexStore amazonTitleIndexStore
+            AmazonTitleIndexStore amazonTitleIndexStore,
+            Optional<LocalTitleIndex> localTitleIndex
     ) {
         this.scheduleResolver = checkNotNull(scheduleResolver);
         this.owlSearchResolver = checkNotNull(owlSearchResolver);
@@ -60,6 +68,7 @@ public class EquivalenceUpdaterProviderDependencies {
         this.excludedUris = ImmutableSet.copyOf(excludedUris);
         this.excludedIds = ImmutableSet.copyOf(excludedIds);
         this.amazonTitleIndexStore = checkNotNull(amazonTitleIndexStore);
+        this.localTitleIndex = checkNotNull(localTitleIndex);
     }
 
     public static ScheduleResolverStep builder() {
@@ -118,6 +127,23 @@ public class EquivalenceUpdaterProviderDependencies {
         return amazonTitleIndexStore;
     }
 
+    /**
+     * The in-process title index that title search generators should prefer to the remote
+     * search, if one is enabled.
+     */
+    public Optional<LocalTitleIndex> getLocalTitleIndex() {
+        return localTitleIndex;
+    }
+
+    /**
+     * Uses the local title index in place of the given search generator, if one is enabled.
+     */
+    public <T extends Content> EquivalenceGenerator<T> preferringLocalTitleIndex(
+            TitleSearchGenerator<T> search
+    ) {
+        return LocalTitleIndexGenerator.preferring(localTitleIndex, contentResolver, search);
+    }
+
     public interface ScheduleResolverStep {
 
         OwlSearchResolverStep withScheduleResolver(ScheduleResolver scheduleResolver);
@@ -188,6 +214,8 @@ public class EquivalenceUpdaterProviderDependencies {
 
     public interface BuildStep {
 
+        BuildStep withLocalTitleIndex(LocalTitleIndex localTitleIndex);
+
         EquivalenceUpdaterProviderDependencies build();
     }
 
@@ -211,6 +239,7 @@ public class EquivalenceUpdaterProviderDependencies {
         private ImmutableSet<String> excludedUris;
         private ImmutableSet<String> excludedIds;
         private AmazonTitleIndexStore amazonTitleIndexStore;
+        private Optional<LocalTitleIndex> localTitleIndex = Optional.absent();
 
         private Builder() {
         }
@@ -295,6 +324,12 @@ public class EquivalenceUpdaterProviderDependencies {
             return this;
         }
 
+        @Override
+        public BuildStep withLocalTitleIndex(LocalTitleIndex localTitleIndex) {
+            this.localTitleIndex = Optional.of(localTitleIndex);
+            return this;
+        }
+
         @Override
         public EquivalenceUpdaterProviderDependencies build() {
             return new EquivalenceUpdaterProviderDependencies(
@@ -310,7 +345,8 @@ public class EquivalenceUpdaterProviderDependencies {
                     this.messageSender,
                     this.excludedUris,
                     this.excludedIds,
-                    this.amazonTitleIndexStore
+                    this.amazonTitleIndexStore,
+                    this.localTitleIndex
             );
         }
     }
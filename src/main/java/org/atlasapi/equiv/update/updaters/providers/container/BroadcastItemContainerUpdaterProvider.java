@@ -47,11 +47,13 @@ public class BroadcastItemContainerUpdaterProvider
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerators(
                         ImmutableSet.of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Container.class,
-                                        targetPublishers,
-                                        2
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Container.class,
+                                                targetPublishers,
+                                                2
+                                        )
                                 ),
                                 new ContainerChildEquivalenceGenerator(
                                         dependencies.getContentResolver(),
@@ -47,11 +47,13 @@ public class BtVodContainerUpdaterProvider implements EquivalenceResultUpdaterPr
                 .withExcludedUris(dependencies.getExcludedUris())
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerator(
-                        TitleSearchGenerator.create(
-                                dependencies.getOwlSearchResolver(),
-                                Container.class,
-                                targetPublishers,
-                                2
+                        dependencies.preferringLocalTitleIndex(
+                                TitleSearchGenerator.create(
+                                        dependencies.getOwlSearchResolver(),
+                                        Container.class,
+                                        targetPublishers,
+                                        2
+                                )
                         )
                 )
                 .withScorers(
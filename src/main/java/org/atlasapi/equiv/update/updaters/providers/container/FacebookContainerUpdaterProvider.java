@@ -38,11 +38,13 @@ public class FacebookContainerUpdaterProvider implements EquivalenceResultUpdate
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerators(
                         ImmutableSet.of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Container.class,
-                                        targetPublishers,
-                                        2
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Container.class,
+                                                targetPublishers,
+                                                2
+                                        )
                                 )
                 ))
                 .withScorers(
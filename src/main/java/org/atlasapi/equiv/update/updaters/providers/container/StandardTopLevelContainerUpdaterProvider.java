@@ -48,11 +48,13 @@ public class StandardTopLevelContainerUpdaterProvider
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerators(
                         ImmutableSet.of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Container.class,
-                                        targetPublishers,
-                                        2
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Container.class,
+                                                targetPublishers,
+                                                2
+                                        )
                                 ),
                                 ScalingEquivalenceGenerator.scale(
                                         new ContainerChildEquivalenceGenerator(
@@ -48,11 +48,13 @@ public class VodContainerUpdaterProvider implements EquivalenceResultUpdaterProv
                 .withExcludedUris(dependencies.getExcludedUris())
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerator(
-                        TitleSearchGenerator.create(
-                                dependencies.getOwlSearchResolver(),
-                                Container.class,
-                                targetPublishers,
-                                2
+                        dependencies.preferringLocalTitleIndex(
+                                TitleSearchGenerator.create(
+                                        dependencies.getOwlSearchResolver(),
+                                        Container.class,
+                                        targetPublishers,
+                                        2
+                                )
                         )
                 )
                 .withScorers(
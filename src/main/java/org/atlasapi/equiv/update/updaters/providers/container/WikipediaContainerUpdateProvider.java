@@ -42,13 +42,15 @@ public class WikipediaContainerUpdateProvider implements EquivalenceResultUpdate
                 .withExcludedUris(dependencies.getExcludedUris())
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerator(
-                        TitleSearchGenerator.create(
-                                dependencies.getOwlSearchResolver(),
-                                Container.class,
-                                targetPublishers,
-                                2,
-                                false,
-                                false
+                        dependencies.preferringLocalTitleIndex(
+                                TitleSearchGenerator.create(
+                                        dependencies.getOwlSearchResolver(),
+                                        Container.class,
+                                        targetPublishers,
+                                        2,
+                                        false,
+                                        false
+                                )
                         ) //scorer name is same as actual title scorer so should be same score to prevent one being overwritten
                 )
                 .withScorers(
@@ -51,12 +51,14 @@ public class AmazonContainerUpdaterProvider implements EquivalenceResultUpdaterP
                       //candidates which are the item itself (because there is no further filtering
                       //to remove them, whereas the Publisher filter used elsewhere does that).
                         ImmutableSet.of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Container.class,
-                                        targetPublishers,
-                                        2,
-                                        true
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Container.class,
+                                                targetPublishers,
+                                                2,
+                                                true
+                                        )
                                 )
                         )
                 )
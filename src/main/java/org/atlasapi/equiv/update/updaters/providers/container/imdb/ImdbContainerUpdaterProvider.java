@@ -64,15 +64,17 @@ public class ImdbContainerUpdaterProvider implements EquivalenceResultUpdaterPro
                                         .withIncludeUnpublishedContent(false)
                                         .withClass(Container.class)
                                         .build(),
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Container.class,
-                                        targetPublishers,
-                                        Score.nullScore(),
-                                        Score.nullScore(),
-                                        true,
-                                        true,
-                                        true
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Container.class,
+                                                targetPublishers,
+                                                Score.nullScore(),
+                                                Score.nullScore(),
+                                                true,
+                                                true,
+                                                true
+                                        )
                                 ),
                                 TitleSearchGenerator.create(
                                         dependencies.getSherlockSearchResolver(),
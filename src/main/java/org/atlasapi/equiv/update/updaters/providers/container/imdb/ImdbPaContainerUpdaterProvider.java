@@ -48,15 +48,17 @@ public class ImdbPaContainerUpdaterProvider implements EquivalenceResultUpdaterP
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerators(
                         ImmutableSet.of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Container.class,
-                                        targetPublishers,
-                                        Score.nullScore(),
-                                        Score.nullScore(),
-                                        true,
-                                        true,
-                                        true
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Container.class,
+                                                targetPublishers,
+                                                Score.nullScore(),
+                                                Score.nullScore(),
+                                                true,
+                                                true,
+                                                true
+                                        )
                                 ),
                                 new ContainerChildEquivalenceGenerator(
                                         dependencies.getContentResolver(),
@@ -52,15 +52,17 @@ public class ItemSearchUpdaterProvider implements EquivalenceResultUpdaterProvid
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerators(
                         ImmutableSet.of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Item.class,
-                                        targetPublishers,
-                                        Score.nullScore(),
-                                        Score.nullScore(),
-                                        true,
-                                        true,
-                                        true
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Item.class,
+                                                targetPublishers,
+                                                Score.nullScore(),
+                                                Score.nullScore(),
+                                                true,
+                                                true,
+                                                true
+                                        )
                                 ),
                                 TitleSearchGenerator.create(
                                         dependencies.getSherlockSearchResolver(),
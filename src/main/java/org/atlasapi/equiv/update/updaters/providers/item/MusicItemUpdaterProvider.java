@@ -35,17 +35,19 @@ public class MusicItemUpdaterProvider implements EquivalenceResultUpdaterProvide
                 .withExcludedUris(dependencies.getExcludedUris())
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerator(
-                        new TitleSearchGenerator<>(
-                                dependencies.getOwlSearchResolver(),
-                                Song.class,
-                                targetPublishers,
-                                new SongTitleTransform(),
-                                100,
-                                Score.valueOf(2.0),
-                                Score.ONE,
-                                false,
-                                true,
-                                false
+                        dependencies.preferringLocalTitleIndex(
+                                new TitleSearchGenerator<>(
+                                        dependencies.getOwlSearchResolver(),
+                                        Song.class,
+                                        targetPublishers,
+                                        new SongTitleTransform(),
+                                        100,
+                                        Score.valueOf(2.0),
+                                        Score.ONE,
+                                        false,
+                                        true,
+                                        false
+                                )
                         )
                 )
                 .withScorer(
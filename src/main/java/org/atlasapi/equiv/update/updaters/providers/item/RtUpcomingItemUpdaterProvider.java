@@ -46,11 +46,13 @@ public class RtUpcomingItemUpdaterProvider implements EquivalenceResultUpdaterPr
                 .withExcludedIds(dependencies.getExcludedIds())
                 .withGenerators(
                         ImmutableSet.<EquivalenceGenerator<Item>>of(
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Item.class,
-                                        targetPublishers,
-                                        2.0
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Item.class,
+                                                targetPublishers,
+                                                2.0
+                                        )
                                 )
                         )
                 )
@@ -53,13 +53,15 @@ public class WikipediaItemUpdateProvider implements EquivalenceResultUpdaterProv
                                                 ImmutableList.copyOf(targetPublishers)
                                         ),
                                         true),
-                                TitleSearchGenerator.create(
-                                        dependencies.getOwlSearchResolver(),
-                                        Item.class,
-                                        targetPublishers,
-                                        0,
-                                        false,
-                                        false
+                                dependencies.preferringLocalTitleIndex(
+                                        TitleSearchGenerator.create(
+                                                dependencies.getOwlSearchResolver(),
+                                                Item.class,
+                                                targetPublishers,
+                                                0,
+                                                false,
+                                                false
+                                        )
                                 )
                         )
                 )
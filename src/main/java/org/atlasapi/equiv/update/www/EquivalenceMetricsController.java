@@ -0,0 +1,42 @@
+package org.atlasapi.equiv.update.www;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.atlasapi.equiv.update.metrics.EquivalenceMetrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.metabroadcast.common.http.HttpStatusCode.OK;
+
+@Controller
+public class EquivalenceMetricsController {
+
+    private final EquivalenceMetrics metrics;
+    private final ObjectMapper mapper;
+
+    private EquivalenceMetricsController(EquivalenceMetrics metrics) {
+        this.metrics = checkNotNull(metrics);
+        this.mapper = new ObjectMapper();
+    }
+
+    public static EquivalenceMetricsController create(EquivalenceMetrics metrics) {
+        return new EquivalenceMetricsController(metrics);
+    }
+
+    /**
+     * The slowest subjects equivalated recently, slowest first, with the time spent in each
+     * stage. Empty unless equivalence metrics are enabled.
+     */
+    @RequestMapping(value = "/system/equivalence/metrics/slowest", method = RequestMethod.GET)
+    public void slowestSubjects(HttpServletResponse response) throws IOException {
+        response.setContentType("application/json");
+        mapper.writeValue(response.getWriter(), metrics.slowestSubjects());
+        response.setStatus(OK.code());
+    }
+}
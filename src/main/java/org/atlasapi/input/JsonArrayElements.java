@@ -0,0 +1,72 @@
+package org.atlasapi.input;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads the elements of a top-level JSON array one at a time, returning each as the bytes of a
+ * standalone JSON document. Only the element currently being read is held in memory, and each
+ * element can be handed to a {@link ModelReader} as if it had been sent on its own.
+ */
+public class JsonArrayElements implements Closeable {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private JsonToken nextToken;
+
+    private JsonArrayElements(JsonParser parser) {
+        this.parser = checkNotNull(parser);
+    }
+
+    public static JsonArrayElements from(InputStream input) throws IOException {
+        JsonParser parser = JSON_FACTORY.createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(
+                    "Expected a JSON array of documents",
+                    parser.getCurrentLocation()
+            );
+        }
+        return new JsonArrayElements(parser);
+    }
+
+    public boolean hasNext() throws IOException {
+        if (nextToken == null) {
+            nextToken = parser.nextToken();
+            if (nextToken == null) {
+                throw new JsonParseException(
+                        "Unexpected end of input inside JSON array",
+                        parser.getCurrentLocation()
+                );
+            }
+        }
+        return nextToken != JsonToken.END_ARRAY;
+    }
+
+    public byte[] next() throws IOException {
+        if (!hasNext()) {
+            throw new IllegalStateException("No more elements in JSON array");
+        }
+        ByteArrayOutputStream element = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(element)) {
+            generator.copyCurrentStructure(parser);
+        }
+        nextToken = null;
+        return element.toByteArray();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
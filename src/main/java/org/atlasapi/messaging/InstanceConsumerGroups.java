@@ -0,0 +1,25 @@
+package org.atlasapi.messaging;
+
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Consumer group names for workers that keep state local to this instance, e.g. caches or
+ * in-memory indexes, and so must each see every message on a topic.
+ * <p>
+ * The host name alone is not enough, since it is shared by every node behind the same public
+ * name, and nodes sharing a group would split the topic between them. Names are suffixed with
+ * an id generated once per JVM.
+ */
+public final class InstanceConsumerGroups {
+
+    private static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private InstanceConsumerGroups() {
+    }
+
+    public static String forInstance(String prefix, String hostName) {
+        return String.format("%s-%s-%s", checkNotNull(prefix), checkNotNull(hostName), INSTANCE_ID);
+    }
+}
@@ -115,7 +115,7 @@ public class JsonTranslator<T> implements AtlasModelWriter<T> {
 		}
 	}
 
-	private String callback(HttpServletRequest request) {
+	static String callback(HttpServletRequest request) {
 		if (request == null) {
 			return null;
 		}
@@ -131,6 +131,10 @@ public class JsonTranslator<T> implements AtlasModelWriter<T> {
 		}
 	}
 
+	Gson gson() {
+		return gson;
+	}
+
 	@Override
 	public void writeError(
 	        HttpServletRequest request,
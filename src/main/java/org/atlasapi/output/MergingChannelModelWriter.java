@@ -37,8 +37,11 @@ public class MergingChannelModelWriter
             final Set<Annotation> annotations,
             final Application application
     ) {
+        return delegate.transform(merge(channels, application), annotations, application);
+    }
 
-        Iterable<Channel> mergedChannels = StreamSupport.stream(channels.spliterator(), false)
+    Iterable<Channel> merge(Iterable<Channel> channels, Application application) {
+        return StreamSupport.stream(channels.spliterator(), false)
                 .collect(MoreCollectors.toImmutableMap(
                         channel -> channel,
                         channel -> channelResolver.forIds(
@@ -50,8 +53,6 @@ public class MergingChannelModelWriter
                 .entrySet().stream()
                 .map(entry -> merger.merge(application, entry.getKey(), entry.getValue()))
                 .collect(MoreCollectors.toImmutableList());
-
-        return delegate.transform(mergedChannels, annotations, application);
     }
 
     public static final class Builder {
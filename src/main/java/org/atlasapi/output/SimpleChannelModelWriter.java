@@ -1,6 +1,7 @@
 package org.atlasapi.output;
 
 import com.metabroadcast.applications.client.model.internal.Application;
+import com.google.common.collect.Iterables;
 import com.metabroadcast.common.stream.MoreCollectors;
 import org.atlasapi.media.channel.Channel;
 import org.atlasapi.media.entity.simple.ChannelQueryResult;
@@ -37,11 +38,24 @@ public class SimpleChannelModelWriter
         ChannelQueryResult simpleChannels = new ChannelQueryResult();
 
         simpleChannels.setChannels(StreamSupport.stream(
-                channels.spliterator(), false)
-                .map(input -> simplifier.simplify(input, annotations, application))
+                simplifiedChannels(channels, annotations, application).spliterator(), false)
                 .collect(MoreCollectors.toImmutableList()));
 
         return simpleChannels;
     }
 
+    /**
+     * Lazily simplifies the channels as they are iterated.
+     */
+    Iterable<org.atlasapi.media.entity.simple.Channel> simplifiedChannels(
+            Iterable<Channel> channels,
+            Set<Annotation> annotations,
+            Application application
+    ) {
+        return Iterables.transform(
+                channels,
+                input -> simplifier.simplify(input, annotations, application)
+        );
+    }
+
 }
@@ -2,6 +2,8 @@ package org.atlasapi.output;
 
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import com.metabroadcast.applications.client.model.internal.Application;
 import org.atlasapi.media.entity.Container;
 import org.atlasapi.media.entity.ContentGroup;
@@ -9,17 +11,22 @@ import org.atlasapi.media.entity.Identified;
 import org.atlasapi.media.entity.Topic;
 import org.atlasapi.media.entity.simple.ContentQueryResult;
 import org.atlasapi.media.entity.simple.ContentQueryResult.Pagination;
+import org.atlasapi.media.entity.simple.Description;
 import org.atlasapi.media.product.Product;
+import org.atlasapi.output.simple.AnnotationPrefetcher;
 import org.atlasapi.output.simple.ContainerModelSimplifier;
 import org.atlasapi.output.simple.ContentGroupModelSimplifier;
 import org.atlasapi.output.simple.ImageSimplifier;
 import org.atlasapi.output.simple.ItemModelSimplifier;
 import org.atlasapi.output.simple.PersonModelSimplifier;
+import org.atlasapi.output.simple.PrefetchedAnnotations;
 import org.atlasapi.output.simple.ProductModelSimplifier;
 import org.atlasapi.output.simple.TopicModelSimplifier;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 
 /**
  * {@link AtlasModelWriter} that translates the full URIplay object model
@@ -36,6 +43,7 @@ public class SimpleContentModelWriter extends
     private final TopicModelSimplifier topicSimplifier;
     private final ProductModelSimplifier productSimplifier;
     private final PersonModelSimplifier personSimplifier;
+    private final @Nullable AnnotationPrefetcher annotationPrefetcher;
 
 	public SimpleContentModelWriter(
 			AtlasModelWriter<ContentQueryResult> outputter,
@@ -45,8 +53,36 @@ public class SimpleContentModelWriter extends
 			ProductModelSimplifier productSimplifier,
 	        ImageSimplifier imageSimplifier,
 			PersonModelSimplifier personSimplifier
+	) {
+	    this(
+	    		outputter,
+			    itemModelSimplifier,
+			    containerModelSimplifier,
+			    topicSimplifier,
+			    productSimplifier,
+			    imageSimplifier,
+			    personSimplifier,
+			    null
+	    );
+	}
+
+	/**
+	 * @param annotationPrefetcher if present, annotation data for the whole
+	 *                             result is resolved up-front rather than per
+	 *                             piece of content
+	 */
+	public SimpleContentModelWriter(
+			AtlasModelWriter<ContentQueryResult> outputter,
+			ItemModelSimplifier itemModelSimplifier,
+	        ContainerModelSimplifier containerModelSimplifier,
+			TopicModelSimplifier topicSimplifier,
+			ProductModelSimplifier productSimplifier,
+	        ImageSimplifier imageSimplifier,
+			PersonModelSimplifier personSimplifier,
+			@Nullable AnnotationPrefetcher annotationPrefetcher
 	) {
 	    super(outputter);
+	    this.annotationPrefetcher = annotationPrefetcher;
 	    this.itemModelSimplifier = itemModelSimplifier;
 		this.containerModelSimplifier = containerModelSimplifier;
         this.topicSimplifier = topicSimplifier;
@@ -61,7 +97,21 @@ public class SimpleContentModelWriter extends
 				Set<Annotation> annotations,
 				Application application
 		) {
-	    
+	    ContentQueryResult result = emptyResultFor(fullGraph, annotations, application);
+	    for (Description description : simplifiedContent(fullGraph, annotations, application)) {
+	        result.add(description);
+	    }
+	    return result;
+	}
+
+	/**
+	 * The result's context and pagination, without any content.
+	 */
+	ContentQueryResult emptyResultFor(
+			QueryResult<Identified,? extends Identified> fullGraph,
+			Set<Annotation> annotations,
+			Application application
+	) {
 	    ContentQueryResult result = new ContentQueryResult();
 
 	    Optional<? extends Identified> possibleContext = fullGraph.getContext();
@@ -88,47 +138,64 @@ public class SimpleContentModelWriter extends
 	    if (fullGraph.getSelection() != null) {
 	        result.setPagination(Pagination.fromSelection(fullGraph.getSelection()));
 	    }
-	    setContent(result, fullGraph, annotations, application);
-	    
 	    return result;
 	}
 
-    private ContentQueryResult setContent(
-    		ContentQueryResult result,
+	/**
+	 * Lazily simplifies the result's content as it is iterated.
+	 */
+	Iterable<Description> simplifiedContent(
 			QueryResult<Identified, ? extends Identified> fullGraph,
+			final Set<Annotation> annotations,
+			final Application application
+	) {
+		final PrefetchedAnnotations prefetched = annotationPrefetcher != null
+				? annotationPrefetcher.prefetch(fullGraph.getContent(), annotations, application)
+				: PrefetchedAnnotations.none();
+
+		return Iterables.filter(
+				Iterables.transform(
+						fullGraph.getContent(),
+						described -> simplify(described, annotations, application, prefetched)
+				),
+				Predicates.notNull()
+		);
+	}
+
+	private Description simplify(
+			Identified described,
 			Set<Annotation> annotations,
-			Application application
+			Application application,
+			PrefetchedAnnotations prefetched
 	) {
-		for (Identified described : fullGraph.getContent()) {
-			if (described instanceof Container) {
-			    result.add(containerModelSimplifier.simplify(
-			    		(Container) described,
-					    annotations,
-					    application)
-			    );
-			} else if (described instanceof org.atlasapi.media.entity.Person) {
-                result.add(personSimplifier.simplify(
-                		(org.atlasapi.media.entity.Person) described,
-		                annotations,
-		                application)
-                );
-            } else if (described instanceof ContentGroup) {
-			    result.add(contentGroupSimplifier.simplify(
-			    		(ContentGroup) described,
-					    annotations,
-					    application)
-			    );
-			} else if (described instanceof org.atlasapi.media.entity.Item) {
-			    result.add(itemModelSimplifier.simplify(
-			    		(org.atlasapi.media.entity.Item) described,
-					    annotations,
-					    application)
-			    );
-			}
-			
+		if (described instanceof Container) {
+		    return containerModelSimplifier.simplify(
+		    		(Container) described,
+				    annotations,
+				    application,
+				    prefetched
+		    );
+		} else if (described instanceof org.atlasapi.media.entity.Person) {
+		    return personSimplifier.simplify(
+		    		(org.atlasapi.media.entity.Person) described,
+				    annotations,
+				    application
+		    );
+		} else if (described instanceof ContentGroup) {
+		    return contentGroupSimplifier.simplify(
+		    		(ContentGroup) described,
+				    annotations,
+				    application
+		    );
+		} else if (described instanceof org.atlasapi.media.entity.Item) {
+		    return itemModelSimplifier.simplify(
+		    		(org.atlasapi.media.entity.Item) described,
+				    annotations,
+				    application,
+				    prefetched
+		    );
 		}
-		
-		return result;
-    }
+		return null;
+	}
 
 }
@@ -1,6 +1,7 @@
 package org.atlasapi.output;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.metabroadcast.applications.client.model.internal.Application;
 import org.atlasapi.media.entity.Schedule.ScheduleChannel;
 import org.atlasapi.media.entity.simple.ScheduleQueryResult;
@@ -48,6 +49,28 @@ public class SimpleScheduleModelWriter
             ScheduleChannel scheduleChannel,
             Set<Annotation> annotations,
             Application application
+    ) {
+        org.atlasapi.media.entity.simple.ScheduleChannel newScheduleChannel
+                = emptyScheduleChannelFrom(scheduleChannel, annotations, application);
+
+        ImmutableList.Builder<org.atlasapi.media.entity.simple.Item> items
+                = ImmutableList.builder();
+        for (org.atlasapi.media.entity.simple.Item item
+                : simplifiedItems(scheduleChannel, annotations, application)) {
+            items.add(item);
+        }
+
+        newScheduleChannel.setItems(items.build());
+        return newScheduleChannel;
+    }
+
+    /**
+     * The schedule channel's channel details, without any items.
+     */
+    org.atlasapi.media.entity.simple.ScheduleChannel emptyScheduleChannelFrom(
+            ScheduleChannel scheduleChannel,
+            Set<Annotation> annotations,
+            Application application
     ) {
         org.atlasapi.media.entity.simple.ScheduleChannel newScheduleChannel
                 = new org.atlasapi.media.entity.simple.ScheduleChannel();
@@ -65,15 +88,21 @@ public class SimpleScheduleModelWriter
                     application
             ));
         }
-
-        ImmutableList.Builder<org.atlasapi.media.entity.simple.Item> items
-                = ImmutableList.builder();
-        for (org.atlasapi.media.entity.Item item : scheduleChannel.items()) {
-            items.add(itemModelSimplifier.simplify(item, annotations, application));
-        }
-
-        newScheduleChannel.setItems(items.build());
         return newScheduleChannel;
     }
 
+    /**
+     * Lazily simplifies the schedule channel's items as they are iterated.
+     */
+    Iterable<org.atlasapi.media.entity.simple.Item> simplifiedItems(
+            ScheduleChannel scheduleChannel,
+            Set<Annotation> annotations,
+            Application application
+    ) {
+        return Iterables.transform(
+                scheduleChannel.items(),
+                item -> itemModelSimplifier.simplify(item, annotations, application)
+        );
+    }
+
 }
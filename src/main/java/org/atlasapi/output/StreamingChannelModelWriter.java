@@ -0,0 +1,60 @@
+package org.atlasapi.output;
+
+import java.io.IOException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.simple.ChannelQueryResult;
+
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Streaming equivalent of {@link SimpleChannelModelWriter} writing JSON,
+ * optionally merging equivalent channels first as
+ * {@link MergingChannelModelWriter} does.
+ */
+public class StreamingChannelModelWriter extends StreamingJsonModelWriter<Iterable<Channel>> {
+
+    private static final String CHANNELS = "channels";
+
+    private final SimpleChannelModelWriter simpleWriter;
+    private final @Nullable MergingChannelModelWriter mergingWriter;
+
+    public StreamingChannelModelWriter(
+            JsonTranslator<?> translator,
+            SimpleChannelModelWriter simpleWriter,
+            @Nullable MergingChannelModelWriter mergingWriter
+    ) {
+        super(translator);
+        this.simpleWriter = checkNotNull(simpleWriter);
+        this.mergingWriter = mergingWriter;
+    }
+
+    @Override
+    protected void writeBody(
+            Iterable<Channel> channels,
+            Set<Annotation> annotations,
+            Application application,
+            Body body
+    ) throws IOException {
+        Iterable<Channel> toWrite = mergingWriter != null
+                                    ? mergingWriter.merge(channels, application)
+                                    : channels;
+        // an empty list keeps the channels in the position SimpleChannelModelWriter writes them
+        ChannelQueryResult empty = new ChannelQueryResult();
+        empty.setChannels(ImmutableList.<org.atlasapi.media.entity.simple.Channel>of());
+        body.writeProperties(
+                empty,
+                CHANNELS,
+                arrayOf(
+                        simpleWriter.simplifiedChannels(toWrite, annotations, application),
+                        org.atlasapi.media.entity.simple.Channel.class
+                )
+        );
+    }
+}
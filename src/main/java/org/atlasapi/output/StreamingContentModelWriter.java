@@ -0,0 +1,46 @@
+package org.atlasapi.output;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.simple.Description;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Streaming equivalent of {@link SimpleContentModelWriter} writing JSON.
+ */
+public class StreamingContentModelWriter
+        extends StreamingJsonModelWriter<QueryResult<Identified, ? extends Identified>> {
+
+    private static final String CONTENTS = "contents";
+
+    private final SimpleContentModelWriter simpleWriter;
+
+    public StreamingContentModelWriter(
+            JsonTranslator<?> translator,
+            SimpleContentModelWriter simpleWriter
+    ) {
+        super(translator);
+        this.simpleWriter = checkNotNull(simpleWriter);
+    }
+
+    @Override
+    protected void writeBody(
+            QueryResult<Identified, ? extends Identified> fullGraph,
+            Set<Annotation> annotations,
+            Application application,
+            Body body
+    ) throws IOException {
+        body.writeProperties(
+                simpleWriter.emptyResultFor(fullGraph, annotations, application),
+                CONTENTS,
+                arrayOf(
+                        simpleWriter.simplifiedContent(fullGraph, annotations, application),
+                        Description.class
+                )
+        );
+    }
+}
@@ -0,0 +1,288 @@
+package org.atlasapi.output;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.common.http.HttpHeaders;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Function;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * {@link AtlasModelWriter} that simplifies and writes a result one element at
+ * a time, rather than building the whole simple model and handing it to
+ * {@link JsonTranslator} in one go. Only one simplified element is held at any
+ * time, and gzipped output is flushed to the client in chunks as it is
+ * written.
+ * <p>
+ * The JSON produced, including the JSONP callback wrapping and the order of
+ * properties, is the same as the {@link JsonTranslator} this writer is
+ * configured with.
+ * <p>
+ * Unlike {@link JsonTranslator}, output starts before the whole result has
+ * been simplified. If writing fails before the response is committed, the
+ * partial output is discarded and the usual error response can be written. If
+ * it fails later, the client has already been sent a success status and is
+ * left with truncated JSON, as nothing can be appended to fix it up.
+ */
+public abstract class StreamingJsonModelWriter<I> implements AtlasModelWriter<I> {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamingJsonModelWriter.class);
+
+    private static final String GZIP_HEADER_VALUE = "gzip";
+    private static final int ELEMENTS_PER_FLUSH = 20;
+
+    private final JsonTranslator<?> translator;
+    private final Gson gson;
+
+    protected StreamingJsonModelWriter(JsonTranslator<?> translator) {
+        this.translator = checkNotNull(translator);
+        this.gson = translator.gson();
+    }
+
+    @Override
+    public void writeTo(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            I model,
+            Set<Annotation> annotations,
+            Application application
+    ) throws IOException {
+
+        OutputStream out = response.getOutputStream();
+
+        String callback = JsonTranslator.callback(request);
+
+        String accepts = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (accepts != null && accepts.contains(GZIP_HEADER_VALUE)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP_HEADER_VALUE);
+            out = new GZIPOutputStream(out, true);
+        }
+
+        OutputStreamWriter writer = new OutputStreamWriter(out, Charsets.UTF_8);
+
+        try {
+            if (callback != null) {
+                writer.write(callback + "(");
+            }
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.beginObject();
+            writeBody(model, annotations, application, new Body(jsonWriter));
+            jsonWriter.endObject();
+            jsonWriter.flush();
+            if (callback != null) {
+                writer.write(");");
+            }
+            writer.flush();
+            if (out instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) out).finish();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!response.isCommitted()) {
+                // nothing has reached the client yet, so the error response can replace it
+                response.reset();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the properties of the top-level response object to the given
+     * {@link Body}. Elements should be simplified lazily, as they are
+     * iterated, so that only one is in memory at once.
+     */
+    protected abstract void writeBody(
+            I model,
+            Set<Annotation> annotations,
+            Application application,
+            Body body
+    ) throws IOException;
+
+    @Override
+    public void writeError(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            AtlasErrorSummary exception
+    ) throws IOException {
+        if (response.isCommitted()) {
+            log.warn("Response already partly written, not writing error {}", exception.id());
+            return;
+        }
+        translator.writeError(request, response, exception);
+    }
+
+    /**
+     * The inside of the top-level response object, written through a single
+     * reused {@link JsonWriter}.
+     */
+    public final class Body {
+
+        private final JsonWriter jsonWriter;
+        private int written = 0;
+
+        private Body(JsonWriter jsonWriter) {
+            this.jsonWriter = jsonWriter;
+        }
+
+        /**
+         * Writes each property of the serialised {@code properties} object
+         * in order, writing {@code streamedValue} in place of the property
+         * {@code streamedName}, which is expected to be empty in
+         * {@code properties}. If that property is left out of the serialised
+         * object, the streamed value is written last unless it is empty.
+         */
+        public void writeProperties(
+                Object properties,
+                String streamedName,
+                StreamedValue streamedValue
+        ) throws IOException {
+            boolean streamed = false;
+            JsonElement tree = gson.toJsonTree(properties);
+            if (tree.isJsonObject()) {
+                for (Map.Entry<String, JsonElement> property : tree.getAsJsonObject().entrySet()) {
+                    jsonWriter.name(property.getKey());
+                    if (property.getKey().equals(streamedName)) {
+                        streamedValue.writeTo(this);
+                        streamed = true;
+                    } else {
+                        gson.toJson(property.getValue(), jsonWriter);
+                    }
+                }
+            }
+            if (!streamed && !streamedValue.isEmpty()) {
+                jsonWriter.name(streamedName);
+                streamedValue.writeTo(this);
+            }
+        }
+
+        /**
+         * Writes an object as {@link #writeProperties} writes its properties.
+         */
+        public void writeObject(
+                Object properties,
+                String streamedName,
+                StreamedValue streamedValue
+        ) throws IOException {
+            jsonWriter.beginObject();
+            writeProperties(properties, streamedName, streamedValue);
+            jsonWriter.endObject();
+        }
+
+        private void writeElement(Object element, Type elementType) throws IOException {
+            gson.toJson(element, elementType, jsonWriter);
+            if (++written % ELEMENTS_PER_FLUSH == 0) {
+                jsonWriter.flush();
+            }
+        }
+    }
+
+    /**
+     * A value written to a {@link Body} as it is produced, rather than
+     * serialised from a complete object.
+     */
+    public interface StreamedValue {
+
+        void writeTo(StreamingJsonModelWriter<?>.Body body) throws IOException;
+
+        /**
+         * Whether the value can be left out where its property would not be
+         * serialised, as for an empty array.
+         */
+        default boolean isEmpty() {
+            return false;
+        }
+    }
+
+    /**
+     * An array whose elements are serialised one at a time as they are
+     * iterated.
+     */
+    protected static <E> StreamedValue arrayOf(Iterable<E> elements, Type elementType) {
+        return new ArrayValue<E>(elements) {
+
+            @Override
+            protected void writeElement(StreamingJsonModelWriter<?>.Body body, E element)
+                    throws IOException {
+                body.writeElement(element, elementType);
+            }
+        };
+    }
+
+    /**
+     * An array whose elements are each written as the value the given
+     * function returns for them, as they are iterated.
+     */
+    protected static <E> StreamedValue arrayOf(
+            Iterable<E> elements,
+            Function<? super E, StreamedValue> elementValue
+    ) {
+        return new ArrayValue<E>(elements) {
+
+            @Override
+            protected void writeElement(StreamingJsonModelWriter<?>.Body body, E element)
+                    throws IOException {
+                elementValue.apply(element).writeTo(body);
+            }
+        };
+    }
+
+    /**
+     * An object whose properties are those of the serialised
+     * {@code properties}, with {@code streamedValue} in place of
+     * {@code streamedName}.
+     */
+    protected static StreamedValue objectOf(
+            Object properties,
+            String streamedName,
+            StreamedValue streamedValue
+    ) {
+        return body -> body.writeObject(properties, streamedName, streamedValue);
+    }
+
+    /**
+     * Iterates its elements once, so that checking whether it is empty does
+     * not simplify the first element a second time.
+     */
+    private abstract static class ArrayValue<E> implements StreamedValue {
+
+        private final Iterator<E> elements;
+
+        ArrayValue(Iterable<E> elements) {
+            this.elements = elements.iterator();
+        }
+
+        @Override
+        public void writeTo(StreamingJsonModelWriter<?>.Body body) throws IOException {
+            body.jsonWriter.beginArray();
+            while (elements.hasNext()) {
+                writeElement(body, elements.next());
+            }
+            body.jsonWriter.endArray();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !elements.hasNext();
+        }
+
+        protected abstract void writeElement(StreamingJsonModelWriter<?>.Body body, E element)
+                throws IOException;
+    }
+}
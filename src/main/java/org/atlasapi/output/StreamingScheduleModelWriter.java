@@ -0,0 +1,67 @@
+package org.atlasapi.output;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.simple.Item;
+import org.atlasapi.media.entity.simple.ScheduleQueryResult;
+
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Streaming equivalent of {@link SimpleScheduleModelWriter} writing JSON.
+ * Each channel's items are simplified and written one at a time.
+ */
+public class StreamingScheduleModelWriter
+        extends StreamingJsonModelWriter<Iterable<ScheduleChannel>> {
+
+    private static final String SCHEDULE = "schedule";
+    private static final String ITEMS = "items";
+
+    private final SimpleScheduleModelWriter simpleWriter;
+
+    public StreamingScheduleModelWriter(
+            JsonTranslator<?> translator,
+            SimpleScheduleModelWriter simpleWriter
+    ) {
+        super(translator);
+        this.simpleWriter = checkNotNull(simpleWriter);
+    }
+
+    @Override
+    protected void writeBody(
+            Iterable<ScheduleChannel> fullGraph,
+            Set<Annotation> annotations,
+            Application application,
+            Body body
+    ) throws IOException {
+        body.writeProperties(
+                new ScheduleQueryResult(),
+                SCHEDULE,
+                arrayOf(fullGraph, scheduleChannel -> objectOf(
+                        emptyScheduleChannelFrom(scheduleChannel, annotations, application),
+                        ITEMS,
+                        arrayOf(
+                                simpleWriter.simplifiedItems(scheduleChannel, annotations, application),
+                                Item.class
+                        )
+                ))
+        );
+    }
+
+    private org.atlasapi.media.entity.simple.ScheduleChannel emptyScheduleChannelFrom(
+            ScheduleChannel scheduleChannel,
+            Set<Annotation> annotations,
+            Application application
+    ) {
+        org.atlasapi.media.entity.simple.ScheduleChannel empty =
+                simpleWriter.emptyScheduleChannelFrom(scheduleChannel, annotations, application);
+        // an empty list keeps the items in the position SimpleScheduleModelWriter writes them
+        empty.setItems(ImmutableList.<Item>of());
+        return empty;
+    }
+}
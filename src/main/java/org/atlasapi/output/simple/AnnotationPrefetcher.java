@@ -0,0 +1,272 @@
+package org.atlasapi.output.simple;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.channel.ChannelResolver;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Clip;
+import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.ContentGroup;
+import org.atlasapi.media.entity.ContentGroupRef;
+import org.atlasapi.media.entity.CrewMember;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.ParentRef;
+import org.atlasapi.media.entity.Person;
+import org.atlasapi.media.entity.Series;
+import org.atlasapi.media.entity.Topic;
+import org.atlasapi.media.entity.TopicRef;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.media.entity.simple.BrandSummary;
+import org.atlasapi.media.entity.simple.SeriesSummary;
+import org.atlasapi.media.product.Product;
+import org.atlasapi.media.product.ProductResolver;
+import org.atlasapi.output.Annotation;
+import org.atlasapi.persistence.content.ContentGroupResolver;
+import org.atlasapi.persistence.content.PeopleQueryResolver;
+import org.atlasapi.persistence.output.ContainerSummaryResolver;
+import org.atlasapi.persistence.topic.TopicQueryResolver;
+
+import com.metabroadcast.common.base.Maybe;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Walks a whole query result before it is simplified, gathering every topic,
+ * content group, person, product, container summary and channel that the
+ * requested annotations will need, and resolves each kind together. The
+ * number of resolver round trips then depends on the annotations requested
+ * rather than the number of items in the result.
+ * <p>
+ * Topics, content groups and people are resolved in a single batched call
+ * each. The product, container summary and channel resolvers only offer
+ * single-key lookups, so those are resolved once per distinct key across the
+ * result rather than once per reference.
+ */
+public class AnnotationPrefetcher {
+
+    private final TopicQueryResolver topicResolver;
+    private final ContentGroupResolver contentGroupResolver;
+    private final PeopleQueryResolver peopleResolver;
+    private final ProductResolver productResolver;
+    private final ContainerSummaryResolver containerSummaryResolver;
+    private final ChannelResolver channelResolver;
+
+    public AnnotationPrefetcher(
+            TopicQueryResolver topicResolver,
+            ContentGroupResolver contentGroupResolver,
+            PeopleQueryResolver peopleResolver,
+            ProductResolver productResolver,
+            ContainerSummaryResolver containerSummaryResolver,
+            ChannelResolver channelResolver
+    ) {
+        this.topicResolver = checkNotNull(topicResolver);
+        this.contentGroupResolver = checkNotNull(contentGroupResolver);
+        this.peopleResolver = checkNotNull(peopleResolver);
+        this.productResolver = checkNotNull(productResolver);
+        this.containerSummaryResolver = checkNotNull(containerSummaryResolver);
+        this.channelResolver = checkNotNull(channelResolver);
+    }
+
+    public PrefetchedAnnotations prefetch(
+            Iterable<? extends Identified> contents,
+            Set<Annotation> annotations,
+            Application application
+    ) {
+        References references = new References();
+        for (Identified identified : contents) {
+            if (identified instanceof Item) {
+                collect((Item) identified, annotations, references);
+            } else if (identified instanceof Container) {
+                collect((Container) identified, annotations, references);
+            }
+        }
+
+        PrefetchedAnnotations.Builder prefetched = PrefetchedAnnotations.builder();
+        if (annotations.contains(Annotation.TOPICS)) {
+            prefetched.withTopics(resolveTopics(references.topicIds));
+        }
+        if (annotations.contains(Annotation.CONTENT_GROUPS)) {
+            prefetched.withContentGroups(resolveContentGroups(references.contentGroupIds));
+        }
+        if (annotations.contains(Annotation.PEOPLE_DETAIL)) {
+            prefetched.withPeople(resolvePeople(references.personUris, application));
+        }
+        if (annotations.contains(Annotation.PRODUCTS)) {
+            prefetched.withProducts(resolveProducts(references.contentUris));
+        }
+        if (annotations.contains(Annotation.BRAND_SUMMARY)) {
+            prefetched.withBrandSummaries(resolveBrandSummaries(references.containerRefs));
+        }
+        if (annotations.contains(Annotation.SERIES_SUMMARY)) {
+            prefetched.withSeriesSummaries(resolveSeriesSummaries(references.seriesRefs));
+        }
+        if (needsBroadcasts(annotations)) {
+            prefetched.withChannels(resolveChannels(references.channelUris));
+        }
+        return prefetched.build();
+    }
+
+    private void collect(Item item, Set<Annotation> annotations, References references) {
+        collectContent(item, references);
+        if (item.getContainer() != null) {
+            references.containerRefs.put(item.getContainer().getUri(), item.getContainer());
+        }
+        if (item instanceof Episode) {
+            ParentRef series = ((Episode) item).getSeriesRef();
+            if (series != null) {
+                references.seriesRefs.put(series.getUri(), series);
+            }
+        }
+        if (needsBroadcasts(annotations)) {
+            for (Version version : item.getVersions()) {
+                for (Broadcast broadcast : version.getBroadcasts()) {
+                    if (broadcast.isActivelyPublished()) {
+                        references.channelUris.add(broadcast.getBroadcastOn());
+                    }
+                }
+            }
+        }
+        collectClips(item, annotations, references);
+    }
+
+    private void collect(Container container, Set<Annotation> annotations, References references) {
+        collectContent(container, references);
+        if (container instanceof Series) {
+            ParentRef parent = ((Series) container).getParent();
+            if (parent != null) {
+                references.containerRefs.put(parent.getUri(), parent);
+            }
+        }
+        collectClips(container, annotations, references);
+    }
+
+    private void collectClips(Content content, Set<Annotation> annotations, References references) {
+        if (annotations.contains(Annotation.CLIPS)) {
+            for (Clip clip : content.getClips()) {
+                collect(clip, annotations, references);
+            }
+        }
+    }
+
+    private void collectContent(Content content, References references) {
+        references.contentUris.add(content.getCanonicalUri());
+        for (TopicRef topicRef : content.getTopicRefs()) {
+            references.topicIds.add(topicRef.getTopic());
+        }
+        for (ContentGroupRef contentGroupRef : content.getContentGroupRefs()) {
+            references.contentGroupIds.add(contentGroupRef.getId());
+        }
+        for (CrewMember crewMember : content.people()) {
+            if (crewMember.getCanonicalUri() != null) {
+                references.personUris.add(crewMember.getCanonicalUri());
+            }
+        }
+    }
+
+    private boolean needsBroadcasts(Set<Annotation> annotations) {
+        return annotations.contains(Annotation.BROADCASTS)
+                || annotations.contains(Annotation.FIRST_BROADCASTS)
+                || annotations.contains(Annotation.NEXT_BROADCASTS);
+    }
+
+    private Map<Long, Topic> resolveTopics(Set<Long> topicIds) {
+        Map<Long, Topic> topics = Maps.newHashMap();
+        if (topicIds.isEmpty()) {
+            return topics;
+        }
+        for (Topic topic : topicResolver.topicsForIds(topicIds)) {
+            topics.put(topic.getId(), topic);
+        }
+        return topics;
+    }
+
+    private Map<Long, ContentGroup> resolveContentGroups(Set<Long> contentGroupIds) {
+        Map<Long, ContentGroup> contentGroups = Maps.newHashMap();
+        if (contentGroupIds.isEmpty()) {
+            return contentGroups;
+        }
+        for (Identified identified : contentGroupResolver.findByIds(contentGroupIds)
+                .asResolvedMap()
+                .values()) {
+            contentGroups.put(identified.getId(), (ContentGroup) identified);
+        }
+        return contentGroups;
+    }
+
+    private Map<String, Person> resolvePeople(Set<String> personUris, Application application) {
+        Map<String, Person> people = Maps.newHashMap();
+        if (personUris.isEmpty()) {
+            return people;
+        }
+        for (Person person : peopleResolver.people(ImmutableSet.copyOf(personUris), application)) {
+            people.put(person.getCanonicalUri(), person);
+        }
+        return people;
+    }
+
+    private ImmutableListMultimap<String, Product> resolveProducts(Set<String> contentUris) {
+        ImmutableListMultimap.Builder<String, Product> products = ImmutableListMultimap.builder();
+        for (String contentUri : contentUris) {
+            products.putAll(contentUri, productResolver.productsForContent(contentUri));
+        }
+        return products.build();
+    }
+
+    private Map<String, BrandSummary> resolveBrandSummaries(Map<String, ParentRef> containerRefs) {
+        Map<String, BrandSummary> summaries = Maps.newHashMap();
+        for (Map.Entry<String, ParentRef> containerRef : containerRefs.entrySet()) {
+            Optional<BrandSummary> summary = containerSummaryResolver
+                    .summarizeTopLevelContainer(containerRef.getValue());
+            if (summary.isPresent()) {
+                summaries.put(containerRef.getKey(), summary.get());
+            }
+        }
+        return summaries;
+    }
+
+    private Map<String, SeriesSummary> resolveSeriesSummaries(Map<String, ParentRef> seriesRefs) {
+        Map<String, SeriesSummary> summaries = Maps.newHashMap();
+        for (Map.Entry<String, ParentRef> seriesRef : seriesRefs.entrySet()) {
+            Optional<SeriesSummary> summary = containerSummaryResolver
+                    .summarizeSeries(seriesRef.getValue());
+            if (summary.isPresent()) {
+                summaries.put(seriesRef.getKey(), summary.get());
+            }
+        }
+        return summaries;
+    }
+
+    private Map<String, Channel> resolveChannels(Set<String> channelUris) {
+        Map<String, Channel> channels = Maps.newHashMap();
+        for (String channelUri : channelUris) {
+            Maybe<Channel> channel = channelResolver.fromUri(channelUri);
+            if (channel.hasValue()) {
+                channels.put(channelUri, channel.requireValue());
+            }
+        }
+        return channels;
+    }
+
+    private static class References {
+
+        private final Set<Long> topicIds = Sets.newHashSet();
+        private final Set<Long> contentGroupIds = Sets.newHashSet();
+        private final Set<String> personUris = Sets.newHashSet();
+        private final Set<String> contentUris = Sets.newHashSet();
+        private final Map<String, ParentRef> containerRefs = Maps.newHashMap();
+        private final Map<String, ParentRef> seriesRefs = Maps.newHashMap();
+        private final Set<String> channelUris = Sets.newHashSet();
+    }
+}
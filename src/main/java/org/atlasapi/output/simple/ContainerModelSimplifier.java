@@ -30,6 +30,7 @@ import org.atlasapi.persistence.output.UpcomingItemsResolver;
 import org.atlasapi.persistence.topic.TopicQueryResolver;
 
 import com.google.common.base.Function;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableSet;
@@ -82,10 +83,15 @@ public class ContainerModelSimplifier extends ContentModelSimplifier<Container,
 
     @Override
     public Playlist simplify(Container fullPlayList, Set<Annotation> annotations, Application application) {
+        return simplify(fullPlayList, annotations, application, PrefetchedAnnotations.none());
+    }
+
+    public Playlist simplify(Container fullPlayList, Set<Annotation> annotations, Application application,
+            PrefetchedAnnotations prefetched) {
 
         Playlist simplePlaylist = new Playlist();
 
-        copyBasicContentAttributes(fullPlayList, simplePlaylist, annotations, application);
+        copyBasicContentAttributes(fullPlayList, simplePlaylist, annotations, application, prefetched);
         simplePlaylist.setType(EntityType.from(fullPlayList).toString());
         simplePlaylist.setCountriesOfOrigin(fullPlayList.getCountriesOfOrigin());
 
@@ -123,19 +129,26 @@ public class ContainerModelSimplifier extends ContentModelSimplifier<Container,
         if (fullPlayList instanceof Series) {
             Series series = (Series) fullPlayList;
             if (series.getParent() != null) {
-                simplePlaylist.setBrandSummary(summaryFromResolved(series.getParent(), annotations));
+                simplePlaylist.setBrandSummary(summaryFromResolved(series.getParent(), annotations, prefetched));
             }
         }
         
         return simplePlaylist;
     }
     
-    private BrandSummary summaryFromResolved(ParentRef container, Set<Annotation> annotations) {
+    private BrandSummary summaryFromResolved(ParentRef container, Set<Annotation> annotations,
+            PrefetchedAnnotations prefetched) {
         BrandSummary baseSummary = new BrandSummary();
         setIdAndUriFromParentRef(container, baseSummary);
 
-        return annotations.contains(Annotation.BRAND_SUMMARY) ? containerSummaryResolver.summarizeTopLevelContainer(container).or(baseSummary)
-                                                              : baseSummary;
+        if (!annotations.contains(Annotation.BRAND_SUMMARY)) {
+            return baseSummary;
+        }
+        if (prefetched.brandSummaries().isPresent()) {
+            return Optional.fromNullable(prefetched.brandSummaries().get().get(container.getUri()))
+                    .or(baseSummary);
+        }
+        return containerSummaryResolver.summarizeTopLevelContainer(container).or(baseSummary);
     }
 
     private void setIdAndUriFromParentRef(ParentRef parentRef, Identified summary) {
@@ -168,8 +181,9 @@ public class ContainerModelSimplifier extends ContentModelSimplifier<Container,
     protected org.atlasapi.media.entity.simple.Item simplify(
             org.atlasapi.media.entity.Item item,
             Set<Annotation> annotations,
-            Application application
+            Application application,
+            PrefetchedAnnotations prefetched
     ) {
-        return itemSimplifier.simplify(item, annotations, application);
+        return itemSimplifier.simplify(item, annotations, application, prefetched);
     }
 }
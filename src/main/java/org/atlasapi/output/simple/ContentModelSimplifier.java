@@ -102,6 +102,22 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
             T simpleDescription,
             final Set<Annotation> annotations,
             final Application application
+    ) {
+        copyBasicContentAttributes(
+                content,
+                simpleDescription,
+                annotations,
+                application,
+                PrefetchedAnnotations.none()
+        );
+    }
+
+    protected void copyBasicContentAttributes(
+            F content,
+            T simpleDescription,
+            final Set<Annotation> annotations,
+            final Application application,
+            final PrefetchedAnnotations prefetched
     ) {
         copyBasicDescribedAttributes(content, simpleDescription, annotations);
 
@@ -119,25 +135,25 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
         }
         
         if (annotations.contains(Annotation.CLIPS)) {
-            simpleDescription.setClips(clipToSimple(content.getClips(), annotations, application));
+            simpleDescription.setClips(clipToSimple(content.getClips(), annotations, application, prefetched));
         }
         if (annotations.contains(Annotation.TOPICS)) {
-            simpleDescription.setTopics(topicRefToSimple(content, content.getTopicRefs(), annotations, application));
+            simpleDescription.setTopics(topicRefToSimple(content, content.getTopicRefs(), annotations, application, prefetched));
         }
         if (annotations.contains(Annotation.CONTENT_GROUPS)) {
-            simpleDescription.setContentGroups(contentGroupRefToSimple(content.getContentGroupRefs(), annotations, application));
+            simpleDescription.setContentGroups(contentGroupRefToSimple(content.getContentGroupRefs(), annotations, application, prefetched));
         }
         if (annotations.contains(Annotation.KEY_PHRASES)) {
             simpleDescription.setKeyPhrases(simplifyPhrases(content));
         }
         if (annotations.contains(Annotation.PRODUCTS)) {
-            simpleDescription.setProducts(resolveAndSimplifyProductsFor(content, annotations, application));
+            simpleDescription.setProducts(resolveAndSimplifyProductsFor(content, annotations, application, prefetched));
         }
         
         if (annotations.contains(Annotation.PEOPLE_DETAIL)) {
             simpleDescription.setPeople(
                     Lists.transform(
-                            resolve(content.people(), application),
+                            resolve(content.people(), application, prefetched),
                             input -> crewMemberAndPersonSimplifier.simplify(input, annotations, application)
                     ).stream()
                             .filter(Objects::nonNull)
@@ -177,18 +193,26 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
         );
     }
     
-    private List<CrewMemberAndPerson> resolve(List<CrewMember> crewMembers, Application application) {
-        Iterable<Person> people = peopleQueryResolver.people(
-                ImmutableSet.copyOf(
-                        Lists.transform(crewMembers, Identified.TO_URI)
-                                .stream()
-                                .filter(Objects::nonNull)
-                                .collect(Collectors.toList())
-                ),
-                application
-        );
-
-        final ImmutableMap<String, Person> peopleIndex = Maps.uniqueIndex(people, Identified.TO_URI);
+    private List<CrewMemberAndPerson> resolve(
+            List<CrewMember> crewMembers,
+            Application application,
+            PrefetchedAnnotations prefetched
+    ) {
+        final Map<String, Person> peopleIndex;
+        if (prefetched.people().isPresent()) {
+            peopleIndex = prefetched.people().get();
+        } else {
+            Iterable<Person> people = peopleQueryResolver.people(
+                    ImmutableSet.copyOf(
+                            Lists.transform(crewMembers, Identified.TO_URI)
+                                    .stream()
+                                    .filter(Objects::nonNull)
+                                    .collect(Collectors.toList())
+                    ),
+                    application
+            );
+            peopleIndex = Maps.uniqueIndex(people, Identified.TO_URI);
+        }
 
         return Lists.transform(crewMembers, crewMember -> {
             Person person = null;
@@ -225,13 +249,14 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
     private Iterable<org.atlasapi.media.entity.simple.Product> resolveAndSimplifyProductsFor(
             Content content,
             final Set<Annotation> annotations,
-            final Application application
+            final Application application,
+            PrefetchedAnnotations prefetched
     ) {
+        Iterable<Product> products = prefetched.products().isPresent()
+                                     ? prefetched.products().get().get(content.getCanonicalUri())
+                                     : productResolver.productsForContent(content.getCanonicalUri());
         return StreamSupport.stream(
-                filter(productResolver.productsForContent(
-                        content.getCanonicalUri()),
-                        application
-                ).spliterator(),
+                filter(products, application).spliterator(),
                 false)
                 .map(product -> productSimplifier.simplify(product, annotations, application))
                 .collect(Collectors.toList());
@@ -269,6 +294,17 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
                 .collect(Collectors.toList());
     }
 
+    private Iterable<ContentGroup> prefetchedContentGroups(
+            List<ContentGroupRef> refs,
+            Map<Long, ContentGroup> contentGroups
+    ) {
+        return refs.stream()
+                .map(ref -> contentGroups.get(ref.getId()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     public Iterable<KeyPhrase> simplifyPhrases(F content) {
         return content.getKeyPhrases().stream()
                 .map(keyPhrase -> new KeyPhrase(
@@ -282,21 +318,25 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
     private List<org.atlasapi.media.entity.simple.Item> clipToSimple(
             List<Clip> clips,
             final Set<Annotation> annotations,
-            final Application application
+            final Application application,
+            final PrefetchedAnnotations prefetched
     ) {
-        return Lists.transform(clips, clip -> simplify(clip, annotations, application));
+        return Lists.transform(clips, clip -> simplify(clip, annotations, application, prefetched));
     }
 
     private List<org.atlasapi.media.entity.simple.TopicRef> topicRefToSimple(
             final Content content,
             List<TopicRef> contentTopics,
             final Set<Annotation> annotations,
-            final Application application
+            final Application application,
+            PrefetchedAnnotations prefetched
     ) {
 
-        final Map<Long, Topic> topics = Maps.uniqueIndex(res(contentTopics.stream()
-                .map(TopicRef::getTopic)
-                .collect(Collectors.toList()), annotations), Identified::getId);
+        final Map<Long, Topic> topics = prefetched.topics().isPresent()
+                                        ? prefetched.topics().get()
+                                        : Maps.uniqueIndex(res(contentTopics.stream()
+                                                .map(TopicRef::getTopic)
+                                                .collect(Collectors.toList()), annotations), Identified::getId);
 
         return Lists.transform(contentTopics, topicRef -> {
             org.atlasapi.media.entity.simple.TopicRef simpleTopicRef = new org.atlasapi.media.entity.simple.TopicRef();
@@ -315,13 +355,16 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
     private Iterable<org.atlasapi.media.entity.simple.ContentGroup> contentGroupRefToSimple(
             List<ContentGroupRef> refs,
             final Set<Annotation> annotations,
-            final Application application
+            final Application application,
+            PrefetchedAnnotations prefetched
     ) {
 
-        Iterable<ContentGroup> groups = resolveContentGroups(
-                Iterables.transform(refs, ContentGroupRef::getId),
-                annotations
-        );
+        Iterable<ContentGroup> groups = prefetched.contentGroups().isPresent()
+                                        ? prefetchedContentGroups(refs, prefetched.contentGroups().get())
+                                        : resolveContentGroups(
+                                                Iterables.transform(refs, ContentGroupRef::getId),
+                                                annotations
+                                        );
 
         return Iterables.transform(
                 groups,
@@ -329,5 +372,10 @@ public abstract class ContentModelSimplifier<F extends Content, T extends Descri
         );
     }
 
-    protected abstract org.atlasapi.media.entity.simple.Item simplify(Item item, Set<Annotation> annotations, Application application);
+    protected abstract org.atlasapi.media.entity.simple.Item simplify(
+            Item item,
+            Set<Annotation> annotations,
+            Application application,
+            PrefetchedAnnotations prefetched
+    );
 }
@@ -206,14 +206,21 @@ public class ItemModelSimplifier
     @Override
     public org.atlasapi.media.entity.simple.Item simplify(Item full,
             final Set<Annotation> annotations, final Application application) {
+        return simplify(full, annotations, application, PrefetchedAnnotations.none());
+    }
+
+    @Override
+    public org.atlasapi.media.entity.simple.Item simplify(Item full,
+            final Set<Annotation> annotations, final Application application,
+            final PrefetchedAnnotations prefetched) {
 
         org.atlasapi.media.entity.simple.Item simple = new org.atlasapi.media.entity.simple.Item();
 
-        copyProperties(full, simple, annotations, application);
+        copyProperties(full, simple, annotations, application, prefetched);
 
         boolean doneSegments = false;
         for (Version version : full.getVersions()) {
-            addTo(simple, version, full, annotations, application);
+            addTo(simple, version, full, annotations, application, prefetched);
             if (!doneSegments && !version.getSegmentEvents().isEmpty() && annotations.contains(
                     Annotation.SEGMENT_EVENTS) && segmentSimplifier != null) {
                 simple.setSegments(segmentSimplifier.simplify(
@@ -229,8 +236,9 @@ public class ItemModelSimplifier
     }
 
     private void copyProperties(Item fullItem, org.atlasapi.media.entity.simple.Item simpleItem,
-            Set<Annotation> annotations, Application application) {
-        copyBasicContentAttributes(fullItem, simpleItem, annotations, application);
+            Set<Annotation> annotations, Application application,
+            PrefetchedAnnotations prefetched) {
+        copyBasicContentAttributes(fullItem, simpleItem, annotations, application, prefetched);
         simpleItem.setType(EntityType.from(fullItem).toString());
 
         if (annotations.contains(Annotation.EXTENDED_DESCRIPTION)) {
@@ -241,7 +249,11 @@ public class ItemModelSimplifier
         }
 
         if (fullItem.getContainer() != null) {
-            simpleItem.setBrandSummary(summaryFromResolved(fullItem.getContainer(), annotations));
+            simpleItem.setBrandSummary(summaryFromResolved(
+                    fullItem.getContainer(),
+                    annotations,
+                    prefetched
+            ));
         }
 
         if (fullItem instanceof Episode) {
@@ -252,7 +264,7 @@ public class ItemModelSimplifier
                     || annotations.contains(Annotation.SERIES_SUMMARY)) {
                 ParentRef series = episode.getSeriesRef();
                 if (series != null) {
-                    simpleItem.setSeriesSummary(seriesSummaryFromResolved(series, annotations));
+                    simpleItem.setSeriesSummary(seriesSummaryFromResolved(series, annotations, prefetched));
                 }
             }
 
@@ -308,7 +320,8 @@ public class ItemModelSimplifier
     }
 
     private void addTo(org.atlasapi.media.entity.simple.Item simpleItem, Version version, Item item,
-            Set<Annotation> annotations, Application application) {
+            Set<Annotation> annotations, Application application,
+            PrefetchedAnnotations prefetched) {
 
         if (annotations.contains(Annotation.LOCATIONS)
                 || annotations.contains(Annotation.AVAILABLE_LOCATIONS)) {
@@ -330,7 +343,8 @@ public class ItemModelSimplifier
                 org.atlasapi.media.entity.simple.Broadcast simpleBroadcast = simplify(
                         broadcast,
                         annotations,
-                        application
+                        application,
+                        prefetched
                 );
                 copyProperties(version, simpleBroadcast, item);
                 simpleItem.addBroadcast(simpleBroadcast);
@@ -377,7 +391,8 @@ public class ItemModelSimplifier
     private org.atlasapi.media.entity.simple.Broadcast simplify(
             Broadcast broadcast,
             Set<Annotation> annotations,
-            Application application
+            Application application,
+            PrefetchedAnnotations prefetched
     ) {
         org.atlasapi.media.entity.simple.Broadcast simpleModel = new org.atlasapi.media.entity.simple.Broadcast(
                 broadcast.getBroadcastOn(),
@@ -409,7 +424,9 @@ public class ItemModelSimplifier
         simpleModel.setRevisedRepeat(broadcast.getRevisedRepeat());
         simpleModel.setContinuation(broadcast.getContinuation());
         simpleModel.setNewOneOff(broadcast.getNewOneOff());
-        Maybe<org.atlasapi.media.channel.Channel> channel = channelResolver.fromUri(broadcast.getBroadcastOn());
+        Maybe<org.atlasapi.media.channel.Channel> channel = prefetched.channels().isPresent()
+                ? Maybe.fromPossibleNullValue(prefetched.channels().get().get(broadcast.getBroadcastOn()))
+                : channelResolver.fromUri(broadcast.getBroadcastOn());
         if (channel.hasValue()) {
             simpleModel.setChannel(simplify(channel.requireValue(), annotations,
                     Optional.<Image>absent(), Optional.<Set<Image>>absent(), application
@@ -589,22 +606,33 @@ public class ItemModelSimplifier
     }
 
     private SeriesSummary seriesSummaryFromResolved(ParentRef seriesRef,
-            Set<Annotation> annotations) {
+            Set<Annotation> annotations, PrefetchedAnnotations prefetched) {
         SeriesSummary baseSummary = new SeriesSummary();
         setIdAndUriFromParentRef(seriesRef, baseSummary);
 
-        return annotations.contains(Annotation.SERIES_SUMMARY)
-               ? containerSummaryResolver.summarizeSeries(seriesRef).or(baseSummary)
-               : baseSummary;
+        if (!annotations.contains(Annotation.SERIES_SUMMARY)) {
+            return baseSummary;
+        }
+        if (prefetched.seriesSummaries().isPresent()) {
+            return Optional.fromNullable(prefetched.seriesSummaries().get().get(seriesRef.getUri()))
+                    .or(baseSummary);
+        }
+        return containerSummaryResolver.summarizeSeries(seriesRef).or(baseSummary);
     }
 
-    private BrandSummary summaryFromResolved(ParentRef container, Set<Annotation> annotations) {
+    private BrandSummary summaryFromResolved(ParentRef container, Set<Annotation> annotations,
+            PrefetchedAnnotations prefetched) {
         BrandSummary baseSummary = new BrandSummary();
         setIdAndUriFromParentRef(container, baseSummary);
 
-        return annotations.contains(Annotation.BRAND_SUMMARY)
-               ? containerSummaryResolver.summarizeTopLevelContainer(container).or(baseSummary)
-               : baseSummary;
+        if (!annotations.contains(Annotation.BRAND_SUMMARY)) {
+            return baseSummary;
+        }
+        if (prefetched.brandSummaries().isPresent()) {
+            return Optional.fromNullable(prefetched.brandSummaries().get().get(container.getUri()))
+                    .or(baseSummary);
+        }
+        return containerSummaryResolver.summarizeTopLevelContainer(container).or(baseSummary);
     }
 
     private void setIdAndUriFromParentRef(ParentRef parentRef, Identified summary) {
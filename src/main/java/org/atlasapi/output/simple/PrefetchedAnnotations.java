@@ -0,0 +1,159 @@
+package org.atlasapi.output.simple;
+
+import java.util.Map;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.ContentGroup;
+import org.atlasapi.media.entity.Person;
+import org.atlasapi.media.entity.Topic;
+import org.atlasapi.media.entity.simple.BrandSummary;
+import org.atlasapi.media.entity.simple.SeriesSummary;
+import org.atlasapi.media.product.Product;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Annotation data resolved up-front for a whole query result by the
+ * {@link AnnotationPrefetcher}. Each kind of data is only present if it was
+ * prefetched; when a kind is absent the simplifiers fall back to resolving it
+ * themselves, one piece of content at a time.
+ */
+public class PrefetchedAnnotations {
+
+    private static final PrefetchedAnnotations NONE = builder().build();
+
+    public static PrefetchedAnnotations none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Optional<ImmutableMap<Long, Topic>> topics;
+    private final Optional<ImmutableMap<Long, ContentGroup>> contentGroups;
+    private final Optional<ImmutableMap<String, Person>> people;
+    private final Optional<ImmutableListMultimap<String, Product>> products;
+    private final Optional<ImmutableMap<String, BrandSummary>> brandSummaries;
+    private final Optional<ImmutableMap<String, SeriesSummary>> seriesSummaries;
+    private final Optional<ImmutableMap<String, Channel>> channels;
+
+    private PrefetchedAnnotations(Builder builder) {
+        this.topics = builder.topics;
+        this.contentGroups = builder.contentGroups;
+        this.people = builder.people;
+        this.products = builder.products;
+        this.brandSummaries = builder.brandSummaries;
+        this.seriesSummaries = builder.seriesSummaries;
+        this.channels = builder.channels;
+    }
+
+    /**
+     * Topics keyed by id.
+     */
+    public Optional<ImmutableMap<Long, Topic>> topics() {
+        return topics;
+    }
+
+    /**
+     * Content groups keyed by id.
+     */
+    public Optional<ImmutableMap<Long, ContentGroup>> contentGroups() {
+        return contentGroups;
+    }
+
+    /**
+     * People keyed by canonical URI.
+     */
+    public Optional<ImmutableMap<String, Person>> people() {
+        return people;
+    }
+
+    /**
+     * Products keyed by the canonical URI of the content they are for.
+     */
+    public Optional<ImmutableListMultimap<String, Product>> products() {
+        return products;
+    }
+
+    /**
+     * Top-level container summaries keyed by container URI. A container with
+     * no summary has no entry.
+     */
+    public Optional<ImmutableMap<String, BrandSummary>> brandSummaries() {
+        return brandSummaries;
+    }
+
+    /**
+     * Series summaries keyed by series URI. A series with no summary has no
+     * entry.
+     */
+    public Optional<ImmutableMap<String, SeriesSummary>> seriesSummaries() {
+        return seriesSummaries;
+    }
+
+    /**
+     * Channels keyed by channel URI, as referenced by
+     * {@link org.atlasapi.media.entity.Broadcast#getBroadcastOn()}.
+     */
+    public Optional<ImmutableMap<String, Channel>> channels() {
+        return channels;
+    }
+
+    public static class Builder {
+
+        private Optional<ImmutableMap<Long, Topic>> topics = Optional.absent();
+        private Optional<ImmutableMap<Long, ContentGroup>> contentGroups = Optional.absent();
+        private Optional<ImmutableMap<String, Person>> people = Optional.absent();
+        private Optional<ImmutableListMultimap<String, Product>> products = Optional.absent();
+        private Optional<ImmutableMap<String, BrandSummary>> brandSummaries = Optional.absent();
+        private Optional<ImmutableMap<String, SeriesSummary>> seriesSummaries = Optional.absent();
+        private Optional<ImmutableMap<String, Channel>> channels = Optional.absent();
+
+        private Builder() {
+        }
+
+        public Builder withTopics(Map<Long, Topic> topics) {
+            this.topics = Optional.of(ImmutableMap.copyOf(checkNotNull(topics)));
+            return this;
+        }
+
+        public Builder withContentGroups(Map<Long, ContentGroup> contentGroups) {
+            this.contentGroups = Optional.of(ImmutableMap.copyOf(checkNotNull(contentGroups)));
+            return this;
+        }
+
+        public Builder withPeople(Map<String, Person> people) {
+            this.people = Optional.of(ImmutableMap.copyOf(checkNotNull(people)));
+            return this;
+        }
+
+        public Builder withProducts(ImmutableListMultimap<String, Product> products) {
+            this.products = Optional.of(checkNotNull(products));
+            return this;
+        }
+
+        public Builder withBrandSummaries(Map<String, BrandSummary> brandSummaries) {
+            this.brandSummaries = Optional.of(ImmutableMap.copyOf(checkNotNull(brandSummaries)));
+            return this;
+        }
+
+        public Builder withSeriesSummaries(Map<String, SeriesSummary> seriesSummaries) {
+            this.seriesSummaries = Optional.of(ImmutableMap.copyOf(checkNotNull(seriesSummaries)));
+            return this;
+        }
+
+        public Builder withChannels(Map<String, Channel> channels) {
+            this.channels = Optional.of(ImmutableMap.copyOf(checkNotNull(channels)));
+            return this;
+        }
+
+        public PrefetchedAnnotations build() {
+            return new PrefetchedAnnotations(this);
+        }
+    }
+}
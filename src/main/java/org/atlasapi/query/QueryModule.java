@@ -14,14 +14,31 @@ permissions and limitations under the License. */
 
 package org.atlasapi.query;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ServiceManager;
 import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
 import com.metabroadcast.common.persistence.mongo.DatabasedMongoClient;
+import com.metabroadcast.common.queue.kafka.KafkaConsumer;
 import com.mongodb.ReadPreference;
+import org.atlasapi.AtlasMain;
 import org.atlasapi.equiv.EquivModule;
 import org.atlasapi.equiv.YouViewOutputContentMerger;
 import org.atlasapi.equiv.query.MergeOnOutputQueryExecutor;
 import org.atlasapi.equiv.update.MultipleSourceEquivalenceUpdater;
+import org.atlasapi.messaging.InstanceConsumerGroups;
+import org.atlasapi.messaging.v3.EntityUpdatedMessage;
+import org.atlasapi.messaging.v3.EquivalenceChangeMessage;
+import org.atlasapi.messaging.v3.JacksonMessageSerializer;
+import org.atlasapi.messaging.v3.KafkaMessagingModule;
 import org.atlasapi.persistence.audit.NoLoggingPersistenceAuditLog;
 import org.atlasapi.persistence.content.AllFromPublishersEquivalentContentResolver;
 import org.atlasapi.persistence.content.DefaultEquivalentContentResolver;
@@ -32,6 +49,7 @@ import org.atlasapi.persistence.content.mongo.MongoContentResolver;
 import org.atlasapi.persistence.content.query.KnownTypeQueryExecutor;
 import org.atlasapi.persistence.lookup.mongo.MongoLookupEntryStore;
 import org.atlasapi.query.content.ApplicationConfigurationQueryExecutor;
+import org.atlasapi.query.content.CachingLookupEntryStore;
 import org.atlasapi.query.content.CurieResolvingQueryExecutor;
 import org.atlasapi.query.content.FilterActivelyPublishedOnlyQueryExecutor;
 import org.atlasapi.query.content.FilterEquivalentToRespectKeyQueryExecutor;
@@ -39,6 +57,9 @@ import org.atlasapi.query.content.FilterScheduleOnlyQueryExecutor;
 import org.atlasapi.query.content.LookupResolvingQueryExecutor;
 import org.atlasapi.query.content.UriFetchingQueryExecutor;
 import org.atlasapi.query.uri.canonical.CanonicalisingFetcher;
+import org.atlasapi.query.worker.ContentChangesLookupEntryInvalidatingWorker;
+import org.atlasapi.query.worker.EquivalenceChangesLookupEntryInvalidatingWorker;
+import org.joda.time.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -50,7 +71,7 @@ import org.springframework.context.annotation.Primary;
 import static org.atlasapi.media.entity.Publisher.FACEBOOK;
 
 @Configuration
-@Import(EquivModule.class)
+@Import({ EquivModule.class, KafkaMessagingModule.class })
 public class QueryModule {
 
 	private @Autowired @Qualifier("remoteSiteContentResolver") CanonicalisingFetcher localOrRemoteFetcher;
@@ -60,22 +81,102 @@ public class QueryModule {
 	private @Autowired ReadPreference readPreference;
     private @Autowired CassandraContentStore cassandra;
     private @Autowired @Qualifier("contentUpdater") MultipleSourceEquivalenceUpdater equivUpdater;
+    private @Autowired KafkaMessagingModule messaging;
 
 	private @Value("${applications.enabled}") String applicationsEnabled;
 	private @Value("${atlas.search.host}") String searchHost;
 	private @Value("${cassandra.enabled}") boolean cassandraEnabled;
+    private @Value("${local.host.name}") String localHostName;
+    private @Value("${messaging.enabled}") boolean messagingEnabled;
+    private @Value("${messaging.destination.content.changes}") String contentChanges;
+    private @Value("${messaging.destination.equiv.changes.content}") String equivChangesContent;
+    private @Value("${lookup.cache.enabled}") boolean lookupCacheEnabled;
+    private @Value("${lookup.cache.maxSize}") long lookupCacheMaxSize;
+    private @Value("${lookup.cache.ttlSeconds}") long lookupCacheTtlSeconds;
+
+    private ServiceManager lookupCacheInvalidators;
+
+    @PostConstruct
+    public void startLookupCacheInvalidators() throws TimeoutException {
+        if (lookupCacheEnabled && messagingEnabled) {
+            lookupCacheInvalidators = new ServiceManager(ImmutableList.of(
+                    contentChangesLookupEntryInvalidator(),
+                    equivalenceChangesLookupEntryInvalidator()
+            ));
+            lookupCacheInvalidators.startAsync().awaitHealthy(1, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stopLookupCacheInvalidators() throws TimeoutException {
+        if (lookupCacheInvalidators != null) {
+            lookupCacheInvalidators.stopAsync().awaitStopped(1, TimeUnit.MINUTES);
+        }
+    }
+
+    // Shared by the query executors that serve API requests. Every instance keeps its own
+    // cache, so each consumes all change messages in a consumer group of its own. It is not a
+    // bean, so that it does not compete with the persistence LookupEntryStore for autowiring.
+    private final Supplier<CachingLookupEntryStore> cachingLookupStore =
+            Suppliers.memoize(this::createCachingLookupEntryStore);
+
+    private CachingLookupEntryStore cachingLookupEntryStore() {
+        return cachingLookupStore.get();
+    }
+
+    private CachingLookupEntryStore createCachingLookupEntryStore() {
+        return CachingLookupEntryStore.builder()
+                .withMongoClient(mongoClient)
+                .withCollectionName("lookup")
+                .withAuditLog(new NoLoggingPersistenceAuditLog())
+                .withReadPreference(readPreference)
+                .withMaximumSize(lookupCacheMaxSize)
+                .withTimeToLive(Duration.standardSeconds(lookupCacheTtlSeconds))
+                .withMetrics(AtlasMain.metrics, "lookup.cache")
+                .build();
+    }
+
+    private KafkaConsumer contentChangesLookupEntryInvalidator() {
+        return messaging.messageConsumerFactory()
+                .createConsumer(
+                        new ContentChangesLookupEntryInvalidatingWorker(cachingLookupEntryStore()),
+                        JacksonMessageSerializer.forType(EntityUpdatedMessage.class),
+                        contentChanges,
+                        InstanceConsumerGroups.forInstance("LookupEntryCache", localHostName)
+                )
+                .build();
+    }
+
+    private KafkaConsumer equivalenceChangesLookupEntryInvalidator() {
+        return messaging.messageConsumerFactory()
+                .createConsumer(
+                        new EquivalenceChangesLookupEntryInvalidatingWorker(
+                                cachingLookupEntryStore()
+                        ),
+                        JacksonMessageSerializer.forType(EquivalenceChangeMessage.class),
+                        equivChangesContent,
+                        InstanceConsumerGroups.forInstance("LookupEntryCache", localHostName)
+                )
+                .build();
+    }
+
+    private MongoLookupEntryStore queryLookupStore() {
+        if (lookupCacheEnabled) {
+            return cachingLookupEntryStore();
+        }
+        return new MongoLookupEntryStore(
+                mongoClient,
+                "lookup",
+                new NoLoggingPersistenceAuditLog(),
+                readPreference
+        );
+    }
 
     @Bean
     @Primary
     KnownTypeQueryExecutor queryExecutor() {
 
-        MongoLookupEntryStore lookupStore =
-                new MongoLookupEntryStore(
-						mongoClient,
-                        "lookup",
-                        new NoLoggingPersistenceAuditLog(),
-                        readPreference
-                );
+        MongoLookupEntryStore lookupStore = queryLookupStore();
         KnownTypeContentResolver mongoContentResolver =
                 new MongoContentResolver(mongo, lookupStore);
 
@@ -156,13 +257,7 @@ public class QueryModule {
     @Qualifier("YouviewQueryExecutor")
     KnownTypeQueryExecutor youviewQueryExecutor() {
 
-        MongoLookupEntryStore lookupStore =
-                new MongoLookupEntryStore(
-						mongoClient,
-						"lookup",
-						new NoLoggingPersistenceAuditLog(),
-						readPreference
-                );
+        MongoLookupEntryStore lookupStore = queryLookupStore();
         KnownTypeContentResolver mongoContentResolver =
                 new MongoContentResolver(mongo, lookupStore);
 
@@ -1,12 +1,24 @@
 package org.atlasapi.query;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ServiceManager;
 import com.metabroadcast.common.ids.NumberToShortStringCodec;
 import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
 import com.metabroadcast.common.media.MimeType;
 import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
 import com.metabroadcast.common.queue.MessageSender;
+import com.metabroadcast.common.queue.kafka.KafkaConsumer;
 import com.metabroadcast.common.time.SystemClock;
+import org.atlasapi.AtlasMain;
 import org.atlasapi.application.query.ApplicationFetcher;
 import org.atlasapi.application.v3.DefaultApplication;
 import org.atlasapi.equiv.EquivalenceBreaker;
@@ -52,6 +64,10 @@ import org.atlasapi.media.product.Product;
 import org.atlasapi.media.product.ProductResolver;
 import org.atlasapi.media.segment.SegmentResolver;
 import org.atlasapi.media.segment.SegmentWriter;
+import org.atlasapi.messaging.InstanceConsumerGroups;
+import org.atlasapi.messaging.v3.JacksonMessageSerializer;
+import org.atlasapi.messaging.v3.KafkaMessagingModule;
+import org.atlasapi.messaging.v3.ScheduleUpdateMessage;
 import org.atlasapi.output.AtlasModelWriter;
 import org.atlasapi.output.DispatchingAtlasModelWriter;
 import org.atlasapi.output.JaxbTVAnytimeModelWriter;
@@ -70,8 +86,12 @@ import org.atlasapi.output.SimpleProductModelWriter;
 import org.atlasapi.output.SimpleScheduleModelWriter;
 import org.atlasapi.output.SimpleTaskModelWriter;
 import org.atlasapi.output.SimpleTopicModelWriter;
+import org.atlasapi.output.StreamingChannelModelWriter;
+import org.atlasapi.output.StreamingContentModelWriter;
+import org.atlasapi.output.StreamingScheduleModelWriter;
 import org.atlasapi.output.TransformingModelWriter;
 import org.atlasapi.output.rdf.RdfXmlTranslator;
+import org.atlasapi.output.simple.AnnotationPrefetcher;
 import org.atlasapi.output.simple.ChannelGroupModelSimplifier;
 import org.atlasapi.output.simple.ChannelGroupSimplifier;
 import org.atlasapi.output.simple.ChannelGroupSummarySimplifier;
@@ -107,7 +127,6 @@ import org.atlasapi.persistence.content.LookupBackedContentIdGenerator;
 import org.atlasapi.persistence.content.PeopleQueryResolver;
 import org.atlasapi.persistence.content.PeopleResolver;
 import org.atlasapi.persistence.content.ScheduleResolver;
-import org.atlasapi.persistence.content.SearchResolver;
 import org.atlasapi.persistence.content.mongo.LastUpdatedContentFinder;
 import org.atlasapi.persistence.content.mongo.MongoContentLister;
 import org.atlasapi.persistence.content.mongo.MongoContentResolver;
@@ -131,8 +150,11 @@ import org.atlasapi.persistence.topic.TopicContentLister;
 import org.atlasapi.persistence.topic.TopicQueryResolver;
 import org.atlasapi.persistence.topic.TopicStore;
 import org.atlasapi.query.content.ContentWriteExecutor;
+import org.atlasapi.query.content.schedule.CachingScheduleResolver;
+import org.atlasapi.query.content.search.HydratingSearchResolver;
 import org.atlasapi.query.topic.PublisherFilteringTopicContentLister;
 import org.atlasapi.query.topic.PublisherFilteringTopicResolver;
+import org.atlasapi.query.v2.ChannelCatalogue;
 import org.atlasapi.query.v2.ChannelController;
 import org.atlasapi.query.v2.ChannelGroupController;
 import org.atlasapi.query.v2.ChannelGroupWriteExecutor;
@@ -152,7 +174,9 @@ import org.atlasapi.query.v2.TaskController;
 import org.atlasapi.query.v2.TopicController;
 import org.atlasapi.query.v2.TopicWriteController;
 import org.atlasapi.query.worker.ContentWriteMessage;
+import org.atlasapi.query.worker.ScheduleChangesInvalidatingWorker;
 import org.atlasapi.remotesite.util.OldContentDeactivator;
+import org.joda.time.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -174,6 +198,13 @@ public class QueryWebModule {
     @Value("${local.host.name}") private String localHostName;
     @Value("${ids.expose}") private String exposeIds;
     @Value("${events.whitelist.ids}") private String eventsWhitelist;
+    @Value("${output.json.streaming}") private String streamingJsonOutput;
+    @Value("${messaging.enabled}") private boolean messagingEnabled;
+    @Value("${messaging.destination.schedule.changes}") private String scheduleChanges;
+    @Value("${schedule.cache.enabled}") private boolean scheduleCacheEnabled;
+    @Value("${schedule.cache.maxItems}") private long scheduleCacheMaxItems;
+    @Value("${schedule.cache.ttlSeconds}") private long scheduleCacheTtlSeconds;
+    @Value("${channels.catalogue.maxAgeSeconds}") private long channelCatalogueMaxAgeSeconds;
 
     @Autowired private DatabasedMongo mongo;
     @Autowired private ContentGroupWriter contentGroupWriter;
@@ -186,7 +217,7 @@ public class QueryWebModule {
     @Autowired private ChannelResolver channelResolver;
     @Autowired private ChannelGroupStore channelGroupStore;
     @Autowired private ScheduleResolver scheduleResolver;
-    @Autowired private SearchResolver searchResolver;
+    @Autowired private HydratingSearchResolver searchResolver;
     @Autowired private PeopleResolver peopleResolver;
     @Autowired private TopicQueryResolver topicResolver;
     @Autowired @Qualifier("topicStore")  private TopicStore topicStore;
@@ -219,6 +250,26 @@ public class QueryWebModule {
 
     @Autowired private ContentWriteExecutor contentWriteExecutor;
     @Autowired private MessageSender<ContentWriteMessage> contentWriteMessageSender;
+    @Autowired private KafkaMessagingModule messaging;
+
+    private ServiceManager scheduleCacheInvalidator;
+
+    @PostConstruct
+    public void startScheduleCacheInvalidator() throws TimeoutException {
+        if (scheduleCacheEnabled && messagingEnabled) {
+            scheduleCacheInvalidator = new ServiceManager(ImmutableList.of(
+                    scheduleChangesInvalidator()
+            ));
+            scheduleCacheInvalidator.startAsync().awaitHealthy(1, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void stopScheduleCacheInvalidator() throws TimeoutException {
+        if (scheduleCacheInvalidator != null) {
+            scheduleCacheInvalidator.stopAsync().awaitStopped(1, TimeUnit.MINUTES);
+        }
+    }
 
     @Bean
     ChannelController channelController() {
@@ -227,11 +278,21 @@ public class QueryWebModule {
                 log,
                 channelModelWriter(),
                 channelResolver,
+                channelCatalogue(),
                 new SubstitutionTableNumberCodec(),
                 channelWriteExecutor()
         );
     }
 
+    @Bean
+    ChannelCatalogue channelCatalogue() {
+        return ChannelCatalogue.create(
+                channelResolver,
+                channelGroupStore,
+                Duration.standardSeconds(channelCatalogueMaxAgeSeconds)
+        );
+    }
+
     private ChannelWriteExecutor channelWriteExecutor() {
         return ChannelWriteExecutor.builder()
                 .withAppConfigFetcher(applicationFetcher)
@@ -244,6 +305,7 @@ public class QueryWebModule {
                         )
                 )
                 .withOutputter(channelModelWriter())
+                .withChannelCatalogue(channelCatalogue())
                 .build();
     }
 
@@ -252,11 +314,31 @@ public class QueryWebModule {
         ChannelModelSimplifier channelModelSimplifier = channelModelSimplifier();
 
         return this.standardWriter(
-                modelWriterFor(new JsonTranslator<>(), channelModelSimplifier),
+                jsonChannelModelWriter(channelModelSimplifier),
                 modelWriterFor(new JaxbXmlTranslator<>(), channelModelSimplifier)
         );
     }
 
+    private AtlasModelWriter<Iterable<Channel>> jsonChannelModelWriter(
+            ChannelModelSimplifier simplifier
+    ) {
+        JsonTranslator<ChannelQueryResult> translator = new JsonTranslator<>();
+        if (!Boolean.valueOf(streamingJsonOutput)) {
+            return modelWriterFor(translator, simplifier);
+        }
+        SimpleChannelModelWriter simpleWriter = new SimpleChannelModelWriter(translator, simplifier);
+        return new StreamingChannelModelWriter(
+                translator,
+                simpleWriter,
+                MergingChannelModelWriter.builder()
+                        .withChannelResolver(channelResolver)
+                        .withMerger(OutputChannelMerger.create())
+                        .withDelegate(simpleWriter)
+                        .withQueryResultModelWriter(translator)
+                        .build()
+        );
+    }
+
     private TransformingModelWriter<Iterable<Channel>, ChannelQueryResult> modelWriterFor(
             AtlasModelWriter<ChannelQueryResult> modelWriter,
             ChannelModelSimplifier simplifier
@@ -352,6 +434,7 @@ public class QueryWebModule {
                 .withAtlasModelWriter(channelGroupModelWriter())
                 .withModelReader(new DefaultJacksonModelReader())
                 .withChannelGroupResolver(cachingChannelGroupResolver())
+                .withChannelCatalogue(channelCatalogue())
                 .withChannelGroupTransformer(new ChannelGroupTransformer())
                 .withChannelGroupWriteExecutor(channelGroupWriteExecutor())
                 .withChannelResolver(channelResolver)
@@ -359,7 +442,7 @@ public class QueryWebModule {
     }
 
     private ChannelGroupWriteExecutor channelGroupWriteExecutor() {
-        return ChannelGroupWriteExecutor.create(channelGroupStore, channelStore);
+        return ChannelGroupWriteExecutor.create(channelGroupStore, channelStore, channelCatalogue());
     }
 
     @Bean
@@ -453,7 +536,7 @@ public class QueryWebModule {
     @Bean
     ScheduleController schedulerController() {
         return new ScheduleController(
-                scheduleResolver,
+                scheduleCacheEnabled ? cachingScheduleResolver() : scheduleResolver,
                 channelResolver,
                 applicationFetcher,
                 log,
@@ -462,6 +545,36 @@ public class QueryWebModule {
         );
     }
 
+    // Not a bean, so that it does not compete with the persistence ScheduleResolver for
+    // autowiring. Every instance keeps its own cache, so each consumes all schedule changes in
+    // a consumer group of its own.
+    private final Supplier<CachingScheduleResolver> cachingScheduleResolver =
+            Suppliers.memoize(this::createCachingScheduleResolver);
+
+    private CachingScheduleResolver cachingScheduleResolver() {
+        return cachingScheduleResolver.get();
+    }
+
+    private CachingScheduleResolver createCachingScheduleResolver() {
+        return CachingScheduleResolver.builder()
+                .withDelegate(scheduleResolver)
+                .withMaximumItems(scheduleCacheMaxItems)
+                .withTimeToLive(Duration.standardSeconds(scheduleCacheTtlSeconds))
+                .withMetrics(AtlasMain.metrics, "schedule.cache")
+                .build();
+    }
+
+    private KafkaConsumer scheduleChangesInvalidator() {
+        return messaging.messageConsumerFactory()
+                .createConsumer(
+                        new ScheduleChangesInvalidatingWorker(cachingScheduleResolver()),
+                        JacksonMessageSerializer.forType(ScheduleUpdateMessage.class),
+                        scheduleChanges,
+                        InstanceConsumerGroups.forInstance("ScheduleCache", localHostName)
+                )
+                .build();
+    }
+
     @Bean
     PeopleController peopleController() {
         return new PeopleController(
@@ -571,16 +684,23 @@ public class QueryWebModule {
 
     @Bean
     AtlasModelWriter<QueryResult<Identified, ? extends Identified>> contentModelOutputter() {
+        JsonTranslator<ContentQueryResult> jsonTranslator = new JsonTranslator<>();
+        SimpleContentModelWriter simpleJsonWriter = new SimpleContentModelWriter(
+                jsonTranslator,
+                contentItemModelSimplifier(),
+                containerSimplifier(),
+                topicSimplifier(),
+                productSimplifier(),
+                imageSimplifier(),
+                personSimplifier(),
+                annotationPrefetcher()
+        );
+        AtlasModelWriter<QueryResult<Identified, ? extends Identified>> jsonWriter =
+                Boolean.valueOf(streamingJsonOutput)
+                ? new StreamingContentModelWriter(jsonTranslator, simpleJsonWriter)
+                : simpleJsonWriter;
         return this.standardWriter(
-                new SimpleContentModelWriter(
-                        new JsonTranslator<ContentQueryResult>(),
-                        contentItemModelSimplifier(),
-                        containerSimplifier(),
-                        topicSimplifier(),
-                        productSimplifier(),
-                        imageSimplifier(),
-                        personSimplifier()
-                ),
+                jsonWriter,
                 new SimpleContentModelWriter(
                         new JaxbXmlTranslator<ContentQueryResult>(),
                         contentItemModelSimplifier(),
@@ -588,11 +708,24 @@ public class QueryWebModule {
                         topicSimplifier(),
                         productSimplifier(),
                         imageSimplifier(),
-                        personSimplifier()
+                        personSimplifier(),
+                        annotationPrefetcher()
                 )
         );
     }
 
+    @Bean
+    AnnotationPrefetcher annotationPrefetcher() {
+        return new AnnotationPrefetcher(
+                topicResolver,
+                contentGroupResolver,
+                peopleQueryResolver,
+                productResolver,
+                new MongoContainerSummaryResolver(mongo, SubstitutionTableNumberCodec.lowerCaseOnly()),
+                channelResolver
+        );
+    }
+
     @Bean
     ContainerModelSimplifier containerSimplifier() {
         RecentlyBroadcastChildrenResolver recentChildren = new MongoRecentlyBroadcastChildrenResolver(
@@ -732,12 +865,18 @@ public class QueryWebModule {
 
     @Bean
     AtlasModelWriter<Iterable<ScheduleChannel>> scheduleChannelModelOutputter() {
+        JsonTranslator<ScheduleQueryResult> jsonTranslator = new JsonTranslator<>();
+        SimpleScheduleModelWriter simpleJsonWriter = new SimpleScheduleModelWriter(
+                jsonTranslator,
+                scheduleItemModelSimplifier(),
+                channelSimplifier()
+        );
+        AtlasModelWriter<Iterable<ScheduleChannel>> jsonWriter =
+                Boolean.valueOf(streamingJsonOutput)
+                ? new StreamingScheduleModelWriter(jsonTranslator, simpleJsonWriter)
+                : simpleJsonWriter;
         return this.standardWriter(
-                new SimpleScheduleModelWriter(
-                        new JsonTranslator<ScheduleQueryResult>(),
-                        scheduleItemModelSimplifier(),
-                        channelSimplifier()
-                ),
+                jsonWriter,
                 new SimpleScheduleModelWriter(
                         new JaxbXmlTranslator<ScheduleQueryResult>(),
                         scheduleItemModelSimplifier(),
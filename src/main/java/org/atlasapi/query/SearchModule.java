@@ -1,7 +1,10 @@
 package org.atlasapi.query;
 
 import com.google.common.base.Strings;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.metabroadcast.common.properties.Configurer;
 import com.metabroadcast.sherlock.client.search.SherlockSearcher;
 import com.metabroadcast.sherlock.common.client.ElasticSearchProcessor;
@@ -14,8 +17,10 @@ import org.atlasapi.persistence.lookup.entry.LookupEntryStore;
 import org.atlasapi.query.content.fuzzy.RemoteFuzzySearcher;
 import org.atlasapi.query.content.search.ContentResolvingSearcher;
 import org.atlasapi.query.content.search.DummySearcher;
+import org.atlasapi.query.content.search.HydratingSearchResolver;
 import org.atlasapi.query.content.search.SherlockSearchResolver;
 import org.atlasapi.search.ContentSearcher;
+import org.joda.time.Duration;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,11 +29,18 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class SearchModule {
 
     private @Value("${atlas.search.host}") String searchHost;
+    private @Value("${search.hydration.threads}") int hydrationThreads;
+    private @Value("${search.hydration.deadlineMillis}") long hydrationDeadlineMillis;
+    private @Value("${search.cache.maxSize}") long searchCacheMaxSize;
+    private @Value("${search.cache.ttlSeconds}") long searchCacheTtlSeconds;
 
     //this will use an executor that does not do merging.
     private @Autowired @Qualifier("EquivalenceQueryExecutor") KnownTypeQueryExecutor equivQueryExecutor;
@@ -68,28 +80,59 @@ public class SearchModule {
         }
     }
     
+    @PreDestroy
+    public void shutdownHydrationExecutor() {
+        hydrationExecutor.get().shutdownNow();
+    }
+
+    // API search answers within the deadline, with whatever has been hydrated by then, and
+    // caches searcher results briefly for autocomplete.
     @Bean
     @Primary
-    SearchResolver searchResolver() {
+    HydratingSearchResolver searchResolver() {
         if (!Strings.isNullOrEmpty(searchHost)) {
             ContentSearcher titleSearcher = new RemoteFuzzySearcher(searchHost);
-            return new ContentResolvingSearcher(titleSearcher, null, null);
+            return ContentResolvingSearcher.builder(titleSearcher)
+                    .withHydrationExecutor(hydrationExecutor.get())
+                    .withHydrationDeadline(Duration.millis(hydrationDeadlineMillis))
+                    .withSearchCache(
+                            searchCacheMaxSize,
+                            Duration.standardSeconds(searchCacheTtlSeconds)
+                    )
+                    .build();
         }
 
         return new DummySearcher();
     }
 
+    // Equivalence needs complete, fresh results, so it waits for hydration and doesn't cache.
+    // It hydrates on the calling thread, so that bulk equivalence lookups don't hold the API's
+    // hydration threads and push API searches past their deadline.
     @Bean
     @Qualifier("EquivalenceSearchResolver")
     SearchResolver equivSearchResolver() {
         if (!Strings.isNullOrEmpty(searchHost)) {
             ContentSearcher titleSearcher = new RemoteFuzzySearcher(searchHost);
-            return new ContentResolvingSearcher(titleSearcher, null, null);
+            return ContentResolvingSearcher.builder(titleSearcher).build();
         }
 
         return new DummySearcher();
     }
 
+    // Not a bean, so that it isn't autowired in place of other executors.
+    private final Supplier<ExecutorService> hydrationExecutor =
+            Suppliers.memoize(this::createHydrationExecutor);
+
+    private ExecutorService createHydrationExecutor() {
+        return Executors.newFixedThreadPool(
+                hydrationThreads,
+                new ThreadFactoryBuilder()
+                        .setNameFormat("search-hydration-%d")
+                        .setDaemon(true)
+                        .build()
+        );
+    }
+
     @Bean
     @Qualifier("SherlockSearchResolver")
     SearchResolver sherlockSearchResolver() {
@@ -0,0 +1,362 @@
+package org.atlasapi.query.content;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.entity.Alias;
+import org.atlasapi.persistence.audit.PersistenceAuditLog;
+import org.atlasapi.persistence.lookup.entry.LookupEntry;
+import org.atlasapi.persistence.lookup.entry.LookupRef;
+import org.atlasapi.persistence.lookup.mongo.MongoLookupEntryStore;
+
+import com.metabroadcast.common.persistence.mongo.DatabasedMongoClient;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.mongodb.ReadPreference;
+import org.joda.time.Duration;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link MongoLookupEntryStore} that keeps recently read entries in memory, so that popular
+ * content is not looked up from Mongo on every request.
+ * <p>
+ * Entries are cached by id. Canonical URIs and namespaced aliases are cached as the ids they
+ * resolve to, so invalidating an id is enough to make every lookup of that entry read through
+ * again. Alias membership itself is only refreshed when one of its entries is invalidated or the
+ * TTL expires, so the TTL should be kept short.
+ * <p>
+ * Hits, misses and evictions are recorded under the given name in the metric registry.
+ */
+public class CachingLookupEntryStore extends MongoLookupEntryStore {
+
+    private final Cache<Long, LookupEntry> entriesById;
+    private final Cache<String, Long> idsByUri;
+    private final Cache<Alias, ImmutableSet<Long>> idsByAlias;
+
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+
+    private CachingLookupEntryStore(Builder builder) {
+        super(
+                builder.mongoClient,
+                builder.collectionName,
+                builder.auditLog,
+                builder.readPreference
+        );
+        this.hits = builder.metrics.meter(MetricRegistry.name(builder.metricPrefix, "hits"));
+        this.misses = builder.metrics.meter(MetricRegistry.name(builder.metricPrefix, "misses"));
+        this.evictions = builder.metrics.meter(
+                MetricRegistry.name(builder.metricPrefix, "evictions")
+        );
+
+        this.entriesById = cache(builder);
+        this.idsByUri = cache(builder);
+        this.idsByAlias = cache(builder);
+    }
+
+    public static MongoClientStep builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Iterable<LookupEntry> entriesForIds(Iterable<Long> ids) {
+        List<LookupEntry> entries = Lists.newArrayList();
+        Set<Long> missing = Sets.newLinkedHashSet();
+        for (Long id : ids) {
+            LookupEntry entry = entriesById.getIfPresent(id);
+            if (entry != null) {
+                entries.add(entry);
+            } else {
+                missing.add(id);
+            }
+        }
+        record(entries.size(), missing.size());
+
+        if (!missing.isEmpty()) {
+            entries.addAll(cached(super.entriesForIds(missing)));
+        }
+        return entries;
+    }
+
+    @Override
+    public Iterable<LookupEntry> entriesForCanonicalUris(Iterable<String> uris) {
+        List<LookupEntry> entries = Lists.newArrayList();
+        Set<String> missing = Sets.newLinkedHashSet();
+        for (String uri : uris) {
+            Long id = idsByUri.getIfPresent(uri);
+            LookupEntry entry = id != null ? entriesById.getIfPresent(id) : null;
+            if (entry != null) {
+                entries.add(entry);
+            } else {
+                missing.add(uri);
+            }
+        }
+        record(entries.size(), missing.size());
+
+        if (!missing.isEmpty()) {
+            for (LookupEntry entry : cached(super.entriesForCanonicalUris(missing))) {
+                if (entry.id() != null) {
+                    idsByUri.put(entry.uri(), entry.id());
+                }
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Aliases are only cached when a namespace is given; lookups across all namespaces always
+     * read through.
+     */
+    @Override
+    public Iterable<LookupEntry> entriesForAliases(
+            Optional<String> namespace,
+            Iterable<String> values
+    ) {
+        if (!namespace.isPresent()) {
+            return super.entriesForAliases(namespace, values);
+        }
+
+        Map<Long, LookupEntry> entries = Maps.newLinkedHashMap();
+        Set<String> missing = Sets.newLinkedHashSet();
+        for (String value : values) {
+            Collection<LookupEntry> aliasEntries = cachedEntries(
+                    idsByAlias.getIfPresent(new Alias(namespace.get(), value))
+            );
+            if (aliasEntries != null) {
+                for (LookupEntry entry : aliasEntries) {
+                    entries.put(entry.id(), entry);
+                }
+            } else {
+                missing.add(value);
+            }
+        }
+        record(Iterables.size(values) - missing.size(), missing.size());
+
+        if (missing.isEmpty()) {
+            return entries.values();
+        }
+
+        List<LookupEntry> loaded = cached(super.entriesForAliases(namespace, missing));
+        for (String value : missing) {
+            Alias alias = new Alias(namespace.get(), value);
+            ImmutableSet.Builder<Long> ids = ImmutableSet.builder();
+            boolean cacheable = true;
+            for (LookupEntry entry : loaded) {
+                if (entry.aliases().contains(alias)) {
+                    if (entry.id() == null) {
+                        cacheable = false;
+                    } else {
+                        ids.add(entry.id());
+                    }
+                }
+            }
+            if (cacheable) {
+                idsByAlias.put(alias, ids.build());
+            }
+        }
+        List<LookupEntry> result = Lists.newArrayList(entries.values());
+        for (LookupEntry entry : loaded) {
+            if (entry.id() == null || !entries.containsKey(entry.id())) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void store(LookupEntry entry) {
+        super.store(entry);
+        if (entry.id() != null) {
+            invalidate(entry.id());
+        }
+    }
+
+    /**
+     * Drops the entry for {@code id}, and the entries in its equivalence set if it is cached, as
+     * any change to an entry's equivalence is also written to every other entry in the set.
+     */
+    public void invalidate(long id) {
+        LookupEntry cached = entriesById.getIfPresent(id);
+        entriesById.invalidate(id);
+        if (cached != null) {
+            for (LookupRef ref : cached.equivalents()) {
+                if (ref.id() != null) {
+                    entriesById.invalidate(ref.id());
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        entriesById.invalidateAll();
+        idsByUri.invalidateAll();
+        idsByAlias.invalidateAll();
+    }
+
+    /**
+     * Returns the entries for all {@code ids} if every one of them is cached, otherwise null.
+     */
+    private Collection<LookupEntry> cachedEntries(ImmutableSet<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        ImmutableList.Builder<LookupEntry> entries = ImmutableList.builder();
+        for (Long id : ids) {
+            LookupEntry entry = entriesById.getIfPresent(id);
+            if (entry == null) {
+                return null;
+            }
+            entries.add(entry);
+        }
+        return entries.build();
+    }
+
+    private List<LookupEntry> cached(Iterable<LookupEntry> loaded) {
+        List<LookupEntry> entries = ImmutableList.copyOf(loaded);
+        for (LookupEntry entry : entries) {
+            if (entry.id() != null) {
+                entriesById.put(entry.id(), entry);
+            }
+        }
+        return entries;
+    }
+
+    private void record(int hit, int missed) {
+        hits.mark(hit);
+        misses.mark(missed);
+    }
+
+    private <K, V> Cache<K, V> cache(Builder builder) {
+        RemovalListener<K, V> evictionListener = notification -> {
+            if (notification.wasEvicted()) {
+                evictions.mark();
+            }
+        };
+        return CacheBuilder.newBuilder()
+                .maximumSize(builder.maximumSize)
+                .expireAfterWrite(builder.timeToLive.getMillis(), TimeUnit.MILLISECONDS)
+                .removalListener(evictionListener)
+                .build();
+    }
+
+    public interface MongoClientStep {
+
+        CollectionNameStep withMongoClient(DatabasedMongoClient mongoClient);
+    }
+
+    public interface CollectionNameStep {
+
+        AuditLogStep withCollectionName(String collectionName);
+    }
+
+    public interface AuditLogStep {
+
+        ReadPreferenceStep withAuditLog(PersistenceAuditLog auditLog);
+    }
+
+    public interface ReadPreferenceStep {
+
+        MaximumSizeStep withReadPreference(ReadPreference readPreference);
+    }
+
+    public interface MaximumSizeStep {
+
+        TimeToLiveStep withMaximumSize(long maximumSize);
+    }
+
+    public interface TimeToLiveStep {
+
+        MetricsStep withTimeToLive(Duration timeToLive);
+    }
+
+    public interface MetricsStep {
+
+        BuildStep withMetrics(MetricRegistry metrics, String metricPrefix);
+    }
+
+    public interface BuildStep {
+
+        CachingLookupEntryStore build();
+    }
+
+    public static class Builder implements MongoClientStep, CollectionNameStep, AuditLogStep,
+            ReadPreferenceStep, MaximumSizeStep, TimeToLiveStep, MetricsStep, BuildStep {
+
+        private DatabasedMongoClient mongoClient;
+        private String collectionName;
+        private PersistenceAuditLog auditLog;
+        private ReadPreference readPreference;
+        private long maximumSize;
+        private Duration timeToLive;
+        private MetricRegistry metrics;
+        private String metricPrefix;
+
+        private Builder() {
+        }
+
+        @Override
+        public CollectionNameStep withMongoClient(DatabasedMongoClient mongoClient) {
+            this.mongoClient = checkNotNull(mongoClient);
+            return this;
+        }
+
+        @Override
+        public AuditLogStep withCollectionName(String collectionName) {
+            this.collectionName = checkNotNull(collectionName);
+            return this;
+        }
+
+        @Override
+        public ReadPreferenceStep withAuditLog(PersistenceAuditLog auditLog) {
+            this.auditLog = checkNotNull(auditLog);
+            return this;
+        }
+
+        @Override
+        public MaximumSizeStep withReadPreference(ReadPreference readPreference) {
+            this.readPreference = checkNotNull(readPreference);
+            return this;
+        }
+
+        @Override
+        public TimeToLiveStep withMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        @Override
+        public MetricsStep withTimeToLive(Duration timeToLive) {
+            this.timeToLive = checkNotNull(timeToLive);
+            return this;
+        }
+
+        @Override
+        public BuildStep withMetrics(MetricRegistry metrics, String metricPrefix) {
+            this.metrics = checkNotNull(metrics);
+            this.metricPrefix = checkNotNull(metricPrefix);
+            return this;
+        }
+
+        @Override
+        public CachingLookupEntryStore build() {
+            return new CachingLookupEntryStore(this);
+        }
+    }
+}
@@ -1,9 +1,14 @@
 package org.atlasapi.query.content;
 
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 import com.metabroadcast.common.base.Maybe;
 import org.atlasapi.input.ModelReader;
 import org.atlasapi.input.ModelTransformer;
@@ -41,7 +46,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -144,16 +151,8 @@ public class ContentWriteExecutor {
 
         Content updatedContent = updateEventPublisher(content);
         Maybe<Identified> identified = resolveExisting(updatedContent);
+        updatedContent = merge(identified, updatedContent, type, shouldMerge, broadcastMerger);
 
-        if ("broadcast".equals(type)) {
-            updatedContent = versionMerger.mergeBroadcasts(
-                    identified, updatedContent, shouldMerge, broadcastMerger
-            );
-        } else {
-            updatedContent = contentMerger.merge(
-                    identified, updatedContent, shouldMerge, broadcastMerger
-            );
-        }
         long startTime = System.nanoTime();
         if (updatedContent instanceof Item) {
             Item item = (Item) updatedContent;
@@ -169,6 +168,157 @@ public class ContentWriteExecutor {
         }
     }
 
+    /**
+     * Writes a batch of content, resolving any existing content for the whole batch at once and
+     * replacing each contiguous run of broadcasts on a channel with a single schedule update.
+     * Content is written in order; one piece failing does not stop the rest of the batch.
+     *
+     * @return the failure for each content that could not be written, or whose schedule could
+     *         not be updated
+     */
+    public Map<InputContent, Exception> writeContents(
+            List<InputContent> contents,
+            boolean shouldMerge,
+            BroadcastMerger broadcastMerger
+    ) {
+        Map<InputContent, Exception> failures = Maps.newLinkedHashMap();
+        Table<Publisher, String, List<ScheduledBroadcast>> schedules = HashBasedTable.create();
+
+        ResolvedContent existing = resolver.findByCanonicalUris(
+                Iterables.transform(contents, input -> input.getContent().getCanonicalUri())
+        );
+        Set<String> written = Sets.newHashSet();
+
+        for (InputContent input : contents) {
+            try {
+                Content content = input.getContent();
+                checkArgument(content.getId() != null, "Cannot write content without an ID");
+
+                Content updatedContent = updateEventPublisher(content);
+                // content appearing twice in a batch must be merged with its earlier write
+                Maybe<Identified> identified = written.add(content.getCanonicalUri())
+                                               ? existing.get(content.getCanonicalUri())
+                                               : resolveExisting(updatedContent);
+                updatedContent = merge(
+                        identified, updatedContent, input.getType(), shouldMerge, broadcastMerger
+                );
+
+                if (updatedContent instanceof Item) {
+                    Item item = (Item) updatedContent;
+                    List<ScheduledBroadcast> broadcasts = scheduledBroadcasts(input, item);
+                    writer.createOrUpdate(item);
+                    for (ScheduledBroadcast broadcast : broadcasts) {
+                        scheduleFor(schedules, item.getPublisher(), broadcast.channel)
+                                .add(broadcast);
+                    }
+                } else {
+                    writer.createOrUpdate((Container) updatedContent);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to write {}", input.getContent().getCanonicalUri(), e);
+                failures.put(input, e);
+            }
+        }
+
+        for (Table.Cell<Publisher, String, List<ScheduledBroadcast>> schedule
+                : schedules.cellSet()) {
+            for (List<ScheduledBroadcast> block : contiguousBlocks(schedule.getValue())) {
+                try {
+                    replaceScheduleBlock(schedule.getRowKey(), block);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to update schedule for {}", schedule.getColumnKey(), e);
+                    for (ScheduledBroadcast broadcast : block) {
+                        failures.put(broadcast.input, e);
+                    }
+                }
+            }
+        }
+        return failures;
+    }
+
+    private Content merge(
+            Maybe<Identified> identified,
+            Content content,
+            String type,
+            boolean shouldMerge,
+            BroadcastMerger broadcastMerger
+    ) {
+        if ("broadcast".equals(type)) {
+            return versionMerger.mergeBroadcasts(
+                    identified, content, shouldMerge, broadcastMerger
+            );
+        }
+        return contentMerger.merge(identified, content, shouldMerge, broadcastMerger);
+    }
+
+    private List<ScheduledBroadcast> scheduledBroadcasts(InputContent input, Item item) {
+        Content content = input.getContent();
+        if (content.getVersions().isEmpty()) {
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<ScheduledBroadcast> broadcasts = ImmutableList.builder();
+        for (Broadcast broadcast : content.getVersions().iterator().next().getBroadcasts()) {
+            Channel channel = channelResolver.fromUri(broadcast.getBroadcastOn()).requireValue();
+            broadcasts.add(new ScheduledBroadcast(input, item, broadcast, channel));
+        }
+        return broadcasts.build();
+    }
+
+    private List<ScheduledBroadcast> scheduleFor(
+            Table<Publisher, String, List<ScheduledBroadcast>> schedules,
+            Publisher publisher,
+            Channel channel
+    ) {
+        List<ScheduledBroadcast> schedule = schedules.get(publisher, channel.getUri());
+        if (schedule == null) {
+            schedule = Lists.newArrayList();
+            schedules.put(publisher, channel.getUri(), schedule);
+        }
+        return schedule;
+    }
+
+    /**
+     * Splits a channel's broadcasts into runs where each starts as the previous one ends, so each
+     * run covers an unbroken interval and can replace that part of the schedule in one go.
+     */
+    private List<List<ScheduledBroadcast>> contiguousBlocks(List<ScheduledBroadcast> broadcasts) {
+        List<ScheduledBroadcast> sorted = Lists.newArrayList(broadcasts);
+        sorted.sort(Comparator.comparing(scheduled -> scheduled.broadcast.getTransmissionTime()));
+
+        List<List<ScheduledBroadcast>> blocks = Lists.newArrayList();
+        List<ScheduledBroadcast> block = Lists.newArrayList();
+        for (ScheduledBroadcast scheduled : sorted) {
+            if (!block.isEmpty() && !Iterables.getLast(block).broadcast.getTransmissionEndTime()
+                    .equals(scheduled.broadcast.getTransmissionTime())) {
+                blocks.add(block);
+                block = Lists.newArrayList();
+            }
+            block.add(scheduled);
+        }
+        if (!block.isEmpty()) {
+            blocks.add(block);
+        }
+        return blocks;
+    }
+
+    private void replaceScheduleBlock(Publisher publisher, List<ScheduledBroadcast> block) {
+        Channel channel = block.get(0).channel;
+        Interval blockInterval = new Interval(
+                block.get(0).broadcast.getTransmissionTime(),
+                Iterables.getLast(block).broadcast.getTransmissionEndTime()
+        );
+
+        Map<String, String> acceptableIds = Maps.newHashMap();
+        ImmutableList.Builder<ScheduleEntry.ItemRefAndBroadcast> entries = ImmutableList.builder();
+        for (ScheduledBroadcast scheduled : block) {
+            acceptableIds.put(scheduled.broadcast.getSourceId(), scheduled.item.getCanonicalUri());
+            entries.add(new ScheduleEntry.ItemRefAndBroadcast(scheduled.item, scheduled.broadcast));
+        }
+
+        trimmer.trimBroadcasts(publisher, blockInterval, channel, acceptableIds);
+        scheduleWriter.replaceScheduleBlock(publisher, channel, entries.build());
+    }
+
     private void updateSchedule(Content content, Item item) {
         for (Broadcast broadcast : content.getVersions()
                 .iterator()
@@ -261,6 +411,26 @@ public class ContentWriteExecutor {
         }
     }
 
+    private static class ScheduledBroadcast {
+
+        private final InputContent input;
+        private final Item item;
+        private final Broadcast broadcast;
+        private final Channel channel;
+
+        private ScheduledBroadcast(
+                InputContent input,
+                Item item,
+                Broadcast broadcast,
+                Channel channel
+        ) {
+            this.input = input;
+            this.item = item;
+            this.broadcast = broadcast;
+            this.channel = channel;
+        }
+    }
+
     public static class InputContent {
 
         private final Content content;
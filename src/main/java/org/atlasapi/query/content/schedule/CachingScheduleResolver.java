@@ -0,0 +1,436 @@
+package org.atlasapi.query.content.schedule;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Schedule;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.persistence.content.ScheduleResolver;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import com.metabroadcast.applications.client.model.internal.ApplicationConfiguration;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Objects;
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.joda.time.Interval;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link ScheduleResolver} that keeps recently requested schedules in memory, so that popular
+ * channel and day windows are not resolved from the store on every request.
+ * <p>
+ * Schedules are cached for the requested interval widened to whole schedule blocks, so requests
+ * relative to the current time, such as {@code on=now}, share an entry until the block they fall
+ * in has passed. Each response is cut back down to the broadcasts overlapping the requested
+ * interval. Schedules requested by count, and unmerged schedules, are not cached. Items are
+ * copied into each response, since callers go on to modify the items they are given and the
+ * cached instances are shared between requests.
+ * <p>
+ * Cached schedules for a channel are dropped by {@link #invalidate} when a block of its schedule
+ * is replaced. Changes to the content in a schedule are only seen once the TTL expires. Memory is
+ * bounded by the total number of scheduled items held. Hits, misses, evictions and invalidations
+ * are recorded under the given name in the metric registry.
+ */
+public class CachingScheduleResolver implements ScheduleResolver {
+
+    static final Duration SCHEDULE_BLOCK = Duration.standardHours(1);
+
+    private final ScheduleResolver delegate;
+    private final Cache<ScheduleKey, Schedule> schedules;
+
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+    private final Meter invalidations;
+
+    private CachingScheduleResolver(Builder builder) {
+        this.delegate = builder.delegate;
+        this.hits = builder.metrics.meter(MetricRegistry.name(builder.metricPrefix, "hits"));
+        this.misses = builder.metrics.meter(MetricRegistry.name(builder.metricPrefix, "misses"));
+        this.evictions = builder.metrics.meter(
+                MetricRegistry.name(builder.metricPrefix, "evictions")
+        );
+        this.invalidations = builder.metrics.meter(
+                MetricRegistry.name(builder.metricPrefix, "invalidations")
+        );
+
+        RemovalListener<ScheduleKey, Schedule> evictionListener = notification -> {
+            if (notification.wasEvicted()) {
+                evictions.mark();
+            }
+        };
+        this.schedules = CacheBuilder.newBuilder()
+                .maximumWeight(builder.maximumItems)
+                .weigher((ScheduleKey key, Schedule schedule) -> itemCount(schedule) + 1)
+                .expireAfterWrite(builder.timeToLive.getMillis(), TimeUnit.MILLISECONDS)
+                .removalListener(evictionListener)
+                .build();
+    }
+
+    public static DelegateStep builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Schedule schedule(
+            DateTime from,
+            DateTime to,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publisher,
+            Optional<Application> mergeApp
+    ) {
+        ImmutableSortedSet<Long> channelIds = channelIds(channels);
+        if (channelIds == null || to.isBefore(from)) {
+            return delegate.schedule(from, to, channels, publisher, mergeApp);
+        }
+
+        Interval blocks = alignToBlocks(from, to);
+        ScheduleKey key = new ScheduleKey(
+                channelIds,
+                Sets.immutableEnumSet(publisher),
+                mergePrecedence(mergeApp),
+                blocks
+        );
+
+        Schedule cached = schedules.getIfPresent(key);
+        if (cached != null) {
+            hits.mark();
+        } else {
+            misses.mark();
+            cached = load(key, () -> delegate.schedule(
+                    blocks.getStart(),
+                    blocks.getEnd(),
+                    channels,
+                    publisher,
+                    mergeApp
+            ));
+        }
+        return restrict(cached, from, to);
+    }
+
+    @Override
+    public Schedule schedule(
+            DateTime from,
+            int count,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publisher,
+            Optional<Application> mergeApp
+    ) {
+        return delegate.schedule(from, count, channels, publisher, mergeApp);
+    }
+
+    @Override
+    public Schedule unmergedSchedule(
+            DateTime from,
+            DateTime to,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publisher
+    ) {
+        return delegate.unmergedSchedule(from, to, channels, publisher);
+    }
+
+    @Override
+    public Set<Item> resolveItems(
+            DateTime from,
+            DateTime to,
+            Iterable<Channel> channels,
+            Iterable<Publisher> publishers
+    ) {
+        return delegate.resolveItems(from, to, channels, publishers);
+    }
+
+    /**
+     * Drops every cached schedule that includes {@code source}'s schedule for the channel and
+     * overlaps {@code interval}.
+     */
+    public void invalidate(Publisher source, long channelId, Interval interval) {
+        for (ScheduleKey key : schedules.asMap().keySet()) {
+            if (key.publishers.contains(source)
+                    && key.channelIds.contains(channelId)
+                    && overlapsBlocks(key, interval)) {
+                schedules.invalidate(key);
+                invalidations.mark();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        schedules.invalidateAll();
+    }
+
+    private Schedule load(ScheduleKey key, Callable<Schedule> loader) {
+        try {
+            return schedules.get(key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private static boolean overlapsBlocks(ScheduleKey key, Interval interval) {
+        return interval.getStartMillis() < key.endMillis
+                && interval.getEndMillis() > key.startMillis;
+    }
+
+    /**
+     * Returns null if any of the channels has no id, as such requests can't be invalidated.
+     */
+    private static ImmutableSortedSet<Long> channelIds(Iterable<Channel> channels) {
+        ImmutableSortedSet.Builder<Long> ids = ImmutableSortedSet.naturalOrder();
+        for (Channel channel : channels) {
+            if (channel.getId() == null) {
+                return null;
+            }
+            ids.add(channel.getId());
+        }
+        return ids.build();
+    }
+
+    /**
+     * The part of the application's configuration that decides how a schedule is merged: the
+     * enabled sources, in precedence order if precedence is enabled.
+     */
+    private static MergePrecedence mergePrecedence(Optional<Application> mergeApp) {
+        if (!mergeApp.isPresent()) {
+            return MergePrecedence.UNMERGED;
+        }
+        ApplicationConfiguration configuration = mergeApp.get().getConfiguration();
+        Ordering<Publisher> ordering = Ordering.natural();
+        if (configuration.isPrecedenceEnabled()) {
+            ordering = configuration.getReadPrecedenceOrdering();
+        }
+        return new MergePrecedence(
+                configuration.isPrecedenceEnabled(),
+                ordering.immutableSortedCopy(configuration.getEnabledReadSources())
+        );
+    }
+
+    static Interval alignToBlocks(DateTime from, DateTime to) {
+        long block = SCHEDULE_BLOCK.getMillis();
+        long start = Math.floorDiv(from.getMillis(), block) * block;
+        long end = -Math.floorDiv(-to.getMillis(), block) * block;
+        if (end == start) {
+            end += block;
+        }
+        return new Interval(start, end, from.getZone());
+    }
+
+    private static Schedule restrict(Schedule schedule, DateTime from, DateTime to) {
+        ImmutableList.Builder<ScheduleChannel> channels = ImmutableList.builder();
+        for (ScheduleChannel scheduleChannel : schedule.scheduleChannels()) {
+            String channelUri = scheduleChannel.channel().getUri();
+            ImmutableList.Builder<Item> items = ImmutableList.builder();
+            for (Item item : scheduleChannel.items()) {
+                if (airsDuring(item, channelUri, from, to)) {
+                    items.add((Item) item.copy());
+                }
+            }
+            channels.add(new ScheduleChannel(scheduleChannel.channel(), items.build()));
+        }
+        return new Schedule(channels.build(), new Interval(from, to));
+    }
+
+    /**
+     * A broadcast airs during a point-in-time request if it is on air at that instant, and
+     * during any other request if it overlaps the requested interval.
+     */
+    private static boolean airsDuring(Item item, String channelUri, DateTime from, DateTime to) {
+        for (Version version : item.getVersions()) {
+            for (Broadcast broadcast : version.getBroadcasts()) {
+                DateTime start = broadcast.getTransmissionTime();
+                DateTime end = broadcast.getTransmissionEndTime();
+                if (!channelUri.equals(broadcast.getBroadcastOn())
+                        || start == null || end == null) {
+                    continue;
+                }
+                boolean airs = from.isEqual(to)
+                               ? !start.isAfter(from) && end.isAfter(from)
+                               : start.isBefore(to) && end.isAfter(from);
+                if (airs) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int itemCount(Schedule schedule) {
+        int count = 0;
+        for (ScheduleChannel scheduleChannel : schedule.scheduleChannels()) {
+            count += scheduleChannel.items().size();
+        }
+        return count;
+    }
+
+    private static final class MergePrecedence {
+
+        private static final MergePrecedence UNMERGED = new MergePrecedence(
+                false,
+                ImmutableList.of()
+        );
+
+        private final boolean precedenceEnabled;
+        private final List<Publisher> sources;
+
+        private MergePrecedence(boolean precedenceEnabled, List<Publisher> sources) {
+            this.precedenceEnabled = precedenceEnabled;
+            this.sources = sources;
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof MergePrecedence) {
+                MergePrecedence other = (MergePrecedence) that;
+                return precedenceEnabled == other.precedenceEnabled
+                        && sources.equals(other.sources);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(precedenceEnabled, sources);
+        }
+    }
+
+    private static final class ScheduleKey {
+
+        private final Set<Long> channelIds;
+        private final Set<Publisher> publishers;
+        private final MergePrecedence mergePrecedence;
+        private final long startMillis;
+        private final long endMillis;
+
+        private ScheduleKey(
+                Set<Long> channelIds,
+                Set<Publisher> publishers,
+                MergePrecedence mergePrecedence,
+                Interval blocks
+        ) {
+            this.channelIds = channelIds;
+            this.publishers = publishers;
+            this.mergePrecedence = mergePrecedence;
+            this.startMillis = blocks.getStartMillis();
+            this.endMillis = blocks.getEndMillis();
+        }
+
+        @Override
+        public boolean equals(Object that) {
+            if (this == that) {
+                return true;
+            }
+            if (that instanceof ScheduleKey) {
+                ScheduleKey other = (ScheduleKey) that;
+                return startMillis == other.startMillis
+                        && endMillis == other.endMillis
+                        && channelIds.equals(other.channelIds)
+                        && publishers.equals(other.publishers)
+                        && mergePrecedence.equals(other.mergePrecedence);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(
+                    channelIds,
+                    publishers,
+                    mergePrecedence,
+                    startMillis,
+                    endMillis
+            );
+        }
+    }
+
+    public interface DelegateStep {
+
+        MaximumItemsStep withDelegate(ScheduleResolver delegate);
+    }
+
+    public interface MaximumItemsStep {
+
+        TimeToLiveStep withMaximumItems(long maximumItems);
+    }
+
+    public interface TimeToLiveStep {
+
+        MetricsStep withTimeToLive(Duration timeToLive);
+    }
+
+    public interface MetricsStep {
+
+        BuildStep withMetrics(MetricRegistry metrics, String metricPrefix);
+    }
+
+    public interface BuildStep {
+
+        CachingScheduleResolver build();
+    }
+
+    public static class Builder
+            implements DelegateStep, MaximumItemsStep, TimeToLiveStep, MetricsStep, BuildStep {
+
+        private ScheduleResolver delegate;
+        private long maximumItems;
+        private Duration timeToLive;
+        private MetricRegistry metrics;
+        private String metricPrefix;
+
+        private Builder() {
+        }
+
+        @Override
+        public MaximumItemsStep withDelegate(ScheduleResolver delegate) {
+            this.delegate = checkNotNull(delegate);
+            return this;
+        }
+
+        @Override
+        public TimeToLiveStep withMaximumItems(long maximumItems) {
+            this.maximumItems = maximumItems;
+            return this;
+        }
+
+        @Override
+        public MetricsStep withTimeToLive(Duration timeToLive) {
+            this.timeToLive = checkNotNull(timeToLive);
+            return this;
+        }
+
+        @Override
+        public BuildStep withMetrics(MetricRegistry metrics, String metricPrefix) {
+            this.metrics = checkNotNull(metrics);
+            this.metricPrefix = checkNotNull(metricPrefix);
+            return this;
+        }
+
+        @Override
+        public CachingScheduleResolver build() {
+            return new CachingScheduleResolver(this);
+        }
+    }
+}
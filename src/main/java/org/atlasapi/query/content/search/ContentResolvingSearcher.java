@@ -2,8 +2,17 @@ package org.atlasapi.query.content.search;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.metabroadcast.applications.client.model.internal.Application;
 import org.atlasapi.content.criteria.ContentQuery;
@@ -15,53 +24,121 @@ import org.atlasapi.media.entity.Publisher;
 import org.atlasapi.media.entity.simple.ContentIdentifier;
 import org.atlasapi.media.entity.simple.ContentIdentifier.PersonIdentifier;
 import org.atlasapi.persistence.content.PeopleQueryResolver;
-import org.atlasapi.persistence.content.SearchResolver;
 import org.atlasapi.persistence.content.query.KnownTypeQueryExecutor;
 import org.atlasapi.search.ContentSearcher;
 import org.atlasapi.search.model.SearchQuery;
-import org.atlasapi.search.model.SearchResults;
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Function;
+import com.google.common.base.Joiner;
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.metabroadcast.common.collect.DedupingIterator;
+import com.metabroadcast.common.query.Selection;
+import com.metabroadcast.common.url.Urls;
+
+/**
+ * Searches with a {@link ContentSearcher} and hydrates the identifiers it returns into content
+ * and people.
+ * <p>
+ * Content and people are resolved concurrently on the hydration executor. If a deadline is
+ * set, whatever hasn't resolved by then is left out and the results are marked partial. The
+ * identifiers returned by the searcher can be cached for a short time, so that the repeated
+ * prefixes sent while a user types don't all go to the searcher.
+ */
+public class ContentResolvingSearcher implements HydratingSearchResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentResolvingSearcher.class);
+    private static final Splitter ON_AMPERSAND = Splitter.on('&').omitEmptyStrings();
+    private static final Splitter ON_WHITESPACE = Splitter.on(CharMatcher.WHITESPACE).omitEmptyStrings();
+    private static final String TERM_PARAMETER = termParameter();
 
-public class ContentResolvingSearcher implements SearchResolver {
     private final ContentSearcher fuzzySearcher;
     private KnownTypeQueryExecutor contentResolver;
     private PeopleQueryResolver peopleQueryResolver;
+    private final ExecutorService hydrationExecutor;
+    private final Optional<Duration> hydrationDeadline;
+    private final Optional<Cache<String, List<ContentIdentifier>>> searchCache;
 
     public ContentResolvingSearcher(
             ContentSearcher fuzzySearcher,
             KnownTypeQueryExecutor contentResolver,
             PeopleQueryResolver peopleQueryResolver
     ) {
-        this.fuzzySearcher = checkNotNull(fuzzySearcher);
-        this.contentResolver = contentResolver;
-        this.peopleQueryResolver = peopleQueryResolver;
+        this(builder(fuzzySearcher)
+                .withContentResolver(contentResolver)
+                .withPeopleQueryResolver(peopleQueryResolver));
+    }
+
+    private ContentResolvingSearcher(Builder builder) {
+        this.fuzzySearcher = checkNotNull(builder.fuzzySearcher);
+        this.contentResolver = builder.contentResolver;
+        this.peopleQueryResolver = builder.peopleQueryResolver;
+        this.hydrationExecutor = checkNotNull(builder.hydrationExecutor);
+        this.hydrationDeadline = builder.hydrationDeadline;
+        this.searchCache = builder.cacheTimeToLive.isPresent()
+                           ? Optional.of(CacheBuilder.newBuilder()
+                                   .maximumSize(builder.cacheMaximumSize)
+                                   .expireAfterWrite(
+                                           builder.cacheTimeToLive.get().getMillis(),
+                                           TimeUnit.MILLISECONDS
+                                   )
+                                   .<String, List<ContentIdentifier>>build())
+                           : Optional.<Cache<String, List<ContentIdentifier>>>absent();
+    }
+
+    public static Builder builder(ContentSearcher fuzzySearcher) {
+        return new Builder(fuzzySearcher);
     }
 
     @Override
     public List<Identified> search(SearchQuery query, Application application) {
-        SearchResults searchResults = fuzzySearcher.search(query);
-        Iterable<ContentIdentifier> ids = query.getSelection().apply(searchResults.contentIdentifiers());
-        if (Iterables.isEmpty(ids)) {
-            return ImmutableList.of();
+        return hydratedSearch(query, application).results();
+    }
+
+    @Override
+    public HydratedSearchResults hydratedSearch(SearchQuery query, Application application) {
+        List<ContentIdentifier> ids = ImmutableList.copyOf(
+                query.getSelection().apply(contentIdentifiers(query))
+        );
+        if (ids.isEmpty()) {
+            return HydratedSearchResults.complete(ImmutableList.<Identified>of());
         }
 
-        Map<String, List<Identified>> content = resolveContent(query, application, ids);
-        Map<String, Person> people = resolvePeople(application, ids);
+        long deadline = hydrationDeadline.isPresent()
+                        ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(hydrationDeadline.get().getMillis())
+                        : Long.MAX_VALUE;
+        Future<Map<String, List<Identified>>> contentFuture =
+                hydrationExecutor.submit(() -> resolveContent(query, application, ids));
+        Future<Map<String, Person>> peopleFuture =
+                hydrationExecutor.submit(() -> resolvePeople(application, ids));
+
+        Optional<Map<String, List<Identified>>> content = await(contentFuture, deadline, query);
+        Optional<Map<String, Person>> people = await(peopleFuture, deadline, query);
 
-        List<Identified> hydrated = Lists.newArrayListWithExpectedSize(Iterables.size(ids));
+        List<Identified> hydrated = Lists.newArrayListWithExpectedSize(ids.size());
         for (ContentIdentifier id : ids) {
-            List<Identified> identified = content.get(id.getUri());
+            List<Identified> identified = content.or(ImmutableMap.<String, List<Identified>>of())
+                    .get(id.getUri());
             if (identified == null) {
-                Person person = people.get(id.getUri());
+                Person person = people.or(ImmutableMap.<String, Person>of()).get(id.getUri());
                 if (person != null) {
                     identified = ImmutableList.of(person);
                 }
@@ -71,16 +148,149 @@ public class ContentResolvingSearcher implements SearchResolver {
             }
         }
 
-        return DedupingIterator.dedupeIterable(hydrated);
+        List<Identified> results = DedupingIterator.dedupeIterable(hydrated);
+        return content.isPresent() && people.isPresent()
+               ? HydratedSearchResults.complete(results)
+               : HydratedSearchResults.partial(results);
+    }
+
+    private List<ContentIdentifier> contentIdentifiers(SearchQuery query) {
+        if (!searchCache.isPresent()) {
+            return ImmutableList.copyOf(fuzzySearcher.search(query).contentIdentifiers());
+        }
+        try {
+            return searchCache.get().get(
+                    cacheKey(query),
+                    () -> ImmutableList.copyOf(fuzzySearcher.search(query).contentIdentifiers())
+            );
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    /**
+     * Identifies the request the searcher would make for the query, with the search term
+     * normalised: trimmed, lower-cased and with runs of whitespace collapsed. Publishers and
+     * specializations are sorted, so the order they were given in doesn't matter, and any other
+     * parameter the searcher is sent, such as the type or top-level filters, is kept by name.
+     */
+    private String cacheKey(SearchQuery query) {
+        String term = Strings.nullToEmpty(query.getTerm());
+        Selection selection = query.getSelection();
+
+        return Joiner.on('\u0000').useForNull("").join(
+                Joiner.on(' ').join(ON_WHITESPACE.split(term.toLowerCase(Locale.ENGLISH))),
+                selection == null ? null : selection.getOffset() + "-" + selection.getLimit(),
+                sortedNames(query.getIncludedPublishers()),
+                sortedNames(query.getIncludedSpecializations()),
+                query.getTitleWeighting(),
+                query.getBroadcastWeighting(),
+                query.getCatchupWeighting(),
+                query.getPriorityChannelWeighting(),
+                otherParameters(query)
+        );
+    }
+
+    private String sortedNames(Iterable<? extends Enum<?>> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> names = Lists.newArrayList();
+        for (Enum<?> value : values) {
+            names.add(value.name());
+        }
+        Collections.sort(names);
+        return Joiner.on(',').join(names);
+    }
+
+    /**
+     * The query string parameters of the query, sorted, without the search term.
+     */
+    private String otherParameters(SearchQuery query) {
+        String queryString = Urls.appendParameters("", query.toQueryStringParameters())
+                .replaceFirst("^\\?", "");
+        List<String> parameters = Lists.newArrayList();
+        for (String parameter : ON_AMPERSAND.split(queryString)) {
+            if (!TERM_PARAMETER.equals(parameterName(parameter))) {
+                parameters.add(parameter);
+            }
+        }
+        Collections.sort(parameters);
+        return Joiner.on('&').join(parameters);
+    }
+
+    /**
+     * Finds the name the search term is sent under by building a query whose term can't be
+     * mistaken for any other parameter's value.
+     */
+    private static String termParameter() {
+        String probe = "term-parameter-probe";
+        SearchQuery query = new SearchQuery(
+                probe,
+                Selection.ALL,
+                ImmutableSet.<Publisher>of(),
+                1.0f,
+                0.0f,
+                0.0f
+        );
+        String queryString = Urls.appendParameters("", query.toQueryStringParameters())
+                .replaceFirst("^\\?", "");
+        for (String parameter : ON_AMPERSAND.split(queryString)) {
+            if (probe.equals(decodedValue(parameter))) {
+                return parameterName(parameter);
+            }
+        }
+        log.warn("Search term is not sent as a query string parameter, cache keys will include it as given");
+        return "";
+    }
+
+    private static String parameterName(String parameter) {
+        int separator = parameter.indexOf('=');
+        return separator < 0 ? parameter : parameter.substring(0, separator);
+    }
+
+    private static String decodedValue(String parameter) {
+        int separator = parameter.indexOf('=');
+        if (separator < 0) {
+            return "";
+        }
+        try {
+            return URLDecoder.decode(parameter.substring(separator + 1), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return parameter.substring(separator + 1);
+        }
+    }
+
+    /**
+     * Waits for a hydration step until the deadline. A step that misses it is cancelled and
+     * absent; a step that fails rethrows its failure, as resolving inline would.
+     */
+    private <T> Optional<T> await(Future<T> future, long deadline, SearchQuery query) {
+        try {
+            if (deadline == Long.MAX_VALUE) {
+                return Optional.of(future.get());
+            }
+            return Optional.of(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Search hydration for '{}' missed its deadline, returning partial results", query.getTerm());
+            return Optional.absent();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return Optional.absent();
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
     }
 
     private Map<String, Person> resolvePeople(
             Application application,
             Iterable<ContentIdentifier> ids
     ) {
-        
+
         List<String> people = ImmutableList.copyOf(Iterables.transform(Iterables.filter(ids, PEOPLE), ContentIdentifier.TO_URI));
-        
+
         if (!people.isEmpty()) {
             return Maps.uniqueIndex(DedupingIterator.dedupeIterable(peopleQueryResolver.people(people, application)), TO_URI);
         } else {
@@ -93,17 +303,17 @@ public class ContentResolvingSearcher implements SearchResolver {
             Application application,
             Iterable<ContentIdentifier> ids
     ) {
-        
+
         List<String> contentUris = ImmutableList.copyOf(Iterables.transform(Iterables.filter(ids, Predicates.not(PEOPLE)),
                 ContentIdentifier.TO_URI));
-        
+
         if (!contentUris.isEmpty()) {
             ContentQuery contentQuery = ContentQueryBuilder.query()
                     .isAnEnumIn(Attributes.DESCRIPTION_PUBLISHER, ImmutableList.<Enum<Publisher>> copyOf(query.getIncludedPublishers()))
                     .withSelection(query.getSelection())
                     .withApplication(application)
                     .build();
-            
+
             return contentResolver.executeUriQuery(contentUris, contentQuery);
         } else {
             return ImmutableMap.of();
@@ -113,12 +323,60 @@ public class ContentResolvingSearcher implements SearchResolver {
     public void setExecutor(KnownTypeQueryExecutor queryExecutor) {
         this.contentResolver = queryExecutor;
     }
-    
+
     public void setPeopleQueryResolver(PeopleQueryResolver peopleQueryResolver) {
         this.peopleQueryResolver = peopleQueryResolver;
     }
-    
+
     private static Predicate<ContentIdentifier> PEOPLE = input -> input instanceof PersonIdentifier;
-    
+
     private static Function<Person, String> TO_URI = Identified::getCanonicalUri;
+
+    public static class Builder {
+
+        private final ContentSearcher fuzzySearcher;
+        private KnownTypeQueryExecutor contentResolver;
+        private PeopleQueryResolver peopleQueryResolver;
+        private ExecutorService hydrationExecutor = MoreExecutors.sameThreadExecutor();
+        private Optional<Duration> hydrationDeadline = Optional.absent();
+        private Optional<Duration> cacheTimeToLive = Optional.absent();
+        private long cacheMaximumSize;
+
+        private Builder(ContentSearcher fuzzySearcher) {
+            this.fuzzySearcher = fuzzySearcher;
+        }
+
+        public Builder withContentResolver(KnownTypeQueryExecutor contentResolver) {
+            this.contentResolver = contentResolver;
+            return this;
+        }
+
+        public Builder withPeopleQueryResolver(PeopleQueryResolver peopleQueryResolver) {
+            this.peopleQueryResolver = peopleQueryResolver;
+            return this;
+        }
+
+        /**
+         * Resolves content and people on the given executor rather than the calling thread.
+         */
+        public Builder withHydrationExecutor(ExecutorService hydrationExecutor) {
+            this.hydrationExecutor = hydrationExecutor;
+            return this;
+        }
+
+        public Builder withHydrationDeadline(Duration hydrationDeadline) {
+            this.hydrationDeadline = Optional.of(hydrationDeadline);
+            return this;
+        }
+
+        public Builder withSearchCache(long maximumSize, Duration timeToLive) {
+            this.cacheMaximumSize = maximumSize;
+            this.cacheTimeToLive = Optional.of(timeToLive);
+            return this;
+        }
+
+        public ContentResolvingSearcher build() {
+            return new ContentResolvingSearcher(this);
+        }
+    }
 }
@@ -4,12 +4,11 @@ import java.util.List;
 
 import com.metabroadcast.applications.client.model.internal.Application;
 import org.atlasapi.media.entity.Identified;
-import org.atlasapi.persistence.content.SearchResolver;
 import org.atlasapi.search.model.SearchQuery;
 
 import com.google.common.collect.ImmutableList;
 
-public class DummySearcher implements SearchResolver {
+public class DummySearcher implements HydratingSearchResolver {
     
     private final Iterable<Identified> respondWith;
     
@@ -25,4 +24,9 @@ public class DummySearcher implements SearchResolver {
     public List<Identified> search(SearchQuery query, Application application) {
         return ImmutableList.copyOf(respondWith);
     }
+
+    @Override
+    public HydratedSearchResults hydratedSearch(SearchQuery query, Application application) {
+        return HydratedSearchResults.complete(search(query, application));
+    }
 }
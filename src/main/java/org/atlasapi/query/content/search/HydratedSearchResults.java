@@ -0,0 +1,39 @@
+package org.atlasapi.query.content.search;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+
+import org.atlasapi.media.entity.Identified;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Search results along with whether any were left out because hydrating them took too long.
+ */
+public class HydratedSearchResults {
+
+    private final List<Identified> results;
+    private final boolean partial;
+
+    private HydratedSearchResults(List<Identified> results, boolean partial) {
+        this.results = ImmutableList.copyOf(checkNotNull(results));
+        this.partial = partial;
+    }
+
+    public static HydratedSearchResults complete(List<Identified> results) {
+        return new HydratedSearchResults(results, false);
+    }
+
+    public static HydratedSearchResults partial(List<Identified> results) {
+        return new HydratedSearchResults(results, true);
+    }
+
+    public List<Identified> results() {
+        return results;
+    }
+
+    public boolean isPartial() {
+        return partial;
+    }
+}
@@ -0,0 +1,14 @@
+package org.atlasapi.query.content.search;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.persistence.content.SearchResolver;
+import org.atlasapi.search.model.SearchQuery;
+
+/**
+ * A {@link SearchResolver} that can also report whether some results were left out because
+ * hydrating them took too long.
+ */
+public interface HydratingSearchResolver extends SearchResolver {
+
+    HydratedSearchResults hydratedSearch(SearchQuery query, Application application);
+}
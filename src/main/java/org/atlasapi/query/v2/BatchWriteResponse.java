@@ -0,0 +1,68 @@
+package org.atlasapi.query.v2;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+public class BatchWriteResponse {
+
+    private final List<Result> results;
+
+    @JsonCreator
+    public BatchWriteResponse(
+            @JsonProperty("results") List<Result> results
+    ) {
+        this.results = ImmutableList.copyOf(results);
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * The outcome of writing one document of a batch, in the order the documents were sent.
+     */
+    public static class Result {
+
+        private final String id;
+        private final String uri;
+        private final int status;
+        private final String error;
+
+        @JsonCreator
+        public Result(
+                @JsonProperty("id") @Nullable String id,
+                @JsonProperty("uri") @Nullable String uri,
+                @JsonProperty("status") int status,
+                @JsonProperty("error") @Nullable String error
+        ) {
+            this.id = id;
+            this.uri = uri;
+            this.status = status;
+            this.error = error;
+        }
+
+        @Nullable
+        public String getId() {
+            return id;
+        }
+
+        @Nullable
+        public String getUri() {
+            return uri;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        @Nullable
+        public String getError() {
+            return error;
+        }
+    }
+}
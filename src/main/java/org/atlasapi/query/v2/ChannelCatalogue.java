@@ -0,0 +1,536 @@
+package org.atlasapi.query.v2;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.channel.ChannelGroup;
+import org.atlasapi.media.channel.ChannelGroupResolver;
+import org.atlasapi.media.channel.ChannelGroupTranslator;
+import org.atlasapi.media.channel.ChannelGroupType;
+import org.atlasapi.media.channel.ChannelNumbering;
+import org.atlasapi.media.channel.ChannelQuery;
+import org.atlasapi.media.channel.ChannelResolver;
+import org.atlasapi.media.channel.ChannelTranslator;
+import org.atlasapi.media.channel.ChannelType;
+import org.atlasapi.media.channel.Region;
+import org.atlasapi.media.entity.Alias;
+import org.atlasapi.media.entity.Publisher;
+
+import com.metabroadcast.common.time.Clock;
+import com.metabroadcast.common.time.SystemClock;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * An in-memory catalogue of every channel and channel group, indexed for the lookups made by
+ * {@link ChannelController} and {@link ChannelGroupController}.
+ * <p>
+ * Each {@link Snapshot} is immutable. Writes made through the API {@link #invalidate()
+ * invalidate} the catalogue, and the next read rebuilds it, so that a run of writes causes a
+ * single rebuild. A snapshot older than the maximum age is also rebuilt, so that writes made
+ * elsewhere are picked up, and while that happens other requests carry on reading the old one.
+ * <p>
+ * A snapshot's version is a hash of the channels and channel groups it holds, so it is the same
+ * on every node and across rebuilds that found nothing changed.
+ */
+public class ChannelCatalogue {
+
+    private static final Logger log = LoggerFactory.getLogger(ChannelCatalogue.class);
+
+    private final ChannelResolver channelResolver;
+    private final ChannelGroupResolver channelGroupResolver;
+    private final Duration maxAge;
+    private final Clock clock;
+    private final ChannelTranslator channelTranslator = new ChannelTranslator();
+    private final ChannelGroupTranslator channelGroupTranslator = new ChannelGroupTranslator();
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final Lock rebuildLock = new ReentrantLock();
+    private volatile boolean stale;
+
+    private ChannelCatalogue(
+            ChannelResolver channelResolver,
+            ChannelGroupResolver channelGroupResolver,
+            Duration maxAge,
+            Clock clock
+    ) {
+        this.channelResolver = checkNotNull(channelResolver);
+        this.channelGroupResolver = checkNotNull(channelGroupResolver);
+        this.maxAge = checkNotNull(maxAge);
+        this.clock = checkNotNull(clock);
+    }
+
+    public static ChannelCatalogue create(
+            ChannelResolver channelResolver,
+            ChannelGroupResolver channelGroupResolver,
+            Duration maxAge
+    ) {
+        return create(channelResolver, channelGroupResolver, maxAge, new SystemClock());
+    }
+
+    public static ChannelCatalogue create(
+            ChannelResolver channelResolver,
+            ChannelGroupResolver channelGroupResolver,
+            Duration maxAge,
+            Clock clock
+    ) {
+        return new ChannelCatalogue(channelResolver, channelGroupResolver, maxAge, clock);
+    }
+
+    public Snapshot current() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            rebuildLock.lock();
+            try {
+                if (current.get() == null) {
+                    current.set(build());
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        } else if (stale) {
+            refresh(snapshot);
+        } else if (isExpired(snapshot) && rebuildLock.tryLock()) {
+            try {
+                if (current.get() == snapshot) {
+                    current.set(build());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to rebuild channel catalogue, serving version {}", snapshot.version(), e);
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return current.get();
+    }
+
+    /**
+     * Marks the catalogue as out of date after a write, so that the next read rebuilds it from
+     * fresh channel data.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Readers wait for the rebuild, so that they see writes made before they read. A failure is
+     * logged rather than thrown, and the old snapshot is served until the next attempt.
+     */
+    private void refresh(Snapshot snapshot) {
+        rebuildLock.lock();
+        try {
+            if (stale) {
+                stale = false;
+                channelResolver.refreshCache();
+                current.set(build());
+            }
+        } catch (RuntimeException e) {
+            stale = true;
+            log.error("Failed to refresh channel catalogue, serving version {}", snapshot.version(), e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isExpired(Snapshot snapshot) {
+        return !snapshot.builtAt.plus(maxAge).isAfter(clock.now());
+    }
+
+    private Snapshot build() {
+        ImmutableList<Channel> channels = ImmutableList.copyOf(channelResolver.all());
+        ImmutableList<ChannelGroup> channelGroups = ImmutableList.copyOf(channelGroupResolver.channelGroups());
+        String version = version(channels, channelGroups);
+        Snapshot snapshot = new Snapshot(version, clock, channels, channelGroups);
+        log.info(
+                "Built channel catalogue version {} with {} channels and {} channel groups",
+                version,
+                snapshot.channels.size(),
+                snapshot.channelGroups.size()
+        );
+        return snapshot;
+    }
+
+    /**
+     * Hashes the stored form of every channel and channel group, which covers all of their
+     * fields without listing them here. They are hashed in id order, since the resolvers do not
+     * promise the same order on every node.
+     */
+    private String version(List<Channel> channels, List<ChannelGroup> channelGroups) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Channel channel : Ordering.<Long>natural().onResultOf(Channel::getId).sortedCopy(channels)) {
+            hasher.putString(channelTranslator.toDBObject(null, channel).toString(), StandardCharsets.UTF_8)
+                    .putByte((byte) 0);
+        }
+        hasher.putByte((byte) 1);
+        for (ChannelGroup channelGroup : Ordering.<Long>natural().onResultOf(ChannelGroup::getId).sortedCopy(channelGroups)) {
+            hasher.putString(channelGroupTranslator.toDBObject(null, channelGroup).toString(), StandardCharsets.UTF_8)
+                    .putByte((byte) 0);
+        }
+        return hasher.hash().toString();
+    }
+
+    public static final class Snapshot {
+
+        private final String version;
+        private final Clock clock;
+        private final DateTime builtAt;
+
+        private final ImmutableList<Channel> channels;
+        private final ImmutableMap<Long, Channel> channelsById;
+        private final ImmutableListMultimap<Long, Channel> channelsByChannelGroup;
+        private final ImmutableListMultimap<Publisher, Channel> channelsByBroadcaster;
+        private final ImmutableListMultimap<Publisher, Channel> channelsByPublisher;
+        private final ImmutableListMultimap<String, Channel> channelsByGenre;
+        private final ImmutableListMultimap<Alias, Channel> channelsByAlias;
+        private final ImmutableMap<Long, Integer> positions;
+        private final ImmutableMap<Long, Integer> titleRanks;
+        private final long[] advertiseFroms;
+
+        private final ImmutableList<ChannelGroup> channelGroups;
+        private final ImmutableMap<Long, ChannelGroup> channelGroupsById;
+        private final ImmutableListMultimap<ChannelGroupType, ChannelGroup> channelGroupsByType;
+        private final ImmutableListMultimap<Long, ChannelGroup> regionsByPlatform;
+        private final ImmutableListMultimap<Publisher, ChannelGroup> channelGroupsByPublisher;
+
+        private final Map<Long, ChannelGroup> dttViews = new ConcurrentHashMap<>();
+        private final Map<Long, ChannelGroup> ipViews = new ConcurrentHashMap<>();
+
+        Snapshot(
+                String version,
+                Clock clock,
+                ImmutableList<Channel> channels,
+                ImmutableList<ChannelGroup> channelGroups
+        ) {
+            this.version = version;
+            this.clock = clock;
+            this.builtAt = clock.now();
+
+            this.channels = channels;
+            ImmutableMap.Builder<Long, Channel> byId = ImmutableMap.builder();
+            ImmutableListMultimap.Builder<Long, Channel> byChannelGroup = ImmutableListMultimap.builder();
+            ImmutableListMultimap.Builder<Publisher, Channel> byBroadcaster = ImmutableListMultimap.builder();
+            ImmutableListMultimap.Builder<Publisher, Channel> byPublisher = ImmutableListMultimap.builder();
+            ImmutableListMultimap.Builder<String, Channel> byGenre = ImmutableListMultimap.builder();
+            ImmutableListMultimap.Builder<Alias, Channel> byAlias = ImmutableListMultimap.builder();
+            for (Channel channel : channels) {
+                byId.put(channel.getId(), channel);
+                for (Long channelGroup : channelGroupsOf(channel)) {
+                    byChannelGroup.put(channelGroup, channel);
+                }
+                if (channel.getBroadcaster() != null) {
+                    byBroadcaster.put(channel.getBroadcaster(), channel);
+                }
+                if (channel.getSource() != null) {
+                    byPublisher.put(channel.getSource(), channel);
+                }
+                for (String genre : channel.getGenres()) {
+                    byGenre.put(genre, channel);
+                }
+                for (Alias alias : channel.getAliases()) {
+                    byAlias.put(alias, channel);
+                }
+            }
+            this.channelsById = byId.build();
+            this.channelsByChannelGroup = byChannelGroup.build();
+            this.channelsByBroadcaster = byBroadcaster.build();
+            this.channelsByPublisher = byPublisher.build();
+            this.channelsByGenre = byGenre.build();
+            this.channelsByAlias = byAlias.build();
+            this.positions = positions(channels);
+            this.titleRanks = titleRanks(channels);
+            this.advertiseFroms = channels.stream()
+                    .filter(channel -> channel.getAdvertiseFrom() != null)
+                    .mapToLong(channel -> channel.getAdvertiseFrom().getMillis())
+                    .sorted()
+                    .toArray();
+
+            this.channelGroups = channelGroups;
+            ImmutableMap.Builder<Long, ChannelGroup> groupsById = ImmutableMap.builder();
+            ImmutableListMultimap.Builder<ChannelGroupType, ChannelGroup> groupsByType = ImmutableListMultimap.builder();
+            ImmutableListMultimap.Builder<Long, ChannelGroup> regions = ImmutableListMultimap.builder();
+            ImmutableListMultimap.Builder<Publisher, ChannelGroup> groupsByPublisher = ImmutableListMultimap.builder();
+            for (ChannelGroup channelGroup : channelGroups) {
+                groupsById.put(channelGroup.getId(), channelGroup);
+                ChannelGroupType type = ChannelGroupType.from(channelGroup);
+                if (type != null) {
+                    groupsByType.put(type, channelGroup);
+                }
+                if (channelGroup instanceof Region && ((Region) channelGroup).getPlatform() != null) {
+                    regions.put(((Region) channelGroup).getPlatform(), channelGroup);
+                }
+                if (channelGroup.getPublisher() != null) {
+                    groupsByPublisher.put(channelGroup.getPublisher(), channelGroup);
+                }
+            }
+            this.channelGroupsById = groupsById.build();
+            this.channelGroupsByType = groupsByType.build();
+            this.regionsByPlatform = regions.build();
+            this.channelGroupsByPublisher = groupsByPublisher.build();
+        }
+
+        private static Set<Long> channelGroupsOf(Channel channel) {
+            return channel.getChannelNumbers().stream()
+                    .map(ChannelNumbering::getChannelGroup)
+                    .filter(channelGroup -> channelGroup != null)
+                    .collect(Collectors.toSet());
+        }
+
+        private static ImmutableMap<Long, Integer> positions(List<Channel> channels) {
+            ImmutableMap.Builder<Long, Integer> positions = ImmutableMap.builder();
+            for (int i = 0; i < channels.size(); i++) {
+                positions.put(channels.get(i).getId(), i);
+            }
+            return positions.build();
+        }
+
+        /**
+         * Ranks channels by title, giving equal titles equal ranks so that sorting by rank
+         * keeps the resolver's order between them.
+         */
+        private static ImmutableMap<Long, Integer> titleRanks(List<Channel> channels) {
+            List<Channel> byTitle = Ordering.<String>natural()
+                    .onResultOf((Channel channel) -> Strings.nullToEmpty(channel.getTitle()))
+                    .sortedCopy(channels);
+            ImmutableMap.Builder<Long, Integer> ranks = ImmutableMap.builder();
+            int rank = 0;
+            String previous = null;
+            for (Channel channel : byTitle) {
+                String title = Strings.nullToEmpty(channel.getTitle());
+                if (previous != null && !previous.equals(title)) {
+                    rank++;
+                }
+                ranks.put(channel.getId(), rank);
+                previous = title;
+            }
+            return ranks.build();
+        }
+
+        public String version() {
+            return version;
+        }
+
+        public Optional<Channel> channel(long id) {
+            return Optional.fromNullable(channelsById.get(id));
+        }
+
+        /**
+         * Channels matching the query, in the order of the underlying resolver. Queries on
+         * advertised dates are not indexed and must go to the resolver; see
+         * {@link #canAnswer(ChannelQuery)}.
+         */
+        public List<Channel> channels(ChannelQuery query, Optional<ChannelType> channelType) {
+            Collection<Channel> candidates = channels;
+            if (query.getChannelGroups().isPresent()) {
+                candidates = smallest(candidates, union(channelsByChannelGroup, query.getChannelGroups().get()));
+            }
+            if (query.getBroadcaster().isPresent()) {
+                candidates = smallest(candidates, channelsByBroadcaster.get(query.getBroadcaster().get()));
+            }
+            if (query.getPublisher().isPresent()) {
+                candidates = smallest(candidates, channelsByPublisher.get(query.getPublisher().get()));
+            }
+            if (query.getGenres().isPresent()) {
+                candidates = smallest(candidates, union(channelsByGenre, query.getGenres().get()));
+            }
+            if (query.getAliasNamespace().isPresent() && query.getAliasValue().isPresent()) {
+                candidates = smallest(candidates, forAlias(
+                        query.getAliasNamespace().get(),
+                        query.getAliasValue().get()
+                ));
+            }
+            return candidates.stream()
+                    .filter(channel -> matches(channel, query, channelType))
+                    .collect(Collectors.toList());
+        }
+
+        public boolean canAnswer(ChannelQuery query) {
+            return !query.getAdvertisedOn().isPresent();
+        }
+
+        public List<Channel> forAlias(String namespace, String value) {
+            return channelsByAlias.get(new Alias(namespace, value));
+        }
+
+        public Ordering<Channel> titleOrdering() {
+            return Ordering.<Integer>natural().onResultOf(channel -> titleRanks.get(channel.getId()));
+        }
+
+        public Optional<ChannelGroup> channelGroup(long id) {
+            return Optional.fromNullable(channelGroupsById.get(id));
+        }
+
+        public List<ChannelGroup> channelGroups(
+                Optional<ChannelGroupType> type,
+                Optional<Long> platform,
+                Optional<Publisher> publisher
+        ) {
+            List<ChannelGroup> candidates = channelGroups;
+            if (platform.isPresent()) {
+                candidates = regionsByPlatform.get(platform.get());
+            } else if (publisher.isPresent()) {
+                candidates = channelGroupsByPublisher.get(publisher.get());
+            } else if (type.isPresent()) {
+                candidates = channelGroupsByType.get(type.get());
+            }
+            return candidates.stream()
+                    .filter(group -> !type.isPresent() || type.get().equals(ChannelGroupType.from(group)))
+                    .filter(group -> !publisher.isPresent() || publisher.get().equals(group.getPublisher()))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * The group with only its terrestrial numberings, those up to 300. Views of groups
+         * held by this snapshot are computed once and shared.
+         */
+        public ChannelGroup dttView(ChannelGroup channelGroup) {
+            return view(dttViews, channelGroup, number -> number <= 300);
+        }
+
+        /**
+         * The group with only its IP numberings, those above 300.
+         */
+        public ChannelGroup ipView(ChannelGroup channelGroup) {
+            return view(ipViews, channelGroup, number -> number > 300);
+        }
+
+        /**
+         * A strong ETag for a response built from this snapshot. Along with the version it
+         * covers the parts of the request that shape the response, and the clock-dependent
+         * inputs: today's date and how many channels have started being advertised.
+         */
+        public String eTag(Iterable<?> requestParts) {
+            DateTime now = clock.now();
+            Hasher hasher = Hashing.murmur3_128().newHasher()
+                    .putString(version, StandardCharsets.UTF_8)
+                    .putString(now.toLocalDate().toString(), StandardCharsets.UTF_8)
+                    .putInt(advertisedBy(now));
+            for (Object part : requestParts) {
+                hasher.putString(String.valueOf(part), StandardCharsets.UTF_8).putByte((byte) 0);
+            }
+            return "\"" + hasher.hash().toString() + "\"";
+        }
+
+        private int advertisedBy(DateTime when) {
+            int index = Arrays.binarySearch(advertiseFroms, when.getMillis());
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index < advertiseFroms.length && advertiseFroms[index] == when.getMillis()) {
+                index++;
+            }
+            return index;
+        }
+
+        private ChannelGroup view(
+                Map<Long, ChannelGroup> views,
+                ChannelGroup channelGroup,
+                IntPredicate numberFilter
+        ) {
+            if (channelGroupsById.get(channelGroup.getId()) != channelGroup) {
+                return filterNumberings(channelGroup, numberFilter);
+            }
+            return views.computeIfAbsent(
+                    channelGroup.getId(),
+                    id -> filterNumberings(channelGroup, numberFilter)
+            );
+        }
+
+        private static ChannelGroup filterNumberings(ChannelGroup channelGroup, IntPredicate numberFilter) {
+            List<ChannelNumbering> channelNumberings = channelGroup.getChannelNumberings()
+                    .stream()
+                    .filter(channelNumbering -> !Strings.isNullOrEmpty(channelNumbering.getChannelNumber()))
+                    .filter(channelNumbering -> numberFilter.test(
+                            Integer.parseInt(channelNumbering.getChannelNumber())
+                    ))
+                    .collect(Collectors.toList());
+
+            ChannelGroup filteredGroup = channelGroup.copy();
+            filteredGroup.setChannelNumberings(channelNumberings);
+            return filteredGroup;
+        }
+
+        private boolean matches(Channel channel, ChannelQuery query, Optional<ChannelType> channelType) {
+            if (query.getChannelGroups().isPresent()
+                    && Collections.disjoint(channelGroupsOf(channel), query.getChannelGroups().get())) {
+                return false;
+            }
+            if (query.getBroadcaster().isPresent()
+                    && !query.getBroadcaster().get().equals(channel.getBroadcaster())) {
+                return false;
+            }
+            if (query.getPublisher().isPresent()
+                    && !query.getPublisher().get().equals(channel.getSource())) {
+                return false;
+            }
+            if (query.getGenres().isPresent()
+                    && Collections.disjoint(channel.getGenres(), query.getGenres().get())) {
+                return false;
+            }
+            if (query.getAliasNamespace().isPresent() && query.getAliasValue().isPresent()
+                    && !channel.getAliases().contains(new Alias(
+                            query.getAliasNamespace().get(),
+                            query.getAliasValue().get()
+                    ))) {
+                return false;
+            }
+            if (query.getMediaType().isPresent()
+                    && !query.getMediaType().get().equals(channel.getMediaType())) {
+                return false;
+            }
+            if (query.getAvailableFrom().isPresent()
+                    && !channel.getAvailableFrom().contains(query.getAvailableFrom().get())) {
+                return false;
+            }
+            if (query.getUri().isPresent()
+                    && !query.getUri().get().equals(channel.getCanonicalUri())) {
+                return false;
+            }
+            return !channelType.isPresent() || channelType.get().equals(channel.getChannelType());
+        }
+
+        /**
+         * The channels under any of the keys, kept in resolver order like the index lists.
+         */
+        private <K> Collection<Channel> union(ImmutableListMultimap<K, Channel> index, Set<K> keys) {
+            if (keys.size() == 1) {
+                return index.get(keys.iterator().next());
+            }
+            Set<Channel> union = Sets.newHashSet();
+            for (K key : keys) {
+                union.addAll(index.get(key));
+            }
+            return Ordering.<Integer>natural()
+                    .onResultOf((Channel channel) -> positions.get(channel.getId()))
+                    .sortedCopy(union);
+        }
+
+        private static Collection<Channel> smallest(Collection<Channel> current, Collection<Channel> candidate) {
+            return candidate.size() < current.size() ? candidate : current;
+        }
+    }
+}
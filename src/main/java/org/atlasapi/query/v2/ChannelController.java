@@ -93,6 +93,7 @@ public class ChannelController extends BaseController<Iterable<Channel>> {
     private final NumberToShortStringCodec codec;
     private final QueryParameterAnnotationsExtractor annotationExtractor;
     private final ChannelResolver channelResolver;
+    private final ChannelCatalogue channelCatalogue;
     private final ChannelWriteExecutor channelWriteExecutor;
     private final Function<String, Long> toDecodedId = new Function<String, Long>() {
 
@@ -107,11 +108,13 @@ public class ChannelController extends BaseController<Iterable<Channel>> {
             AdapterLog log,
             AtlasModelWriter<Iterable<Channel>> outputter,
             ChannelResolver channelResolver,
+            ChannelCatalogue channelCatalogue,
             NumberToShortStringCodec codec,
             ChannelWriteExecutor channelWriteExecutor
     ) {
         super(configFetcher, log, outputter, DefaultApplication.createDefault());
         this.channelResolver = checkNotNull(channelResolver);
+        this.channelCatalogue = checkNotNull(channelCatalogue);
         this.codec = checkNotNull(codec);
         this.annotationExtractor = new QueryParameterAnnotationsExtractor();
         this.channelWriteExecutor = checkNotNull(channelWriteExecutor);
@@ -161,18 +164,32 @@ public class ChannelController extends BaseController<Iterable<Channel>> {
                     channelType
             );
 
-            Iterable<Channel> channels;
+            Optional<Set<Annotation>> annotations = annotationExtractor.extract(request);
+            if (annotations.isPresent() && !validAnnotations(annotations.get())) {
+                errorViewFor(request, response, BAD_ANNOTATION);
+                return;
+            }
 
-            if (queryHasAliasAttributesOnly(query)) {
-                channels = channelResolver.forKeyPairAlias(query);
+            Iterable<Channel> channels;
+            Optional<String> eTag = Optional.absent();
+            ChannelCatalogue.Snapshot catalogue = channelCatalogue.current();
+            if (catalogue.canAnswer(query)) {
+                eTag = Optional.of(catalogue.eTag(ETags.requestParts(request, application)));
+                if (ETags.notModified(request, response, eTag.get())) {
+                    return;
+                }
+                channels = catalogue.channels(query, channelType(channelType));
+                if (TITLE.equals(orderBy)) {
+                    channels = catalogue.titleOrdering().immutableSortedCopy(channels);
+                } else if (TITLE_REVERSE.equals(orderBy)) {
+                    channels = catalogue.titleOrdering().reverse().immutableSortedCopy(channels);
+                }
             } else {
                 channels = channelResolver.allChannels(query);
-            }
-
-            // TODO This is expensive!
-            Optional<Ordering<Channel>> ordering = ordering(orderBy);
-            if (ordering.isPresent()) {
-                channels = ordering.get().immutableSortedCopy(channels);
+                Optional<Ordering<Channel>> ordering = ordering(orderBy);
+                if (ordering.isPresent()) {
+                    channels = ordering.get().immutableSortedCopy(channels);
+                }
             }
 
             channels = selection.applyTo(StreamSupport.stream(channels.spliterator(), false)
@@ -181,29 +198,17 @@ public class ChannelController extends BaseController<Iterable<Channel>> {
                     )
                     .collect(MoreCollectors.toImmutableList()));
 
-            Optional<Set<Annotation>> annotations = annotationExtractor.extract(request);
-            if (annotations.isPresent() && !validAnnotations(annotations.get())) {
-                errorViewFor(request, response, BAD_ANNOTATION);
-            } else {
-                modelAndViewFor(request, response, channels, application);
-            }
+            modelAndViewFor(request, ETags.onSuccess(response, eTag), channels, application);
         } catch (Exception e) {
             errorViewFor(request, response, AtlasErrorSummary.forException(e));
         }
     }
 
-    private boolean queryHasAliasAttributesOnly(ChannelQuery channelQuery) {
-
-        return !channelQuery.getAdvertisedOn().isPresent() &&
-                !channelQuery.getAvailableFrom().isPresent() &&
-                !channelQuery.getBroadcaster().isPresent() &&
-                !channelQuery.getChannelGroups().isPresent() &&
-                !channelQuery.getGenres().isPresent() &&
-                !channelQuery.getMediaType().isPresent() &&
-                !channelQuery.getPublisher().isPresent() &&
-                !channelQuery.getUri().isPresent() &&
-                channelQuery.getAliasNamespace().isPresent() &&
-                channelQuery.getAliasValue().isPresent();
+    private Optional<ChannelType> channelType(String channelType) {
+        if (Strings.isNullOrEmpty(channelType)) {
+            return Optional.absent();
+        }
+        return Optional.of(ChannelType.fromKey(channelType).get());
     }
 
     private ChannelQuery constructQuery(
@@ -318,7 +323,11 @@ public class ChannelController extends BaseController<Iterable<Channel>> {
             @PathVariable("id") String id
     ) throws IOException {
         try {
-            Maybe<Channel> possibleChannel = channelResolver.fromId(codec.decode(id).longValue());
+            long channelId = codec.decode(id).longValue();
+            Optional<Channel> catalogued = channelCatalogue.current().channel(channelId);
+            Maybe<Channel> possibleChannel = catalogued.isPresent()
+                                             ? Maybe.just(catalogued.get())
+                                             : channelResolver.fromId(channelId);
             if (possibleChannel.isNothing()) {
                 errorViewFor(request, response, NOT_FOUND);
             } else {
@@ -5,10 +5,10 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.math.BigInteger;
-import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
@@ -35,8 +35,6 @@ import org.atlasapi.output.AtlasModelWriter;
 import org.atlasapi.output.exceptions.ForbiddenException;
 import org.atlasapi.output.exceptions.UnauthorizedException;
 import org.atlasapi.persistence.logging.AdapterLog;
-import org.atlasapi.query.v2.ChannelGroupFilterer.ChannelGroupFilter;
-import org.atlasapi.query.v2.ChannelGroupFilterer.ChannelGroupFilter.ChannelGroupFilterBuilder;
 
 import com.metabroadcast.applications.client.model.internal.Application;
 import com.metabroadcast.common.http.HttpStatusCode;
@@ -54,7 +52,6 @@ import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import org.joda.time.LocalDate;
 import org.slf4j.Logger;
@@ -120,11 +117,11 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
 
     public static final String REFRESH_CACHE = "refresh_cache";
 
-    private final ChannelGroupFilterer filterer = new ChannelGroupFilterer();
     private final NumberToShortStringCodec oldFormatIdCodec = new SubstitutionTableNumberCodec();
     private final NumberToShortStringCodec newFormatIdCodec = SubstitutionTableNumberCodec.lowerCaseOnly();
     private final ChannelResolver channelResolver;
     private final ChannelGroupResolver channelGroupResolver;
+    private final ChannelCatalogue channelCatalogue;
     private final ChannelGroupWriteExecutor channelGroupWriteExecutor;
     private final QueryParameterAnnotationsExtractor annotationExtractor;
     private final ApplicationFetcher applicationFetcher;
@@ -136,6 +133,7 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
         this.applicationFetcher = checkNotNull(builder.applicationFetcher);
         this.channelResolver = checkNotNull(builder.channelResolver);
         this.channelGroupResolver = checkNotNull(builder.channelGroupResolver);
+        this.channelCatalogue = checkNotNull(builder.channelCatalogue);
         this.channelGroupTransformer = checkNotNull(builder.channelGroupTransformer);
         this.channelGroupWriteExecutor = checkNotNull(builder.channelGroupWriteExecutor);
         this.modelReader = checkNotNull(builder.modelReader);
@@ -176,18 +174,7 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
                 return;
             }
             
-            List<ChannelGroup> channelGroups = ImmutableList.copyOf(channelGroupResolver.channelGroups());
-
-            Selection selection = SELECTION_BUILDER.build(request);        
-            channelGroups = selection.applyTo(filterer.filter(
-                    channelGroups,
-                    constructFilter(platformId, type, advertised)
-            )
-                    .stream()
-                    .filter(input -> application.getConfiguration()
-                            .isReadEnabled(input.getPublisher()))
-                    .collect(Collectors.toList()));
-
+            Optional<Publisher> publisher = Optional.absent();
             if (!Strings.isNullOrEmpty(source)) {
                 if (!Publisher.fromKey(source).hasValue()) {
                     errorViewFor(
@@ -199,62 +186,69 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
                                     )
                             )
                     );
-                } else {
-                    channelGroups = channelGroups.stream()
-                            .filter(input -> input.getPublisher().key().equals(source))
-                            .collect(Collectors.toList());
+                    return;
                 }
+                publisher = Optional.of(Publisher.fromKey(source).requireValue());
             }
 
+            ChannelCatalogue.Snapshot catalogue = channelCatalogue.current();
+            Optional<ChannelGroupType> groupType = type(type);
+            Optional<Long> platform = platform(catalogue, platformId);
+            String eTag = catalogue.eTag(ETags.requestParts(request, application));
+            if (ETags.notModified(request, response, eTag)) {
+                return;
+            }
+
+            Selection selection = SELECTION_BUILDER.build(request);
+            List<ChannelGroup> channelGroups = selection.applyTo(catalogue.channelGroups(
+                    groupType,
+                    platform,
+                    publisher
+            )
+                    .stream()
+                    .filter(input -> application.getConfiguration()
+                            .isReadEnabled(input.getPublisher()))
+                    .collect(Collectors.toList()));
+
             if (!Strings.isNullOrEmpty(advertised)) {
-                ImmutableList.Builder filtered = ImmutableList.builder();
-                for (ChannelGroup channelGroup : channelGroups) {
-                    filtered.add(filterByAdvertised(channelGroup));
-                }
-                channelGroups = filtered.build();
+                channelGroups = channelGroups.stream()
+                        .map(channelGroup -> filterByAdvertised(catalogue, channelGroup))
+                        .collect(Collectors.toList());
             }
 
             // This is a temporary hack for testing purposes. We do not want to show the new
             // duplicate BT channels that will have a start date somewhere 5 years in the future.
             // This should be removed once we deliver the channel grouping tool
             if (application.getTitle().equals("BT TVE Prod") && !futureChannels) {
-                ImmutableList.Builder filtered = ImmutableList.builder();
-                for (ChannelGroup channelGroup : channelGroups) {
-                    filtered.add(filterByChannelStartDate(channelGroup));
-                }
-                channelGroups = filtered.build();
+                channelGroups = channelGroups.stream()
+                        .map(this::filterByChannelStartDate)
+                        .collect(Collectors.toList());
             }
 
-
             if (!Strings.isNullOrEmpty(dttOnly)) {
-                List<String> dttIds = Arrays.asList(dttOnly.split("\\s*,\\s*"));
-                ImmutableList.Builder filtered = ImmutableList.builder();
-                for (ChannelGroup channelGroup : channelGroups) {
-                    String channelGroupId = oldFormatIdCodec.encode(BigInteger.valueOf(channelGroup.getId()));
-                    if (dttIds.contains(channelGroupId)) {
-                        filtered.add(filterByDtt(channelGroup));
-                    } else {
-                        filtered.add(channelGroup);
-                    }
-                    channelGroups = filtered.build();
-                }
+                Set<String> dttIds = ImmutableSet.copyOf(dttOnly.split("\\s*,\\s*"));
+                channelGroups = channelGroups.stream()
+                        .map(channelGroup -> dttIds.contains(encode(channelGroup))
+                                             ? catalogue.dttView(channelGroup)
+                                             : channelGroup)
+                        .collect(Collectors.toList());
             }
 
             if (!Strings.isNullOrEmpty(ipOnly)) {
-                List<String> ipIds = Arrays.asList(ipOnly.split("\\s*,\\s*"));
-                ImmutableList.Builder filtered = ImmutableList.builder();
-                for (ChannelGroup channelGroup : channelGroups) {
-                    String channelGroupId = oldFormatIdCodec.encode(BigInteger.valueOf(channelGroup.getId()));
-                    if (ipIds.contains(channelGroupId)) {
-                        filtered.add(filterByIp(channelGroup));
-                    } else {
-                        filtered.add(channelGroup);
-                    }
-                }
-                channelGroups = filtered.build();
+                Set<String> ipIds = ImmutableSet.copyOf(ipOnly.split("\\s*,\\s*"));
+                channelGroups = channelGroups.stream()
+                        .map(channelGroup -> ipIds.contains(encode(channelGroup))
+                                             ? catalogue.ipView(channelGroup)
+                                             : channelGroup)
+                        .collect(Collectors.toList());
             }
 
-            modelAndViewFor(request, response, channelGroups, application);
+            modelAndViewFor(
+                    request,
+                    ETags.onSuccess(response, Optional.of(eTag)),
+                    channelGroups,
+                    application
+            );
         } catch (Exception e) {
             errorViewFor(request, response, AtlasErrorSummary.forException(e));
         }
@@ -289,10 +283,16 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
 
             if(cacheRefresh){
                 channelGroupResolver.invalidateCache(numericalId);
+                channelCatalogue.invalidate();
             }
 
-            Optional<ChannelGroup> possibleChannelGroup =
-                    channelGroupResolver.channelGroupFor(numericalId);
+            ChannelCatalogue.Snapshot catalogue = channelCatalogue.current();
+            Optional<ChannelGroup> possibleChannelGroup = catalogue.channelGroup(numericalId);
+            boolean fromCatalogue = possibleChannelGroup.isPresent();
+            if (!fromCatalogue) {
+                // written elsewhere since the catalogue was built
+                possibleChannelGroup = channelGroupResolver.channelGroupFor(numericalId);
+            }
 
             if (!possibleChannelGroup.isPresent()) {
                 errorViewFor(request, response, NOT_FOUND);
@@ -314,16 +314,24 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
                 errorViewFor(request, response, BAD_ANNOTATION);
                 return;
             }
+            Optional<String> eTag = Optional.absent();
+            if (fromCatalogue) {
+                eTag = Optional.of(catalogue.eTag(ETags.requestParts(request, application)));
+                if (ETags.notModified(request, response, eTag.get())) {
+                    return;
+                }
+            }
+
             ChannelGroup toReturn;
             if (!Strings.isNullOrEmpty(channelGenres)) {
                 Set<String> genres = ImmutableSet.copyOf(SPLIT_ON_COMMA.split(channelGenres));
-                toReturn = filterByChannelGenres(possibleChannelGroup.get(), genres);
+                toReturn = filterByChannelGenres(catalogue, possibleChannelGroup.get(), genres);
             } else {
                 toReturn = possibleChannelGroup.get();
             }
 
             if (!Strings.isNullOrEmpty(advertised)) {
-                toReturn = filterByAdvertised(toReturn);
+                toReturn = filterByAdvertised(catalogue, toReturn);
             }
 
             // This is a temporary hack for testing purposes. We do not want to show the new
@@ -336,14 +344,19 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
             }
 
             if (dttOnly) {
-                toReturn = filterByDtt(toReturn);
+                toReturn = catalogue.dttView(toReturn);
             }
 
             if (ipOnly) {
-                toReturn = filterByIp(toReturn);
+                toReturn = catalogue.ipView(toReturn);
             }
 
-            modelAndViewFor(request, response, ImmutableList.of(toReturn), application);
+            modelAndViewFor(
+                    request,
+                    ETags.onSuccess(response, eTag),
+                    ImmutableList.of(toReturn),
+                    application
+            );
         } catch (Exception e) {
             errorViewFor(request, response, AtlasErrorSummary.forException(e));
         }
@@ -612,53 +625,39 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
         );
     }
     
-    private ChannelGroup filterByChannelGenres(ChannelGroup channelGroup, final Set<String> genres) {
-        Iterable<ChannelNumbering> filtered = channelGroup.getChannelNumberings()
-                .stream()
-                .filter(input -> {
-                    Channel channel = Iterables.getOnlyElement(channelResolver.forIds(
-                            ImmutableSet.of(input.getChannel())
-                    ));
-                    return hasMatchingGenre(channel, genres);
-                })
-                .collect(Collectors.toList());
-        ChannelGroup filteredGroup = channelGroup.copy();
-        filteredGroup.setChannelNumberings(filtered);
-        return filteredGroup;
-    }
-
-    private ChannelGroup filterByDtt(ChannelGroup channelGroup) {
-        List<ChannelNumbering> channelNumberings = channelGroup.getChannelNumberings()
-                .stream()
-                .filter(channelNumbering -> !Strings.isNullOrEmpty(channelNumbering.getChannelNumber()))
-                .filter(channelNumbering -> Integer.parseInt(channelNumbering.getChannelNumber()) <= 300)
-                .collect(Collectors.toList());
-
-        ChannelGroup filteredGroup = channelGroup.copy();
-        filteredGroup.setChannelNumberings(channelNumberings);
-        return filteredGroup;
+    private ChannelGroup filterByChannelGenres(
+            ChannelCatalogue.Snapshot catalogue,
+            ChannelGroup channelGroup,
+            final Set<String> genres
+    ) {
+        return filterByChannel(
+                catalogue,
+                channelGroup,
+                channel -> hasMatchingGenre(channel, genres)
+        );
     }
 
-    private ChannelGroup filterByIp(ChannelGroup channelGroup) {
-        List<ChannelNumbering> channelNumberings = channelGroup.getChannelNumberings()
-                .stream()
-                .filter(channelNumbering -> !Strings.isNullOrEmpty(channelNumbering.getChannelNumber()))
-                .filter(channelNumbering -> Integer.parseInt(channelNumbering.getChannelNumber()) > 300)
-                .collect(Collectors.toList());
-
-        ChannelGroup filteredGroup = channelGroup.copy();
-        filteredGroup.setChannelNumberings(channelNumberings);
-        return filteredGroup;
+    private ChannelGroup filterByAdvertised(
+            ChannelCatalogue.Snapshot catalogue,
+            ChannelGroup channelGroup
+    ) {
+        return filterByChannel(catalogue, channelGroup, this::isAdvertised);
     }
 
-    private ChannelGroup filterByAdvertised(ChannelGroup channelGroup) {
+    /**
+     * Keeps the numberings whose channel passes the filter. Channels are looked up in the
+     * catalogue; numberings for channels it doesn't hold are dropped.
+     */
+    private ChannelGroup filterByChannel(
+            ChannelCatalogue.Snapshot catalogue,
+            ChannelGroup channelGroup,
+            Predicate<Channel> channelFilter
+    ) {
         Iterable<ChannelNumbering> filtered = channelGroup.getChannelNumberings()
                 .stream()
                 .filter(input -> {
-                    Channel channel = Iterables.getOnlyElement(channelResolver.forIds(
-                            ImmutableSet.of(input.getChannel())
-                    ));
-                    return isAdvertised(channel);
+                    Optional<Channel> channel = catalogue.channel(input.getChannel());
+                    return channel.isPresent() && channelFilter.test(channel.get());
                 })
                 .collect(Collectors.toList());
         ChannelGroup filteredGroup = channelGroup.copy();
@@ -688,35 +687,36 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
         return validAnnotations.containsAll(annotations);
     }
     
-    private ChannelGroupFilter constructFilter(String platformId, String type, String advertised) {
-        ChannelGroupFilterBuilder filter = ChannelGroupFilter.builder();
-        
-        if (!Strings.isNullOrEmpty(platformId)) {
-            // resolve platform if present
-            Optional<ChannelGroup> possiblePlatform = channelGroupResolver.channelGroupFor(
-                    oldFormatIdCodec.decode(platformId).longValue()
-            );
-            if (!possiblePlatform.isPresent()) {
-                throw new IllegalArgumentException("could not resolve channel group with id " + platformId);
-            }
-            if (!(possiblePlatform.get() instanceof Platform)) {
-                throw new IllegalArgumentException("channel group with id " + platformId + " not a platform");
-            }
-            filter.withPlatform((Platform)possiblePlatform.get());
-        }
+    private String encode(ChannelGroup channelGroup) {
+        return oldFormatIdCodec.encode(BigInteger.valueOf(channelGroup.getId()));
+    }
 
-        if (!Strings.isNullOrEmpty(type)) {
-            // resolve channelGroup type
-            if (type.equals("platform")) {
-                filter.withType(ChannelGroupType.PLATFORM);
-            } else if (type.equals("region")) {
-                filter.withType(ChannelGroupType.REGION);
-            } else {
-                throw new IllegalArgumentException("type provided was not valid, should be either platform or region");
-            }
+    private Optional<Long> platform(ChannelCatalogue.Snapshot catalogue, String platformId) {
+        if (Strings.isNullOrEmpty(platformId)) {
+            return Optional.absent();
+        }
+        long id = oldFormatIdCodec.decode(platformId).longValue();
+        Optional<ChannelGroup> possiblePlatform = catalogue.channelGroup(id);
+        if (!possiblePlatform.isPresent()) {
+            throw new IllegalArgumentException("could not resolve channel group with id " + platformId);
+        }
+        if (!(possiblePlatform.get() instanceof Platform)) {
+            throw new IllegalArgumentException("channel group with id " + platformId + " not a platform");
         }
+        return Optional.of(id);
+    }
 
-        return filter.build();
+    private Optional<ChannelGroupType> type(String type) {
+        if (Strings.isNullOrEmpty(type)) {
+            return Optional.absent();
+        }
+        if (type.equals("platform")) {
+            return Optional.of(ChannelGroupType.PLATFORM);
+        } else if (type.equals("region")) {
+            return Optional.of(ChannelGroupType.REGION);
+        } else {
+            throw new IllegalArgumentException("type provided was not valid, should be either platform or region");
+        }
     }
 
     public static class Builder {
@@ -725,6 +725,7 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
         private AdapterLog log;
         private AtlasModelWriter<Iterable<ChannelGroup>> atlasModelWriter;
         private ChannelGroupResolver channelGroupResolver;
+        private ChannelCatalogue channelCatalogue;
         private ChannelGroupTransformer channelGroupTransformer;
         private ChannelGroupWriteExecutor channelGroupWriteExecutor;
         private ChannelResolver channelResolver;
@@ -750,6 +751,11 @@ public class ChannelGroupController extends BaseController<Iterable<ChannelGroup
             return this;
         }
 
+        public Builder withChannelCatalogue(ChannelCatalogue channelCatalogue) {
+            this.channelCatalogue = channelCatalogue;
+            return this;
+        }
+
         public Builder withChannelGroupTransformer(ChannelGroupTransformer channelGroupTransformer) {
             this.channelGroupTransformer = channelGroupTransformer;
             return this;
@@ -37,20 +37,39 @@ public class ChannelGroupWriteExecutor {
 
     private final ChannelGroupStore channelGroupStore;
     private final ChannelStore channelStore;
+    private final Optional<ChannelCatalogue> channelCatalogue;
 
     private ChannelGroupWriteExecutor(
             ChannelGroupStore channelGroupStore,
-            ChannelStore channelStore
+            ChannelStore channelStore,
+            Optional<ChannelCatalogue> channelCatalogue
     ) {
         this.channelGroupStore = checkNotNull(channelGroupStore);
         this.channelStore = checkNotNull(channelStore);
+        this.channelCatalogue = checkNotNull(channelCatalogue);
     }
 
     public static ChannelGroupWriteExecutor create(
             ChannelGroupStore channelGroupStore,
             ChannelStore channelStore
     ) {
-        return new ChannelGroupWriteExecutor(channelGroupStore, channelStore);
+        return new ChannelGroupWriteExecutor(channelGroupStore, channelStore, Optional.empty());
+    }
+
+    /**
+     * Creates an executor that invalidates the given catalogue after every successful write, so
+     * that the next read from it sees the change.
+     */
+    public static ChannelGroupWriteExecutor create(
+            ChannelGroupStore channelGroupStore,
+            ChannelStore channelStore,
+            ChannelCatalogue channelCatalogue
+    ) {
+        return new ChannelGroupWriteExecutor(
+                channelGroupStore,
+                channelStore,
+                Optional.of(channelCatalogue)
+        );
     }
 
     public com.google.common.base.Optional<ChannelGroup> createOrUpdateChannelGroup(
@@ -61,7 +80,9 @@ public class ChannelGroupWriteExecutor {
     ) {
         try {
             if (complex.getId() != null) {
-                return updateChannelGroup(complex, simpleNumberings, channelResolver);
+                return invalidatingCatalogue(
+                        updateChannelGroup(complex, simpleNumberings, channelResolver)
+                );
             }
             if (complex.getCanonicalUri() != null) {
                 com.google.common.base.Optional<ChannelGroup> existingChannelGroup = channelGroupStore
@@ -69,7 +90,9 @@ public class ChannelGroupWriteExecutor {
 
                 if(existingChannelGroup.isPresent()) {
                     complex.setId(existingChannelGroup.get().getId());
-                    return updateChannelGroup(complex, simpleNumberings, channelResolver);
+                    return invalidatingCatalogue(
+                            updateChannelGroup(complex, simpleNumberings, channelResolver)
+                    );
                 }
             }
             //if it's a new group, create it
@@ -82,7 +105,7 @@ public class ChannelGroupWriteExecutor {
                     .collect(MoreCollectors.toImmutableSet());
             updateChannelNumberings(newChannelGroup.getId(), channelNumberings, channelsToUpdate, channelResolver);
 
-            return com.google.common.base.Optional.of(newChannelGroup);
+            return invalidatingCatalogue(com.google.common.base.Optional.of(newChannelGroup));
         } catch (Exception e) {
             log.error(
                     "Error while creating/updating platform for request {}",
@@ -93,6 +116,13 @@ public class ChannelGroupWriteExecutor {
         }
     }
 
+    private com.google.common.base.Optional<ChannelGroup> invalidatingCatalogue(
+            com.google.common.base.Optional<ChannelGroup> written
+    ) {
+        channelCatalogue.ifPresent(ChannelCatalogue::invalidate);
+        return written;
+    }
+
     private ChannelNumbering transformChannelNumbering(
             org.atlasapi.media.entity.simple.ChannelNumbering numbering,
             long channelGroupId
@@ -230,6 +260,7 @@ public class ChannelGroupWriteExecutor {
                     channelResolver
             );
             channelGroupStore.deleteChannelGroupById(channelGroupId);
+            channelCatalogue.ifPresent(ChannelCatalogue::invalidate);
         } catch (Exception e) {
             String errorMessage = String.format(
                     "Error while deleting platform for request %s",
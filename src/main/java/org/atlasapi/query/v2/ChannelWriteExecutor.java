@@ -62,6 +62,7 @@ public class ChannelWriteExecutor {
     private final ChannelModelTransformer channelTransformer;
     private final AtlasModelWriter<Iterable<Channel>> outputter;
     private final NumberToShortStringCodec codec;
+    private final ChannelCatalogue channelCatalogue;
 
     private ChannelWriteExecutor(Builder builder) {
         this.appConfigFetcher = checkNotNull(builder.appConfigFetcher);
@@ -70,6 +71,7 @@ public class ChannelWriteExecutor {
         this.channelTransformer = checkNotNull(builder.channelTransformer);
         this.outputter = checkNotNull(builder.outputter);
         this.codec = SubstitutionTableNumberCodec.lowerCaseOnly();
+        this.channelCatalogue = checkNotNull(builder.channelCatalogue);
     }
 
     public static Builder builder() {
@@ -148,6 +150,7 @@ public class ChannelWriteExecutor {
 
         try {
             Channel savedChannel = store.createOrUpdate(existingChannel);
+            channelCatalogue.invalidate();
             response.setStatus(HttpServletResponse.SC_OK);
             return new WriteResponse(encodeId(savedChannel.getId()));
         } catch (Exception e) {
@@ -254,6 +257,7 @@ public class ChannelWriteExecutor {
 
         try {
             Channel savedChannel = store.createOrUpdate(existingChannel);
+            channelCatalogue.invalidate();
             response.setStatus(HttpServletResponse.SC_OK);
             return new WriteResponse(encodeId(savedChannel.getId()));
         } catch (Exception e) {
@@ -386,6 +390,7 @@ public class ChannelWriteExecutor {
 
         try {
             Channel savedChannel = store.createOrUpdate(channel);
+            channelCatalogue.invalidate();
             resp.setStatus(HttpStatus.OK.value());
             return new WriteResponse(encodeId(savedChannel.getId()));
         } catch (Exception e) {
@@ -522,6 +527,7 @@ public class ChannelWriteExecutor {
         private ModelReader reader;
         private ChannelModelTransformer channelTransformer;
         private AtlasModelWriter<Iterable<Channel>> outputter;
+        private ChannelCatalogue channelCatalogue;
 
         private Builder() {
         }
@@ -551,6 +557,11 @@ public class ChannelWriteExecutor {
             return this;
         }
 
+        public Builder withChannelCatalogue(ChannelCatalogue channelCatalogue) {
+            this.channelCatalogue = channelCatalogue;
+            return this;
+        }
+
         public ChannelWriteExecutor build() {
             return new ChannelWriteExecutor(this);
         }
@@ -27,6 +27,7 @@ import org.apache.commons.io.IOUtils;
 import org.atlasapi.application.query.ApplicationFetcher;
 import org.atlasapi.application.query.InvalidApiKeyException;
 import org.atlasapi.equiv.EquivalenceBreaker;
+import org.atlasapi.input.JsonArrayElements;
 import org.atlasapi.media.entity.Container;
 import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Described;
@@ -100,6 +101,8 @@ public class ContentWriteController {
     private static final String EXCLUDE_URIS = "excludeUris";
     private static final String EXPLICIT_EQUIVALENCE_FROM_READ_SOURCES = "explicit-equivalence-from-read-sources";
 
+    private static final int WRITE_BATCH_SIZE = 100;
+
     private static final boolean MERGE = true;
     private static final boolean OVERWRITE = false;
 
@@ -183,6 +186,21 @@ public class ContentWriteController {
         return deserializeAndUpdateContent(req, resp, OVERWRITE);
     }
 
+    /**
+     * Writes a JSON array of content documents, as {@link #postContent} would for each of them.
+     * The array is read and written incrementally, and the outcome of each document is reported
+     * in order rather than failing the whole request.
+     */
+    @Nullable
+    public BatchWriteResponse postContents(HttpServletRequest req, HttpServletResponse resp) {
+        return deserializeAndUpdateContents(req, resp, MERGE);
+    }
+
+    @Nullable
+    public BatchWriteResponse putContents(HttpServletRequest req, HttpServletResponse resp) {
+        return deserializeAndUpdateContents(req, resp, OVERWRITE);
+    }
+
     @Nullable
     public WriteResponse unpublishContent(HttpServletRequest req, HttpServletResponse resp) {
 
@@ -811,26 +829,13 @@ public class ContentWriteController {
                 broadcastAssertionsParameter
         );
 
-        if (async && !Strings.isNullOrEmpty(broadcastAssertionsParameter)) {
-            return error(
-                    req,
-                    resp,
-                    AtlasErrorSummary.forException(new IllegalArgumentException(
-                            "The '" + ASYNC_PARAMETER + "' and '" + BROADCAST_ASSERTIONS_PARAMETER
-                                    + "' request parameters are mutually exclusive"
-                    ))
-            );
-        }
-
-        if (!merge && !Strings.isNullOrEmpty(broadcastAssertionsParameter)) {
-            return error(
-                    req,
-                    resp,
-                    AtlasErrorSummary.forException(new IllegalArgumentException(
-                            "'" + BROADCAST_ASSERTIONS_PARAMETER
-                                    + "' request parameters are not supported with PUT"
-                    ))
-            );
+        Optional<AtlasErrorSummary> parameterErrorSummary = validateWriteParameters(
+                async,
+                merge,
+                broadcastAssertionsParameter
+        );
+        if (parameterErrorSummary.isPresent()) {
+            return error(req, resp, parameterErrorSummary.get());
         }
 
         PossibleApplication possibleApplication = validateApplicationConfiguration(req, resp);
@@ -917,6 +922,221 @@ public class ContentWriteController {
         return new WriteResponse(encodeId(contentId));
     }
 
+    @Nullable
+    private BatchWriteResponse deserializeAndUpdateContents(
+            HttpServletRequest req,
+            HttpServletResponse resp,
+            boolean merge
+    ) {
+        Boolean async = Boolean.valueOf(req.getParameter(ASYNC_PARAMETER));
+        Boolean strict = Boolean.valueOf(req.getParameter(STRICT_PARAMETER));
+
+        String broadcastAssertionsParameter = req.getParameter(BROADCAST_ASSERTIONS_PARAMETER);
+        BroadcastMerger broadcastMerger = BroadcastMerger.parse(
+                broadcastAssertionsParameter
+        );
+
+        Optional<AtlasErrorSummary> parameterErrorSummary = validateWriteParameters(
+                async,
+                merge,
+                broadcastAssertionsParameter
+        );
+        if (parameterErrorSummary.isPresent()) {
+            return batchError(req, resp, parameterErrorSummary.get());
+        }
+
+        PossibleApplication possibleApplication = validateApplicationConfiguration(req, resp);
+        if (possibleApplication.getErrorSummary().isPresent()) {
+            return batchError(req, resp, possibleApplication.getErrorSummary().get());
+        }
+
+        List<BatchWriteResponse.Result> results = new ArrayList<>();
+        List<PendingWrite> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+
+        try (JsonArrayElements elements = JsonArrayElements.from(req.getInputStream())) {
+            while (elements.hasNext()) {
+                Optional<PendingWrite> pending = parseBatchElement(
+                        elements.next(),
+                        results,
+                        strict,
+                        possibleApplication.getApplication()
+                );
+                if (pending.isPresent()) {
+                    batch.add(pending.get());
+                }
+                if (batch.size() == WRITE_BATCH_SIZE) {
+                    writeBatch(batch, results, async, merge, broadcastMerger);
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            if (results.isEmpty()) {
+                logError("Error reading input for request", e, req);
+                return batchError(req, resp, AtlasErrorSummary.forException(e));
+            }
+            // documents read before the malformed one are still written, and the rest are
+            // reported as a single failure
+            results.add(new BatchWriteResponse.Result(
+                    null,
+                    null,
+                    HttpStatus.BAD_REQUEST.value(),
+                    e.getMessage()
+            ));
+        }
+        writeBatch(batch, results, async, merge, broadcastMerger);
+
+        HttpStatus responseStatus = async ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        resp.setStatus(responseStatus.value());
+        return new BatchWriteResponse(results);
+    }
+
+    /**
+     * Parses and validates one document of a batch. Documents that fail are recorded in
+     * {@code results} straight away; the rest reserve their place in it until they are written.
+     */
+    private Optional<PendingWrite> parseBatchElement(
+            byte[] inputStreamBytes,
+            List<BatchWriteResponse.Result> results,
+            boolean strict,
+            Optional<Application> application
+    ) {
+        int position = results.size();
+        ContentWriteExecutor.InputContent inputContent;
+        try {
+            inputContent = writeExecutor.parseInputStream(
+                    new ByteArrayInputStream(inputStreamBytes),
+                    strict
+            );
+        } catch (Exception e) {
+            results.add(new BatchWriteResponse.Result(
+                    null,
+                    null,
+                    HttpStatus.BAD_REQUEST.value(),
+                    e.getMessage()
+            ));
+            return Optional.empty();
+        }
+
+        Content content = inputContent.getContent();
+        if (!application.isPresent()
+                || !application.get().getConfiguration().isWriteEnabled(content.getPublisher())) {
+            results.add(new BatchWriteResponse.Result(
+                    null,
+                    content.getCanonicalUri(),
+                    HttpStatus.FORBIDDEN.value(),
+                    "API key does not have write permission"
+            ));
+            return Optional.empty();
+        }
+
+        Long contentId;
+        try {
+            contentId = lookupBackedContentIdGenerator.getId(content);
+        } catch (Exception e) {
+            log.error("Error generating id for {}", content.getCanonicalUri(), e);
+            results.add(new BatchWriteResponse.Result(
+                    null,
+                    content.getCanonicalUri(),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    e.getMessage()
+            ));
+            return Optional.empty();
+        }
+
+        results.add(null);
+        return Optional.of(new PendingWrite(position, inputStreamBytes, inputContent, contentId));
+    }
+
+    private void writeBatch(
+            List<PendingWrite> batch,
+            List<BatchWriteResponse.Result> results,
+            boolean async,
+            boolean merge,
+            BroadcastMerger broadcastMerger
+    ) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (async) {
+            // the sender batches these up for the broker, so this is not a send per document
+            for (PendingWrite pending : batch) {
+                try {
+                    sendMessage(pending.inputStreamBytes, pending.contentId, merge);
+                    results.set(pending.position, result(pending, HttpStatus.ACCEPTED, null));
+                } catch (Exception e) {
+                    log.error("Error sending write message for {}", pending.contentId, e);
+                    results.set(pending.position, result(pending, e));
+                }
+            }
+            return;
+        }
+
+        List<ContentWriteExecutor.InputContent> inputContents = new ArrayList<>(batch.size());
+        for (PendingWrite pending : batch) {
+            pending.inputContent.getContent().setId(pending.contentId);
+            inputContents.add(pending.inputContent);
+        }
+        Map<ContentWriteExecutor.InputContent, Exception> failures;
+        try {
+            failures = writeExecutor.writeContents(inputContents, merge, broadcastMerger);
+        } catch (RuntimeException e) {
+            log.error("Error writing batch of {} documents", batch.size(), e);
+            for (PendingWrite pending : batch) {
+                results.set(pending.position, result(pending, e));
+            }
+            return;
+        }
+        for (PendingWrite pending : batch) {
+            Exception failure = failures.get(pending.inputContent);
+            results.set(
+                    pending.position,
+                    failure == null ? result(pending, HttpStatus.OK, null)
+                                    : result(pending, failure)
+            );
+        }
+    }
+
+    private BatchWriteResponse.Result result(PendingWrite pending, Exception e) {
+        HttpStatus status = e instanceof IllegalArgumentException || e instanceof NullPointerException
+                            ? HttpStatus.BAD_REQUEST
+                            : HttpStatus.INTERNAL_SERVER_ERROR;
+        return result(pending, status, e.getMessage());
+    }
+
+    private BatchWriteResponse.Result result(
+            PendingWrite pending,
+            HttpStatus status,
+            @Nullable String error
+    ) {
+        return new BatchWriteResponse.Result(
+                encodeId(pending.contentId),
+                pending.inputContent.getContent().getCanonicalUri(),
+                status.value(),
+                error
+        );
+    }
+
+    private Optional<AtlasErrorSummary> validateWriteParameters(
+            boolean async,
+            boolean merge,
+            @Nullable String broadcastAssertionsParameter
+    ) {
+        if (async && !Strings.isNullOrEmpty(broadcastAssertionsParameter)) {
+            return Optional.of(AtlasErrorSummary.forException(new IllegalArgumentException(
+                    "The '" + ASYNC_PARAMETER + "' and '" + BROADCAST_ASSERTIONS_PARAMETER
+                            + "' request parameters are mutually exclusive"
+            )));
+        }
+
+        if (!merge && !Strings.isNullOrEmpty(broadcastAssertionsParameter)) {
+            return Optional.of(AtlasErrorSummary.forException(new IllegalArgumentException(
+                    "'" + BROADCAST_ASSERTIONS_PARAMETER
+                            + "' request parameters are not supported with PUT"
+            )));
+        }
+        return Optional.empty();
+    }
+
     private void sendMessage(byte[] inputStreamBytes, Long contentId, boolean merge)
             throws com.metabroadcast.common.queue.MessagingException {
         ContentWriteMessage contentWriteMessage = new ContentWriteMessage(
@@ -980,6 +1200,19 @@ public class ContentWriteController {
         return null;
     }
 
+    private BatchWriteResponse batchError(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            AtlasErrorSummary summary
+    ) {
+        try {
+            outputWriter.writeError(request, response, summary);
+        } catch (IOException e) {
+            logError("Error executing request", e, request);
+        }
+        return null;
+    }
+
     private ExplicitEquivalenceResponse explicitEquivalenceWriteError(
             HttpServletRequest request,
             HttpServletResponse response,
@@ -993,6 +1226,26 @@ public class ContentWriteController {
         return null;
     }
 
+    private static class PendingWrite {
+
+        private final int position;
+        private final byte[] inputStreamBytes;
+        private final ContentWriteExecutor.InputContent inputContent;
+        private final Long contentId;
+
+        private PendingWrite(
+                int position,
+                byte[] inputStreamBytes,
+                ContentWriteExecutor.InputContent inputContent,
+                Long contentId
+        ) {
+            this.position = position;
+            this.inputStreamBytes = inputStreamBytes;
+            this.inputContent = inputContent;
+            this.contentId = contentId;
+        }
+    }
+
     private class PossibleApplication{
         private Optional<AtlasErrorSummary> errorSummary = Optional.empty();
         private Optional<Application> application = Optional.empty();
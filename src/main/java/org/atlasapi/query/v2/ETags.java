@@ -0,0 +1,104 @@
+package org.atlasapi.query.v2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.atlasapi.media.entity.Publisher;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Conditional GET support for responses that carry a strong ETag.
+ */
+final class ETags {
+
+    private static final Splitter SPLIT_ON_COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+    }
+
+    /**
+     * If the request's If-None-Match already names the ETag, answers 304 Not Modified with it.
+     * Callers should write nothing further when this returns true, and otherwise render through
+     * {@link #onSuccess} so that the ETag is only sent with the response it describes.
+     */
+    static boolean notModified(HttpServletRequest request, HttpServletResponse response, String eTag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : SPLIT_ON_COMMA.split(ifNoneMatch)) {
+            if (candidate.equals("*") || stripWeakPrefix(candidate).equals(eTag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                response.setHeader(HttpHeaders.ETAG, eTag);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Wraps the response so that the ETag, if present, is set when the body is first written,
+     * and only if the status then is a success. Errors rendered in place of the result, which
+     * set their own status first, go out without it.
+     */
+    static HttpServletResponse onSuccess(HttpServletResponse response, Optional<String> eTag) {
+        if (!eTag.isPresent()) {
+            return response;
+        }
+        return new HttpServletResponseWrapper(response) {
+
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+                setETagOnSuccess();
+                return super.getOutputStream();
+            }
+
+            @Override
+            public PrintWriter getWriter() throws IOException {
+                setETagOnSuccess();
+                return super.getWriter();
+            }
+
+            private void setETagOnSuccess() {
+                if (!isCommitted() && getStatus() < HttpServletResponse.SC_MULTIPLE_CHOICES) {
+                    setHeader(HttpHeaders.ETAG, eTag.get());
+                }
+            }
+        };
+    }
+
+    /**
+     * The parts of a read request that can change its response: the path, which includes the
+     * output format, the query string, and the application's title and read sources.
+     */
+    static List<String> requestParts(HttpServletRequest request, Application application) {
+        return ImmutableList.of(
+                Strings.nullToEmpty(request.getRequestURI()),
+                Strings.nullToEmpty(request.getQueryString()),
+                Strings.nullToEmpty(application.getTitle()),
+                application.getConfiguration().getEnabledReadSources().stream()
+                        .map(Publisher::key)
+                        .sorted()
+                        .collect(Collectors.joining(","))
+        );
+    }
+
+    private static String stripWeakPrefix(String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
@@ -291,6 +291,16 @@ public class QueryController extends BaseController<QueryResult<Identified, ? ex
         return contentWriteController.putContent(req, resp);
     }
 
+    @RequestMapping(value="/3.0/content/batch.json", method = RequestMethod.POST)
+    public BatchWriteResponse postContents(HttpServletRequest req, HttpServletResponse resp) {
+        return contentWriteController.postContents(req, resp);
+    }
+
+    @RequestMapping(value="/3.0/content/batch.json", method = RequestMethod.PUT)
+    public BatchWriteResponse putContents(HttpServletRequest req, HttpServletResponse resp) {
+        return contentWriteController.putContents(req, resp);
+    }
+
     @Nullable
     @RequestMapping(value="/3.0/content.json", method = RequestMethod.DELETE)
     public WriteResponse deleteContent(HttpServletRequest req, HttpServletResponse resp) {
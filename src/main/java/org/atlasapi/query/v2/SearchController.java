@@ -18,8 +18,9 @@ import org.atlasapi.output.AtlasErrorSummary;
 import org.atlasapi.output.AtlasModelWriter;
 import org.atlasapi.output.JsonTranslator;
 import org.atlasapi.output.QueryResult;
-import org.atlasapi.persistence.content.SearchResolver;
 import org.atlasapi.persistence.logging.AdapterLog;
+import org.atlasapi.query.content.search.HydratedSearchResults;
+import org.atlasapi.query.content.search.HydratingSearchResolver;
 import org.atlasapi.search.model.SearchQuery;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -47,12 +48,17 @@ public class SearchController extends BaseController<QueryResult<Identified,?ext
     private static final String PRIORITY_CHANNEL_WEIGHTING = "priorityChannelWeighting";
     private static final String ANNOTATIONS_PARAM = "annotations";
 
+    /**
+     * Set when some results were left out because resolving them took too long.
+     */
+    public static final String PARTIAL_RESULTS_HEADER = "Partial-Results";
+
     private static final float DEFAULT_TITLE_WEIGHTING = 1.0f;
     private static final float DEFAULT_PRIORITY_CHANNEL_WEIGHTING = 1.0f;
     private static final float DEFAULT_BROADCAST_WEIGHTING = 0.2f;
     private static final float DEFAULT_CATCHUP_WEIGHTING = 0.15f;
 
-    private final SearchResolver searcher;
+    private final HydratingSearchResolver searcher;
     private final ParameterChecker paramChecker = new ParameterChecker(ImmutableSet.of(
         ApiKeyApplicationFetcher.API_KEY_QUERY_PARAMETER,
         Selection.LIMIT_REQUEST_PARAM,
@@ -70,7 +76,7 @@ public class SearchController extends BaseController<QueryResult<Identified,?ext
         CURRENT_BROADCASTS_ONLY,
         PRIORITY_CHANNEL_WEIGHTING
     ));
-    public SearchController(SearchResolver searcher, ApplicationFetcher configFetcher, AdapterLog log, AtlasModelWriter<QueryResult<Identified, ? extends Identified>> outputter) {
+    public SearchController(HydratingSearchResolver searcher, ApplicationFetcher configFetcher, AdapterLog log, AtlasModelWriter<QueryResult<Identified, ? extends Identified>> outputter) {
         super(configFetcher, log, outputter, DefaultApplication.createDefault());
         this.searcher = searcher;
     }
@@ -114,7 +120,7 @@ public class SearchController extends BaseController<QueryResult<Identified,?ext
 
             Set<Specialization> specializations = specializations(specialization);
             Set<Publisher> publishers = publishers(publisher, application);
-            List<Identified> content = searcher.search(SearchQuery.builder(q)
+            SearchQuery query = SearchQuery.builder(q)
                 .withSelection(selection)
                 .withSpecializations(specializations)
                 .withPublishers(publishers)
@@ -125,9 +131,14 @@ public class SearchController extends BaseController<QueryResult<Identified,?ext
                 .withType(type)
                 .isTopLevelOnly(!Strings.isNullOrEmpty(topLevel) ? Boolean.valueOf(topLevel) : null)
                 .withCurrentBroadcastsOnly(!Strings.isNullOrEmpty(currentBroadcastsOnly) ? Boolean.valueOf(currentBroadcastsOnly) : null)
-                .build(), application);
+                .build();
+
+            HydratedSearchResults results = searcher.hydratedSearch(query, application);
+            if (results.isPartial()) {
+                response.setHeader(PARTIAL_RESULTS_HEADER, Boolean.TRUE.toString());
+            }
 
-            modelAndViewFor(request, response, QueryResult.of(content), application);
+            modelAndViewFor(request, response, QueryResult.of(results.results()), application);
         } catch (Exception e) {
             errorViewFor(request, response, AtlasErrorSummary.forException(e));
         }
@@ -0,0 +1,30 @@
+package org.atlasapi.query.worker;
+
+import org.atlasapi.messaging.v3.EntityUpdatedMessage;
+import org.atlasapi.query.content.CachingLookupEntryStore;
+
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.queue.Worker;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Drops cached lookup entries for content that has been written, so that the next query for it
+ * reads the entry from the store again.
+ */
+public class ContentChangesLookupEntryInvalidatingWorker implements Worker<EntityUpdatedMessage> {
+
+    private final SubstitutionTableNumberCodec idCodec =
+            SubstitutionTableNumberCodec.lowerCaseOnly();
+
+    private final CachingLookupEntryStore lookupStore;
+
+    public ContentChangesLookupEntryInvalidatingWorker(CachingLookupEntryStore lookupStore) {
+        this.lookupStore = checkNotNull(lookupStore);
+    }
+
+    @Override
+    public void process(EntityUpdatedMessage message) {
+        lookupStore.invalidate(idCodec.decode(message.getEntityId()).longValue());
+    }
+}
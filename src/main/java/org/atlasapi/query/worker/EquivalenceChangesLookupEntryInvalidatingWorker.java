@@ -0,0 +1,33 @@
+package org.atlasapi.query.worker;
+
+import org.atlasapi.messaging.v3.EquivalenceChangeMessage;
+import org.atlasapi.query.content.CachingLookupEntryStore;
+
+import com.metabroadcast.common.queue.Worker;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Drops cached lookup entries for the subject of an equivalence change and for every id it gained
+ * or lost an equivalence to, as all of their entries are rewritten by the change.
+ */
+public class EquivalenceChangesLookupEntryInvalidatingWorker
+        implements Worker<EquivalenceChangeMessage> {
+
+    private final CachingLookupEntryStore lookupStore;
+
+    public EquivalenceChangesLookupEntryInvalidatingWorker(CachingLookupEntryStore lookupStore) {
+        this.lookupStore = checkNotNull(lookupStore);
+    }
+
+    @Override
+    public void process(EquivalenceChangeMessage message) {
+        lookupStore.invalidate(message.getSubjectId());
+        for (long id : message.getOutgoingIdsAdded()) {
+            lookupStore.invalidate(id);
+        }
+        for (long id : message.getOutgoingIdsRemoved()) {
+            lookupStore.invalidate(id);
+        }
+    }
+}
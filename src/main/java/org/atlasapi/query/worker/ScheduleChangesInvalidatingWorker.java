@@ -0,0 +1,48 @@
+package org.atlasapi.query.worker;
+
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.messaging.v3.ScheduleUpdateMessage;
+import org.atlasapi.query.content.schedule.CachingScheduleResolver;
+
+import com.metabroadcast.common.base.Maybe;
+import com.metabroadcast.common.ids.SubstitutionTableNumberCodec;
+import com.metabroadcast.common.queue.Worker;
+
+import org.joda.time.Interval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Drops cached schedules for a channel when a block of its schedule has been replaced, so that
+ * the next request for it reads the schedule from the store again.
+ */
+public class ScheduleChangesInvalidatingWorker implements Worker<ScheduleUpdateMessage> {
+
+    private static final Logger log =
+            LoggerFactory.getLogger(ScheduleChangesInvalidatingWorker.class);
+
+    private final SubstitutionTableNumberCodec channelIdCodec =
+            SubstitutionTableNumberCodec.lowerCaseOnly();
+
+    private final CachingScheduleResolver scheduleResolver;
+
+    public ScheduleChangesInvalidatingWorker(CachingScheduleResolver scheduleResolver) {
+        this.scheduleResolver = checkNotNull(scheduleResolver);
+    }
+
+    @Override
+    public void process(ScheduleUpdateMessage message) {
+        Maybe<Publisher> source = Publisher.fromKey(message.getSource());
+        if (!source.hasValue()) {
+            log.warn("Unknown source {} in schedule update message", message.getSource());
+            return;
+        }
+        scheduleResolver.invalidate(
+                source.requireValue(),
+                channelIdCodec.decode(message.getChannel()).longValue(),
+                new Interval(message.getUpdateStart(), message.getUpdateEnd())
+        );
+    }
+}
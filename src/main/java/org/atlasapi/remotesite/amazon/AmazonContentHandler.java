@@ -42,6 +42,18 @@ public class AmazonContentHandler extends DefaultHandler {
             ItemField.RELATED_PRODUCTS);
     private boolean ignoreBlock = false;
 
+    /**
+     * Thrown to end the parse when the {@link AmazonProcessor} asks to stop, since SAX has no
+     * other way for a handler to do so. Callers should catch it and treat the parse as stopped
+     * rather than failed.
+     */
+    public static class ProcessingStoppedException extends SAXException {
+
+        public ProcessingStoppedException() {
+            super("Processing stopped before the end of the document");
+        }
+    }
+
     public AmazonContentHandler(AmazonProcessor<?> processor) {
         this.processor = checkNotNull(processor);
     }
@@ -66,9 +78,12 @@ public class AmazonContentHandler extends DefaultHandler {
     @Override
     public void endElement(String uri, String localName, String qName) throws SAXException {
         if (qName.equalsIgnoreCase("Item")) {
-            processor.process(item.build());
+            boolean shouldContinue = processor.process(item.build());
             ignoreBlock = false; //safety precaution
             item = null;
+            if (!shouldContinue) {
+                throw new ProcessingStoppedException();
+            }
             return;
         }
         if (currentField != null) {
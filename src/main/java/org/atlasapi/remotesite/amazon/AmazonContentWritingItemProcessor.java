@@ -1,6 +1,7 @@
 package org.atlasapi.remotesite.amazon;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -47,14 +48,27 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.atlasapi.remotesite.amazon.AmazonContentExtractor.URI_PREFIX;
 
+/**
+ * Writes the content extracted from the catalogue, then indexes titles and unpublishes content
+ * that was not seen.
+ * <p>
+ * A single processor can be fed the whole catalogue. Alternatively the catalogue can be split
+ * into brand partitions with {@link #partitionOf(AmazonItem, int)}, each fed to its own
+ * {@link #forPartition() partition processor}, so that only a partition's content is held in
+ * memory at once and partitions can be written in parallel. Only the uris and titles of seen
+ * content are kept across partitions, and the title index and unpublishing happen when this
+ * processor is finished after all of its partitions.
+ */
 public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
 
     private static final Ordering<Content> REVERSE_HIERARCHICAL_ORDER = HierarchicalOrdering.create().reverse();
@@ -78,9 +92,9 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
     private final BiMap<String, ModelWithPayload<Content>> seenContent = HashBiMap.create();
     private final Set<String> seriesUris = new HashSet<>();
     private final Set<String> episodeUris = new HashSet<>();
-    private final Set<ModelWithPayload<Episode>> episodesWithoutAvailableSeries = new HashSet<>();
-
 
+    private final boolean partition;
+    private IngestState ingest = new IngestState();
     private OwlTelescopeReporter telescope;
 
     private final ContentExtractor<AmazonItem, Iterable<Content>> extractor;
@@ -119,18 +133,58 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
                 MergeStrategy.REPLACE
         );
         this.amazonTitleIndexStore = checkNotNull(amazonTitleIndexStore);
+        this.partition = false;
+    }
+
+    private AmazonContentWritingItemProcessor(AmazonContentWritingItemProcessor ingestProcessor) {
+        this.extractor = ingestProcessor.extractor;
+        this.resolver = ingestProcessor.resolver;
+        this.writer = ingestProcessor.writer;
+        this.lister = ingestProcessor.lister;
+        this.missingContentPercentage = ingestProcessor.missingContentPercentage;
+        this.brandProcessor = ingestProcessor.brandProcessor;
+        this.contentMerger = ingestProcessor.contentMerger;
+        this.amazonTitleIndexStore = ingestProcessor.amazonTitleIndexStore;
+        this.partition = true;
+        this.ingest = ingestProcessor.ingest;
+    }
+
+    /**
+     * Creates a processor for a single brand partition of the current ingest. It must be created
+     * after this processor has been prepared, and finished before this processor is.
+     */
+    public AmazonItemProcessor forPartition() {
+        return new AmazonContentWritingItemProcessor(this);
+    }
+
+    /**
+     * Assigns an item to one of a number of partitions so that a brand, its series and their
+     * episodes are always in the same partition.
+     */
+    public static int partitionOf(AmazonItem item, int partitions) {
+        return Math.floorMod(brandAsin(item).hashCode(), partitions);
+    }
+
+    private static String brandAsin(AmazonItem item) {
+        if (AmazonItem.isEpisode(item)) {
+            if (item.getSeriesAsin() != null) {
+                return item.getSeriesAsin();
+            }
+            if (item.getSeasonAsin() != null) {
+                return item.getSeasonAsin();
+            }
+        } else if (AmazonItem.isSeries(item) && item.getSeriesAsin() != null) {
+            return item.getSeriesAsin();
+        }
+        return item.getAsin();
     }
 
     @Override
     public void prepare(OwlTelescopeReporter telescope) {
-        seenContainer.clear();
-        cached.clear();
-        topLevelSeries.clear();
-        standAloneEpisodes.clear();
-        seenContent.clear();
-        seriesUris.clear();
-        episodeUris.clear();
-        episodesWithoutAvailableSeries.clear();
+        clearPartition();
+        if (!partition) {
+            ingest = new IngestState();
+        }
 
         this.telescope = telescope;
     }
@@ -193,6 +247,15 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
 
     @Override
     public void finish() {
+        finishPartition();
+        if (!partition) {
+            finishIngest();
+        }
+
+        telescope = null;
+    }
+
+    private void finishPartition() {
         titleCleaning();
 //        assignImagesToBrands();
 
@@ -211,21 +274,35 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
             );
         }
 
+        recordSeenContent();
+        clearPartition();
+    }
+
+    private void finishIngest() {
         createTitleIndex();
+        checkForDeletedContent(telescope);
+
+        ingest = new IngestState();
+    }
+
+    private void recordSeenContent() {
+        for (ModelWithPayload<Content> content : seenContent.values()) {
+            String uri = content.getModel().getCanonicalUri();
+            ingest.seenUris.add(uri);
+            if (isTopLevelContent(content.getModel())) {
+                ingest.titleIndex.put(content.getModel().getTitle(), uri);
+            }
+        }
+    }
 
+    private void clearPartition() {
         seenContainer.clear();
         cached.clear();
         topLevelSeries.clear();
         standAloneEpisodes.clear();
-        
-        checkForDeletedContent(telescope);
-
         seenContent.clear();
         seriesUris.clear();
         episodeUris.clear();
-        episodesWithoutAvailableSeries.clear();
-
-        telescope = null;
     }
 
     private void assignImagesToBrands() {
@@ -252,19 +329,11 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
     }
 
     private void createTitleIndex() {
-        //Title -> Set<Content> (stores object references instead of just uri to reduce memory use)
-        SetMultimap<String, Content> titleIndex = HashMultimap.create();
-        for (ModelWithPayload<Content> content : seenContent.values()) {
-            if(isTopLevelContent(content.getModel())) {
-                titleIndex.put(content.getModel().getTitle(), content.getModel());
-            }
-        }
+        SetMultimap<String, String> titleIndex = ingest.titleIndex;
         Set<String> titles = titleIndex.keySet();
         log.info("Creating title index for {} unique titles", titles.size());
         for (String title : titles) {
-            Set<String> uris = titleIndex.get(title).stream()
-                    .map(Content::getCanonicalUri)
-                    .collect(Collectors.toSet());
+            Set<String> uris = ImmutableSet.copyOf(titleIndex.get(title));
             AmazonTitleIndexEntry indexEntry = new AmazonTitleIndexEntry(title, uris);
             amazonTitleIndexStore.createOrUpdateIndex(indexEntry);
         }
@@ -492,7 +561,7 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
         while(allAmazonContent.hasNext()){
             allAmazonContentSize++;
             Content examinedContent = allAmazonContent.next();
-            if(!seenContent.containsKey(examinedContent.getCanonicalUri())){
+            if(!ingest.seenUris.contains(examinedContent.getCanonicalUri())){
                 notSeen.add(examinedContent);
             }
         }
@@ -510,7 +579,7 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
         }
 
         unpublishUnseenContent(telescope, notSeen);
-        unpublishParentlessChildren(telescope, episodesWithoutAvailableSeries);
+        unpublishParentlessChildren(telescope, ingest.episodesWithoutAvailableSeries);
     }
 
     /**
@@ -701,7 +770,7 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
             String brandUri = brand.getModel().getCanonicalUri();
             if (!seenContainer.containsKey(brandUri)) {
                 cached.put(brandUri, episode);
-                episodesWithoutAvailableSeries.add(episode);
+                ingest.episodesWithoutAvailableSeries.add(episode);
                 return;
             }
         }
@@ -711,7 +780,7 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
                            : null;
         if (seriesUri != null ) {
             if (!seenContainer.containsKey(seriesUri)) {
-                episodesWithoutAvailableSeries.add(episode);
+                ingest.episodesWithoutAvailableSeries.add(episode);
                 cached.put(seriesUri, episode);
                 return;
             }
@@ -762,4 +831,16 @@ public class AmazonContentWritingItemProcessor implements AmazonItemProcessor {
         }
         return true;
     }
+
+    /**
+     * What is kept of an ingest across its partitions.
+     */
+    private static class IngestState {
+
+        private final Set<String> seenUris = Sets.newConcurrentHashSet();
+        private final SetMultimap<String, String> titleIndex =
+                Multimaps.synchronizedSetMultimap(HashMultimap.<String, String>create());
+        private final Set<ModelWithPayload<Episode>> episodesWithoutAvailableSeries =
+                Collections.synchronizedSet(new HashSet<>());
+    }
 }
@@ -1,7 +1,9 @@
 package org.atlasapi.remotesite.amazon;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -35,12 +37,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 
 /**
- * TODO: This needs refactoring to avoid the building of the 
- *       entire resultset in memory. Would like to change to an Iterable, which
- *       will involve downloading the file first, then parsing the response.
- *       Otherwise we may timeout on http connections if the processing of the
- *       file takes a while
- *
+ * Downloads Amazon's catalogue, cleans invalid character references out of it and stores it as a
+ * temporary file. The file can then be streamed through an {@link AmazonProcessor} as many times
+ * as needed, so that callers never have to hold the whole catalogue in memory.
  */
 public class AmazonHttpFeedSupplier implements Supplier<ImmutableList<AmazonItem>> {
 
@@ -58,37 +57,60 @@ public class AmazonHttpFeedSupplier implements Supplier<ImmutableList<AmazonItem
     public AmazonHttpFeedSupplier(String uri) {
         this.uri = checkNotNull(uri);
     }
-    
+
+    /**
+     * Collects the whole catalogue into a list. Only suitable for small catalogues, the ingest
+     * task streams the {@link #download() downloaded} file instead.
+     */
     @Override
     public ImmutableList<AmazonItem> get() {
+        ItemCollatingAmazonProcessor processor = new ItemCollatingAmazonProcessor();
+        parse(download(), processor);
+        return processor.getResult();
+    }
+
+    /**
+     * Downloads the catalogue and stores it, cleaned of invalid xml, as a temporary file.
+     */
+    public File download() {
         HttpGet get = new HttpGet(uri);
-        final ItemCollatingAmazonProcessor processor = new ItemCollatingAmazonProcessor();
-        final AmazonContentHandler handler = new AmazonContentHandler(processor);
 
         try (
                 CloseableHttpClient client = HttpClients.createDefault();
                 CloseableHttpResponse response = client.execute(get)
         ) {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            final SAXParser saxParser = factory.newSAXParser();
-
             int statusCode = response.getStatusLine().getStatusCode();
             if (HttpStatusCode.OK.code() != statusCode) {
                 throw new RuntimeException("Response code " + statusCode + " returned from " + uri);
             }
 
-            ZipInputStream zis = new ZipInputStream(response.getEntity().getContent());
-            zis.getNextEntry();
+            try (ZipInputStream zis = new ZipInputStream(response.getEntity().getContent())) {
+                zis.getNextEntry();
+
+                //Read the file, remove invalid xml, and store it as a tmp file.
+                createTmpFileWithCleanXml(zis);
+            }
 
-            //Read the file, remove invalid xml, and store it as a tmp file.
-            createTmpFileWithCleanXml(zis);
+            return new File(TMP_FILENAME);
 
-            InputStream fis = new FileInputStream(TMP_FILENAME);
-            saxParser.parse(fis, handler);
-            zis.close();
+        } catch (IOException | ParserConfigurationException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-            return processor.getResult();
+    /**
+     * Streams every item in a downloaded catalogue through the given processor, stopping early
+     * if the processor returns {@code false}. Each call parses the file afresh, so this may be
+     * called concurrently.
+     */
+    public void parse(File catalogue, AmazonProcessor<?> processor) {
+        AmazonContentHandler handler = new AmazonContentHandler(processor);
 
+        try (InputStream fis = new BufferedInputStream(new FileInputStream(catalogue))) {
+            SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+            saxParser.parse(fis, handler);
+        } catch (AmazonContentHandler.ProcessingStoppedException e) {
+            log.info("Stopped parsing Amazon catalogue {} before the end", catalogue);
         } catch (IOException | ParserConfigurationException | SAXException e) {
             throw new RuntimeException(e);
         }
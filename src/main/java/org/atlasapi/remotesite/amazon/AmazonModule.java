@@ -1,6 +1,8 @@
 package org.atlasapi.remotesite.amazon;
 
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
+import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
 import com.metabroadcast.common.scheduling.RepetitionRules;
 import com.metabroadcast.common.scheduling.RepetitionRules.Daily;
 import com.metabroadcast.common.scheduling.SimpleScheduler;
@@ -13,6 +15,9 @@ import org.atlasapi.persistence.media.entity.ContentTranslator;
 import org.atlasapi.persistence.media.entity.DescribedTranslator;
 import org.atlasapi.remotesite.ContentExtractor;
 import org.atlasapi.remotesite.amazon.indexer.AmazonTitleIndexStore;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
+import org.atlasapi.remotesite.util.MongoContentFingerprintStore;
+import org.joda.time.Duration;
 import org.joda.time.LocalTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,9 +36,14 @@ public class AmazonModule {
     private @Autowired ContentLister contentLister;
     private @Autowired ContentResolver contentResolver;
     private @Autowired AmazonTitleIndexStore  amazonTitleIndexStore;
+    private @Autowired DatabasedMongo mongo;
 
     private @Value("${unbox.url}") String amazonUrl;
     private @Value("${unbox.missingContent.percentage}") Integer missingContentPercentage;
+    private @Value("${unbox.ingest.partitions}") Integer ingestPartitions;
+    private @Value("${unbox.ingest.parallelism}") Integer ingestParallelism;
+    private @Value("${ingest.fingerprints.enabled}") Boolean fingerprintsEnabled;
+    private @Value("${ingest.fingerprints.maxAgeDays}") Integer fingerprintMaxAgeDays;
 
     /**
      * These keys will be removed from the database if their values are empty during an ingest. Keys
@@ -60,7 +70,7 @@ public class AmazonModule {
         
         ContentExtractor<AmazonItem,Iterable<Content>> contentExtractor =
                 new AmazonContentExtractor();
-        AmazonItemProcessor processor = new AmazonContentWritingItemProcessor(
+        AmazonContentWritingItemProcessor processor = new AmazonContentWritingItemProcessor(
                 contentExtractor,
                 contentResolver,
                 contentWriter(),
@@ -70,7 +80,13 @@ public class AmazonModule {
                 amazonTitleIndexStore
         );
         
-        return new AmazonTask(preProcessor, processor, amazonFeedSupplier());
+        return new AmazonTask(
+                preProcessor,
+                processor,
+                amazonFeedSupplier(),
+                ingestPartitions,
+                ingestParallelism
+        );
     }
     
     @Bean
@@ -87,6 +103,16 @@ public class AmazonModule {
         else{
             tmpContentWriter = contentWriter;
         }
-        return new LastUpdatedSettingContentWriter(contentResolver, tmpContentWriter);
+        return new LastUpdatedSettingContentWriter(contentResolver, tmpContentWriter, contentChangeDetector());
+    }
+
+    private Optional<ContentChangeDetector> contentChangeDetector() {
+        if (!fingerprintsEnabled) {
+            return Optional.absent();
+        }
+        return Optional.of(ContentChangeDetector.create(
+                new MongoContentFingerprintStore(mongo),
+                Duration.standardDays(fingerprintMaxAgeDays)
+        ));
     }
 }
@@ -2,90 +2,162 @@ package org.atlasapi.remotesite.amazon;
 
 import java.util.Map;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Iterables;
+import com.google.common.base.Charsets;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporter;
 
+import static org.atlasapi.remotesite.amazon.AmazonContentExtractor.URI_PREFIX;
 
+/**
+ * Works out the {@link BrandType} of each brand from the shape of the hierarchy below it.
+ * <p>
+ * Deciding the type only needs to know whether a brand or series has a single child, which
+ * child that is and whether their titles match, so rather than keeping every child and title
+ * this keeps a child count, the first child and a 64-bit title fingerprint, all keyed by ASIN.
+ * Only the types themselves are retained once the pass has finished.
+ */
 public class AmazonPreProcessingItemProcessor
         implements AmazonItemProcessor, AmazonBrandProcessor {
 
-    private final Map<String, String> contentUriToTitleMap = Maps.newHashMap();
-    private final Multimap<String, String> brandUriToSeriesUrisMap = ArrayListMultimap.create();
-    private final Multimap<String, String> seriesUriToEpisodeUrisMap = ArrayListMultimap.create();
-    private final Map<String, BrandType> brandUriToTypeMap = Maps.newHashMap();
-    
+    private static final HashFunction TITLE_FINGERPRINT = Hashing.murmur3_128();
+    private static final long NO_TITLE = 0L;
+
+    private final Object2LongOpenHashMap<String> asinToTitleFingerprint =
+            new Object2LongOpenHashMap<>();
+    private final Object2IntOpenHashMap<String> brandAsinToChildCount =
+            new Object2IntOpenHashMap<>();
+    private final Object2ObjectOpenHashMap<String, String> brandAsinToFirstChild =
+            new Object2ObjectOpenHashMap<>();
+    private final Object2IntOpenHashMap<String> seriesAsinToChildCount =
+            new Object2IntOpenHashMap<>();
+    private final Object2ObjectOpenHashMap<String, String> seriesAsinToFirstChild =
+            new Object2ObjectOpenHashMap<>();
+    private final Map<String, BrandType> brandAsinToTypeMap = Maps.newHashMap();
+
     @Override
     public void prepare(OwlTelescopeReporter telescope) {
-        contentUriToTitleMap.clear();
-        brandUriToSeriesUrisMap.clear();
-        seriesUriToEpisodeUrisMap.clear();
-        brandUriToTypeMap.clear();
+        clearHierarchy();
+        brandAsinToTypeMap.clear();
     }
-    
+
     @Override
     public void process(AmazonItem item) {
         if (AmazonItem.isBrand(item)) {
-            String uri = AmazonContentExtractor.createBrandUri(item.getAsin());
-            contentUriToTitleMap.put(uri, item.getTitle());
+            putTitle(item.getAsin(), item.getTitle());
         }
         if (AmazonItem.isSeries(item)) {
-            String uri = AmazonContentExtractor.createSeriesUri(item.getAsin());
             if (item.getSeriesAsin() != null) {
-                String brandUri = AmazonContentExtractor.createBrandUri(item.getAsin());
-                brandUriToSeriesUrisMap.put(brandUri, uri);
+                addChild(
+                        brandAsinToChildCount,
+                        brandAsinToFirstChild,
+                        item.getAsin(),
+                        item.getAsin()
+                );
             }
-            contentUriToTitleMap.put(uri, item.getTitle());
+            putTitle(item.getAsin(), item.getTitle());
         }
         if (AmazonItem.isEpisode(item)) {
-            String uri = AmazonContentExtractor.createEpisodeUri(item.getAsin());
             if (item.getSeasonAsin() != null) {
-                String seriesUri = AmazonContentExtractor.createSeriesUri(item.getSeasonAsin());
-                seriesUriToEpisodeUrisMap.put(seriesUri, uri);
+                addChild(
+                        seriesAsinToChildCount,
+                        seriesAsinToFirstChild,
+                        item.getSeasonAsin(),
+                        item.getAsin()
+                );
             }
             if (item.getSeriesAsin() != null) {
-                String brandUri = AmazonContentExtractor.createBrandUri(item.getAsin());
-                brandUriToSeriesUrisMap.put(brandUri, uri);
+                addChild(
+                        brandAsinToChildCount,
+                        brandAsinToFirstChild,
+                        item.getAsin(),
+                        item.getAsin()
+                );
             }
-            contentUriToTitleMap.put(uri, item.getTitle());
+            putTitle(item.getAsin(), item.getTitle());
+        }
+    }
+
+    private void putTitle(String asin, String title) {
+        asinToTitleFingerprint.put(asin, fingerprint(title));
+    }
+
+    private long fingerprint(String title) {
+        if (title == null) {
+            return NO_TITLE;
         }
+        return TITLE_FINGERPRINT.hashString(title, Charsets.UTF_8).asLong();
+    }
+
+    private void addChild(
+            Object2IntOpenHashMap<String> childCounts,
+            Object2ObjectOpenHashMap<String, String> firstChildren,
+            String parent,
+            String child
+    ) {
+        int count = childCounts.getInt(parent);
+        if (count == 0) {
+            firstChildren.put(parent, child);
+        }
+        childCounts.put(parent, count + 1);
     }
 
     @Override
     public void finish() {
-        for (String brand : brandUriToSeriesUrisMap.keySet()) {
-            if (brandUriToSeriesUrisMap.get(brand).size() == 1) {
-                String series = Iterables.getOnlyElement(brandUriToSeriesUrisMap.get(brand));
-                if (seriesUriToEpisodeUrisMap.get(series).size() == 1) {
-                    String episode = Iterables.getOnlyElement(seriesUriToEpisodeUrisMap.get(series));
-                    if (contentUriToTitleMap.get(brand).equals(contentUriToTitleMap.get(series))) {
-                        if (contentUriToTitleMap.get(brand).equals(
-                                contentUriToTitleMap.get(episode)
-                        )) {
-                            brandUriToTypeMap.put(brand, BrandType.STAND_ALONE_EPISODE);
+        for (String brand : brandAsinToChildCount.keySet()) {
+            if (brandAsinToChildCount.getInt(brand) == 1) {
+                String series = brandAsinToFirstChild.get(brand);
+                if (seriesAsinToChildCount.getInt(series) == 1) {
+                    String episode = seriesAsinToFirstChild.get(series);
+                    if (sameTitle(brand, series)) {
+                        if (sameTitle(brand, episode)) {
+                            brandAsinToTypeMap.put(brand, BrandType.STAND_ALONE_EPISODE);
                         } else {
-                            brandUriToTypeMap.put(brand, BrandType.TOP_LEVEL_SERIES);
+                            brandAsinToTypeMap.put(brand, BrandType.TOP_LEVEL_SERIES);
                         }
                     } else {
-                        brandUriToTypeMap.put(brand, BrandType.BRAND_SERIES_EPISODE);
+                        brandAsinToTypeMap.put(brand, BrandType.BRAND_SERIES_EPISODE);
                     }
                 } else {
-                    if (contentUriToTitleMap.get(brand).equals(contentUriToTitleMap.get(series))) {
-                        brandUriToTypeMap.put(brand, BrandType.TOP_LEVEL_SERIES);
+                    if (sameTitle(brand, series)) {
+                        brandAsinToTypeMap.put(brand, BrandType.TOP_LEVEL_SERIES);
                     } else {
-                        brandUriToTypeMap.put(brand, BrandType.BRAND_SERIES_EPISODE);
+                        brandAsinToTypeMap.put(brand, BrandType.BRAND_SERIES_EPISODE);
                     }
                 }
             } else {
-                brandUriToTypeMap.put(brand, BrandType.BRAND_SERIES_EPISODE);
+                brandAsinToTypeMap.put(brand, BrandType.BRAND_SERIES_EPISODE);
             }
         }
+        clearHierarchy();
+    }
+
+    private boolean sameTitle(String asin, String otherAsin) {
+        return asinToTitleFingerprint.getLong(asin) == asinToTitleFingerprint.getLong(otherAsin);
+    }
+
+    private void clearHierarchy() {
+        asinToTitleFingerprint.clear();
+        asinToTitleFingerprint.trim();
+        brandAsinToChildCount.clear();
+        brandAsinToChildCount.trim();
+        brandAsinToFirstChild.clear();
+        brandAsinToFirstChild.trim();
+        seriesAsinToChildCount.clear();
+        seriesAsinToChildCount.trim();
+        seriesAsinToFirstChild.clear();
+        seriesAsinToFirstChild.trim();
     }
 
     @Override
     public BrandType getBrandType(String uri) {
-        return brandUriToTypeMap.get(uri);
+        if (!uri.startsWith(URI_PREFIX)) {
+            return null;
+        }
+        return brandAsinToTypeMap.get(uri.substring(URI_PREFIX.length()));
     }
 }
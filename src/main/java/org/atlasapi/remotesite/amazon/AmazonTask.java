@@ -1,8 +1,13 @@
 package org.atlasapi.remotesite.amazon;
 
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
 
 import org.atlasapi.reporting.telescope.OwlTelescopeReporter;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporterFactory;
@@ -13,30 +18,47 @@ import com.metabroadcast.common.scheduling.ScheduledTask;
 import com.metabroadcast.common.scheduling.UpdateProgress;
 
 import com.google.common.base.Throwables;
-import com.google.common.collect.ImmutableList;
-import org.apache.http.HttpStatus;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
-
+/**
+ * Ingests the Amazon catalogue in two passes, each streamed from the downloaded file. The
+ * writing pass is split into brand partitions, each of which streams the file again and keeps
+ * only its own items, and up to {@code parallelism} partitions are written at once.
+ * <p>
+ * If the task is stopped before every partition has been fully written the writing processor
+ * is not finished, since unpublishing content not seen in a partial ingest would remove
+ * everything in the partitions that were skipped.
+ */
 public class AmazonTask extends ScheduledTask {
 
     private final Logger log = LoggerFactory.getLogger(AmazonTask.class);
     
     private final AmazonItemProcessor itemPreProcessor;
-    private final AmazonItemProcessor itemProcessor;
+    private final AmazonContentWritingItemProcessor itemProcessor;
     private final AmazonHttpFeedSupplier feedSupplier;
+    private final int partitions;
+    private final int parallelism;
     
     public AmazonTask(
             AmazonItemProcessor preHandler,
-            AmazonItemProcessor handler,
-            AmazonHttpFeedSupplier feedSupplier
+            AmazonContentWritingItemProcessor handler,
+            AmazonHttpFeedSupplier feedSupplier,
+            int partitions,
+            int parallelism
     ) {
+        checkArgument(partitions > 0, "partitions must be positive");
+        checkArgument(parallelism > 0, "parallelism must be positive");
         this.itemPreProcessor = checkNotNull(preHandler);
         this.itemProcessor = checkNotNull(handler);
         this.feedSupplier = checkNotNull(feedSupplier);
+        this.partitions = partitions;
+        this.parallelism = parallelism;
     }
 
     @Override
@@ -50,24 +72,27 @@ public class AmazonTask extends ScheduledTask {
         telescope.startReporting();
 
         try  {
+            File catalogue = feedSupplier.download();
+
             itemPreProcessor.prepare(telescope);
-            AmazonProcessor<UpdateProgress> processor = processor(itemPreProcessor, telescope);
-            ImmutableList<AmazonItem> items = feedSupplier.get();
-            for (AmazonItem item : items) {
-                processor.process(item);
-            }
+            AmazonProcessor<UpdateProgress> processor =
+                    processor(itemPreProcessor, item -> true, telescope);
+            feedSupplier.parse(catalogue, processor);
             itemPreProcessor.finish();
             
             reportStatus("Preprocessor: " + processor.getResult().toString());
 
             itemProcessor.prepare(telescope);
-            processor = processor(itemProcessor, telescope);
-            for (AmazonItem item : items) {
-                processor.process(item);
+            AtomicBoolean incomplete = new AtomicBoolean(false);
+            UpdateProgress progress = writePartitions(catalogue, incomplete, telescope);
+            if (incomplete.get()) {
+                log.warn("Amazon ingest stopped before all partitions were written, "
+                        + "not checking for deleted content");
+                reportStatus("Stopped before all partitions were written: " + progress.toString());
+            } else {
+                itemProcessor.finish();
+                reportStatus(progress.toString());
             }
-            itemProcessor.finish();
-
-            reportStatus(processor.getResult().toString());
 
             // Dont put this into a finally since we dont want to end reporting when something major
             // happens. This will help alert us.
@@ -83,8 +108,63 @@ public class AmazonTask extends ScheduledTask {
         telescope.endReporting();
     }
 
+    private UpdateProgress writePartitions(
+            File catalogue,
+            AtomicBoolean incomplete,
+            OwlTelescopeReporter telescope
+    ) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(parallelism, partitions),
+                new ThreadFactoryBuilder().setNameFormat("amazon-partition-%d").build()
+        );
+        try {
+            List<Future<UpdateProgress>> results = Lists.newArrayList();
+            for (int partition = 0; partition < partitions; partition++) {
+                int index = partition;
+                results.add(executor.submit(() -> writePartition(catalogue, index, incomplete, telescope)));
+            }
+
+            UpdateProgress progress = UpdateProgress.START;
+            for (Future<UpdateProgress> result : results) {
+                progress = progress.reduce(result.get());
+            }
+            return progress;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private UpdateProgress writePartition(
+            File catalogue,
+            int partition,
+            AtomicBoolean incomplete,
+            OwlTelescopeReporter telescope
+    ) {
+        if (!shouldContinue()) {
+            incomplete.set(true);
+            return UpdateProgress.START;
+        }
+        AmazonItemProcessor partitionProcessor = itemProcessor.forPartition();
+        partitionProcessor.prepare(telescope);
+        AmazonProcessor<UpdateProgress> processor = processor(
+                partitionProcessor,
+                item -> AmazonContentWritingItemProcessor.partitionOf(item, partitions) == partition,
+                telescope
+        );
+        feedSupplier.parse(catalogue, processor);
+        partitionProcessor.finish();
+        if (!shouldContinue()) {
+            // the parse may have stopped before reaching the end of the file
+            incomplete.set(true);
+        }
+
+        log.info("Amazon partition {} of {}: {}", partition + 1, partitions, processor.getResult());
+        return processor.getResult();
+    }
+
     private AmazonProcessor<UpdateProgress> processor(
             final AmazonItemProcessor handler,
+            final Predicate<AmazonItem> filter,
             OwlTelescopeReporter telescope) {
         return new AmazonProcessor<UpdateProgress>() {
 
@@ -92,13 +172,16 @@ public class AmazonTask extends ScheduledTask {
 
             @Override
             public boolean process(AmazonItem amazonItem) {
+                if (!filter.test(amazonItem)) {
+                    return shouldContinue();
+                }
                 try {
                     handler.process(amazonItem);
-                    progress.reduce(UpdateProgress.SUCCESS);
+                    progress = progress.reduce(UpdateProgress.SUCCESS);
                 } catch (Exception e) {
                     telescope.reportFailedEvent("Unable to process item. (" + e.getMessage() + ")", amazonItem);
                     log.error("Error processing: " + amazonItem.toString(), e);
-                    progress.reduce(UpdateProgress.FAILURE);
+                    progress = progress.reduce(UpdateProgress.FAILURE);
                 }
                 return shouldContinue();
             }
@@ -18,6 +18,7 @@ import org.atlasapi.media.entity.Restriction;
 import org.atlasapi.media.entity.Version;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ContentWriter;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
 
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.time.Clock;
@@ -52,11 +53,23 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
     private final ContentResolver resolver;
     private final ContentWriter writer;
     private final Clock clock;
+    private final Optional<ContentChangeDetector> changeDetector;
 
-    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock) {
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer,
+            Clock clock, Optional<ContentChangeDetector> changeDetector) {
         this.resolver = checkNotNull(resolver);
         this.writer = checkNotNull(writer);
         this.clock = checkNotNull(clock);
+        this.changeDetector = checkNotNull(changeDetector);
+    }
+
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock) {
+        this(resolver, writer, clock, Optional.<ContentChangeDetector>absent());
+    }
+
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer,
+            Optional<ContentChangeDetector> changeDetector) {
+        this(resolver, writer, new SystemClock(), changeDetector);
     }
 
     public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer) {
@@ -65,6 +78,11 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
 
     @Override
     public Item createOrUpdate(Item item) {
+        Optional<String> fingerprint = changeDetector.transform(detector -> detector.fingerprint(item));
+        if (fingerprint.isPresent() && changeDetector.get().isUnchanged(item, fingerprint.get())) {
+            return item;
+        }
+
         Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(item.getCanonicalUri())).get(item.getCanonicalUri());
 
         DateTime now = clock.now();
@@ -85,11 +103,20 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
             setUpdatedClips(Lists.<Clip>newArrayList(), item.getClips(), now);
         }
 
-        return writer.createOrUpdate(item);
+        Item written = writer.createOrUpdate(item);
+        if (fingerprint.isPresent()) {
+            changeDetector.get().recordWritten(written, fingerprint.get());
+        }
+        return written;
     }
 
     @Override
     public void createOrUpdate(Container container) {
+        Optional<String> fingerprint = changeDetector.transform(detector -> detector.fingerprint(container));
+        if (fingerprint.isPresent() && changeDetector.get().isUnchanged(container, fingerprint.get())) {
+            return;
+        }
+
         Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(container.getCanonicalUri())).get(container.getCanonicalUri());
 
         //convert nulls to empty string. This is because our DB classes will ignore nulls and
@@ -113,6 +140,9 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
         }
 
         writer.createOrUpdate(container);
+        if (fingerprint.isPresent()) {
+            changeDetector.get().recordWritten(container, fingerprint.get());
+        }
     }
 
     private void setUpdatedClips(List<Clip> clips, List<Clip> prevClips, DateTime now) {
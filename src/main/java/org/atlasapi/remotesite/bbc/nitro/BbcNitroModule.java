@@ -22,6 +22,8 @@ import org.atlasapi.remotesite.bbc.ion.BbcIonServices;
 import org.atlasapi.remotesite.bbc.nitro.channels.ChannelIngestTask;
 import org.atlasapi.remotesite.bbc.nitro.channels.NitroChannelHydrator;
 import org.atlasapi.remotesite.channel4.pmlsd.epg.ScheduleResolverBroadcastTrimmer;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
+import org.atlasapi.remotesite.util.MongoContentFingerprintStore;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporters;
 import org.atlasapi.util.GroupLock;
 
@@ -30,6 +32,7 @@ import com.metabroadcast.atlas.glycerin.XmlGlycerin;
 import com.metabroadcast.atlas.glycerin.XmlGlycerin.Builder;
 import com.metabroadcast.columbus.telescope.client.TelescopeReporterName;
 import com.metabroadcast.common.base.Maybe;
+import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
 import com.metabroadcast.common.scheduling.RepetitionRules;
 import com.metabroadcast.common.scheduling.ScheduledTask;
 import com.metabroadcast.common.scheduling.SimpleScheduler;
@@ -74,6 +77,8 @@ public class BbcNitroModule {
     private @Value("${bbc.nitro.threadCount.aroundtoday}") Integer nitroAroundTodayThreadCount;
     private @Value("${bbc.nitro.requestPageSize}") Integer nitroRequestPageSize;
     private @Value("${bbc.nitro.jobFailureThresholdPercent}") Integer jobFailureThresholdPercent;
+    private @Value("${ingest.fingerprints.enabled}") Boolean fingerprintsEnabled;
+    private @Value("${ingest.fingerprints.maxAgeDays}") Integer fingerprintMaxAgeDays;
 
     private @Autowired SimpleScheduler scheduler;
     private @Autowired ContentWriter contentWriter;
@@ -83,6 +88,7 @@ public class BbcNitroModule {
     private @Autowired ChannelResolver channelResolver;
     private @Autowired ChannelWriter channelWriter;
     private @Autowired QueuingPersonWriter peopleWriter;
+    private @Autowired DatabasedMongo mongo;
 
     private final ThreadFactory nitroThreadFactory
         = new ThreadFactoryBuilder().setNameFormat("nitro %s").build();
@@ -209,7 +215,17 @@ public class BbcNitroModule {
     }
 
     public ContentWriter contentWriter() {
-        return new LastUpdatedSettingContentWriter(contentResolver, contentWriter);
+        return new LastUpdatedSettingContentWriter(contentResolver, contentWriter, contentChangeDetector());
+    }
+
+    private Optional<ContentChangeDetector> contentChangeDetector() {
+        if (!fingerprintsEnabled) {
+            return Optional.absent();
+        }
+        return Optional.of(ContentChangeDetector.create(
+                new MongoContentFingerprintStore(mongo),
+                Duration.standardDays(fingerprintMaxAgeDays)
+        ));
     }
 
     @Bean
@@ -127,7 +127,11 @@ public final class ChannelDayProcessingTask extends ScheduledTask {
         waitForFinish(results.build());
 
         if (listener != null) {
-            listener.completed(progress.get());
+            try {
+                listener.completed(progress.get());
+            } catch (RuntimeException e) {
+                log.error("Listener failed on completion of {}", getName(), e);
+            }
         }
 
         owlReporter.getTelescopeReporter().endReporting();
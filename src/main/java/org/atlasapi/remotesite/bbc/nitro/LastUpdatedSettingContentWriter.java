@@ -19,6 +19,7 @@ import org.atlasapi.media.entity.Restriction;
 import org.atlasapi.media.entity.Version;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ContentWriter;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
 
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.time.Clock;
@@ -53,11 +54,23 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
     private final ContentResolver resolver;
     private final ContentWriter writer;
     private final Clock clock;
+    private final Optional<ContentChangeDetector> changeDetector;
 
-    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock) {
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer,
+            Clock clock, Optional<ContentChangeDetector> changeDetector) {
         this.resolver = checkNotNull(resolver);
         this.writer = checkNotNull(writer);
         this.clock = checkNotNull(clock);
+        this.changeDetector = checkNotNull(changeDetector);
+    }
+
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock) {
+        this(resolver, writer, clock, Optional.<ContentChangeDetector>absent());
+    }
+
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer,
+            Optional<ContentChangeDetector> changeDetector) {
+        this(resolver, writer, new SystemClock(), changeDetector);
     }
 
     public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer) {
@@ -66,6 +79,11 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
 
     @Override
     public Item createOrUpdate(Item item) {
+        Optional<String> fingerprint = changeDetector.transform(detector -> detector.fingerprint(item));
+        if (fingerprint.isPresent() && changeDetector.get().isUnchanged(item, fingerprint.get())) {
+            return item;
+        }
+
         Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(item.getCanonicalUri())).get(item.getCanonicalUri());
 
         DateTime now = clock.now();
@@ -85,7 +103,11 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
             setUpdatedClips(Lists.<Clip>newArrayList(), item.getClips(), now);
         }
 
-        return writer.createOrUpdate(item);
+        Item written = writer.createOrUpdate(item);
+        if (fingerprint.isPresent()) {
+            changeDetector.get().recordWritten(written, fingerprint.get());
+        }
+        return written;
     }
 
     private void setUpdatedClips(List<Clip> clips, List<Clip> prevClips, DateTime now) {
@@ -386,6 +408,11 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
 
     @Override
     public void createOrUpdate(Container container) {
+        Optional<String> fingerprint = changeDetector.transform(detector -> detector.fingerprint(container));
+        if (fingerprint.isPresent() && changeDetector.get().isUnchanged(container, fingerprint.get())) {
+            return;
+        }
+
         Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(container.getCanonicalUri())).get(container.getCanonicalUri());
 
         if(previously.hasValue() && previously.requireValue() instanceof Container) {
@@ -402,6 +429,9 @@ public class LastUpdatedSettingContentWriter implements ContentWriter {
         }
 
         writer.createOrUpdate(container);
+        if (fingerprint.isPresent()) {
+            changeDetector.get().recordWritten(container, fingerprint.get());
+        }
     }
 
     private boolean equal(Image image, Image prevImage) {
@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableMap;
 import com.metabroadcast.columbus.telescope.api.Event;
 import com.metabroadcast.common.http.SimpleHttpClient;
 import com.metabroadcast.common.http.SimpleHttpClientBuilder;
+import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
 import com.metabroadcast.common.scheduling.RepetitionRule;
 import com.metabroadcast.common.scheduling.RepetitionRules;
 import com.metabroadcast.common.scheduling.SimpleScheduler;
@@ -26,6 +27,8 @@ import org.atlasapi.remotesite.channel4.pmlsd.epg.C4EpgClient;
 import org.atlasapi.remotesite.channel4.pmlsd.epg.C4EpgEntryUriExtractor;
 import org.atlasapi.remotesite.channel4.pmlsd.epg.C4EpgUpdater;
 import org.atlasapi.remotesite.channel4.pmlsd.epg.ScheduleResolverBroadcastTrimmer;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
+import org.atlasapi.remotesite.util.MongoContentFingerprintStore;
 import org.atlasapi.reporting.OwlReporter;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporterFactory;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporters;
@@ -66,6 +69,7 @@ public class C4PmlsdModule {
 	private @Autowired ScheduleResolver scheduleResolver;
 	private @Autowired ScheduleWriter scheduleWriter;
 	private @Autowired ChannelResolver channelResolver;
+	private @Autowired DatabasedMongo mongo;
 	
 	private @Value("${updaters.c4pmlsd.enabled}") Boolean tasksEnabled;
 	private @Value("${c4.keystore.path}") String keyStorePath;
@@ -81,6 +85,9 @@ public class C4PmlsdModule {
     private @Value("${c4.pirate.url}") String c4PirateUrl;
     private @Value("${c4.pirate.username}") String c4PirateUser;
     private @Value("${c4.pirate.password}") String c4PiratePass;
+
+    private @Value("${ingest.fingerprints.enabled}") Boolean fingerprintsEnabled;
+    private @Value("${ingest.fingerprints.maxAgeDays}") Integer fingerprintMaxAgeDays;
 	
 	public static Map<Publisher, String> PUBLISHER_TO_CANONICAL_URI_HOST_MAP 
 	    = ImmutableMap.of(Publisher.C4_PMLSD, "pmlsc.channel4.com",
@@ -257,7 +264,17 @@ public class C4PmlsdModule {
 	}
 	
     private LastUpdatedSettingContentWriter pmlsdLastUpdatedSettingContentWriter(OwlReporter owlReporter) {
-        return new LastUpdatedSettingContentWriter(contentResolver, new LastUpdatedCheckingContentWriter(contentWriter), owlReporter);
+        return new LastUpdatedSettingContentWriter(contentResolver, new LastUpdatedCheckingContentWriter(contentWriter), owlReporter, contentChangeDetector());
+    }
+
+    private com.google.common.base.Optional<ContentChangeDetector> contentChangeDetector() {
+        if (!fingerprintsEnabled) {
+            return com.google.common.base.Optional.absent();
+        }
+        return com.google.common.base.Optional.of(ContentChangeDetector.create(
+                new MongoContentFingerprintStore(mongo),
+                Duration.standardDays(fingerprintMaxAgeDays)
+        ));
     }
     
     @Bean protected C4LocationPolicyIds c4PCLocationPolicyIds() {
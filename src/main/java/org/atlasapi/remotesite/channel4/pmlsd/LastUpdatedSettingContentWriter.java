@@ -8,6 +8,7 @@ import javax.annotation.Nullable;
 import org.atlasapi.media.entity.Brand;
 import org.atlasapi.media.entity.Broadcast;
 import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Encoding;
 import org.atlasapi.media.entity.Episode;
 import org.atlasapi.media.entity.Identified;
@@ -19,6 +20,7 @@ import org.atlasapi.media.entity.Version;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ContentWriter;
 import org.atlasapi.remotesite.channel4.pmlsd.epg.model.C4EpgEntry;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
 import org.atlasapi.reporting.OwlReporter;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporterFactory;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporters;
@@ -34,6 +36,7 @@ import com.metabroadcast.status.api.NewAlert;
 import com.google.api.client.repackaged.com.google.common.base.Strings;
 import com.google.common.base.Function;
 import com.google.common.base.Objects;
+import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -53,14 +56,26 @@ public class LastUpdatedSettingContentWriter implements C4ContentWriter {
     private final ContentWriter writer;
     private final Clock clock;
     private final OwlReporter owlReporter;
+    private final Optional<ContentChangeDetector> changeDetector;
 
-    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock, OwlReporter owlReporter) {
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock, OwlReporter owlReporter,
+            Optional<ContentChangeDetector> changeDetector) {
         this.resolver = resolver;
         this.writer = writer;
         this.clock = clock;
         this.owlReporter = owlReporter;
+        this.changeDetector = changeDetector;
+    }
+
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, Clock clock, OwlReporter owlReporter) {
+        this(resolver, writer, clock, owlReporter, Optional.<ContentChangeDetector>absent());
     }
     
+    public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, OwlReporter owlReporter,
+            Optional<ContentChangeDetector> changeDetector) {
+        this(resolver, writer, new SystemClock(), owlReporter, changeDetector);
+    }
+
     public LastUpdatedSettingContentWriter(ContentResolver resolver, ContentWriter writer, OwlReporter owlReporter) {
         this(resolver, writer, new SystemClock(), owlReporter);
     }
@@ -68,26 +83,20 @@ public class LastUpdatedSettingContentWriter implements C4ContentWriter {
     @Override
     public Item createOrUpdate(Item item, @Nullable Object entry) {
 
-        Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(item.getCanonicalUri())).get(item.getCanonicalUri());
+        Optional<String> fingerprint = fingerprint(item);
+        boolean unchanged = fingerprint.isPresent() && changeDetector.get().isUnchanged(item, fingerprint.get());
 
-        DateTime now = clock.now();
-        if(previously.hasValue() && previously.requireValue() instanceof Item) {
-            Item prevItem = (Item) previously.requireValue();
-            if(!equal(prevItem, item)){
-                item.setLastUpdated(now);
-            }
-            setUpdatedVersions(prevItem.getVersions(), item.getVersions(), now);
-        }
-        else {
-            setUpdatedVersions(Sets.<Version>newHashSet(), item.getVersions(), now);
-        }
-
-        if(item.getLastUpdated() == null  || previously.isNothing()) {
-            item.setLastUpdated(clock.now());
+        if (!unchanged) {
+            setLastUpdated(item);
         }
 
         try {
-            item = writer.createOrUpdate(item); // do this first, as we need the ID for new content
+            if (!unchanged) {
+                item = writer.createOrUpdate(item); // do this first, as we need the ID for new content
+                if (fingerprint.isPresent()) {
+                    changeDetector.get().recordWritten(item, fingerprint.get());
+                }
+            }
 
             owlReporter.getTelescopeReporter().reportSuccessfulEvent(
                     item.getId(),
@@ -180,6 +189,33 @@ public class LastUpdatedSettingContentWriter implements C4ContentWriter {
         return item;
     }
 
+    private Optional<String> fingerprint(Content content) {
+        if (!changeDetector.isPresent()) {
+            return Optional.absent();
+        }
+        return Optional.of(changeDetector.get().fingerprint(content));
+    }
+
+    private void setLastUpdated(Item item) {
+        Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(item.getCanonicalUri())).get(item.getCanonicalUri());
+
+        DateTime now = clock.now();
+        if(previously.hasValue() && previously.requireValue() instanceof Item) {
+            Item prevItem = (Item) previously.requireValue();
+            if(!equal(prevItem, item)){
+                item.setLastUpdated(now);
+            }
+            setUpdatedVersions(prevItem.getVersions(), item.getVersions(), now);
+        }
+        else {
+            setUpdatedVersions(Sets.<Version>newHashSet(), item.getVersions(), now);
+        }
+
+        if(item.getLastUpdated() == null  || previously.isNothing()) {
+            item.setLastUpdated(clock.now());
+        }
+    }
+
     private void setUpdatedVersions(Set<Version> prevVersions, Set<Version> versions, DateTime now) {
         
         Map<String, Broadcast> prevBroadcasts = previousBroadcasts(prevVersions);
@@ -260,23 +296,20 @@ public class LastUpdatedSettingContentWriter implements C4ContentWriter {
     @Override
     public void createOrUpdate(Container container, @Nullable Object entry) {
 
-        Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(container.getCanonicalUri())).get(container.getCanonicalUri());
-        
-        if(previously.hasValue() && previously.requireValue() instanceof Container) {
-            Container prevContainer = (Container) previously.requireValue();
-            if(!equal(prevContainer, container)) {
-                container.setLastUpdated(clock.now());
-                container.setThisOrChildLastUpdated(clock.now());
-            }
-        }
-        
-        if(container.getLastUpdated() == null || previously.isNothing()) {
-            container.setLastUpdated(clock.now());
-            container.setThisOrChildLastUpdated(clock.now());
+        Optional<String> fingerprint = fingerprint(container);
+        boolean unchanged = fingerprint.isPresent() && changeDetector.get().isUnchanged(container, fingerprint.get());
+
+        if (!unchanged) {
+            setLastUpdated(container);
         }
 
         try {
-            writer.createOrUpdate(container);
+            if (!unchanged) {
+                writer.createOrUpdate(container);
+                if (fingerprint.isPresent()) {
+                    changeDetector.get().recordWritten(container, fingerprint.get());
+                }
+            }
 
             owlReporter.getTelescopeReporter().reportSuccessfulEvent(
                     container.getId(),
@@ -368,6 +401,23 @@ public class LastUpdatedSettingContentWriter implements C4ContentWriter {
         }
     }
 
+    private void setLastUpdated(Container container) {
+        Maybe<Identified> previously = resolver.findByCanonicalUris(ImmutableList.of(container.getCanonicalUri())).get(container.getCanonicalUri());
+        
+        if(previously.hasValue() && previously.requireValue() instanceof Container) {
+            Container prevContainer = (Container) previously.requireValue();
+            if(!equal(prevContainer, container)) {
+                container.setLastUpdated(clock.now());
+                container.setThisOrChildLastUpdated(clock.now());
+            }
+        }
+        
+        if(container.getLastUpdated() == null || previously.isNothing()) {
+            container.setLastUpdated(clock.now());
+            container.setThisOrChildLastUpdated(clock.now());
+        }
+    }
+
     private boolean equal(Container prevContainer, Container container) {
         return Objects.equal(prevContainer.getAliasUrls(), container.getAliasUrls())
             && Objects.equal(prevContainer.getTitle(), container.getTitle())
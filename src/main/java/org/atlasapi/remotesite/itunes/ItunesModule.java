@@ -38,6 +38,7 @@ public class ItunesModule {
     private @Value("${itunes.epf.password}") String epfPassword;
     private @Value("${itunes.epf.feedPath}") String feedPath;
     private @Value("${itunes.epf.localFilesPath}") String localFilesPath;
+    private @Value("${itunes.epf.parallelism}") Integer epfParallelism;
     private @Value("${itunes.s3.bucket}") String s3bucket;
     private @Value("${s3.access}") String s3access;
     private @Value("${s3.secret}") String s3secret;
@@ -67,7 +68,8 @@ public class ItunesModule {
                             new LatestEpfDataSetSupplier(new File(localFilesPath)),
                             contentDeactivator(),
                             contentWriter,
-                            log
+                            log,
+                            epfParallelism
                     ).withName("iTunes EPF Updater"),
                     ITUNES_EPF_UPDATER
             );
@@ -4,7 +4,6 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.File;
-import java.io.Reader;
 import java.util.Locale;
 
 import org.atlasapi.remotesite.itunes.epf.model.EpfArtist;
@@ -15,9 +14,6 @@ import org.atlasapi.remotesite.itunes.epf.model.EpfPricing;
 import org.atlasapi.remotesite.itunes.epf.model.EpfStorefront;
 import org.atlasapi.remotesite.itunes.epf.model.EpfVideo;
 
-import com.google.common.base.Charsets;
-import com.google.common.io.Files;
-import com.google.common.io.InputSupplier;
 import com.metabroadcast.common.intl.Country;
 
 public class EpfDataSet {
@@ -32,34 +28,34 @@ public class EpfDataSet {
     }
 
     public EpfTable<EpfArtist> getArtistTable() {
-        return new EpfTable<EpfArtist>(readerSupplierFor("artist"), EpfArtist.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("artist"), EpfArtist.FROM_ROW_PARTS);
     }
     
     public EpfTable<EpfArtistCollection> getArtistCollectionTable() {
-        return new EpfTable<EpfArtistCollection>(readerSupplierFor("artist_collection"), EpfArtistCollection.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("artist_collection"), EpfArtistCollection.FROM_ROW_PARTS);
     }
     
     public EpfTable<EpfCollection> getCollectionTable() {
-        return new EpfTable<EpfCollection>(readerSupplierFor("collection"), EpfCollection.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("collection"), EpfCollection.FROM_ROW_PARTS);
     }
     
     public EpfTable<EpfCollectionVideo> getCollectionVideoTable() {
-        return new EpfTable<EpfCollectionVideo>(readerSupplierFor("collection_video"), EpfCollectionVideo.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("collection_video"), EpfCollectionVideo.FROM_ROW_PARTS);
     }
     
     public EpfTable<EpfVideo> getVideoTable() {
-        return new EpfTable<EpfVideo>(readerSupplierFor("video"), EpfVideo.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("video"), EpfVideo.FROM_ROW_PARTS);
     }
     
     public EpfTable<EpfPricing> getPricingTable() {
-        return new EpfTable<EpfPricing>(readerSupplierFor("video_price"), EpfPricing.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("video_price"), EpfPricing.FROM_ROW_PARTS);
     }
 
     public EpfTable<EpfStorefront> getCountryCodes() {
-        return new EpfTable<EpfStorefront>(readerSupplierFor("storefront"), EpfStorefront.FROM_ROW_PARTS);
+        return EpfTable.mapped(fileFor("storefront"), EpfStorefront.FROM_ROW_PARTS);
     }
 
-    private InputSupplier<? extends Reader> readerSupplierFor(String fileName) {
-        return Files.newReaderSupplier(new File(datasetDirectory, fileName), Charsets.UTF_8);
+    private File fileFor(String fileName) {
+        return new File(datasetDirectory, fileName);
     }
 }
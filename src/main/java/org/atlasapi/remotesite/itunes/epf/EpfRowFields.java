@@ -0,0 +1,39 @@
+package org.atlasapi.remotesite.itunes.epf;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+
+import com.google.common.base.Charsets;
+
+/**
+ * The fields of a row of a {@link MappedEpfFile}, as offsets into the mapped file. A field is
+ * only decoded when it is read.
+ */
+final class EpfRowFields extends AbstractList<String> {
+
+    private final ByteBuffer buffer;
+    private final int[] bounds;
+
+    EpfRowFields(ByteBuffer buffer, int[] bounds) {
+        this.buffer = buffer;
+        this.bounds = bounds;
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(String.format("%s of %s fields", index, size()));
+        }
+        int start = bounds[index * 2];
+        byte[] bytes = new byte[bounds[index * 2 + 1] - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    @Override
+    public int size() {
+        return bounds.length / 2;
+    }
+}
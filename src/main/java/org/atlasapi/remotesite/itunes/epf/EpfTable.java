@@ -1,14 +1,17 @@
 package org.atlasapi.remotesite.itunes.epf;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.atlasapi.remotesite.itunes.epf.model.EpfTableRow;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
@@ -16,6 +19,10 @@ import com.google.common.io.CharStreams;
 import com.google.common.io.InputSupplier;
 import com.google.common.io.LineProcessor;
 
+/**
+ * A table of an EPF data set. Tables are either read through a {@link Reader}, or
+ * {@link #mapped memory mapped} from their file, which is how {@link EpfDataSet} reads them.
+ */
 public class EpfTable<ROW extends EpfTableRow> {
 
     private static final Joiner EMPTY_JOINER = Joiner.on("");
@@ -34,10 +41,33 @@ public class EpfTable<ROW extends EpfTableRow> {
         this.rowSeparator = rowSeparator;
         this.splitter = Splitter.on(fieldSeparator);
     }
+
+    EpfTable(Function<List<String>, ROW> splitLineExtractor) {
+        this(null, splitLineExtractor);
+    }
+
+    /**
+     * A table read by memory mapping {@code file}. Rows hold views of their fields in the
+     * mapped file rather than copies, and can be processed in parallel.
+     */
+    public static <ROW extends EpfTableRow> EpfTable<ROW> mapped(File file, Function<List<String>, ROW> splitLineExtractor) {
+        return new MappedEpfTable<ROW>(MappedEpfFile.create(file), splitLineExtractor);
+    }
     
     public <RESULT> RESULT processRows(final EpfTableRowProcessor<ROW,RESULT> processor) throws IOException {
         return CharStreams.readLines(inputSupplier, lineProcessorForwardingTo(processor));
     }
+
+    /**
+     * Processes the table in chunks on {@code executor}, each with its own processor from
+     * {@code processors}, and returns the processors' results in table order. A processor
+     * returning false from {@link EpfTableRowProcessor#process} stops all chunks.
+     * <p>
+     * A table read through a {@link Reader} is a single chunk, processed on the calling thread.
+     */
+    public <RESULT> List<RESULT> processRowsInParallel(Supplier<? extends EpfTableRowProcessor<ROW, RESULT>> processors, ExecutorService executor) throws IOException {
+        return ImmutableList.of(processRows(processors.get()));
+    }
     
     private <RESULT> LineProcessor<RESULT> lineProcessorForwardingTo(final EpfTableRowProcessor<ROW, RESULT> processor) {
         return new LineProcessor<RESULT>() {
@@ -6,8 +6,11 @@ import static org.atlasapi.remotesite.itunes.epf.EpfHelper.uriForBrand;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.atlasapi.media.entity.Brand;
 import org.atlasapi.media.entity.Episode;
@@ -40,6 +43,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.intl.Countries;
@@ -52,6 +56,7 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
     private final Supplier<EpfDataSet> dataSetSupplier;
     private final ContentWriter writer;
     private final OldContentDeactivator deactivator;
+    private final int parallelism;
 
     private final ItunesCollectionSeriesExtractor seriesExtractor = ItunesCollectionSeriesExtractor.create();
     private final ItunesVideoEpisodeExtractor episodeExtractor = new ItunesVideoEpisodeExtractor();
@@ -60,14 +65,29 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
 
     public ItunesEpfUpdateTask(Supplier<EpfDataSet> dataSetSupplier,
             OldContentDeactivator oldContentDeactivator, ContentWriter writer, AdapterLog log) {
+        this(dataSetSupplier, oldContentDeactivator, writer, log, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the number of threads extracting the video, pricing and collection
+     * tables, which are processed in chunks
+     */
+    public ItunesEpfUpdateTask(Supplier<EpfDataSet> dataSetSupplier,
+            OldContentDeactivator oldContentDeactivator, ContentWriter writer, AdapterLog log,
+            int parallelism) {
         this.dataSetSupplier = dataSetSupplier;
         this.deactivator = oldContentDeactivator;
         this.writer = writer;
         this.log = log;
+        this.parallelism = parallelism;
     }
 
     @Override
     protected void runTask() {
+        ExecutorService executor = Executors.newFixedThreadPool(
+                parallelism,
+                new ThreadFactoryBuilder().setNameFormat("itunes-epf-extractor-%d").setDaemon(true).build()
+        );
         try {
             EpfDataSet dataSet = dataSetSupplier.get();
 
@@ -87,19 +107,20 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
             final BiMap<Integer, Series> extractedSeries = linkBrandsAndSeries(
                     dataSet.getArtistCollectionTable(),
                     extractedBrands,
-                    extractSeries(dataSet.getCollectionTable())
+                    extractSeries(dataSet.getCollectionTable(), executor)
             );
 
             Multimap<String, Location> extractedLocations = extractLocations(
                     dataSet,
-                    ImmutableSet.of(Countries.GB)
+                    ImmutableSet.of(Countries.GB),
+                    executor
             );
 
             //episode id -> trackNumber/series
             Multimap<Series, Episode> extractedEpisodes = linkEpisodesAndSeries(
                     dataSet.getCollectionVideoTable(),
                     extractedSeries,
-                    extractVideos(dataSet.getVideoTable(), extractedSeries, extractedLocations)
+                    extractVideos(dataSet.getVideoTable(), extractedSeries, extractedLocations, executor)
             );
 
             int seriess = 0;
@@ -125,6 +146,8 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
         } catch (Exception e) {
             log.record(errorEntry().withCause(e).withDescription("Error during EPF update").withSource(getClass()));
             throw Throwables.propagate(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -138,6 +161,7 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
         return artistCollectionTable.processRows(new EpfTableRowProcessor<EpfArtistCollection, BiMap<Integer, Series>>() {
 
             private final ImmutableBiMap.Builder<Integer, Series> linkedSeries = ImmutableBiMap.builder();
+            private final Set<Integer> linkedCollectionIds = Sets.newHashSet();
 
             @Override
             public boolean process(EpfArtistCollection row) {
@@ -145,8 +169,7 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
                 if (brand != null) {
                     Integer collectionId = row.get(EpfArtistCollection.COLLECTION_ID);
                     Series sery = series.get(collectionId);
-                    boolean keyIsInMap = linkedSeries.build().containsKey(collectionId);
-                    if (sery != null && !keyIsInMap) {
+                    if (sery != null && linkedCollectionIds.add(collectionId)) {
                         sery.setParent(brand);
                         linkedSeries.put(collectionId, sery);
                     }
@@ -163,7 +186,8 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
 
     private Multimap<String, Location> extractLocations(
             final EpfDataSet dataSet,
-            ImmutableSet<Country> countries
+            ImmutableSet<Country> countries,
+            final ExecutorService executor
     ) throws IOException {
         reportStatus("Extracting locations...");
         Iterable<Location> locations = Iterables.concat(Iterables.transform(
@@ -175,7 +199,7 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
                         try {
                             EpfTable<EpfPricing> pricingTable = dataSet.getPricingTable();
                             final Map<String, Integer> countryCodes = extractCountryCodes(dataSet.getCountryCodes());
-                            return pricingTable.processRows(new EpfTableRowProcessor<EpfPricing, Set<Location>>() {
+                            List<Set<Location>> chunkLocations = pricingTable.processRowsInParallel(() -> new EpfTableRowProcessor<EpfPricing, Set<Location>>() {
 
                                 private final ImmutableSet.Builder<Location> countryLocations = ImmutableSet.builder();
 
@@ -192,7 +216,8 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
                                 public Set<Location> getResult() {
                                     return countryLocations.build();
                                 }
-                            });
+                            }, executor);
+                            return ImmutableSet.copyOf(Iterables.concat(chunkLocations));
                         } catch (Exception e) {
                             throw Throwables.propagate(e);
                         }
@@ -234,10 +259,11 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
     private Map<Integer, Episode> extractVideos(
             EpfTable<EpfVideo> videosTable,
             final BiMap<Integer, Series> extractedSeries,
-            final Multimap<String, Location> extractedLocations
+            final Multimap<String, Location> extractedLocations,
+            ExecutorService executor
     ) throws IOException {
         reportStatus("Extracting episodes");
-        return videosTable.processRows(new EpfTableRowProcessor<EpfVideo, Map<Integer, Episode>>() {
+        List<Map<Integer, Episode>> chunkEpisodes = videosTable.processRowsInParallel(() -> new EpfTableRowProcessor<EpfVideo, Map<Integer, Episode>>() {
 
             ImmutableMap.Builder<Integer, Episode> results = ImmutableMap.builder();
 
@@ -262,7 +288,13 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
             public Map<Integer, Episode> getResult() {
                 return results.build();
             }
-        });
+        }, executor);
+
+        ImmutableMap.Builder<Integer, Episode> episodes = ImmutableMap.builder();
+        for (Map<Integer, Episode> chunk : chunkEpisodes) {
+            episodes.putAll(chunk);
+        }
+        return episodes.build();
     }
 
     private Multimap<Series, Episode> linkEpisodesAndSeries(
@@ -304,10 +336,10 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
         });
     }
 
-    private BiMap<Integer, Series> extractSeries(EpfTable<EpfCollection> collTable)
-            throws IOException {
+    private BiMap<Integer, Series> extractSeries(EpfTable<EpfCollection> collTable,
+            ExecutorService executor) throws IOException {
         reportStatus("Extracting series...");
-        return collTable.processRows(new EpfTableRowProcessor<EpfCollection, BiMap<Integer, Series>>() {
+        List<BiMap<Integer, Series>> chunkSeries = collTable.processRowsInParallel(() -> new EpfTableRowProcessor<EpfCollection, BiMap<Integer, Series>>() {
 
             ImmutableBiMap.Builder<Integer, Series> results = ImmutableBiMap.builder();
 
@@ -326,7 +358,13 @@ public class ItunesEpfUpdateTask extends ScheduledTask {
             public BiMap<Integer, Series> getResult() {
                 return results.build();
             }
-        });
+        }, executor);
+
+        ImmutableBiMap.Builder<Integer, Series> series = ImmutableBiMap.builder();
+        for (BiMap<Integer, Series> chunk : chunkSeries) {
+            series.putAll(chunk);
+        }
+        return series.build();
     }
 
     private BiMap<Integer, Brand> extractBrands(EpfTable<EpfArtist> artistTable)
@@ -0,0 +1,215 @@
+package org.atlasapi.remotesite.itunes.epf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Reads the rows of an EPF table file by memory mapping it and scanning the bytes for field and
+ * row separators, rather than decoding it into lines. The separators and the line breaks that
+ * end rows are all ASCII, so they can't occur inside a UTF-8 encoded character and the file
+ * only needs decoding field by field, as fields are read.
+ * <p>
+ * The file is divided into chunks ending on row boundaries, which can be read independently.
+ */
+final class MappedEpfFile {
+
+    static final long DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private static final int BOUNDARY_SCAN_WINDOW = 1024 * 1024;
+    private static final byte COMMENT = '#';
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final int NO_ROW_SEPARATOR = -1;
+
+    private final File file;
+    private final byte fieldSeparator;
+    private final int rowSeparator;
+    private final long chunkSize;
+
+    private MappedEpfFile(File file, byte fieldSeparator, int rowSeparator, long chunkSize) {
+        checkArgument(chunkSize > 0 && chunkSize < Integer.MAX_VALUE / 2, "chunkSize out of range");
+        this.file = checkNotNull(file);
+        this.fieldSeparator = fieldSeparator;
+        this.rowSeparator = rowSeparator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * An EPF file with the standard {@code \u0001} field and {@code \u0002} row separators.
+     */
+    static MappedEpfFile create(File file) {
+        return create(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    static MappedEpfFile create(File file, long chunkSize) {
+        return new MappedEpfFile(file, (byte) 1, 2, chunkSize);
+    }
+
+    static final class Chunk {
+
+        private final long start;
+        private final long end;
+
+        private Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s, %s)", start, end);
+        }
+    }
+
+    List<Chunk> chunks() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            long size = channel.size();
+            ImmutableList.Builder<Chunk> chunks = ImmutableList.builder();
+            long start = 0;
+            while (start < size) {
+                long end = start + chunkSize >= size
+                           ? size
+                           : nextRowStart(channel, start + chunkSize, size);
+                chunks.add(new Chunk(start, end));
+                start = end;
+            }
+            return chunks.build();
+        }
+    }
+
+    /**
+     * Passes the fields of each row in the chunk to {@code rows}, until it returns false.
+     *
+     * @return false if {@code rows} stopped the read
+     */
+    boolean read(Chunk chunk, Predicate<List<String>> rows) throws IOException {
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                FileChannel channel = raf.getChannel()) {
+            buffer = channel.map(MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+        }
+
+        int limit = buffer.limit();
+        int[] bounds = new int[32];
+        int position = 0;
+        while (position < limit) {
+            if (buffer.get(position) == COMMENT) {
+                position = lineEnd(buffer, position, limit);
+                continue;
+            }
+
+            int fields = 0;
+            int fieldStart = position;
+            int rowEnd = -1;
+            int index = position;
+            while (index < limit) {
+                byte b = buffer.get(index);
+                if (b == fieldSeparator) {
+                    bounds = addField(buffer, bounds, fields++, fieldStart, index);
+                    fieldStart = index + 1;
+                } else if (isRowEnd(buffer, b, index, limit)) {
+                    rowEnd = index;
+                    break;
+                }
+                index++;
+            }
+            if (rowEnd < 0) {
+                if (rowSeparator != NO_ROW_SEPARATOR || fieldStart == limit && fields == 0) {
+                    // an unterminated last row is incomplete, as a reader based table
+                    // would never have flushed it
+                    return true;
+                }
+                rowEnd = limit;
+            }
+            bounds = addField(buffer, bounds, fields++, fieldStart, rowEnd);
+            position = lineEnd(buffer, rowEnd, limit);
+
+            if (!rows.apply(new EpfRowFields(buffer, Arrays.copyOf(bounds, fields * 2)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isRowEnd(MappedByteBuffer buffer, byte b, int index, int limit) {
+        if (rowSeparator == NO_ROW_SEPARATOR) {
+            return b == LINE_FEED;
+        }
+        if (b != rowSeparator) {
+            return false;
+        }
+        int next = index + 1;
+        if (next < limit && buffer.get(next) == CARRIAGE_RETURN) {
+            next++;
+        }
+        return next >= limit || buffer.get(next) == LINE_FEED;
+    }
+
+    private static int[] addField(MappedByteBuffer buffer, int[] bounds, int field, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        int[] grown = field * 2 + 1 < bounds.length ? bounds : Arrays.copyOf(bounds, bounds.length * 2);
+        grown[field * 2] = start;
+        grown[field * 2 + 1] = end;
+        return grown;
+    }
+
+    private static int lineEnd(MappedByteBuffer buffer, int from, int limit) {
+        for (int index = from; index < limit; index++) {
+            if (buffer.get(index) == LINE_FEED) {
+                return index + 1;
+            }
+        }
+        return limit;
+    }
+
+    private long nextRowStart(FileChannel channel, long from, long size) throws IOException {
+        long windowStart = from;
+        while (windowStart < size) {
+            long windowEnd = Math.min(windowStart + BOUNDARY_SCAN_WINDOW, size);
+            MappedByteBuffer window = channel.map(
+                    MapMode.READ_ONLY,
+                    windowStart,
+                    windowEnd - windowStart
+            );
+            int limit = window.limit();
+            for (int index = 0; index < limit; index++) {
+                byte b = window.get(index);
+                boolean rowEnd = rowSeparator == NO_ROW_SEPARATOR
+                                 ? b == LINE_FEED
+                                 : b == LINE_FEED && index > 0 && precededByRowSeparator(window, index);
+                if (rowEnd) {
+                    return windowStart + index + 1;
+                }
+            }
+            // overlap the next window so a row end split across the two is still seen
+            windowStart = windowEnd == size ? size : windowEnd - 2;
+        }
+        return size;
+    }
+
+    private boolean precededByRowSeparator(MappedByteBuffer window, int lineFeed) {
+        int previous = lineFeed - 1;
+        if (window.get(previous) == CARRIAGE_RETURN && previous > 0) {
+            previous--;
+        }
+        return window.get(previous) == rowSeparator;
+    }
+}
@@ -0,0 +1,85 @@
+package org.atlasapi.remotesite.itunes.epf;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.atlasapi.remotesite.itunes.epf.model.EpfTableRow;
+
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+class MappedEpfTable<ROW extends EpfTableRow> extends EpfTable<ROW> {
+
+    private final MappedEpfFile file;
+    private final Function<List<String>, ROW> splitLineExtractor;
+
+    MappedEpfTable(MappedEpfFile file, Function<List<String>, ROW> splitLineExtractor) {
+        super(splitLineExtractor);
+        this.file = checkNotNull(file);
+        this.splitLineExtractor = checkNotNull(splitLineExtractor);
+    }
+
+    @Override
+    public <RESULT> RESULT processRows(EpfTableRowProcessor<ROW, RESULT> processor) throws IOException {
+        for (MappedEpfFile.Chunk chunk : file.chunks()) {
+            if (!file.read(chunk, fields -> processor.process(splitLineExtractor.apply(fields)))) {
+                break;
+            }
+        }
+        return processor.getResult();
+    }
+
+    @Override
+    public <RESULT> List<RESULT> processRowsInParallel(
+            Supplier<? extends EpfTableRowProcessor<ROW, RESULT>> processors,
+            ExecutorService executor
+    ) throws IOException {
+        AtomicBoolean stopped = new AtomicBoolean();
+        ImmutableList.Builder<Future<RESULT>> futures = ImmutableList.builder();
+        for (MappedEpfFile.Chunk chunk : file.chunks()) {
+            EpfTableRowProcessor<ROW, RESULT> processor = processors.get();
+            futures.add(executor.submit(() -> {
+                file.read(chunk, fields -> {
+                    if (stopped.get()) {
+                        return false;
+                    }
+                    if (!processor.process(splitLineExtractor.apply(fields))) {
+                        stopped.set(true);
+                        return false;
+                    }
+                    return true;
+                });
+                return processor.getResult();
+            }));
+        }
+        return results(futures.build());
+    }
+
+    private <RESULT> List<RESULT> results(List<Future<RESULT>> futures) throws IOException {
+        ImmutableList.Builder<RESULT> results = ImmutableList.builder();
+        try {
+            for (Future<RESULT> future : futures) {
+                results.add(future.get());
+            }
+            return results.build();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Throwables.propagate(e);
+        } catch (ExecutionException e) {
+            Throwables.propagateIfPossible(e.getCause(), IOException.class);
+            throw Throwables.propagate(e.getCause());
+        } finally {
+            for (Future<RESULT> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -53,6 +53,7 @@ public class PicksChannelDayUpdateController {
             ChannelDay channelDay = new ChannelDay(channel.requireValue(), date);
 
             picksDayUpdater.process(channelDay, owlReporter);
+            picksDayUpdater.writePendingPicks();
             response.setStatus(HttpStatusCode.OK.code());
         } catch (Exception e) {
             String stack = Throwables.getStackTraceAsString(e);
@@ -6,6 +6,7 @@ import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Sets;
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.scheduling.UpdateProgress;
 import org.atlasapi.media.entity.*;
@@ -20,8 +21,10 @@ import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.collect.Iterables.*;
 
@@ -42,6 +45,7 @@ public class PicksDayUpdater implements ChannelDayProcessor {
     private final ContentResolver contentResolver;
     private final ContentGroupWriter contentGroupWriter;
     private final Predicate<ItemAndBroadcast> picksPredicate;
+    private final Set<ChildRef> pendingPicks = Sets.newLinkedHashSet();
     
     public PicksDayUpdater(ScheduleResolver scheduleResolver, ContentGroupResolver contentGroupResolver,
             ContentResolver contentResolver, ContentGroupWriter contentGroupWriter, PicksChannelsSupplier picksChannelsSupplier) {
@@ -91,7 +95,7 @@ public class PicksDayUpdater implements ChannelDayProcessor {
                     )
             );
             
-            addPicksToContentGroup(findPicks(itemsAndBroadcasts));
+            addPendingPicks(transform(findPicks(itemsAndBroadcasts), Item.TO_CHILD_REF));
             
             return UpdateProgress.SUCCESS;
         } catch (Exception e) {
@@ -107,19 +111,50 @@ public class PicksDayUpdater implements ChannelDayProcessor {
         return transform(filter(itemsAndBroadcasts, picksPredicate), TO_ITEM);
     }
     
-    private void addPicksToContentGroup(Iterable<Item> items) {
+    private void addPendingPicks(Iterable<ChildRef> childRefs) {
+        ImmutableList<ChildRef> picks = ImmutableList.copyOf(childRefs);
+        synchronized (pendingPicks) {
+            pendingPicks.addAll(picks);
+            // Only the most recent picks would survive pruning, so there's no need to hold more
+            Iterator<ChildRef> oldest = pendingPicks.iterator();
+            while (pendingPicks.size() > MAX_CONTENT_GROUP_SIZE) {
+                oldest.next();
+                oldest.remove();
+            }
+        }
+    }
+
+    /**
+     * Adds the picks found since the last call to the content group. The group is large and is
+     * rewritten whole on every write, so picks from every channel-day of a run are written
+     * together here rather than as each channel-day is processed.
+     */
+    public void writePendingPicks() {
+        ImmutableList<ChildRef> picks;
+        synchronized (pendingPicks) {
+            picks = ImmutableList.copyOf(pendingPicks);
+            pendingPicks.clear();
+        }
+        if (picks.isEmpty()) {
+            return;
+        }
+        try {
+            addPicksToContentGroup(picks);
+        } catch (RuntimeException e) {
+            addPendingPicks(picks);
+            throw e;
+        }
+    }
+
+    private void addPicksToContentGroup(Iterable<ChildRef> childRefs) {
         ContentGroup contentGroup = resolveOrCreateContentGroup();
-        Iterable<ChildRef> childRefs = transform(items, Item.TO_CHILD_REF);
-        pruneContents(contentGroup);
+        Set<ChildRef> contents = Sets.newLinkedHashSet(contentGroup.getContents());
         boolean changed = false;
         for (ChildRef childRef : childRefs) {
-            
-            if (!contentGroup.getContents().contains(childRef)) {
-                changed = true;
-                contentGroup.addContent(childRef);
-            }
+            changed |= contents.add(childRef);
         }
         if (changed) {
+            contentGroup.setContents(pruneContents(contents));
             contentGroupWriter.createOrUpdate(contentGroup);
             //If you decide to report to telescope here, dont report contentGroup as the payload,
             //because it is about 2.5MB worth of text.
@@ -127,12 +162,12 @@ public class PicksDayUpdater implements ChannelDayProcessor {
     }
     
     // The picks should be kept to a finite size, else we'll hit document size limits in mongo
-    private void pruneContents(ContentGroup contentGroup) {
-        ImmutableList<ChildRef> contents = contentGroup.getContents();
-        int size = contentGroup.getContents().size();
+    private Iterable<ChildRef> pruneContents(Set<ChildRef> contents) {
+        int size = contents.size();
         if (size > MAX_CONTENT_GROUP_SIZE) {
-            contentGroup.setContents(Iterables.skip(contents, size - MAX_CONTENT_GROUP_SIZE));
+            return Iterables.skip(contents, size - MAX_CONTENT_GROUP_SIZE);
         }
+        return contents;
     }
 
     private ContentGroup resolveOrCreateContentGroup() {
@@ -69,7 +69,7 @@ public class PicksModule {
     
     @Bean
     public PicksScheduledTaskListener picksScheduledTaskListener() {
-        return new PicksScheduledTaskListener(picksLastProcessedStore());
+        return new PicksScheduledTaskListener(picksLastProcessedStore(), picksDayUpdater());
     }
     
     @Bean
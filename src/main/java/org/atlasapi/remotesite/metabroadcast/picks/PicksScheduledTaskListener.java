@@ -13,10 +13,13 @@ public class PicksScheduledTaskListener implements ChannelDayProcessingTaskListe
 
     private LocalDate lastDayCompleted;
     private final PicksLastProcessedStore picksLastProcessedStore;
+    private final PicksDayUpdater picksDayUpdater;
     private final Clock clock;
     
-    public PicksScheduledTaskListener(PicksLastProcessedStore picksLastProcessedStore) {
+    public PicksScheduledTaskListener(PicksLastProcessedStore picksLastProcessedStore,
+            PicksDayUpdater picksDayUpdater) {
         this.picksLastProcessedStore = picksLastProcessedStore;
+        this.picksDayUpdater = picksDayUpdater;
         this.clock = new SystemClock();
     }
     
@@ -32,6 +35,8 @@ public class PicksScheduledTaskListener implements ChannelDayProcessingTaskListe
 
     @Override
     public void completed(UpdateProgress progress) {
+        // Write the run's picks before recording progress, so they're retried if the write fails
+        picksDayUpdater.writePendingPicks();
         if (!progress.hasFailures() 
                 && lastDayCompleted != null) {
             picksLastProcessedStore.setLastScheduleDayProcessed(lastDayCompleted);
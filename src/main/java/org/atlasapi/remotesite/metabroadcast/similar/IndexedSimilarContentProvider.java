@@ -0,0 +1,405 @@
+package org.atlasapi.remotesite.metabroadcast.similar;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Described;
+import org.atlasapi.media.entity.EntityType;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.SimilarContentRef;
+import org.atlasapi.persistence.content.ContentCategory;
+import org.atlasapi.persistence.content.listing.ContentLister;
+import org.atlasapi.persistence.content.listing.ContentListingCriteria;
+import org.atlasapi.persistence.output.AvailableItemsResolver;
+import org.atlasapi.persistence.output.UpcomingItemsResolver;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+
+/**
+ * Finds similar content through an inverted index from each trait hash to the content that has
+ * it, so only content sharing at least one trait with the subject is counted, rather than every
+ * piece of content being intersected with it. Content is scored and ranked as by
+ * {@link DefaultSimilarContentProvider}: one point for each shared trait, plus a boost for
+ * content that is available or upcoming, with ties going to the lowest id.
+ * <p>
+ * Content is referred to by its ordinal in the index, so posting lists and per-subject counts
+ * are primitive arrays. Each thread keeps its own scratch arrays, so {@link #similarTo} can be
+ * called concurrently once the index is initialised.
+ * <p>
+ * The availability of content is looked up on the given executor, a batch of content per task.
+ */
+public class IndexedSimilarContentProvider implements SimilarContentProvider {
+
+    private static final int AVAILABLE_UPCOMING_BOOST_FACTOR = 3;
+    private static final int AVAILABILITY_BATCH_SIZE = 100;
+    private static final int MAX_BATCHES_IN_FLIGHT = 16;
+
+    private final ContentLister contentLister;
+    private final Publisher publisher;
+    private final int similarItemLimit;
+    private final TraitHashCalculator traitHashCalculator;
+    private final AvailableItemsResolver availableItemsResolver;
+    private final UpcomingItemsResolver upcomingItemsResolver;
+    private final Application application;
+    private final ExecutorService executor;
+
+    private volatile TraitIndex index;
+
+    public IndexedSimilarContentProvider(
+            ContentLister contentLister,
+            Publisher publisher,
+            int similarItemLimit,
+            TraitHashCalculator traitHashCalculator,
+            AvailableItemsResolver availableItemsResolver,
+            UpcomingItemsResolver upcomingItemsResolver,
+            Application application,
+            ExecutorService executor
+    ) {
+        checkArgument(similarItemLimit > 0, "similarItemLimit must be positive");
+        this.contentLister = checkNotNull(contentLister);
+        this.publisher = checkNotNull(publisher);
+        this.traitHashCalculator = checkNotNull(traitHashCalculator);
+        this.availableItemsResolver = checkNotNull(availableItemsResolver);
+        this.upcomingItemsResolver = checkNotNull(upcomingItemsResolver);
+        this.similarItemLimit = similarItemLimit;
+        this.application = application;
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public void initialise() {
+        ContentListingCriteria criteria = new ContentListingCriteria.Builder()
+                                                    .forPublisher(publisher)
+                                                    .forContent(ContentCategory.TOP_LEVEL_CONTENT)
+                                                    .build();
+
+        Iterator<Content> content = contentLister.listContent(criteria);
+        List<SimilarContentRef> refs = Lists.newArrayList();
+        Map<Integer, Postings> postings = new HashMap<>();
+        Deque<Future<List<SimilarContentRef>>> inFlight = new ArrayDeque<>();
+        List<Content> batch = Lists.newArrayListWithCapacity(AVAILABILITY_BATCH_SIZE);
+
+        int ordinal = 0;
+        while (content.hasNext()) {
+            Content c = content.next();
+            for (Integer trait : traitHashCalculator.traitHashesFor(c)) {
+                postings.computeIfAbsent(trait, t -> new Postings()).add(ordinal);
+            }
+            ordinal++;
+
+            batch.add(c);
+            if (batch.size() == AVAILABILITY_BATCH_SIZE) {
+                inFlight.add(resolveAvailability(batch));
+                batch = Lists.newArrayListWithCapacity(AVAILABILITY_BATCH_SIZE);
+                if (inFlight.size() > MAX_BATCHES_IN_FLIGHT) {
+                    refs.addAll(await(inFlight.poll()));
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            inFlight.add(resolveAvailability(batch));
+        }
+        while (!inFlight.isEmpty()) {
+            refs.addAll(await(inFlight.poll()));
+        }
+
+        this.index = new TraitIndex(refs, postings, similarItemLimit);
+    }
+
+    private Future<List<SimilarContentRef>> resolveAvailability(List<Content> batch) {
+        return executor.submit(() -> {
+            ImmutableList.Builder<SimilarContentRef> refs = ImmutableList.builder();
+            for (Content content : batch) {
+                refs.add(similarContentRefFrom(content));
+            }
+            return refs.build();
+        });
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted resolving content availability", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private SimilarContentRef similarContentRefFrom(Content content) {
+        Set<Publisher> availableFromPublishers;
+        Set<Publisher> upcomingPublishers;
+
+        if (content instanceof Container) {
+            Container container = (Container) content;
+            availableFromPublishers = availableItemsResolver.availableItemsByPublisherFor(container, application).keySet();
+            upcomingPublishers = upcomingItemsResolver.upcomingItemsByPublisherFor(container).keySet();
+        } else if (content instanceof Item) {
+            Item item = (Item) content;
+            availableFromPublishers = availableItemsResolver.availableItemsByPublisherFor(item, application).keySet();
+            upcomingPublishers = upcomingItemsResolver.upcomingItemsByPublisherFor(item, application).keySet();
+        } else {
+            throw new IllegalArgumentException("Can't deal with Content of type " +
+                            content.getClass().getSimpleName());
+        }
+
+        return SimilarContentRef.builder()
+                    .withEntityType(EntityType.from(content))
+                    .withId(content.getId())
+                    .withUri(content.getCanonicalUri())
+                    .withScore(0)
+                    .withPublishersWithAvailableContent(availableFromPublishers)
+                    .withPublishersWithUpcomingContent(upcomingPublishers)
+                    .build();
+    }
+
+    @Override
+    public List<SimilarContentRef> similarTo(Described described) {
+        TraitIndex index = this.index;
+        checkState(index != null, "Must call initialise() first");
+        return index.similarTo(described.getId(), traitHashCalculator.traitHashesFor(described));
+    }
+
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(ordinals, size);
+        }
+    }
+
+    private static final class TraitIndex {
+
+        private final SimilarContentRef[] refs;
+        private final long[] ids;
+        private final int[] boosts;
+        private final int[] boosted;
+        private final int[] ordinalsById;
+        private final Map<Integer, int[]> postings;
+        private final int limit;
+        private final ThreadLocal<Scorer> scorers;
+
+        private TraitIndex(List<SimilarContentRef> refs, Map<Integer, Postings> postings, int limit) {
+            this.refs = refs.toArray(new SimilarContentRef[refs.size()]);
+            this.ids = new long[refs.size()];
+            this.boosts = new int[refs.size()];
+            Postings boosted = new Postings();
+            for (int ordinal = 0; ordinal < this.refs.length; ordinal++) {
+                SimilarContentRef ref = this.refs[ordinal];
+                ids[ordinal] = ref.getId();
+                if (!ref.getPublishersWithAvailableContent().isEmpty()
+                        || !ref.getPublishersWithUpcomingContent().isEmpty()) {
+                    boosts[ordinal] = AVAILABLE_UPCOMING_BOOST_FACTOR;
+                    boosted.add(ordinal);
+                }
+            }
+            this.boosted = boosted.toArray();
+            this.ordinalsById = sortedById(ids);
+            this.postings = new HashMap<>(postings.size() * 4 / 3 + 1);
+            for (Entry<Integer, Postings> trait : postings.entrySet()) {
+                this.postings.put(trait.getKey(), trait.getValue().toArray());
+            }
+            this.limit = limit;
+            this.scorers = ThreadLocal.withInitial(() -> new Scorer(this));
+        }
+
+        private static int[] sortedById(long[] ids) {
+            Integer[] ordinals = new Integer[ids.length];
+            for (int ordinal = 0; ordinal < ids.length; ordinal++) {
+                ordinals[ordinal] = ordinal;
+            }
+            Arrays.sort(ordinals, (a, b) -> Longs.compare(ids[a], ids[b]));
+            return Ints.toArray(Arrays.asList(ordinals));
+        }
+
+        private List<SimilarContentRef> similarTo(Long id, Set<Integer> traits) {
+            return scorers.get().similarTo(id, traits);
+        }
+    }
+
+    /**
+     * Scratch space for scoring subjects on one thread. Counts are only kept for content sharing
+     * a trait with the subject, and reset after each subject by walking the content touched. The
+     * best candidates are kept in a bounded heap of ordinals, worst first.
+     */
+    private static final class Scorer {
+
+        private final TraitIndex index;
+        private final int[] counts;
+        private final int[] touched;
+        private final int[] heap;
+        private final int[] heapScores;
+        private int touchedSize;
+        private int heapSize;
+
+        private Scorer(TraitIndex index) {
+            this.index = index;
+            this.counts = new int[index.refs.length];
+            this.touched = new int[index.refs.length];
+            this.heap = new int[index.limit];
+            this.heapScores = new int[index.limit];
+        }
+
+        private List<SimilarContentRef> similarTo(Long id, Set<Integer> traits) {
+            try {
+                for (Integer trait : traits) {
+                    int[] ordinals = index.postings.get(trait);
+                    if (ordinals == null) {
+                        continue;
+                    }
+                    for (int ordinal : ordinals) {
+                        if (counts[ordinal]++ == 0) {
+                            touched[touchedSize++] = ordinal;
+                        }
+                    }
+                }
+
+                for (int i = 0; i < touchedSize; i++) {
+                    int ordinal = touched[i];
+                    offer(id, ordinal, counts[ordinal] + index.boosts[ordinal]);
+                }
+                for (int ordinal : index.boosted) {
+                    if (counts[ordinal] == 0) {
+                        offer(id, ordinal, index.boosts[ordinal]);
+                    }
+                }
+
+                return results(id);
+            } finally {
+                for (int i = 0; i < touchedSize; i++) {
+                    counts[touched[i]] = 0;
+                }
+                touchedSize = 0;
+                heapSize = 0;
+            }
+        }
+
+        private void offer(Long id, int ordinal, int score) {
+            if (id != null && index.ids[ordinal] == id) {
+                return;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = ordinal;
+                heapScores[heapSize] = score;
+                siftUp(heapSize++);
+            } else if (isWorse(heapScores[0], heap[0], score, ordinal)) {
+                heap[0] = ordinal;
+                heapScores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Removes candidates from the heap worst first to list them best first. Should there be
+         * fewer candidates than the limit, content with nothing in common with the subject is
+         * added in id order, as it would have been ranked with a score of nothing.
+         */
+        private List<SimilarContentRef> results(Long id) {
+            SimilarContentRef[] best = new SimilarContentRef[heapSize];
+            int resultSize = heapSize;
+            while (heapSize > 0) {
+                best[heapSize - 1] = scored(heap[0], heapScores[0]);
+                heapSize--;
+                heap[0] = heap[heapSize];
+                heapScores[0] = heapScores[heapSize];
+                siftDown(0);
+            }
+
+            ImmutableList.Builder<SimilarContentRef> results = ImmutableList.builder();
+            results.add(best);
+            for (int i = 0; i < index.ordinalsById.length && resultSize < index.limit; i++) {
+                int ordinal = index.ordinalsById[i];
+                if (counts[ordinal] == 0 && index.boosts[ordinal] == 0
+                        && (id == null || index.ids[ordinal] != id)) {
+                    results.add(scored(ordinal, 0));
+                    resultSize++;
+                }
+            }
+            return results.build();
+        }
+
+        private SimilarContentRef scored(int ordinal, int score) {
+            return SimilarContentRef.Builder.from(index.refs[ordinal])
+                    .withScore(score)
+                    .build();
+        }
+
+        /**
+         * Lower scores are worse, and of equal scores the higher id.
+         */
+        private boolean isWorse(int score, int ordinal, int otherScore, int otherOrdinal) {
+            if (score != otherScore) {
+                return score < otherScore;
+            }
+            return index.ids[ordinal] > index.ids[otherOrdinal];
+        }
+
+        private void siftUp(int position) {
+            while (position > 0) {
+                int parent = (position - 1) / 2;
+                if (!isWorse(heapScores[position], heap[position], heapScores[parent], heap[parent])) {
+                    return;
+                }
+                swap(position, parent);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int position) {
+            while (true) {
+                int worst = position;
+                for (int child = 2 * position + 1; child <= 2 * position + 2 && child < heapSize; child++) {
+                    if (isWorse(heapScores[child], heap[child], heapScores[worst], heap[worst])) {
+                        worst = child;
+                    }
+                }
+                if (worst == position) {
+                    return;
+                }
+                swap(position, worst);
+                position = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int ordinal = heap[a];
+            heap[a] = heap[b];
+            heap[b] = ordinal;
+            int score = heapScores[a];
+            heapScores[a] = heapScores[b];
+            heapScores[b] = score;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.atlasapi.remotesite.metabroadcast.similar;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import javax.annotation.PostConstruct;
 
 import org.atlasapi.application.v3.DefaultApplication;
@@ -18,6 +21,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
 import com.metabroadcast.common.scheduling.RepetitionRule;
 import com.metabroadcast.common.scheduling.RepetitionRules;
@@ -38,6 +42,9 @@ public class SimilarContentModule {
     
     @Value("${updaters.similarcontent.enabled}") 
     Boolean tasksEnabled;
+
+    @Value("${updaters.similarcontent.parallelism}")
+    int parallelism;
     
     @PostConstruct
     public void scheduleTasks() {
@@ -49,18 +56,27 @@ public class SimilarContentModule {
     @Bean
     public SimilarContentUpdater similarContentUpdater() {
         return new SimilarContentUpdater(contentLister, Publisher.PA, similarContentProvider(), 
-                similarContentWriter());
+                similarContentWriter(), similarContentExecutor(), parallelism);
     }
     
     SimilarContentProvider similarContentProvider() {
-        return new DefaultSimilarContentProvider(
+        return new IndexedSimilarContentProvider(
                 contentLister,
                 Publisher.PA,
                 10,
                 new GenreAndPeopleTraitHashCalculator(),
                 availableItemsResolver(),
                 upcomingItemsResolver(),
-                DefaultApplication.createWithReads(Publisher.all().asList())
+                DefaultApplication.createWithReads(Publisher.all().asList()),
+                similarContentExecutor()
+        );
+    }
+
+    @Bean
+    ExecutorService similarContentExecutor() {
+        return Executors.newFixedThreadPool(
+                parallelism,
+                new ThreadFactoryBuilder().setNameFormat("similar-content-%d").setDaemon(true).build()
         );
     }
     
@@ -1,11 +1,16 @@
 package org.atlasapi.remotesite.metabroadcast.similar;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
-import org.atlasapi.media.entity.ChildRef;
 import org.atlasapi.media.entity.Content;
 import org.atlasapi.media.entity.Publisher;
 import org.atlasapi.media.entity.SimilarContentRef;
@@ -18,24 +23,45 @@ import org.slf4j.LoggerFactory;
 import com.metabroadcast.common.scheduling.ScheduledTask;
 import com.metabroadcast.common.scheduling.UpdateProgress;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.MoreExecutors;
+
 
 public class SimilarContentUpdater extends ScheduledTask {
 
     private static final Logger log = LoggerFactory.getLogger(SimilarContentUpdater.class);
+    private static final int PARTITION_SIZE = 100;
     
     private final ContentLister contentLister;
     private final Publisher publisher;
     private final SimilarContentProvider similarContentProvider;
     private final SimilarContentWriter similarContentWriter;
-    
+    private final ExecutorService executor;
+    private final int partitionsInFlight;
+
+    private UpdateProgress progress;
 
     public SimilarContentUpdater(ContentLister contentLister, Publisher publisher, 
             SimilarContentProvider similarContentProvider, SimilarContentWriter similarContentWriter) {
-        
+        this(contentLister, publisher, similarContentProvider, similarContentWriter,
+                MoreExecutors.sameThreadExecutor(), 1);
+    }
+
+    /**
+     * Content is processed in partitions on {@code executor}, with up to {@code parallelism}
+     * partitions running and as many again listed and waiting to run.
+     */
+    public SimilarContentUpdater(ContentLister contentLister, Publisher publisher,
+            SimilarContentProvider similarContentProvider, SimilarContentWriter similarContentWriter,
+            ExecutorService executor, int parallelism) {
+        checkArgument(parallelism > 0, "parallelism must be positive");
         this.contentLister = checkNotNull(contentLister);
         this.publisher = checkNotNull(publisher);
         this.similarContentProvider = checkNotNull(similarContentProvider);
         this.similarContentWriter = checkNotNull(similarContentWriter);
+        this.executor = checkNotNull(executor);
+        this.partitionsInFlight = parallelism * 2;
     }
     
     @Override
@@ -46,9 +72,30 @@ public class SimilarContentUpdater extends ScheduledTask {
                                                     .build();
         similarContentProvider.initialise();
         Iterator<Content> content = contentLister.listContent(criteria);
-        UpdateProgress progress = UpdateProgress.START;
-        while (content.hasNext()) {
-            Content c = content.next();
+        progress = UpdateProgress.START;
+
+        Deque<Future<?>> inFlight = new ArrayDeque<>();
+        try {
+            Iterator<List<Content>> partitions = Iterators.partition(content, PARTITION_SIZE);
+            while (partitions.hasNext() && shouldContinue()) {
+                List<Content> partition = partitions.next();
+                inFlight.add(executor.submit(() -> update(partition)));
+                if (inFlight.size() >= partitionsInFlight) {
+                    await(inFlight.poll());
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                await(inFlight.poll());
+            }
+        } finally {
+            for (Future<?> partition : inFlight) {
+                partition.cancel(true);
+            }
+        }
+    }
+
+    private void update(List<Content> partition) {
+        for (Content c : partition) {
             try {
                 List<SimilarContentRef> similar = similarContentProvider.similarTo(c);
                 log.trace("Similar to [{} : {}] are the following:", c.getCanonicalUri(), c.getTitle());
@@ -56,14 +103,29 @@ public class SimilarContentUpdater extends ScheduledTask {
                 for (SimilarContentRef s : similar) {
                     log.trace("{}", s.getId());
                 }
-                progress = progress.reduce(UpdateProgress.SUCCESS);
+                recordProgress(UpdateProgress.SUCCESS);
             } catch (Exception e) {
                 log.error(String.format("Content %s failed", c.getCanonicalUri()), e);
-                progress = progress.reduce(UpdateProgress.FAILURE);
+                recordProgress(UpdateProgress.FAILURE);
             }
-            reportProgress(progress);
         }
     }
+
+    private void await(Future<?> partition) {
+        try {
+            partition.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted waiting for similar content", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private synchronized void recordProgress(UpdateProgress update) {
+        progress = progress.reduce(update);
+        reportProgress(progress);
+    }
     
     private void reportProgress(UpdateProgress progress) {
         reportStatus(String.format("%d proceseed : %d successes, %d failures", 
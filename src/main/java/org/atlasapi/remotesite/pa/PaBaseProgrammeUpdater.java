@@ -11,19 +11,15 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.annotation.PreDestroy;
-import javax.xml.bind.JAXBContext;
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
-import javax.xml.bind.Unmarshaller.Listener;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 
+import org.atlasapi.AtlasMain;
 import org.atlasapi.feeds.upload.FileUploadResult;
 import org.atlasapi.media.channel.Channel;
 import org.atlasapi.media.channel.ChannelResolver;
@@ -31,6 +27,7 @@ import org.atlasapi.remotesite.pa.data.PaProgrammeDataStore;
 import org.atlasapi.remotesite.pa.listings.bindings.ChannelData;
 import org.atlasapi.remotesite.pa.listings.bindings.ProgData;
 import org.atlasapi.remotesite.pa.persistence.PaScheduleVersionStore;
+import org.atlasapi.util.KeyedLockService;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.Interval;
@@ -40,8 +37,6 @@ import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
@@ -50,9 +45,9 @@ import com.google.common.collect.ImmutableSet.Builder;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Sets;
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.scheduling.ScheduledTask;
+import com.metabroadcast.common.scheduling.UpdateProgress;
 import com.metabroadcast.common.time.DateTimeZones;
 import com.metabroadcast.common.time.Timestamp;
 
@@ -68,11 +63,14 @@ public abstract class PaBaseProgrammeUpdater extends ScheduledTask {
     protected static final String SERVICE = "PA";
     
     private static final Pattern FILEDATE = Pattern.compile("^.*(\\d{8})_tvdata.xml$");
+    private static final int MAX_PENDING_CHANNEL_JOBS = 50;
 
     protected final Mode mode;
 
     private final PaChannelMap channelMap;
-    private final Set<String> currentlyProcessing = Sets.newHashSet();
+    private final PaListingsParser parser = new PaListingsParser();
+    private final KeyedLockService<String> programmeLocks =
+            KeyedLockService.create("pa.programme.locks", AtlasMain.metrics);
     
     private List<Channel> supportedChannels = ImmutableList.of();
 
@@ -142,24 +140,20 @@ public abstract class PaBaseProgrammeUpdater extends ScheduledTask {
         	}
             
         	reportStatus(String.format("%s files processed.", filesProcessed));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("PA updater interrupted", e);
         } catch (Exception e) {
             log.error("Exception running PA updater", e);
         }
     }
 
-	private void processBatch(Iterable<File> files) throws JAXBException,
-			SAXException, ParserConfigurationException, InterruptedException {
-		final CompletionService<Integer> completion = new ExecutorCompletionService<Integer>(executor);
+	private void processBatch(Iterable<File> files) throws InterruptedException {
+		final CompletionService<UpdateProgress> completion = new ExecutorCompletionService<UpdateProgress>(executor);
 		
-		JAXBContext context = JAXBContext.newInstance("org.atlasapi.remotesite.pa.listings.bindings");
-		Unmarshaller unmarshaller = context.createUnmarshaller();
-
-		SAXParserFactory factory = SAXParserFactory.newInstance();
-		factory.setNamespaceAware(true);
-		XMLReader reader = factory.newSAXParser().getXMLReader();
-		reader.setContentHandler(unmarshaller.getUnmarshallerHandler());
-		
-		List<Future<Integer>> submitted = Lists.newArrayList();
+		List<Future<UpdateProgress>> submitted = Lists.newArrayList();
+		// Per batch, so that places still held by jobs cancelled mid-run don't carry over
+		Semaphore pendingChannelJobs = new Semaphore(MAX_PENDING_CHANNEL_JOBS);
 
 		Map<String, AtomicInteger> jobsRemainingPerFile = Maps.newHashMap();
 		
@@ -178,21 +172,25 @@ public abstract class PaBaseProgrammeUpdater extends ScheduledTask {
 
 		            AtomicInteger jobsRemaining = new AtomicInteger();
 
-		            unmarshaller.setListener(channelDataProcessingListener(
+		            parser.parse(fileToProcess, channelDataHandler(
 		                    jobsRemaining,
+                            pendingChannelJobs,
                             completion,
                             submitted,
                             fileToProcess,
                             scheduleDay
                     ));
-
-		            reader.parse(fileToProcess.toURI().toString());
                     jobsRemainingPerFile.put(file.getName(), jobsRemaining);
 		        }
 		        else {
 		            log.info("Not processing file " + file.toString() + " as filename format is not recognised");
 		            storeResult(FileUploadResult.failedUpload(SERVICE, file.getName()).withMessage("Format not recognised"));
 		        }
+		    } catch (InterruptedException e) {
+		        Thread.currentThread().interrupt();
+		        storeResult(FileUploadResult.failedUpload(SERVICE, file.getName()).withCause(e));
+		        cancelTasks(submitted);
+		        throw e;
 		    } catch (Exception e) {
 		        storeResult(FileUploadResult.failedUpload(SERVICE, file.getName()).withCause(e));
 		        log.error("Error processing file " + file.toString(), e);
@@ -204,20 +202,27 @@ public abstract class PaBaseProgrammeUpdater extends ScheduledTask {
 		    return;
 		}
 		
-		int programmesProcessed = 0;
+		UpdateProgress programmes = UpdateProgress.START;
 		int submitCount = submitted.size();
 		for (int i = 0; i < submitCount && shouldContinue();) {
-		    Future<Integer> processed = completion.poll(5, TimeUnit.SECONDS);
+		    Future<UpdateProgress> processed = completion.poll(5, TimeUnit.SECONDS);
 		    if(processed != null) {
 		        i++;
 		        try {
 		            if (!processed.isCancelled()) {
-		                programmesProcessed += processed.get();
+		                programmes = programmes.reduce(processed.get());
 		            }
 		        } catch (Exception e) {
 		            log.error("Exception processing PA updater results", e);
 		        }
-		        reportStatus(String.format("%s files. Processed %s/%s jobs. %s programmes processed", Iterables.size(files), i, submitCount, programmesProcessed));
+		        reportStatus(String.format(
+		                "%s files. Processed %s/%s jobs. %s programmes processed, %s failed",
+		                Iterables.size(files),
+		                i,
+		                submitCount,
+		                programmes.getProcessed(),
+		                programmes.getFailures()
+		        ));
 		    }
 		}
 		
@@ -238,75 +243,85 @@ public abstract class PaBaseProgrammeUpdater extends ScheduledTask {
 		}
 	}
 
-    private void cancelTasks(List<Future<Integer>> submitted) {
+    private void cancelTasks(List<Future<UpdateProgress>> submitted) {
         reportStatus("Cancelling jobs");
-        for (Future<Integer> future : submitted) {
+        for (Future<UpdateProgress> future : submitted) {
             future.cancel(false);
         }
         reportStatus("Jobs cancelled");
     }
 
-    private Listener channelDataProcessingListener(final AtomicInteger jobsCounter, 
-            final CompletionService<Integer> completion, final List<Future<Integer>> submitted, 
+    /**
+     * Submits a job for each wanted channel as soon as it has been read, while the rest of the
+     * file is still being parsed. At most {@link #MAX_PENDING_CHANNEL_JOBS} channels are held
+     * waiting for or being processed at once; parsing blocks until a job finishes beyond that.
+     */
+    private PaListingsParser.ChannelHandler channelDataHandler(final AtomicInteger jobsCounter,
+            final Semaphore pendingChannelJobs, final CompletionService<UpdateProgress> completion, final List<Future<UpdateProgress>> submitted,
             final File fileToProcess, final String fileDate) {
-        
-        return new Unmarshaller.Listener() {
-            public void beforeUnmarshal(Object target, Object parent) {
+
+        final LocalDate scheduleDay = LocalDate.parse(fileDate, FILEDATE_FORMAT);
+        final long version = deltaFileHelper.versionNumber(fileToProcess);
+
+        return new PaListingsParser.ChannelHandler() {
+
+            private Channel channel;
+
+            @Override
+            public boolean shouldProcess(ChannelData channelData) {
+                Maybe<Channel> possibleChannel = channelMap.getChannel(Integer.valueOf(channelData.getChannelId()));
+                if (possibleChannel.hasValue()
+                        && isSupported(possibleChannel.requireValue())
+                        && shouldContinue()
+                        && shouldUpdateVersion(possibleChannel.requireValue(), version, scheduleDay)) {
+                    channel = possibleChannel.requireValue();
+                    return true;
+                }
+                return false;
             }
 
-            public void afterUnmarshal(Object target, Object parent) {
-                if (target instanceof ChannelData) {
-                    
-                    ChannelData channelData = (ChannelData) target;
-                    
-                    Interval schedulePeriod;
-                    if(channelData.getStartTime() == null) {
-                        // Old format channel file, we revert to guessing the 
-                        // schedule period
-                        DateTime startTime = FILEDATETIME_FORMAT.parseDateTime(fileDate+"-06:00");
-                        schedulePeriod = new Interval(startTime, startTime.plusDays(1));                       
-                    }
-                    else {
-                        schedulePeriod = new Interval(CHANNELINTERVAL_FORMAT.parseDateTime(channelData.getStartTime()), CHANNELINTERVAL_FORMAT.parseDateTime(channelData.getEndTime()));
-                    }
-                   
-                    Maybe<Channel> channel = channelMap.getChannel(Integer.valueOf(channelData.getChannelId()));
-                    
-                    LocalDate scheduleDay = LocalDate.parse(fileDate, FILEDATE_FORMAT);
-                    long version = deltaFileHelper.versionNumber(fileToProcess);
-                    if (channel.hasValue() 
-                            && isSupported(channel.requireValue()) 
-                            && shouldContinue()
-                            && shouldUpdateVersion(channel.requireValue(), version, scheduleDay)) {
-                        
-                        try {
-                            
-                            final PaChannelData data = new PaChannelData(
-                                    channel.requireValue(),
-                                    channelData.getProgData(), 
-                                    schedulePeriod, 
-                                    getTimeZone(fileDate), 
-                                    Timestamp.of(fileToProcess.lastModified()),
-                                    scheduleDay,
-                                    version
-                            );
-                            jobsCounter.incrementAndGet();
-                            Future<Integer> future = completion.submit(new Callable<Integer>() {
-                                @Override
-                                public Integer call() {
-                                    try {
-                                        return processor.process(data, currentlyProcessing);
-                                    } finally {
-                                        jobsCounter.decrementAndGet();
-                                    }
-                                }
-                            });
-                            
-                            submitted.add(future);
-                        } catch (Throwable e) {
-                            log.error("Exception submitting PA channel update job in file " + fileToProcess.getName(), e);
+            @Override
+            public void process(ChannelData channelData) throws InterruptedException {
+                Interval schedulePeriod;
+                if(channelData.getStartTime() == null) {
+                    // Old format channel file, we revert to guessing the 
+                    // schedule period
+                    DateTime startTime = FILEDATETIME_FORMAT.parseDateTime(fileDate+"-06:00");
+                    schedulePeriod = new Interval(startTime, startTime.plusDays(1));                       
+                }
+                else {
+                    schedulePeriod = new Interval(CHANNELINTERVAL_FORMAT.parseDateTime(channelData.getStartTime()), CHANNELINTERVAL_FORMAT.parseDateTime(channelData.getEndTime()));
+                }
+
+                final PaChannelData data = new PaChannelData(
+                        channel,
+                        channelData.getProgData(), 
+                        schedulePeriod, 
+                        getTimeZone(fileDate), 
+                        Timestamp.of(fileToProcess.lastModified()),
+                        scheduleDay,
+                        version
+                );
+
+                pendingChannelJobs.acquire();
+                try {
+                    jobsCounter.incrementAndGet();
+                    Future<UpdateProgress> future = completion.submit(new Callable<UpdateProgress>() {
+                        @Override
+                        public UpdateProgress call() {
+                            try {
+                                return processor.process(data, programmeLocks);
+                            } finally {
+                                jobsCounter.decrementAndGet();
+                                pendingChannelJobs.release();
+                            }
                         }
-                    }
+                    });
+
+                    submitted.add(future);
+                } catch (Throwable e) {
+                    pendingChannelJobs.release();
+                    log.error("Exception submitting PA channel update job in file " + fileToProcess.getName(), e);
                 }
             }
         };
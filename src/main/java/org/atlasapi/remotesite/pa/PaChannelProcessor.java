@@ -2,6 +2,7 @@ package org.atlasapi.remotesite.pa;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.atlasapi.media.channel.Channel;
 import org.atlasapi.media.entity.Publisher;
@@ -11,10 +12,14 @@ import org.atlasapi.remotesite.channel4.pmlsd.epg.BroadcastTrimmer;
 import org.atlasapi.remotesite.pa.PaBaseProgrammeUpdater.PaChannelData;
 import org.atlasapi.remotesite.pa.listings.bindings.ProgData;
 import org.atlasapi.remotesite.pa.persistence.PaScheduleVersionStore;
+import org.atlasapi.util.KeyedLockService;
+
+import com.metabroadcast.common.scheduling.UpdateProgress;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
+import org.joda.time.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +28,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class PaChannelProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(PaChannelProcessor.class);
+    private static final Duration LOCK_TIMEOUT = Duration.standardMinutes(10);
 
     private final PaProgDataProcessor processor;
     private final BroadcastTrimmer trimmer;
@@ -42,8 +48,12 @@ public class PaChannelProcessor {
         return new Builder();
     }
 
-    public int process(PaChannelData channelData, Set<String> currentlyProcessing) {
-        int processed = 0;
+    /**
+     * Processes the channel's programmes and writes its schedule. A programme whose lock can't
+     * be acquired in time, or whose processing fails, is counted as a failure.
+     */
+    public UpdateProgress process(PaChannelData channelData, KeyedLockService<String> programmeLocks) {
+        UpdateProgress progress = UpdateProgress.START;
         Set<ItemRefAndBroadcast> broadcasts = new HashSet<>();
 
         Channel channel = channelData.channel();
@@ -53,7 +63,20 @@ public class PaChannelProcessor {
         try {
             for (ProgData programme : channelData.programmes()) {
                 String programmeLock = lockIdentifier(programme);
-                lock(currentlyProcessing, programmeLock);
+                if (!programmeLocks.tryLock(
+                        programmeLock,
+                        LOCK_TIMEOUT.getMillis(),
+                        TimeUnit.MILLISECONDS
+                )) {
+                    log.error(
+                            "Timed out waiting for lock {} processing channel {}, prog id {}",
+                            programmeLock,
+                            channel.getKey(),
+                            programme.getProgId()
+                    );
+                    progress = progress.reduce(UpdateProgress.FAILURE);
+                    continue;
+                }
 
                 try {
                     Optional<ContentHierarchyAndSummaries> possibleHierarchy = processor.process(
@@ -78,15 +101,16 @@ public class PaChannelProcessor {
                         );
                     }
 
-                    processed++;
+                    progress = progress.reduce(UpdateProgress.SUCCESS);
                 } catch (Exception e) {
                     log.error(
                             "Error processing channel {}, prog id {}",
                             channel.getKey(),
                             programme.getProgId()
                     );
+                    progress = progress.reduce(UpdateProgress.FAILURE);
                 } finally {
-                    unlock(currentlyProcessing, programmeLock);
+                    programmeLocks.unlock(programmeLock);
                 }
             }
         } catch (Exception e) {
@@ -124,24 +148,7 @@ public class PaChannelProcessor {
             );
         }
 
-        return processed;
-    }
-
-    private void unlock(Set<String> currentlyProcessing, String programmeLock) {
-        synchronized (currentlyProcessing) {
-            currentlyProcessing.remove(programmeLock);
-            currentlyProcessing.notifyAll();
-        }
-    }
-
-    private void lock(Set<String> currentlyProcessing, String programmeLock)
-            throws InterruptedException {
-        synchronized (currentlyProcessing) {
-            while (currentlyProcessing.contains(programmeLock)) {
-                currentlyProcessing.wait();
-            }
-            currentlyProcessing.add(programmeLock);
-        }
+        return progress;
     }
 
     private String lockIdentifier(ProgData programme) {
@@ -0,0 +1,151 @@
+package org.atlasapi.remotesite.pa;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.atlasapi.remotesite.pa.listings.bindings.ChannelData;
+import org.atlasapi.remotesite.pa.listings.bindings.ProgData;
+
+/**
+ * Reads PA listings files one {@code channel_data} element at a time with StAX, so that only the
+ * channel currently being read is held in memory rather than the whole file.
+ * <p>
+ * Each channel's attributes are offered to the caller before any of its programmes are read, so
+ * unwanted channels are skipped without unmarshalling them. Only {@code prog_data} elements are
+ * unmarshalled, using a JAXB context shared by all parsers and pooled unmarshallers.
+ */
+public class PaListingsParser {
+
+    private static final String BINDINGS_PACKAGE = "org.atlasapi.remotesite.pa.listings.bindings";
+    private static final String CHANNEL_DATA = "channel_data";
+    private static final String PROG_DATA = "prog_data";
+
+    private static volatile JAXBContext context;
+
+    private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+    private final XMLInputFactory inputFactory;
+
+    public PaListingsParser() {
+        this.inputFactory = XMLInputFactory.newInstance();
+        this.inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    public interface ChannelHandler {
+
+        /**
+         * Called with the attributes of each channel before its programmes are read. Returning
+         * false skips the channel.
+         */
+        boolean shouldProcess(ChannelData channel);
+
+        /**
+         * Called with each wanted channel once all of its programmes have been read.
+         */
+        void process(ChannelData channel) throws InterruptedException;
+    }
+
+    public void parse(File file, ChannelHandler handler)
+            throws IOException, JAXBException, XMLStreamException, InterruptedException {
+        Unmarshaller unmarshaller = borrowUnmarshaller();
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(
+                    file.toURI().toString(),
+                    in
+            );
+            try {
+                parse(reader, unmarshaller, handler);
+            } finally {
+                reader.close();
+            }
+        } finally {
+            unmarshallers.offer(unmarshaller);
+        }
+    }
+
+    private void parse(XMLStreamReader reader, Unmarshaller unmarshaller, ChannelHandler handler)
+            throws JAXBException, XMLStreamException, InterruptedException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamReader.START_ELEMENT
+                    && CHANNEL_DATA.equals(reader.getLocalName())) {
+                ChannelData channel = channelAttributes(reader);
+                if (handler.shouldProcess(channel)) {
+                    readProgrammes(reader, unmarshaller, channel);
+                    handler.process(channel);
+                } else {
+                    skipElement(reader);
+                }
+            }
+        }
+    }
+
+    private ChannelData channelAttributes(XMLStreamReader reader) {
+        ChannelData channel = new ChannelData();
+        channel.setName(reader.getAttributeValue(null, "name"));
+        channel.setChannelId(reader.getAttributeValue(null, "channel_id"));
+        channel.setStartTime(reader.getAttributeValue(null, "start_time"));
+        channel.setEndTime(reader.getAttributeValue(null, "end_time"));
+        return channel;
+    }
+
+    /**
+     * Reads up to and including the end of the current {@code channel_data} element. The
+     * unmarshaller leaves the reader on the event following each {@code prog_data} element, so
+     * the reader is only advanced explicitly when no element was unmarshalled.
+     */
+    private void readProgrammes(
+            XMLStreamReader reader,
+            Unmarshaller unmarshaller,
+            ChannelData channel
+    ) throws JAXBException, XMLStreamException {
+        reader.next();
+        while (reader.hasNext()) {
+            if (reader.isStartElement() && PROG_DATA.equals(reader.getLocalName())) {
+                channel.getProgData().add(unmarshaller.unmarshal(reader, ProgData.class).getValue());
+            } else if (reader.isEndElement() && CHANNEL_DATA.equals(reader.getLocalName())) {
+                return;
+            } else {
+                reader.next();
+            }
+        }
+    }
+
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private Unmarshaller borrowUnmarshaller() throws JAXBException {
+        Unmarshaller unmarshaller = unmarshallers.poll();
+        return unmarshaller != null ? unmarshaller : context().createUnmarshaller();
+    }
+
+    private static JAXBContext context() throws JAXBException {
+        if (context == null) {
+            synchronized (PaListingsParser.class) {
+                if (context == null) {
+                    context = JAXBContext.newInstance(BINDINGS_PACKAGE);
+                }
+            }
+        }
+        return context;
+    }
+}
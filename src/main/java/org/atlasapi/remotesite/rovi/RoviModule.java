@@ -6,7 +6,9 @@ import org.atlasapi.media.channel.ChannelResolver;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ContentWriter;
 import org.atlasapi.remotesite.metabroadcast.MongoSchedulingStore;
+import org.atlasapi.remotesite.rovi.indexing.KeyedFileIndexer;
 import org.atlasapi.remotesite.rovi.indexing.MapBasedKeyedFileIndexer;
+import org.atlasapi.remotesite.rovi.indexing.MappedKeyedFileIndexer;
 import org.atlasapi.remotesite.rovi.model.RoviEpisodeSequenceLine;
 import org.atlasapi.remotesite.rovi.model.RoviProgramDescriptionLine;
 import org.atlasapi.remotesite.rovi.model.RoviProgramLine;
@@ -25,6 +27,7 @@ import org.atlasapi.remotesite.rovi.processing.RoviFullIngestProcessor;
 import org.atlasapi.remotesite.rovi.processing.ScheduleFileProcessor;
 import org.atlasapi.remotesite.rovi.tasks.RoviIngestTask;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -37,25 +40,30 @@ public class RoviModule {
 
     private static final boolean FULL_INGEST = true;
     private static final boolean DELTA_INGEST = false;
+    private static final boolean PERSIST_INDEXES = true;
 
     private @Autowired SimpleScheduler scheduler;
     private @Autowired ContentWriter contentWriter;
     private @Autowired ContentResolver contentResolver;
     private @Autowired ChannelResolver channelResolver;
     private @Autowired DatabasedMongo mongo;
+
+    private @Value("${rovi.ingest.parallelism}") int ingestParallelism;
     
     @Bean
-    public MapBasedKeyedFileIndexer<String, RoviProgramDescriptionLine> descriptionsIndexer() {
-        return new MapBasedKeyedFileIndexer<>(
+    public KeyedFileIndexer<String, RoviProgramDescriptionLine> descriptionsIndexer() {
+        return new MappedKeyedFileIndexer<>(
                 RoviConstants.FILE_CHARSET,
-                new RoviProgramDescriptionLineParser());
+                new RoviProgramDescriptionLineParser(),
+                PERSIST_INDEXES);
     }
 
     @Bean
-    public MapBasedKeyedFileIndexer<String, RoviEpisodeSequenceLine> episodeSequenceIndexer() {
-        return new MapBasedKeyedFileIndexer<>(
+    public KeyedFileIndexer<String, RoviEpisodeSequenceLine> episodeSequenceIndexer() {
+        return new MappedKeyedFileIndexer<>(
                 RoviConstants.FILE_CHARSET,
-                new RoviEpisodeSequenceLineParser());
+                new RoviEpisodeSequenceLineParser(),
+                PERSIST_INDEXES);
     }
 
     @Bean
@@ -91,7 +99,8 @@ public class RoviModule {
                 contentResolver,
                 fullIngestScheduleProcessor(),
                 auxCacheSupplier(),
-                ingestStatusPersistor());
+                ingestStatusPersistor(),
+                ingestParallelism);
     }
 
     @Bean
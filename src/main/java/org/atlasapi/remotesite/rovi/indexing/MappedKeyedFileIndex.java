@@ -0,0 +1,202 @@
+package org.atlasapi.remotesite.rovi.indexing;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Set;
+
+import com.google.common.base.Function;
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+
+/**
+ * An implementation that memory-maps the file and keeps, for every indexed line, the hash of its
+ * key, its pointer and its size in primitive arrays sorted by key hash. Lines are decoded
+ * straight from the mapped file, so lookups can run concurrently.
+ * <p>
+ * Lines whose keys share a hash are told apart by parsing them and comparing their keys. Keys
+ * are not held in memory, so {@link #getKeys()} parses every indexed line the first time it's
+ * called.
+ */
+public class MappedKeyedFileIndex<T, S extends KeyedLine<T>> implements KeyedFileIndex<T, S> {
+
+    /**
+     * Files bigger than this are mapped in several segments. Each segment also maps the longest
+     * line past its end, so that every line can be read from the segment in which it starts.
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    private final File file;
+    private final int[] hashes;
+    private final long[] pointers;
+    private final int[] sizes;
+    private final Charset charset;
+    private final Function<String, S> toParsedLine;
+    private final Supplier<Set<T>> keys = Suppliers.memoize(this::readKeys);
+
+    private volatile ByteBuffer[] segments;
+
+    /**
+     * @param hashes - the key hash of every indexed line, in ascending order
+     * @param pointers - the pointer of every indexed line, in the same order as the hashes
+     * @param sizes - the size in bytes of every indexed line, in the same order as the hashes
+     */
+    public MappedKeyedFileIndex(File file, int[] hashes, long[] pointers, int[] sizes,
+            Charset charset, Function<String, S> toParsedLine) throws IOException {
+        checkArgument(hashes.length == pointers.length && hashes.length == sizes.length,
+                "Hashes, pointers and sizes must have the same length");
+        this.file = checkNotNull(file);
+        this.hashes = hashes;
+        this.pointers = pointers;
+        this.sizes = sizes;
+        this.charset = checkNotNull(charset);
+        this.toParsedLine = checkNotNull(toParsedLine);
+
+        this.segments = map(file, maxSize(sizes));
+    }
+
+    private static ByteBuffer[] map(File file, int maxSize) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+                FileChannel channel = randomAccessFile.getChannel()) {
+            long length = channel.size();
+            int segmentCount = (int) Math.max(1, (length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+            ByteBuffer[] segments = new ByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long start = i * SEGMENT_SIZE;
+                long size = Math.min(length - start, SEGMENT_SIZE + maxSize);
+                segments[i] = channel.map(MapMode.READ_ONLY, start, size);
+            }
+            // The mappings remain valid once the channel is closed
+            return segments;
+        }
+    }
+
+    private static int maxSize(int[] sizes) {
+        int max = 0;
+        for (int size : sizes) {
+            max = Math.max(max, size);
+        }
+        return max;
+    }
+
+    @Override
+    public Collection<S> getLinesForKey(T key) throws IndexAccessException {
+        return getLinesForKey(key, Predicates.<S>alwaysTrue());
+    }
+
+    @Override
+    public Collection<S> getLinesForKey(T key, Predicate<? super S> predicate)
+            throws IndexAccessException {
+        ByteBuffer[] mapped = mapped(key);
+        ImmutableList.Builder<S> builder = ImmutableList.builder();
+
+        int hash = key.hashCode();
+        for (int entry = firstEntry(hash); entry < hashes.length && hashes[entry] == hash; entry++) {
+            S parsed = getParsed(mapped, entry);
+            if (key.equals(parsed.getKey()) && predicate.apply(parsed)) {
+                builder.add(parsed);
+            }
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public Optional<S> getFirstForKey(T key) throws IndexAccessException {
+        ByteBuffer[] mapped = mapped(key);
+
+        int hash = key.hashCode();
+        for (int entry = firstEntry(hash); entry < hashes.length && hashes[entry] == hash; entry++) {
+            S parsed = getParsed(mapped, entry);
+            if (key.equals(parsed.getKey())) {
+                return Optional.of(parsed);
+            }
+        }
+
+        return Optional.absent();
+    }
+
+    @Override
+    public Set<T> getKeys() {
+        return keys.get();
+    }
+
+    private Set<T> readKeys() {
+        ByteBuffer[] mapped = segments;
+        if (mapped == null) {
+            throw new IllegalStateException("Index for file " + file.getAbsolutePath() + " has been released");
+        }
+
+        ImmutableSet.Builder<T> builder = ImmutableSet.builder();
+        for (int entry = 0; entry < hashes.length; entry++) {
+            builder.add(getParsed(mapped, entry).getKey());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the position of the first entry with the given hash, or of the first entry with a
+     *         greater hash if there isn't one
+     */
+    private int firstEntry(int hash) {
+        int low = 0;
+        int high = hashes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (hashes[middle] < hash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private ByteBuffer[] mapped(T key) throws IndexAccessException {
+        ByteBuffer[] mapped = segments;
+        if (mapped == null) {
+            throw new IndexAccessException("Error while trying to access the index - key: "
+                    + key.toString() + ", index for file " + file.getAbsolutePath() + " has been released");
+        }
+        return mapped;
+    }
+
+    private S getParsed(ByteBuffer[] mapped, int entry) {
+        return toParsedLine.apply(readData(mapped, entry));
+    }
+
+    private String readData(ByteBuffer[] mapped, int entry) {
+        long pointer = pointers[entry];
+        // Duplicating gives this read its own position and limit over the shared mapping
+        ByteBuffer line = mapped[(int) (pointer / SEGMENT_SIZE)].duplicate();
+        int position = (int) (pointer % SEGMENT_SIZE);
+        line.limit(position + sizes[entry]);
+        line.position(position);
+
+        return charset.decode(line).toString();
+    }
+
+    /**
+     * Drops the index's references to the mapped file. The mapping itself is released once it's
+     * garbage collected.
+     */
+    @Override
+    public void releaseResources() {
+        segments = null;
+    }
+
+}
@@ -0,0 +1,204 @@
+package org.atlasapi.remotesite.rovi.indexing;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import org.atlasapi.remotesite.rovi.parsers.RoviLineParser;
+import org.atlasapi.remotesite.rovi.processing.RoviDataProcessingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.io.Files;
+
+import it.unimi.dsi.fastutil.Arrays;
+import it.unimi.dsi.fastutil.ints.AbstractIntComparator;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+
+/**
+ * An implementation that creates an index of type {@link MappedKeyedFileIndex}.
+ * <p>
+ * When persistence is enabled, an index built without a predicate is also written next to the
+ * file, with a {@value #INDEX_FILE_SUFFIX} suffix, and reused as long as the file's length and
+ * last modified time haven't changed. This relies on the key's hash code being stable across
+ * JVMs, as it is for {@link String} keys.
+ */
+public class MappedKeyedFileIndexer<T, S extends KeyedLine<T>> implements KeyedFileIndexer<T, S> {
+
+    private final static Logger LOG = LoggerFactory.getLogger(MappedKeyedFileIndexer.class);
+
+    public static final String INDEX_FILE_SUFFIX = ".idx";
+    private static final int INDEX_FILE_MAGIC = 0x524f5649;
+    private static final int INDEX_FILE_VERSION = 1;
+
+    private final RoviLineParser<S> parser;
+    private final Charset charset;
+    private final boolean persistIndex;
+
+    public MappedKeyedFileIndexer(Charset charset, RoviLineParser<S> parser, boolean persistIndex) {
+        this.parser = checkNotNull(parser);
+        this.charset = checkNotNull(charset);
+        this.persistIndex = persistIndex;
+    }
+
+    @Override
+    public KeyedFileIndex<T, S> index(File file) throws IOException {
+        if (!persistIndex) {
+            return build(file, Optional.<Predicate<? super S>>absent());
+        }
+
+        File indexFile = indexFileFor(file);
+        Optional<KeyedFileIndex<T, S>> persisted = readPersisted(file, indexFile);
+        if (persisted.isPresent()) {
+            LOG.info("Reusing index {} for file {}", indexFile.getAbsolutePath(), file.getAbsolutePath());
+            return persisted.get();
+        }
+
+        return build(file, Optional.<Predicate<? super S>>absent());
+    }
+
+    @Override
+    public KeyedFileIndex<T, S> index(File file, Predicate<? super S> isToIndex) throws IOException {
+        return build(file, Optional.<Predicate<? super S>>of(isToIndex));
+    }
+
+    public static File indexFileFor(File file) {
+        return new File(file.getAbsolutePath() + INDEX_FILE_SUFFIX);
+    }
+
+    private MappedKeyedFileIndex<T, S> build(File file, Optional<Predicate<? super S>> shouldIndex)
+            throws IOException {
+        final IntArrayList hashes = new IntArrayList();
+        final LongArrayList pointers = new LongArrayList();
+        final IntArrayList sizes = new IntArrayList();
+
+        LOG.info("Start indexing file {}", file.getAbsolutePath());
+
+        RoviDataProcessingResult result = Files.readLines(file, charset, new RoviLineIndexer<T, S>(
+                parser,
+                charset,
+                (key, pointer, size) -> {
+                    hashes.add(key.hashCode());
+                    pointers.add(pointer);
+                    sizes.add(size);
+                },
+                shouldIndex));
+
+        LOG.info("File {} indexed. Result: {}", file.getAbsolutePath(), result);
+
+        int[] sortedHashes = hashes.toIntArray();
+        long[] sortedPointers = pointers.toLongArray();
+        int[] sortedSizes = sizes.toIntArray();
+        sortByHash(sortedHashes, sortedPointers, sortedSizes);
+
+        if (persistIndex && !shouldIndex.isPresent()) {
+            persist(file, sortedHashes, sortedPointers, sortedSizes);
+        }
+
+        return new MappedKeyedFileIndex<>(file, sortedHashes, sortedPointers, sortedSizes, charset, parser);
+    }
+
+    /**
+     * Sorts by hash, keeping lines with the same hash in the order they appear in the file
+     */
+    private static void sortByHash(final int[] hashes, final long[] pointers, final int[] sizes) {
+        Arrays.quickSort(0, hashes.length, new AbstractIntComparator() {
+
+            @Override
+            public int compare(int first, int second) {
+                int byHash = Integer.compare(hashes[first], hashes[second]);
+                if (byHash != 0) {
+                    return byHash;
+                }
+                return Long.compare(pointers[first], pointers[second]);
+            }
+        }, (first, second) -> {
+            int hash = hashes[first];
+            hashes[first] = hashes[second];
+            hashes[second] = hash;
+
+            long pointer = pointers[first];
+            pointers[first] = pointers[second];
+            pointers[second] = pointer;
+
+            int size = sizes[first];
+            sizes[first] = sizes[second];
+            sizes[second] = size;
+        });
+    }
+
+    private void persist(File file, int[] hashes, long[] pointers, int[] sizes) {
+        File indexFile = indexFileFor(file);
+        File tmpFile = new File(indexFile.getAbsolutePath() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            output.writeInt(INDEX_FILE_MAGIC);
+            output.writeInt(INDEX_FILE_VERSION);
+            output.writeLong(file.length());
+            output.writeLong(file.lastModified());
+            output.writeInt(hashes.length);
+            for (int i = 0; i < hashes.length; i++) {
+                output.writeInt(hashes[i]);
+                output.writeLong(pointers[i]);
+                output.writeInt(sizes[i]);
+            }
+        } catch (IOException e) {
+            LOG.warn("Error while persisting index for file " + file.getAbsolutePath(), e);
+            tmpFile.delete();
+            return;
+        }
+
+        if (!tmpFile.renameTo(indexFile)) {
+            LOG.warn("Could not move index to {}", indexFile.getAbsolutePath());
+            tmpFile.delete();
+        }
+    }
+
+    private Optional<KeyedFileIndex<T, S>> readPersisted(File file, File indexFile) {
+        if (!indexFile.exists()) {
+            return Optional.absent();
+        }
+
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (input.readInt() != INDEX_FILE_MAGIC
+                    || input.readInt() != INDEX_FILE_VERSION
+                    || input.readLong() != file.length()
+                    || input.readLong() != file.lastModified()) {
+                LOG.info("Index {} is out of date, re-indexing", indexFile.getAbsolutePath());
+                return Optional.absent();
+            }
+
+            int count = input.readInt();
+            int[] hashes = new int[count];
+            long[] pointers = new long[count];
+            int[] sizes = new int[count];
+            for (int i = 0; i < count; i++) {
+                hashes[i] = input.readInt();
+                pointers[i] = input.readLong();
+                sizes[i] = input.readInt();
+            }
+
+            return Optional.<KeyedFileIndex<T, S>>of(
+                    new MappedKeyedFileIndex<>(file, hashes, pointers, sizes, charset, parser)
+            );
+        } catch (IOException e) {
+            LOG.warn("Error while reading index " + indexFile.getAbsolutePath() + ", re-indexing", e);
+            return Optional.absent();
+        }
+    }
+
+}
@@ -20,13 +20,17 @@ public class RoviLineIndexer<T, S extends KeyedLine<T>> extends RoviLineProcesso
 
     private static final Logger LOG = LoggerFactory.getLogger(RoviLineIndexer.class);
     
-    private final Multimap<T, PointerAndSize> indexMap;
+    private final IndexedLineSink<T> sink;
     private final AtomicLong currentPointer = new AtomicLong(0);
     private final Optional<Predicate<? super S>> isToIndex;
     
     public RoviLineIndexer(RoviLineParser<S> parser, Charset charset, Multimap<T, PointerAndSize> indexMap, Optional<Predicate<? super S>> isToIndex) {
+        this(parser, charset, (key, pointer, size) -> indexMap.put(key, new PointerAndSize(pointer, size)), isToIndex);
+    }
+
+    public RoviLineIndexer(RoviLineParser<S> parser, Charset charset, IndexedLineSink<T> sink, Optional<Predicate<? super S>> isToIndex) {
         super(parser, charset);
-        this.indexMap = indexMap;
+        this.sink = sink;
         this.isToIndex = isToIndex;
     }
     
@@ -48,7 +52,7 @@ public class RoviLineIndexer<T, S extends KeyedLine<T>> extends RoviLineProcesso
     protected void process(String line, S parsedLine) throws IndexAccessException {
         // Can happen that a field used as a key is null, for example for Rovi Delete records
         if (parsedLine.getKey() != null) {
-            indexMap.put(parsedLine.getKey(), new PointerAndSize(currentPointer.get(), getSizeInBytes(line)));
+            sink.add(parsedLine.getKey(), currentPointer.get(), getSizeInBytes(line));
         }
     }
 
@@ -76,4 +80,13 @@ public class RoviLineIndexer<T, S extends KeyedLine<T>> extends RoviLineProcesso
         throw new RuntimeException(errorMessage(line), e);
     }
 
+    /**
+     * Receives the position in the file of every indexed line
+     */
+    public interface IndexedLineSink<T> {
+
+        void add(T key, long pointer, int size);
+
+    }
+
 }
@@ -16,9 +16,11 @@ import org.atlasapi.remotesite.rovi.indexing.KeyedFileIndex;
 import org.atlasapi.remotesite.rovi.indexing.KeyedFileIndexer;
 import org.atlasapi.remotesite.rovi.model.RoviEpisodeSequenceLine;
 import org.atlasapi.remotesite.rovi.model.RoviProgramDescriptionLine;
+import org.atlasapi.remotesite.rovi.model.RoviProgramLine;
 import org.atlasapi.remotesite.rovi.parsers.RoviProgramLineParser;
 import org.atlasapi.remotesite.rovi.parsers.RoviSeasonHistoryLineParser;
 import org.atlasapi.remotesite.rovi.populators.ContentPopulatorSupplier;
+import org.atlasapi.remotesite.rovi.processing.restartable.IngestParallelFileProcessingStep;
 import org.atlasapi.remotesite.rovi.processing.restartable.IngestSequentialFileProcessingStep;
 import org.atlasapi.remotesite.rovi.processing.restartable.IngestProcessingChain;
 import org.atlasapi.remotesite.rovi.processing.restartable.IngestProcessingStep;
@@ -30,11 +32,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 
 public class RoviFullIngestProcessor implements RoviIngestProcessor {
     private final static Logger LOG = LoggerFactory.getLogger(RoviFullIngestProcessor.class);
     private static final int MAX_CACHE_SIZE = 100000;
+    private static final int SEQUENTIAL = 1;
 
     private final KeyedFileIndexer<String, RoviProgramDescriptionLine> programDescriptionIndexer;
     private final KeyedFileIndexer<String, RoviEpisodeSequenceLine> episodeSequenceIndexer;
@@ -43,6 +47,7 @@ public class RoviFullIngestProcessor implements RoviIngestProcessor {
     private final ScheduleFileProcessor scheduleFileProcessor;
     private final AuxiliaryCacheSupplier auxCacheSupplier;
     private final IngestStatusStore ingestStatusStore;
+    private final int parallelism;
 
     public RoviFullIngestProcessor(
             KeyedFileIndexer<String, RoviProgramDescriptionLine> programDescriptionIndexer,
@@ -52,6 +57,24 @@ public class RoviFullIngestProcessor implements RoviIngestProcessor {
             ScheduleFileProcessor scheduleFileProcessor,
             AuxiliaryCacheSupplier auxCacheSupplier,
             IngestStatusStore ingestStatusStore) {
+        this(programDescriptionIndexer, episodeSequenceIndexer, contentWriter, contentResolver,
+                scheduleFileProcessor, auxCacheSupplier, ingestStatusStore, SEQUENTIAL);
+    }
+
+    /**
+     * @param parallelism - the number of threads processing the program file in each of the
+     *            program steps. With more than one the file is processed in byte ranges, see
+     *            {@link IngestParallelFileProcessingStep}.
+     */
+    public RoviFullIngestProcessor(
+            KeyedFileIndexer<String, RoviProgramDescriptionLine> programDescriptionIndexer,
+            KeyedFileIndexer<String, RoviEpisodeSequenceLine> episodeSequenceIndexer,
+            RoviContentWriter contentWriter,
+            ContentResolver contentResolver,
+            ScheduleFileProcessor scheduleFileProcessor,
+            AuxiliaryCacheSupplier auxCacheSupplier,
+            IngestStatusStore ingestStatusStore,
+            int parallelism) {
 
         this.programDescriptionIndexer = checkNotNull(programDescriptionIndexer);
         this.episodeSequenceIndexer = checkNotNull(episodeSequenceIndexer);
@@ -60,6 +83,7 @@ public class RoviFullIngestProcessor implements RoviIngestProcessor {
         this.scheduleFileProcessor = checkNotNull(scheduleFileProcessor);
         this.auxCacheSupplier = checkNotNull(auxCacheSupplier);
         this.ingestStatusStore = checkNotNull(ingestStatusStore);
+        this.parallelism = parallelism;
     }
 
     @Override
@@ -104,40 +128,50 @@ public class RoviFullIngestProcessor implements RoviIngestProcessor {
             KeyedFileIndex<String, RoviProgramDescriptionLine> descriptionIndex,
             KeyedFileIndex<String, RoviEpisodeSequenceLine> episodeSequenceIndex) {
 
-        RoviProgramLineIngestor ingestor = new RoviProgramLineIngestor (
-                new RoviProgramLineParser(),
-                FILE_CHARSET,
-                IS_BRAND_NO_PARENT,
-                contentWriter,
-                contentResolver,
-                contentPopulator(descriptionIndex, episodeSequenceIndex)
-        );
+        return programIngestStep(IngestStep.BRANDS_NO_PARENT, programFile, IS_BRAND_NO_PARENT,
+                contentPopulator(descriptionIndex, episodeSequenceIndex));
+    }
+
+    private IngestProcessingStep brandsWithParentIngestStep(File programFile,
+            KeyedFileIndex<String, RoviProgramDescriptionLine> descriptionIndex,
+            KeyedFileIndex<String, RoviEpisodeSequenceLine> episodeSequenceIndex) {
+
+        return programIngestStep(IngestStep.BRANDS_WITH_PARENT, programFile, IS_BRAND_WITH_PARENT,
+                contentPopulator(descriptionIndex, episodeSequenceIndex));
+    }
+
+    private IngestProcessingStep programIngestStep(IngestStep step, File programFile,
+            final Predicate<? super RoviProgramLine> shouldProcess,
+            final ContentPopulatorSupplier contentPopulator) {
+
+        if (parallelism > SEQUENTIAL) {
+            return IngestParallelFileProcessingStep.builder(FILE_CHARSET, ingestStatusStore)
+                    .withStep(step)
+                    .withFile(programFile)
+                    .withProcessors(() -> programLineIngestor(shouldProcess, contentPopulator))
+                    .withParallelism(parallelism)
+                    .build();
+        }
 
         return processingStepBuilder()
-                .withStep(IngestStep.BRANDS_NO_PARENT)
+                .withStep(step)
                 .withFile(programFile)
-                .withProcessor(ingestor)
+                .withProcessor(programLineIngestor(shouldProcess, contentPopulator))
                 .build();
     }
 
-    private IngestProcessingStep brandsWithParentIngestStep(File programFile,
-            KeyedFileIndex<String, RoviProgramDescriptionLine> descriptionIndex,
-            KeyedFileIndex<String, RoviEpisodeSequenceLine> episodeSequenceIndex) {
+    private RoviProgramLineIngestor programLineIngestor(
+            Predicate<? super RoviProgramLine> shouldProcess,
+            ContentPopulatorSupplier contentPopulator) {
 
-        RoviProgramLineIngestor ingestor = new RoviProgramLineIngestor(
+        return new RoviProgramLineIngestor(
                 new RoviProgramLineParser(),
                 FILE_CHARSET,
-                IS_BRAND_WITH_PARENT,
+                shouldProcess,
                 contentWriter,
                 contentResolver,
-                contentPopulator(descriptionIndex, episodeSequenceIndex)
+                contentPopulator
         );
-
-        return processingStepBuilder()
-                .withStep(IngestStep.BRANDS_WITH_PARENT)
-                .withFile(programFile)
-                .withProcessor(ingestor)
-                .build();
     }
 
     private IngestProcessingStep seriesIngestStep(File seasonsFile) {
@@ -159,40 +193,16 @@ public class RoviFullIngestProcessor implements RoviIngestProcessor {
             KeyedFileIndex<String, RoviProgramDescriptionLine> descriptionIndex,
             KeyedFileIndex<String, RoviEpisodeSequenceLine> episodeSequenceIndex) {
 
-        RoviProgramLineIngestor ingestor = new RoviProgramLineIngestor(
-                new RoviProgramLineParser(),
-                FILE_CHARSET,
-                NO_BRAND_NO_PARENT,
-                contentWriter,
-                contentResolver,
-                contentPopulator(descriptionIndex, episodeSequenceIndex)
-        );
-
-        return  processingStepBuilder()
-                .withStep(IngestStep.ITEMS_NO_PARENT)
-                .withFile(programFile)
-                .withProcessor(ingestor)
-                .build();
+        return programIngestStep(IngestStep.ITEMS_NO_PARENT, programFile, NO_BRAND_NO_PARENT,
+                contentPopulator(descriptionIndex, episodeSequenceIndex));
     }
 
     private IngestProcessingStep itemWithParentIngestStep(File programFile,
             KeyedFileIndex<String, RoviProgramDescriptionLine> descriptionIndex,
             KeyedFileIndex<String, RoviEpisodeSequenceLine> episodeSequenceIndex) {
 
-        RoviProgramLineIngestor ingestor = new RoviProgramLineIngestor(
-                new RoviProgramLineParser(),
-                FILE_CHARSET,
-                NO_BRAND_WITH_PARENT,
-                contentWriter,
-                contentResolver,
-                contentPopulator(descriptionIndex, episodeSequenceIndex)
-        );
-
-        return processingStepBuilder()
-                .withStep(IngestStep.ITEMS_WITH_PARENT)
-                .withFile(programFile)
-                .withProcessor(ingestor)
-                .build();
+        return programIngestStep(IngestStep.ITEMS_WITH_PARENT, programFile, NO_BRAND_WITH_PARENT,
+                contentPopulator(descriptionIndex, episodeSequenceIndex));
     }
 
     private IngestProcessingStep broadcastsIngestStep(File scheduleFile) {
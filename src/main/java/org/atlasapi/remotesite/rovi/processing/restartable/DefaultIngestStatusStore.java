@@ -14,6 +14,7 @@ public class DefaultIngestStatusStore implements IngestStatusStore {
     private static final String ROVI_FULL_INGEST_JOB_KEY = "rovi-full-ingest";
     private static final String STEP_KEY = "step";
     private static final String LAST_LINE_KEY = "lastLine";
+    private static final String RANGES_KEY = "ranges";
 
     private final SchedulingStore store;
 
@@ -32,7 +33,18 @@ public class DefaultIngestStatusStore implements IngestStatusStore {
         IngestStep step = IngestStep.valueOf((String) status.get().get(STEP_KEY));
         long lastLine = (Long) status.get().get(LAST_LINE_KEY);
 
-        return Optional.of(new IngestStatus(step, lastLine));
+        return Optional.of(new IngestStatus(step, lastLine, ranges(status.get().get(RANGES_KEY))));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Long> ranges(Object storedRanges) {
+        ImmutableMap.Builder<Long, Long> ranges = ImmutableMap.builder();
+        if (storedRanges instanceof Map) {
+            for (Map.Entry<String, Object> range : ((Map<String, Object>) storedRanges).entrySet()) {
+                ranges.put(Long.valueOf(range.getKey()), ((Number) range.getValue()).longValue());
+            }
+        }
+        return ranges.build();
     }
 
     @Override
@@ -40,12 +52,22 @@ public class DefaultIngestStatusStore implements IngestStatusStore {
         Map<String, Object> values = ImmutableMap.<String, Object>builder()
                 .put(STEP_KEY, newStatus.getCurrentStep().name())
                 .put(LAST_LINE_KEY, newStatus.getLatestProcessedLine())
+                .put(RANGES_KEY, storableRanges(newStatus.getProcessedLinesByRange()))
                 .build();
 
         store.storeState(ROVI_FULL_INGEST_JOB_KEY,
                 values);
     }
 
+    // Mongo documents can only have string keys
+    private Map<String, Object> storableRanges(Map<Long, Long> ranges) {
+        ImmutableMap.Builder<String, Object> storable = ImmutableMap.builder();
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            storable.put(range.getKey().toString(), range.getValue());
+        }
+        return storable.build();
+    }
+
     @Override
     public void markAsCompleted() {
         persistIngestStatus(IngestStatus.COMPLETED);
@@ -0,0 +1,310 @@
+package org.atlasapi.remotesite.rovi.processing.restartable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.atlasapi.remotesite.rovi.processing.RoviDataProcessingResult;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.LineProcessor;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Processes a file in byte ranges that start and end on line boundaries, with several ranges
+ * processed concurrently, each through its own processor. Lines within a range are processed in
+ * the order they appear in the file, so any ordering between lines of the same key holds as long
+ * as those lines are in the same range; ordering across the content hierarchy is given by the
+ * sequence of steps.
+ * <p>
+ * The number of lines processed in each range is recorded in the {@link IngestStatusStore}, keyed
+ * by the offset at which the range starts, and a recovered step skips those lines. Ranges only
+ * depend on the file and on the number of ranges, so a step recovered with a different number of
+ * ranges processes the whole file again.
+ */
+public class IngestParallelFileProcessingStep extends AbstractIngestProcessingStep {
+
+    private final static Logger LOG = LoggerFactory.getLogger(IngestParallelFileProcessingStep.class);
+    private static final int UPDATE_STATUS_EVERY_N_LINES = 500;
+    private static final int RANGES_PER_THREAD = 4;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+    private static final String NEW_LINE = "\n";
+
+    private final Supplier<? extends LineProcessor<RoviDataProcessingResult>> processors;
+    private final File file;
+    private final Charset charset;
+    private final IngestStatusStore persistor;
+    private final int parallelism;
+
+    private IngestParallelFileProcessingStep(IngestStep step,
+            Supplier<? extends LineProcessor<RoviDataProcessingResult>> processors, File file,
+            Charset charset, IngestStatusStore persistor, int parallelism) {
+        super(step);
+        checkArgument(parallelism > 0, "parallelism must be positive");
+        this.processors = checkNotNull(processors);
+        this.file = checkNotNull(file);
+        this.charset = checkNotNull(charset);
+        this.persistor = checkNotNull(persistor);
+        this.parallelism = parallelism;
+    }
+
+    public static Builder builder(Charset charset, IngestStatusStore persistor) {
+        return new Builder(charset, persistor);
+    }
+
+    @Override
+    public RoviDataProcessingResult executeWithStatus(IngestStatus ingestStatus) {
+        if (ingestStatus.getLatestProcessedLine() > 0 && ingestStatus.getProcessedLinesByRange().isEmpty()) {
+            LOG.warn("Step {} was recovered without range checkpoints, processing the whole file", getStep());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                new ThreadFactoryBuilder().setNameFormat("rovi-" + getStep().name().toLowerCase() + "-%d").build());
+        try {
+            List<ByteRange> ranges = split(file, charset, parallelism * RANGES_PER_THREAD);
+            RangeCheckpoints checkpoints = new RangeCheckpoints(ingestStatus.getProcessedLinesByRange());
+
+            List<Future<Optional<RoviDataProcessingResult>>> results = Lists.newArrayList();
+            for (final ByteRange range : ranges) {
+                results.add(executor.submit(() -> process(range, checkpoints)));
+            }
+
+            ImmutableList.Builder<RoviDataProcessingResult> completed = ImmutableList.builder();
+            for (Future<Optional<RoviDataProcessingResult>> result : results) {
+                completed.addAll(result.get().asSet());
+            }
+            return combine(completed.build());
+        } catch (IOException | ExecutionException e) {
+            throw new IngestStepFailedException("Failed to complete ingest step: " + getStep(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IngestStepFailedException("Interrupted while executing ingest step: " + getStep(), e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Optional<RoviDataProcessingResult> process(ByteRange range, RangeCheckpoints checkpoints)
+            throws IOException {
+        long alreadyProcessed = checkpoints.processedLines(range);
+        LineProcessor<RoviDataProcessingResult> processor = processors.get();
+        long scannedLines = 0;
+        boolean processedAny = false;
+
+        try (InputStream input = new FileInputStream(file)) {
+            ByteStreams.skipFully(input, range.start);
+            BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(ByteStreams.limit(input, range.end - range.start), charset));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                scannedLines++;
+                if (scannedLines <= alreadyProcessed) {
+                    continue;
+                }
+
+                processedAny = true;
+                boolean continueProcessing = processor.processLine(line);
+                if (scannedLines % UPDATE_STATUS_EVERY_N_LINES == 0) {
+                    checkpoints.update(range, scannedLines);
+                }
+                if (!continueProcessing) {
+                    break;
+                }
+            }
+        }
+        checkpoints.update(range, scannedLines);
+
+        if (!processedAny) {
+            return Optional.absent();
+        }
+        return Optional.of(processor.getResult());
+    }
+
+    private RoviDataProcessingResult combine(List<RoviDataProcessingResult> results) {
+        DateTime now = DateTime.now(DateTimeZone.UTC);
+        long processedLines = 0;
+        long failedLines = 0;
+        DateTime startTime = now;
+        DateTime endTime = null;
+
+        for (RoviDataProcessingResult result : results) {
+            processedLines += result.getProcessedLines();
+            failedLines += result.getFailedLines();
+            if (result.getStartTime().isBefore(startTime)) {
+                startTime = result.getStartTime();
+            }
+            if (endTime == null || result.getEndTime().isAfter(endTime)) {
+                endTime = result.getEndTime();
+            }
+        }
+
+        return new RoviDataProcessingResult(processedLines, failedLines, startTime,
+                endTime == null ? now : endTime);
+    }
+
+    /**
+     * Splits a file into at most {@code count} contiguous ranges, each starting at the beginning
+     * of a line. A split point is moved forward to just after the next new line, looking only at
+     * positions aligned to the width of an encoded new line so that, for example, the second
+     * byte of a UTF-16 character is never mistaken for one.
+     */
+    private static List<ByteRange> split(File file, Charset charset, int count) throws IOException {
+        byte[] newLine = NEW_LINE.getBytes(charset);
+        ImmutableList.Builder<ByteRange> ranges = ImmutableList.builder();
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+            long length = randomAccessFile.length();
+            long start = 0;
+            for (int i = 1; i < count && start < length; i++) {
+                long target = Math.max(start, length * i / count);
+                target -= target % newLine.length;
+                long end = nextLineStart(randomAccessFile, target, newLine);
+                if (end > start) {
+                    ranges.add(new ByteRange(start, end));
+                    start = end;
+                }
+            }
+            if (start < length || length == 0) {
+                ranges.add(new ByteRange(start, length));
+            }
+        }
+
+        return ranges.build();
+    }
+
+    private static long nextLineStart(RandomAccessFile file, long from, byte[] newLine)
+            throws IOException {
+        byte[] buffer = new byte[SCAN_BUFFER_SIZE - SCAN_BUFFER_SIZE % newLine.length];
+        long position = from;
+        file.seek(position);
+
+        int read;
+        while ((read = file.read(buffer)) > 0) {
+            for (int i = 0; i + newLine.length <= read; i += newLine.length) {
+                if (matches(buffer, i, newLine)) {
+                    return position + i + newLine.length;
+                }
+            }
+            // Reads of a local file only come up short at its end, which keeps positions aligned
+            position += read;
+        }
+
+        return file.length();
+    }
+
+    private static boolean matches(byte[] buffer, int offset, byte[] newLine) {
+        for (int i = 0; i < newLine.length; i++) {
+            if (buffer[offset + i] != newLine[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class ByteRange {
+
+        private final long start;
+        private final long end;
+
+        ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+    }
+
+    private class RangeCheckpoints {
+
+        private final Map<Long, Long> processedLines;
+
+        RangeCheckpoints(Map<Long, Long> recovered) {
+            this.processedLines = new ConcurrentHashMap<>(recovered);
+        }
+
+        long processedLines(ByteRange range) {
+            Long processed = processedLines.get(range.start);
+            return processed == null ? 0 : processed;
+        }
+
+        void update(ByteRange range, long lines) {
+            processedLines.put(range.start, lines);
+            persist();
+        }
+
+        // Each range only moves forward, so persisting a snapshot taken under the lock never
+        // overwrites a later checkpoint with an earlier one
+        private synchronized void persist() {
+            persistor.persistIngestStatus(
+                    new IngestStatus(getStep(), 0, ImmutableMap.copyOf(processedLines))
+            );
+        }
+
+    }
+
+    public static class Builder {
+        private IngestStep step;
+        private Supplier<? extends LineProcessor<RoviDataProcessingResult>> processors;
+        private File file;
+        private Charset charset;
+        private IngestStatusStore persistor;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Builder(Charset charset, IngestStatusStore persistor) {
+            this.charset = charset;
+            this.persistor = persistor;
+        }
+
+        public Builder withStep(IngestStep step) {
+            this.step = step;
+            return this;
+        }
+
+        /**
+         * @param processors - supplies a new processor for each range, as processors are not
+         *            shared between threads
+         */
+        public Builder withProcessors(Supplier<? extends LineProcessor<RoviDataProcessingResult>> processors) {
+            this.processors = processors;
+            return this;
+        }
+
+        public Builder withFile(File file) {
+            this.file = file;
+            return this;
+        }
+
+        public Builder withParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public IngestParallelFileProcessingStep build() {
+            return new IngestParallelFileProcessingStep(step, processors, file, charset, persistor, parallelism);
+        }
+    }
+}
@@ -3,8 +3,11 @@ package org.atlasapi.remotesite.rovi.processing.restartable;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Map;
 import java.util.Objects;
 
+import com.google.common.collect.ImmutableMap;
+
 
 public class IngestStatus {
 
@@ -12,10 +15,21 @@ public class IngestStatus {
 
     private final IngestStep currentStep;
     private final long latestProcessedLine;
+    private final ImmutableMap<Long, Long> processedLinesByRange;
 
     public IngestStatus(IngestStep currentStep, long processedLine) {
+        this(currentStep, processedLine, ImmutableMap.<Long, Long>of());
+    }
+
+    /**
+     * @param processedLinesByRange - for steps that process a file in byte ranges, the number of
+     *            lines processed in each range, keyed by the offset at which the range starts
+     */
+    public IngestStatus(IngestStep currentStep, long processedLine,
+            Map<Long, Long> processedLinesByRange) {
         this.currentStep = checkNotNull(currentStep);
         this.latestProcessedLine = processedLine;
+        this.processedLinesByRange = ImmutableMap.copyOf(processedLinesByRange);
     }
 
     public IngestStep getCurrentStep() {
@@ -26,6 +40,10 @@ public class IngestStatus {
         return latestProcessedLine;
     }
 
+    public ImmutableMap<Long, Long> getProcessedLinesByRange() {
+        return processedLinesByRange;
+    }
+
     public boolean isCompleted() {
         return currentStep.isCompleted();
     }
@@ -43,12 +61,13 @@ public class IngestStatus {
         IngestStatus thatStatus = (IngestStatus) that;
 
         return Objects.equals(this.currentStep, thatStatus.currentStep)
-                && Objects.equals(this.latestProcessedLine, thatStatus.latestProcessedLine);
+                && Objects.equals(this.latestProcessedLine, thatStatus.latestProcessedLine)
+                && Objects.equals(this.processedLinesByRange, thatStatus.processedLinesByRange);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentStep, latestProcessedLine);
+        return Objects.hash(currentStep, latestProcessedLine, processedLinesByRange);
     }
 
 }
@@ -0,0 +1,89 @@
+package org.atlasapi.remotesite.util;
+
+import org.atlasapi.media.entity.Content;
+
+import com.metabroadcast.common.time.Clock;
+import com.metabroadcast.common.time.SystemClock;
+
+import com.google.common.base.Optional;
+import org.joda.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Lets ingest writers skip writing content that is the same as when they last wrote it, without
+ * resolving the previously written document.
+ * <p>
+ * A fingerprint is only trusted for {@code maxAge} after it was written, since the stored
+ * content may since have been changed by something other than the ingest that fingerprinted
+ * it, such as a deactivator. Content is always written again once that has passed.
+ */
+public class ContentChangeDetector {
+
+    private final ContentFingerprinter fingerprinter;
+    private final ContentFingerprintStore store;
+    private final Clock clock;
+    private final Duration maxAge;
+
+    private ContentChangeDetector(
+            ContentFingerprinter fingerprinter,
+            ContentFingerprintStore store,
+            Clock clock,
+            Duration maxAge
+    ) {
+        this.fingerprinter = checkNotNull(fingerprinter);
+        this.store = checkNotNull(store);
+        this.clock = checkNotNull(clock);
+        this.maxAge = checkNotNull(maxAge);
+        checkArgument(maxAge.getMillis() > 0, "maxAge must be positive");
+    }
+
+    public static ContentChangeDetector create(ContentFingerprintStore store, Duration maxAge) {
+        return create(store, new SystemClock(), maxAge);
+    }
+
+    public static ContentChangeDetector create(
+            ContentFingerprintStore store,
+            Clock clock,
+            Duration maxAge
+    ) {
+        return new ContentChangeDetector(new ContentFingerprinter(), store, clock, maxAge);
+    }
+
+    /**
+     * Fingerprints content as built by ingest. This must be done before a writer sets anything
+     * on the content itself, and the result passed to both {@link #isUnchanged} and
+     * {@link #recordWritten}.
+     */
+    public String fingerprint(Content content) {
+        return fingerprinter.fingerprint(content);
+    }
+
+    /**
+     * Whether content with this fingerprint was recently written under the content's canonical
+     * URI. If so the content is given the id it was written with, as a write would have done.
+     */
+    public boolean isUnchanged(Content content, String fingerprint) {
+        Optional<ContentFingerprint> previous = store.fingerprintFor(content.getCanonicalUri());
+        if (!previous.isPresent()
+                || !previous.get().getFingerprint().equals(fingerprint)
+                || previous.get().getWritten().plus(maxAge).isBefore(clock.now())) {
+            return false;
+        }
+        content.setId(previous.get().getId());
+        return true;
+    }
+
+    public void recordWritten(Content content, String fingerprint) {
+        if (content.getId() == null) {
+            return;
+        }
+        store.store(new ContentFingerprint(
+                content.getCanonicalUri(),
+                fingerprint,
+                content.getId(),
+                clock.now()
+        ));
+    }
+}
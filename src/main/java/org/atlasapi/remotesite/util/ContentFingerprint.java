@@ -0,0 +1,73 @@
+package org.atlasapi.remotesite.util;
+
+import javax.annotation.Nullable;
+
+import com.google.common.base.Objects;
+import org.joda.time.DateTime;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The {@link ContentFingerprinter fingerprint} of content as it was last written under a
+ * canonical URI, along with the id it was written with.
+ */
+public class ContentFingerprint {
+
+    private final String canonicalUri;
+    private final String fingerprint;
+    private final Long id;
+    private final DateTime written;
+
+    public ContentFingerprint(String canonicalUri, String fingerprint, Long id, DateTime written) {
+        this.canonicalUri = checkNotNull(canonicalUri);
+        this.fingerprint = checkNotNull(fingerprint);
+        this.id = checkNotNull(id);
+        this.written = checkNotNull(written);
+    }
+
+    public String getCanonicalUri() {
+        return canonicalUri;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public DateTime getWritten() {
+        return written;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object that) {
+        if (this == that) {
+            return true;
+        }
+        if (that instanceof ContentFingerprint) {
+            ContentFingerprint other = (ContentFingerprint) that;
+            return canonicalUri.equals(other.canonicalUri)
+                    && fingerprint.equals(other.fingerprint)
+                    && id.equals(other.id)
+                    && written.equals(other.written);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(canonicalUri, fingerprint, id, written);
+    }
+
+    @Override
+    public String toString() {
+        return Objects.toStringHelper(this)
+                .add("uri", canonicalUri)
+                .add("fingerprint", fingerprint)
+                .add("id", id)
+                .add("written", written)
+                .toString();
+    }
+}
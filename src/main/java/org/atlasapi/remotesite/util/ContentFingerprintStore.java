@@ -0,0 +1,11 @@
+package org.atlasapi.remotesite.util;
+
+import com.google.common.base.Optional;
+
+public interface ContentFingerprintStore {
+
+    Optional<ContentFingerprint> fingerprintFor(String canonicalUri);
+
+    void store(ContentFingerprint fingerprint);
+
+}
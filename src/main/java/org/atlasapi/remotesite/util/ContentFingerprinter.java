@@ -0,0 +1,366 @@
+package org.atlasapi.remotesite.util;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.atlasapi.media.entity.Alias;
+import org.atlasapi.media.entity.BlackoutRestriction;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Certificate;
+import org.atlasapi.media.entity.Clip;
+import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.CrewMember;
+import org.atlasapi.media.entity.Encoding;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.Image;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.KeyPhrase;
+import org.atlasapi.media.entity.Location;
+import org.atlasapi.media.entity.ParentRef;
+import org.atlasapi.media.entity.Policy;
+import org.atlasapi.media.entity.Provider;
+import org.atlasapi.media.entity.RelatedLink;
+import org.atlasapi.media.entity.Restriction;
+import org.atlasapi.media.entity.Review;
+import org.atlasapi.media.entity.Series;
+import org.atlasapi.media.entity.TopicRef;
+import org.atlasapi.media.entity.Version;
+
+import com.metabroadcast.common.intl.Country;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.joda.time.DateTime;
+
+/**
+ * Computes a stable hash over the fields of {@link Item}s and {@link Container}s that ingest
+ * sets, including their {@link Version}s, {@link Broadcast}s, {@link Encoding}s,
+ * {@link Location}s and {@link Clip}s. Ids and last updated times, which are assigned on
+ * write, are left out. Sets are hashed regardless of iteration order and times as instants,
+ * so the same content built twice from the same feed always has the same fingerprint.
+ * <p>
+ * Values of types not known here are hashed by their {@code toString()}. Where that is not
+ * overridden it includes the identity hash, so content holding them never looks unchanged.
+ * <p>
+ * Only the fields read in the {@code put*} methods below are covered; the entity is not
+ * serialised as a whole, since its persisted form also carries ids and write times. A change
+ * to any other field is not seen, and content differing only there is not written again
+ * until its fingerprint expires in {@link ContentChangeDetector}. Fields that ingest starts
+ * setting need adding here.
+ */
+public class ContentFingerprinter {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private static final Comparator<HashCode> UNORDERED = Comparator.comparingLong(HashCode::asLong);
+
+    public String fingerprint(Content content) {
+        return hash(content).toString();
+    }
+
+    private HashCode hash(@Nullable Object value) {
+        Hasher hasher = HASH.newHasher();
+        putValue(hasher, value);
+        return hasher.hash();
+    }
+
+    private void putValues(Hasher hasher, Object... values) {
+        for (Object value : values) {
+            putValue(hasher, value);
+        }
+    }
+
+    private void putValue(Hasher hasher, @Nullable Object value) {
+        if (value == null) {
+            hasher.putBoolean(false);
+            return;
+        }
+        hasher.putBoolean(true);
+
+        if (value instanceof Collection) {
+            putElements(hasher, (Collection<?>) value);
+        } else if (value instanceof DateTime) {
+            hasher.putLong(((DateTime) value).getMillis());
+        } else if (value instanceof Enum) {
+            putString(hasher, ((Enum<?>) value).name());
+        } else if (value instanceof Item) {
+            putItem(hasher, (Item) value);
+        } else if (value instanceof Container) {
+            putContainer(hasher, (Container) value);
+        } else if (value instanceof Version) {
+            putVersion(hasher, (Version) value);
+        } else if (value instanceof Broadcast) {
+            putBroadcast(hasher, (Broadcast) value);
+        } else if (value instanceof Encoding) {
+            putEncoding(hasher, (Encoding) value);
+        } else if (value instanceof Location) {
+            putLocation(hasher, (Location) value);
+        } else if (value instanceof Policy) {
+            putPolicy(hasher, (Policy) value);
+        } else if (value instanceof Restriction) {
+            putRestriction(hasher, (Restriction) value);
+        } else if (value instanceof Image) {
+            putImage(hasher, (Image) value);
+        } else if (value instanceof CrewMember) {
+            CrewMember crew = (CrewMember) value;
+            putValues(hasher, crew.getCanonicalUri(), crew.role(), crew.name());
+        } else if (value instanceof Alias) {
+            Alias alias = (Alias) value;
+            putValues(hasher, alias.getNamespace(), alias.getValue());
+        } else if (value instanceof Country) {
+            putString(hasher, ((Country) value).code());
+        } else if (value instanceof ParentRef) {
+            putString(hasher, ((ParentRef) value).getUri());
+        } else if (value instanceof TopicRef) {
+            TopicRef topicRef = (TopicRef) value;
+            putValues(hasher, topicRef.getTopic(), topicRef.getWeighting(),
+                    topicRef.isSupervised(), topicRef.getRelationship(), topicRef.getOffset());
+        } else if (value instanceof Certificate) {
+            Certificate certificate = (Certificate) value;
+            putValues(hasher, certificate.classification(), certificate.country());
+        } else if (value instanceof RelatedLink) {
+            RelatedLink link = (RelatedLink) value;
+            putValues(hasher, link.getUrl(), link.getType(), link.getSourceId(),
+                    link.getShortName(), link.getTitle(), link.getDescription());
+        } else if (value instanceof KeyPhrase) {
+            KeyPhrase keyPhrase = (KeyPhrase) value;
+            putValues(hasher, keyPhrase.getPhrase(), keyPhrase.getWeighting());
+        } else if (value instanceof Review) {
+            Review review = (Review) value;
+            putValues(hasher, review.getReview(), review.getLanguage(),
+                    review.getRating(), review.getReviewType());
+        } else if (value instanceof Provider) {
+            Provider provider = (Provider) value;
+            putValues(hasher, provider.getName(), provider.getIconUrl());
+        } else if (value instanceof BlackoutRestriction) {
+            putValue(hasher, ((BlackoutRestriction) value).getAll());
+        } else {
+            putString(hasher, value.toString());
+        }
+    }
+
+    private void putElements(Hasher hasher, Collection<?> values) {
+        hasher.putInt(values.size());
+        List<HashCode> hashes = values.stream()
+                .map(this::hash)
+                .collect(Collectors.toList());
+        if (!(values instanceof List)) {
+            hashes.sort(UNORDERED);
+        }
+        for (HashCode hash : hashes) {
+            hasher.putBytes(hash.asBytes());
+        }
+    }
+
+    private void putString(Hasher hasher, String value) {
+        hasher.putInt(value.length());
+        hasher.putString(value, Charsets.UTF_8);
+    }
+
+    private void putIdentified(Hasher hasher, Identified identified) {
+        putString(hasher, identified.getClass().getName());
+        putValues(hasher,
+                identified.getCanonicalUri(),
+                identified.getCurie(),
+                identified.getAliasUrls(),
+                identified.getAliases()
+        );
+    }
+
+    private void putContent(Hasher hasher, Content content) {
+        putIdentified(hasher, content);
+        putValues(hasher,
+                content.getTitle(),
+                content.getDescription(),
+                content.getShortDescription(),
+                content.getMediumDescription(),
+                content.getLongDescription(),
+                content.getImage(),
+                content.getThumbnail(),
+                content.getImages(),
+                content.getGenres(),
+                content.getTags(),
+                content.getTopicRefs(),
+                content.getCertificates(),
+                content.getContentGroupRefs(),
+                content.getKeyPhrases(),
+                content.getLanguages(),
+                content.getMediaType(),
+                content.getPresentationChannel(),
+                content.getPublisher(),
+                content.getRelatedLinks(),
+                content.getReviews(),
+                content.getSpecialization(),
+                content.getYear(),
+                content.isActivelyPublished()
+        );
+    }
+
+    private void putItem(Hasher hasher, Item item) {
+        putContent(hasher, item);
+        putValues(hasher,
+                item.getContainer(),
+                item.getPeople(),
+                item.getBlackAndWhite(),
+                item.getCountriesOfOrigin(),
+                item.getIsLongForm(),
+                item.getVersions(),
+                item.getClips()
+        );
+        if (item instanceof Episode) {
+            Episode episode = (Episode) item;
+            putValues(hasher,
+                    episode.getEpisodeNumber(),
+                    episode.getSeriesNumber(),
+                    episode.getSeriesRef()
+            );
+        }
+        if (item instanceof Clip) {
+            putValue(hasher, ((Clip) item).getClipOf());
+        }
+    }
+
+    private void putContainer(Hasher hasher, Container container) {
+        putContent(hasher, container);
+        if (container instanceof Series) {
+            Series series = (Series) container;
+            putValues(hasher,
+                    series.getSeriesNumber(),
+                    series.getTotalEpisodes(),
+                    series.getParent()
+            );
+        }
+    }
+
+    private void putVersion(Hasher hasher, Version version) {
+        putIdentified(hasher, version);
+        putValues(hasher,
+                version.getRestriction(),
+                version.getDuration(),
+                version.getProvider(),
+                version.getPublishedDuration(),
+                version.is3d(),
+                version.getBroadcasts(),
+                version.getManifestedAs()
+        );
+    }
+
+    private void putRestriction(Hasher hasher, Restriction restriction) {
+        putIdentified(hasher, restriction);
+        putValues(hasher,
+                restriction.isRestricted(),
+                restriction.getMessage(),
+                restriction.getMinimumAge()
+        );
+    }
+
+    private void putBroadcast(Hasher hasher, Broadcast broadcast) {
+        putIdentified(hasher, broadcast);
+        putValues(hasher,
+                broadcast.getSourceId(),
+                broadcast.getBroadcastOn(),
+                broadcast.getTransmissionTime(),
+                broadcast.getTransmissionEndTime(),
+                broadcast.getActualTransmissionTime(),
+                broadcast.getActualTransmissionEndTime(),
+                broadcast.getBroadcastDuration(),
+                broadcast.getScheduleDate(),
+                broadcast.isActivelyPublished(),
+                broadcast.getAudioDescribed(),
+                broadcast.getBlackoutRestriction(),
+                broadcast.getHighDefinition(),
+                broadcast.getLive(),
+                broadcast.getNewEpisode(),
+                broadcast.getNewSeries(),
+                broadcast.getPremiere(),
+                broadcast.getRepeat(),
+                broadcast.getSigned(),
+                broadcast.getSubtitled(),
+                broadcast.getSurround(),
+                broadcast.getWidescreen()
+        );
+    }
+
+    private void putEncoding(Hasher hasher, Encoding encoding) {
+        putIdentified(hasher, encoding);
+        putValues(hasher,
+                encoding.getAdvertisingDuration(),
+                encoding.getAudioBitRate(),
+                encoding.getAudioChannels(),
+                encoding.getAudioCoding(),
+                encoding.getAudioDescribed(),
+                encoding.getBitRate(),
+                encoding.getContainsAdvertising(),
+                encoding.getDataContainerFormat(),
+                encoding.getDataSize(),
+                encoding.getDistributor(),
+                encoding.getHasDOG(),
+                encoding.getSigned(),
+                encoding.getSource(),
+                encoding.getVideoAspectRatio(),
+                encoding.getVideoBitRate(),
+                encoding.getVideoCoding(),
+                encoding.getVideoFrameRate(),
+                encoding.getVideoProgressiveScan(),
+                encoding.getVideoVerticalSize(),
+                encoding.getSubtitled(),
+                encoding.getAvailableAt()
+        );
+    }
+
+    private void putLocation(Hasher hasher, Location location) {
+        putIdentified(hasher, location);
+        putValues(hasher,
+                location.getUri(),
+                location.getAvailable(),
+                location.getEmbedCode(),
+                location.getEmbedId(),
+                location.getTransportIsLive(),
+                location.getTransportSubType(),
+                location.getTransportType(),
+                location.getProvider(),
+                location.getPolicy()
+        );
+    }
+
+    private void putPolicy(Hasher hasher, Policy policy) {
+        putIdentified(hasher, policy);
+        putValues(hasher,
+                policy.getAvailabilityStart(),
+                policy.getAvailabilityEnd(),
+                policy.getActualAvailabilityStart(),
+                policy.getDrmPlayableFrom(),
+                policy.getAvailableCountries(),
+                policy.getNetwork(),
+                policy.getPlatform(),
+                policy.getPlayer(),
+                policy.getPrice(),
+                policy.getRevenueContract(),
+                policy.getService()
+        );
+    }
+
+    private void putImage(Hasher hasher, Image image) {
+        putIdentified(hasher, image);
+        putValues(hasher,
+                image.getAspectRatio(),
+                image.getAvailabilityStart(),
+                image.getAvailabilityEnd(),
+                image.getColor(),
+                image.getHeight(),
+                image.getWidth(),
+                image.getMimeType(),
+                image.getTheme(),
+                image.getType()
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package org.atlasapi.remotesite.util;
+
+import com.metabroadcast.common.persistence.mongo.DatabasedMongo;
+import com.metabroadcast.common.persistence.mongo.MongoConstants;
+import com.metabroadcast.common.persistence.mongo.MongoQueryBuilder;
+import com.metabroadcast.common.persistence.translator.TranslatorUtils;
+
+import com.google.common.base.Optional;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCollection;
+import com.mongodb.DBObject;
+
+/**
+ * Keeps content fingerprints in a collection of their own, keyed by canonical URI, so that
+ * looking one up is a single primary key read rather than a resolve of the whole document.
+ */
+public class MongoContentFingerprintStore implements ContentFingerprintStore {
+
+    private static final String COLLECTION = "contentFingerprints";
+    private static final String FINGERPRINT_KEY = "fingerprint";
+    private static final String ID_KEY = "aid";
+    private static final String WRITTEN_KEY = "written";
+
+    private final DBCollection collection;
+
+    public MongoContentFingerprintStore(DatabasedMongo mongo) {
+        collection = mongo.collection(COLLECTION);
+    }
+
+    @Override
+    public Optional<ContentFingerprint> fingerprintFor(String canonicalUri) {
+        DBObject dbo = collection.findOne(new MongoQueryBuilder().idEquals(canonicalUri).build());
+
+        if (dbo == null) {
+            return Optional.absent();
+        }
+
+        return Optional.of(new ContentFingerprint(
+                canonicalUri,
+                TranslatorUtils.toString(dbo, FINGERPRINT_KEY),
+                TranslatorUtils.toLong(dbo, ID_KEY),
+                TranslatorUtils.toDateTime(dbo, WRITTEN_KEY)
+        ));
+    }
+
+    @Override
+    public void store(ContentFingerprint fingerprint) {
+        DBObject dbo = new BasicDBObject();
+        dbo.put(MongoConstants.ID, fingerprint.getCanonicalUri());
+        TranslatorUtils.from(dbo, FINGERPRINT_KEY, fingerprint.getFingerprint());
+        TranslatorUtils.from(dbo, ID_KEY, fingerprint.getId());
+        TranslatorUtils.fromDateTime(dbo, WRITTEN_KEY, fingerprint.getWritten());
+        collection.save(dbo);
+    }
+
+}
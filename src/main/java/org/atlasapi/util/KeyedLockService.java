@@ -0,0 +1,126 @@
+package org.atlasapi.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Serialises work on the same key, e.g. a brand or series URI, across ingest threads while work
+ * on different keys proceeds independently.
+ * <p>
+ * Each key in use gets its own fair {@link ReentrantLock}, so waiters are handed the lock in
+ * arrival order and an unlock only wakes waiters on that key. Locks are dropped once no thread
+ * holds or is waiting on them, so memory use is bounded by the number of keys in use.
+ * <p>
+ * The time taken to acquire locks, how often threads have to wait and how often they give up
+ * are recorded under the given name in the metric registry.
+ */
+public class KeyedLockService<K> {
+
+    private final ConcurrentMap<K, KeyLock> locks = new ConcurrentHashMap<>();
+
+    private final Timer acquireTimer;
+    private final Meter contended;
+    private final Meter timeouts;
+
+    private KeyedLockService(String name, MetricRegistry metrics) {
+        checkNotNull(name);
+        this.acquireTimer = metrics.timer(MetricRegistry.name(name, "acquire"));
+        this.contended = metrics.meter(MetricRegistry.name(name, "contended"));
+        this.timeouts = metrics.meter(MetricRegistry.name(name, "timeouts"));
+    }
+
+    public static <K> KeyedLockService<K> create(String name, MetricRegistry metrics) {
+        return new KeyedLockService<>(name, checkNotNull(metrics));
+    }
+
+    /**
+     * Blocks until the lock for {@code key} is held by the current thread.
+     */
+    public void lock(K key) throws InterruptedException {
+        KeyLock keyLock = reference(key);
+        Timer.Context time = acquireTimer.time();
+        try {
+            if (!keyLock.lock.tryLock(0, TimeUnit.NANOSECONDS)) {
+                contended.mark();
+                keyLock.lock.lockInterruptibly();
+            }
+        } catch (InterruptedException e) {
+            dereference(key);
+            throw e;
+        } finally {
+            time.stop();
+        }
+    }
+
+    /**
+     * Waits up to {@code timeout} for the lock for {@code key}, returning whether it was
+     * acquired. The caller must only {@link #unlock(Object)} the key if it was.
+     */
+    public boolean tryLock(K key, long timeout, TimeUnit unit) throws InterruptedException {
+        KeyLock keyLock = reference(key);
+        Timer.Context time = acquireTimer.time();
+        boolean acquired = false;
+        try {
+            acquired = keyLock.lock.tryLock(0, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                contended.mark();
+                acquired = keyLock.lock.tryLock(timeout, unit);
+            }
+            if (!acquired) {
+                timeouts.mark();
+            }
+            return acquired;
+        } finally {
+            time.stop();
+            if (!acquired) {
+                dereference(key);
+            }
+        }
+    }
+
+    public void unlock(K key) {
+        KeyLock keyLock = locks.get(key);
+        checkState(
+                keyLock != null && keyLock.lock.isHeldByCurrentThread(),
+                "Lock for %s is not held by the current thread",
+                key
+        );
+        keyLock.lock.unlock();
+        dereference(key);
+    }
+
+    /**
+     * The number of keys currently locked or waited on.
+     */
+    public int activeKeys() {
+        return locks.size();
+    }
+
+    private KeyLock reference(K key) {
+        return locks.compute(checkNotNull(key), (k, existing) -> {
+            KeyLock keyLock = existing == null ? new KeyLock() : existing;
+            keyLock.references++;
+            return keyLock;
+        });
+    }
+
+    private void dereference(K key) {
+        locks.computeIfPresent(key, (k, keyLock) -> --keyLock.references == 0 ? null : keyLock);
+    }
+
+    private static final class KeyLock {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+        // only read and written inside ConcurrentMap.compute for this key
+        private int references = 0;
+    }
+}
@@ -0,0 +1,154 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Schedule;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.persistence.content.ScheduleResolver;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.Interval;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class ChannelDayCachingScheduleResolverTest {
+
+    private static final DateTime DAY_START = new DateTime(2018, 6, 1, 0, 0, DateTimeZone.UTC);
+    private static final DateTime NEXT_DAY_START = DAY_START.plusDays(1);
+
+    private final ScheduleResolver delegate = mock(ScheduleResolver.class);
+    private final MetricRegistry metrics = new MetricRegistry();
+
+    private final Channel channel = new Channel(
+            Publisher.METABROADCAST,
+            "BBC One",
+            "bbcone",
+            false,
+            MediaType.VIDEO,
+            "bbconeuri"
+    );
+    private final Item morning = item("morning", Publisher.PA, DAY_START.plusHours(9), DAY_START.plusHours(10));
+    private final Item noon = item("noon", Publisher.PA, DAY_START.plusHours(12), DAY_START.plusHours(13));
+    private final Item late = item("late", Publisher.PA, NEXT_DAY_START.minusMinutes(30), NEXT_DAY_START.plusMinutes(30));
+    private final Item bbcNoon = item("bbcNoon", Publisher.BBC, DAY_START.plusHours(12).plusMinutes(5), DAY_START.plusHours(13));
+
+    private ChannelDayCachingScheduleResolver resolver;
+
+    @Before
+    public void setUp() {
+        stubDay(Publisher.PA, DAY_START, late, noon, morning);
+        stubDay(Publisher.PA, NEXT_DAY_START, late);
+        stubDay(Publisher.BBC, DAY_START, bbcNoon);
+
+        resolver = ChannelDayCachingScheduleResolver.builder()
+                .withDelegate(delegate)
+                .withMaximumItems(100)
+                .withTimeToLive(Duration.standardMinutes(1))
+                .withMetrics(metrics, "equiv.schedule.cache")
+                .build();
+    }
+
+    @Test
+    public void testAnswersWindowsInADayFromOneLoadPerSource() {
+        List<Item> aroundNoon = items(window(
+                DAY_START.plusHours(11).plusMinutes(55),
+                DAY_START.plusHours(13).plusMinutes(5),
+                Publisher.PA,
+                Publisher.BBC
+        ));
+        List<Item> aroundMorning = items(window(
+                DAY_START.plusHours(8).plusMinutes(55),
+                DAY_START.plusHours(9).plusMinutes(5),
+                Publisher.PA
+        ));
+        List<Item> beforeMorning = items(window(
+                DAY_START.plusHours(8),
+                DAY_START.plusHours(9),
+                Publisher.PA
+        ));
+
+        assertThat(aroundNoon, contains(noon, bbcNoon));
+        assertThat(aroundMorning, contains(morning));
+        assertThat(beforeMorning.isEmpty(), is(true));
+        verifyLoaded(Publisher.PA, DAY_START);
+        verifyLoaded(Publisher.BBC, DAY_START);
+        verifyNoMoreInteractions(delegate);
+        assertThat(metrics.meter("equiv.schedule.cache.misses").getCount(), is(2L));
+        assertThat(metrics.meter("equiv.schedule.cache.hits").getCount(), is(2L));
+    }
+
+    @Test
+    public void testWindowAcrossMidnightReturnsItemsOnBothDaysOnce() {
+        List<Item> aroundMidnight = items(window(
+                NEXT_DAY_START.minusMinutes(35),
+                NEXT_DAY_START.plusMinutes(35),
+                Publisher.PA
+        ));
+
+        assertThat(aroundMidnight, contains(late));
+        verifyLoaded(Publisher.PA, DAY_START);
+        verifyLoaded(Publisher.PA, NEXT_DAY_START);
+    }
+
+    private Schedule window(DateTime from, DateTime to, Publisher... publishers) {
+        return resolver.unmergedSchedule(
+                from,
+                to,
+                ImmutableList.of(channel),
+                ImmutableSet.copyOf(publishers)
+        );
+    }
+
+    private void stubDay(Publisher publisher, DateTime start, Item... items) {
+        when(delegate.unmergedSchedule(
+                start,
+                start.plusDays(1),
+                ImmutableList.of(channel),
+                ImmutableList.of(publisher)
+        )).thenReturn(new Schedule(
+                ImmutableList.of(new ScheduleChannel(channel, ImmutableList.copyOf(items))),
+                new Interval(start, start.plusDays(1))
+        ));
+    }
+
+    private void verifyLoaded(Publisher publisher, DateTime start) {
+        verify(delegate).unmergedSchedule(
+                start,
+                start.plusDays(1),
+                ImmutableList.of(channel),
+                ImmutableList.of(publisher)
+        );
+    }
+
+    private List<Item> items(Schedule schedule) {
+        return Iterables.getOnlyElement(schedule.scheduleChannels()).items();
+    }
+
+    private Item item(String uri, Publisher publisher, DateTime start, DateTime end) {
+        Item item = new Item(uri, uri, publisher);
+        Version version = new Version();
+        version.addBroadcast(new Broadcast(channel.getUri(), start, end));
+        item.addVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,128 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.Set;
+
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Specialization;
+import org.atlasapi.persistence.content.listing.ContentListingCriteria;
+import org.atlasapi.persistence.content.listing.SelectedContentLister;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LocalTitleIndexTest {
+
+    private static final Set<Publisher> PA = ImmutableSet.of(Publisher.PA);
+
+    private SelectedContentLister contentLister;
+    private LocalTitleIndex index;
+
+    @Before
+    public void setUp() {
+        contentLister = mock(SelectedContentLister.class);
+        index = LocalTitleIndex.create(contentLister, ImmutableSet.of(Publisher.PA, Publisher.BBC));
+    }
+
+    @Test
+    public void testIsOnlyUsableOnceBuiltForIndexedPublishers() {
+        assertFalse(index.covers(PA));
+
+        rebuildWith(brand(1L, "Doctor Who", Publisher.PA));
+
+        assertTrue(index.covers(PA));
+        assertFalse(index.covers(ImmutableSet.of(Publisher.PA, Publisher.C4)));
+    }
+
+    @Test
+    public void testExactNormalisedTitleComesBeforeSharedTokens() {
+        rebuildWith(
+                brand(1L, "Doctor Who Confidential", Publisher.PA),
+                brand(2L, "The Doctor Who", Publisher.PA),
+                brand(3L, "Doctor Foster", Publisher.PA),
+                brand(4L, "DoctorWho!", Publisher.PA),
+                brand(5L, "Doctor Who", Publisher.BBC)
+        );
+
+        assertEquals(
+                ImmutableList.of("uri2", "uri4", "uri1", "uri3"),
+                index.search("doctor who", PA, Optional.absent(), 20)
+        );
+        assertEquals(
+                ImmutableList.of("uri2", "uri4"),
+                index.search("doctor who", PA, Optional.absent(), 2)
+        );
+    }
+
+    @Test
+    public void testCommonTokensOnlyRankCandidatesFoundThroughRarerOnes() {
+        index = LocalTitleIndex.create(contentLister, PA, 2);
+        rebuildWith(
+                brand(1L, "News and Weather", Publisher.PA),
+                brand(2L, "Sport and Fitness", Publisher.PA),
+                brand(3L, "Bread and Butter", Publisher.PA)
+        );
+
+        assertEquals(
+                ImmutableList.of("uri1"),
+                index.search("News and Sport", PA, Optional.absent(), 20).subList(0, 1)
+        );
+        assertEquals(
+                ImmutableSet.of("uri1", "uri2"),
+                ImmutableSet.copyOf(index.search("News and Sport", PA, Optional.absent(), 20))
+        );
+    }
+
+    @Test
+    public void testChangedContentIsReindexedAndRemovedContentDropped() {
+        Brand brand = brand(1L, "Doctor Who", Publisher.PA);
+        rebuildWith(brand, brand(2L, "Casualty", Publisher.PA));
+
+        brand.setTitle("Torchwood");
+        index.index(brand);
+        index.remove(2L);
+
+        assertTrue(index.search("doctor who", PA, Optional.absent(), 20).isEmpty());
+        assertEquals(ImmutableList.of("uri1"), index.search("torchwood", PA, Optional.absent(), 20));
+        assertTrue(index.search("casualty", PA, Optional.absent(), 20).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testSearchIsLimitedToRequestedSpecialization() {
+        Brand film = brand(1L, "Heat", Publisher.PA);
+        film.setSpecialization(Specialization.FILM);
+        Brand tv = brand(2L, "Heat", Publisher.PA);
+        tv.setSpecialization(Specialization.TV);
+        rebuildWith(film, tv);
+
+        assertEquals(
+                ImmutableList.of("uri1"),
+                index.search("heat", PA, Optional.of(Specialization.FILM), 20)
+        );
+    }
+
+    private void rebuildWith(Content... contents) {
+        when(contentLister.listContent(any(ContentListingCriteria.class)))
+                .thenReturn(ImmutableList.copyOf(contents).iterator());
+        index.rebuild();
+    }
+
+    private Brand brand(long id, String title, Publisher publisher) {
+        Brand brand = new Brand("uri" + id, "curie" + id, publisher);
+        brand.setId(id);
+        brand.setTitle(title);
+        return brand;
+    }
+}
@@ -0,0 +1,53 @@
+package org.atlasapi.equiv.generators;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Function;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class TitleNormalisationTest {
+
+    @Test
+    public void testReplacesSpecialCharsAsTheScorersAlwaysHave() {
+        assertThat(TitleNormalisation.replaceSpecialChars("arsenal fc v chelsea, live"),
+                is("arsenal-vs-chelsea-live"));
+        assertThat(TitleNormalisation.replaceSpecialChars("mr. & mrs. smith / the o'neills"),
+                is("mr-and-mrs-smith-the-oneills"));
+        assertThat(TitleNormalisation.regularExpressionReplaceSpecialChars("the o' brothers"),
+                is("the\\-o(\\w+|\\W*)-brothers"));
+    }
+
+    @Test
+    public void testComparesTitlesIgnoringDashes() {
+        assertTrue(TitleNormalisation.equalsIgnoringDashes("spider-man", "spiderman-"));
+        assertTrue(TitleNormalisation.equalsIgnoringDashes("--", ""));
+        assertFalse(TitleNormalisation.equalsIgnoringDashes("spider-man", "spider-men"));
+        assertFalse(TitleNormalisation.equalsIgnoringDashes("spider-man", "spider-man-2"));
+    }
+
+    @Test
+    public void testRemovesLiteralsRatherThanExpressions() {
+        assertThat(TitleNormalisation.removeAll("heat (1995) (1995)", "(1995)"), is("heat  "));
+        assertThat(TitleNormalisation.removeAll("heat 1995", "(1995)"), is("heat 1995"));
+        assertTrue(TitleNormalisation.matches("the\\-o(\\w+|\\W*)-brothers", "the-oneill-brothers"));
+    }
+
+    @Test
+    public void testNormalisesEachTitleOnce() {
+        final AtomicInteger normalisations = new AtomicInteger();
+        Function<String, String> normalised = TitleNormalisation.memoise(title -> {
+            normalisations.incrementAndGet();
+            return title.toLowerCase();
+        });
+
+        assertThat(normalised.apply("EastEnders"), is("eastenders"));
+        assertThat(normalised.apply("EastEnders"), is("eastenders"));
+        assertThat(normalised.apply("Casualty"), is("casualty"));
+        assertThat(normalisations.get(), is(2));
+    }
+}
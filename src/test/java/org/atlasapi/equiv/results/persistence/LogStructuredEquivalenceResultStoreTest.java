@@ -0,0 +1,212 @@
+package org.atlasapi.equiv.results.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import org.atlasapi.equiv.results.EquivalenceResults;
+import org.atlasapi.equiv.results.description.DefaultDescription;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.ImmutableList;
+import com.metabroadcast.common.time.Clock;
+import com.metabroadcast.common.time.DateTimeZones;
+import com.metabroadcast.common.time.SystemClock;
+
+public class LogStructuredEquivalenceResultStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LogStructuredEquivalenceResultStore store;
+
+    @After
+    public void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testStoredResultIsReadBack() throws IOException {
+        store = storeBuilder(folder.getRoot()).build();
+
+        StoredEquivalenceResults stored = store.store(resultsFor(item("item1", 1L)));
+
+        assertEquals(stored, store.forId("item1"));
+        assertNull(store.forId("item2"));
+    }
+
+    @Test
+    public void testLatestResultForSubjectIsReturned() throws IOException {
+        store = storeBuilder(folder.getRoot()).build();
+
+        store.store(resultsFor(item("item1", 1L)));
+        Item retitled = item("item1", 1L);
+        retitled.setTitle("Retitled");
+        store.store(resultsFor(retitled));
+
+        assertEquals("Retitled", store.forId("item1").title());
+    }
+
+    @Test
+    public void testBatchedReadsKeepRequestedOrderAndSkipMissingResults() throws IOException {
+        store = storeBuilder(folder.getRoot()).build();
+
+        store.store(resultsFor(item("item1", 1L)));
+        store.store(resultsFor(item("item2", 2L)));
+        store.store(resultsFor(item("item3", 3L)));
+
+        List<StoredEquivalenceResults> results = store.forIds(ImmutableList.of("item3", "missing", "item1"));
+
+        assertEquals(2, results.size());
+        assertEquals("item3", results.get(0).id());
+        assertEquals("item1", results.get(1).id());
+    }
+
+    @Test
+    public void testRecentResultsArePagedNewestFirst() throws IOException {
+        store = storeBuilder(folder.getRoot()).build();
+
+        store.store(resultsFor(item("item1", 1L)));
+        store.store(resultsFor(brand("brand1", 4L)));
+        store.store(resultsFor(item("item2", 2L)));
+        store.store(resultsFor(item("item3", 3L)));
+        store.store(resultsFor(item("item1", 1L)));
+
+        assertEquals(ImmutableList.of("item1", "item3"), ids(store.recentItemResults(0, 2)));
+        assertEquals(ImmutableList.of("item2"), ids(store.recentItemResults(2, 2)));
+        assertEquals(ImmutableList.of("brand1"), ids(store.recentContainerResults(0, 10)));
+    }
+
+    @Test
+    public void testIndexIsRebuiltWhenReopened() throws IOException {
+        File directory = folder.getRoot();
+        store = storeBuilder(directory).withMaxSegmentSize(1).build();
+
+        StoredEquivalenceResults first = store.store(resultsFor(item("item1", 1L)));
+        store.store(resultsFor(item("item2", 2L)));
+        store.close();
+
+        store = storeBuilder(directory).build();
+
+        assertEquals(first, store.forId("item1"));
+        assertEquals(ImmutableList.of("item2", "item1"), ids(store.recentItemResults(0, 10)));
+
+        store.store(resultsFor(item("item3", 3L)));
+        assertEquals("item3", store.recentItemResults(0, 1).get(0).id());
+    }
+
+    @Test
+    public void testCompactionRemovesSupersededSegments() throws IOException {
+        File directory = folder.getRoot();
+        store = storeBuilder(directory).withMaxSegmentSize(1).build();
+
+        for (int i = 0; i < 5; i++) {
+            store.store(resultsFor(item("item1", 1L)));
+        }
+        StoredEquivalenceResults latest = store.store(resultsFor(item("item1", 1L)));
+        assertEquals(6, directory.listFiles().length);
+
+        store.compact();
+
+        assertTrue(directory.listFiles().length < 6);
+        assertEquals(latest, store.forId("item1"));
+
+        store.close();
+        store = storeBuilder(directory).build();
+        assertEquals(latest, store.forId("item1"));
+    }
+
+    @Test
+    public void testCorruptRecordInSealedSegmentIsNotTruncated() throws IOException {
+        File directory = folder.getRoot();
+        store = storeBuilder(directory).withMaxSegmentSize(1).build();
+
+        store.store(resultsFor(item("item1", 1L)));
+        StoredEquivalenceResults second = store.store(resultsFor(item("item2", 2L)));
+        store.close();
+
+        File[] segments = directory.listFiles();
+        Arrays.sort(segments);
+        File sealed = segments[0];
+        long length = sealed.length();
+        try (RandomAccessFile file = new RandomAccessFile(sealed, "rw")) {
+            file.seek(length - 1);
+            byte last = file.readByte();
+            file.seek(length - 1);
+            file.writeByte(last ^ 0xFF);
+        }
+
+        store = storeBuilder(directory).build();
+        store.compact();
+
+        assertNull(store.forId("item1"));
+        assertEquals(second, store.forId("item2"));
+        assertEquals(length, sealed.length());
+    }
+
+    @Test
+    public void testResultsOlderThanRetentionAreNotReturned() throws IOException {
+        Clock clock = mock(Clock.class);
+        when(clock.now()).thenReturn(new DateTime(DateTimeZones.UTC).plusDays(2));
+        store = storeBuilder(folder.getRoot())
+                .withRetention(Duration.standardDays(1))
+                .withClock(clock)
+                .build();
+
+        store.store(resultsFor(item("item1", 1L)));
+
+        assertNull(store.forId("item1"));
+        assertTrue(store.forIds(ImmutableList.of("item1")).isEmpty());
+    }
+
+    private LogStructuredEquivalenceResultStore.Builder storeBuilder(File directory) {
+        return LogStructuredEquivalenceResultStore.builder(directory)
+                .withCompactionInterval(Duration.ZERO)
+                .withClock(new SystemClock());
+    }
+
+    private <T extends Content> EquivalenceResults<T> resultsFor(T subject) {
+        return new EquivalenceResults<>(subject, ImmutableList.of(), new DefaultDescription());
+    }
+
+    private Item item(String uri, long id) {
+        Item item = new Item(uri, uri, Publisher.BBC);
+        item.setId(id);
+        item.setTitle("Title " + uri);
+        return item;
+    }
+
+    private Brand brand(String uri, long id) {
+        Brand brand = new Brand(uri, uri, Publisher.BBC);
+        brand.setId(id);
+        brand.setTitle("Title " + uri);
+        return brand;
+    }
+
+    private List<String> ids(List<StoredEquivalenceResults> results) {
+        ImmutableList.Builder<String> ids = ImmutableList.builder();
+        for (StoredEquivalenceResults result : results) {
+            ids.add(result.id());
+        }
+        return ids.build();
+    }
+}
@@ -0,0 +1,58 @@
+package org.atlasapi.equiv.results.persistence;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Table;
+import com.metabroadcast.common.time.DateTimeZones;
+
+public class StoredEquivalenceResultsSerializerTest {
+
+    private final StoredEquivalenceResultsSerializer serializer = new StoredEquivalenceResultsSerializer();
+
+    @Test
+    public void testResultsRoundTrip() {
+        Table<String, String, Double> scores = HashBasedTable.create();
+        scores.put("cyws", "title", 2.0);
+        scores.put("cyws", "broadcast", Double.NaN);
+        scores.put("http://example.com/legacy", "title", 1.0);
+
+        List<CombinedEquivalenceScore> totals = ImmutableList.of(
+                new CombinedEquivalenceScore("cyws", "Candidate", 2.0, true, "BBC"),
+                new CombinedEquivalenceScore("http://example.com/legacy", "Legacy", Double.NaN, false, "C4")
+        );
+        List<Object> description = ImmutableList.<Object>of(
+                "Generating", ImmutableList.of("title", ImmutableList.of("2 candidates"))
+        );
+
+        StoredEquivalenceResults results = new StoredEquivalenceResults(
+                "http://example.com/subject",
+                "cyvh",
+                "Subject",
+                "BBC",
+                ImmutableList.of(new StoredEquivalenceResultTable(scores, totals, description)),
+                new DateTime(DateTimeZones.UTC),
+                description
+        );
+
+        StoredEquivalenceResults restored = serializer.deserialize(serializer.serialize(results));
+
+        assertEquals(results, restored);
+        assertEquals("cyvh", restored.getAid());
+        assertEquals("BBC", restored.getPublisher());
+        assertEquals(description, restored.description());
+
+        StoredEquivalenceResultTable table = restored.getResultTables().get(0);
+        assertEquals(scores, table.sourceResults());
+        assertEquals(totals, table.combinedResults());
+        assertEquals(Double.NaN, table.combinedResults().get(1).score(), 0.0);
+        assertEquals(description, table.description());
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.atlasapi.equiv.update;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.atlasapi.equiv.results.description.DefaultDescription;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeComponent;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EquivalenceComponentExecutorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final EquivalenceComponentExecutor componentExecutor =
+            EquivalenceComponentExecutor.create(executor, Duration.standardSeconds(5));
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testResultsAndDescriptionsAreInComponentOrder() {
+        CountDownLatch secondFinished = new CountDownLatch(1);
+        DefaultDescription desc = new DefaultDescription();
+        EquivToTelescopeResult telescopeResult = EquivToTelescopeResult.create("id", "publisher");
+
+        List<String> results = componentExecutor.runAll(
+                ImmutableList.of("first", "second"),
+                desc,
+                telescopeResult,
+                (component, componentDesc, componentTelescopeResult) -> {
+                    if (component.equals("first")) {
+                        secondFinished.await();
+                    } else {
+                        secondFinished.countDown();
+                    }
+                    componentDesc.appendText("%s ran", component);
+                    componentDesc.startStage("nested");
+                    componentDesc.appendText("inside %s", component);
+                    componentDesc.finishStage();
+
+                    EquivToTelescopeComponent telescopeComponent =
+                            EquivToTelescopeComponent.create();
+                    telescopeComponent.setComponentName(component);
+                    componentTelescopeResult.addGeneratorResult(telescopeComponent);
+                    return component.toUpperCase();
+                }
+        );
+
+        assertThat(results, contains("FIRST", "SECOND"));
+        assertThat(desc.toString(), is(
+                "[first, [first ran, nested, [inside first]], "
+                        + "second, [second ran, nested, [inside second]]]"
+        ));
+        assertThat(telescopeResult.getGenerators().size(), is(2));
+        assertThat(telescopeResult.getGenerators().get(0).getComponentName(), is("first"));
+        assertThat(telescopeResult.getGenerators().get(1).getComponentName(), is("second"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testFailingComponentFailsStage() {
+        componentExecutor.runAll(
+                ImmutableList.of("component"),
+                new DefaultDescription(),
+                EquivToTelescopeResult.create("id", "publisher"),
+                (component, componentDesc, componentTelescopeResult) -> {
+                    throw new IllegalStateException(component);
+                }
+        );
+    }
+
+    @Test
+    public void testTimeQueuedOnPoolDoesNotCountTowardsTimeout() throws InterruptedException {
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            singleThread.submit(() -> {
+                release.await();
+                return null;
+            });
+            EquivalenceComponentExecutor queuedExecutor =
+                    EquivalenceComponentExecutor.create(singleThread, Duration.millis(500));
+
+            Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            });
+            releaser.start();
+
+            List<String> results = queuedExecutor.runAll(
+                    ImmutableList.of("component"),
+                    new DefaultDescription(),
+                    EquivToTelescopeResult.create("id", "publisher"),
+                    (component, componentDesc, componentTelescopeResult) -> component
+            );
+
+            assertThat(results, contains("component"));
+            releaser.join();
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testSlowComponentTimesOut() {
+        EquivalenceComponentExecutor impatientExecutor =
+                EquivalenceComponentExecutor.create(executor, Duration.millis(10));
+
+        impatientExecutor.runAll(
+                ImmutableList.of("component"),
+                new DefaultDescription(),
+                EquivToTelescopeResult.create("id", "publisher"),
+                (component, componentDesc, componentTelescopeResult) -> {
+                    Thread.sleep(5000);
+                    return component;
+                }
+        );
+    }
+}
@@ -0,0 +1,169 @@
+package org.atlasapi.equiv.update.metrics;
+
+import java.util.List;
+
+import org.atlasapi.equiv.generators.EquivalenceGenerator;
+import org.atlasapi.equiv.results.description.DefaultDescription;
+import org.atlasapi.equiv.results.scores.DefaultScoredCandidates;
+import org.atlasapi.equiv.results.scores.Score;
+import org.atlasapi.equiv.update.metadata.EquivToTelescopeResult;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+
+import com.metabroadcast.common.time.TimeMachine;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EquivalenceMetricsTest {
+
+    private static final DateTime NOW = new DateTime(2014, 12, 16, 17, 10, 0, 0, DateTimeZone.UTC);
+    private static final String GENERATOR = "equiv.PA.STANDARD_ITEM.generator.";
+
+    private final TimeMachine clock = new TimeMachine();
+    private final MetricRegistry registry = new MetricRegistry();
+    private EquivalenceMetrics metrics;
+
+    @Before
+    public void setUp() {
+        clock.jumpTo(NOW);
+        metrics = EquivalenceMetrics.create(registry, 2, Duration.standardHours(1), clock);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInstrumentedGeneratorRecordsTimeCandidatesAndErrors() {
+        Item subject = item(1L);
+        EquivalenceGenerator<Item> generator = mock(EquivalenceGenerator.class);
+        when(generator.generate(any(Item.class), any(DefaultDescription.class),
+                any(EquivToTelescopeResult.class)))
+                .thenReturn(DefaultScoredCandidates.<Item>fromSource("test")
+                        .addEquivalent(item(2L), Score.ONE)
+                        .addEquivalent(item(3L), Score.ONE)
+                        .build())
+                .thenThrow(new IllegalStateException());
+
+        EquivalenceGenerator<Item> instrumented = metrics.forUpdater("PA", "STANDARD_ITEM")
+                .instrument(generator);
+        String name = GENERATOR + generator.getClass().getSimpleName();
+
+        instrumented.generate(subject, new DefaultDescription(), telescopeResult());
+        try {
+            instrumented.generate(subject, new DefaultDescription(), telescopeResult());
+            fail("expected generator failure");
+        } catch (IllegalStateException expected) {
+        }
+
+        assertEquals(2, registry.timer(name + ".time").getCount());
+        assertEquals(1, registry.meter(name + ".errors").getCount());
+        assertEquals(1, registry.histogram(name + ".candidates").getCount());
+        assertEquals(2, registry.histogram(name + ".candidates").getSnapshot().getMax());
+        assertEquals(generator.toString(), instrumented.toString());
+    }
+
+    @Test
+    public void testSubjectIsRecordedWithItsStagesInOrder() {
+        EquivalenceUpdaterMetrics itemMetrics = metrics.forUpdater("PA", "item");
+        EquivalenceUpdaterMetrics standardMetrics = metrics.forUpdater("PA", "STANDARD_ITEM");
+
+        itemMetrics.timeSubject(item(1L), () -> {
+            standardMetrics.timeStage("generation", () -> null);
+            standardMetrics.timeStage("scoring", () -> null);
+            return itemMetrics.timeStage("handling", () -> true);
+        });
+
+        List<EquivalenceSubjectTiming> slowest = metrics.slowestSubjects();
+        assertEquals(1, slowest.size());
+        assertEquals("http://example.org/1", slowest.get(0).getUri());
+        assertEquals("item", slowest.get(0).getUpdater());
+        assertEquals(
+                ImmutableList.of(
+                        "STANDARD_ITEM.generation",
+                        "STANDARD_ITEM.scoring",
+                        "item.handling"
+                ),
+                ImmutableList.copyOf(slowest.get(0).getStageMillis().keySet())
+        );
+        assertFalse(slowest.get(0).isFailed());
+        assertEquals(1, registry.timer("equiv.PA.item.time").getCount());
+    }
+
+    @Test
+    public void testFailedSubjectIsRecordedAndStagesOutsideSubjectsIgnored() {
+        EquivalenceUpdaterMetrics itemMetrics = metrics.forUpdater("PA", "item");
+        itemMetrics.timeStage("generation", () -> null);
+
+        try {
+            itemMetrics.timeSubject(item(1L), () -> {
+                throw new IllegalStateException();
+            });
+            fail("expected update failure");
+        } catch (IllegalStateException expected) {
+        }
+
+        List<EquivalenceSubjectTiming> slowest = metrics.slowestSubjects();
+        assertEquals(1, slowest.size());
+        assertTrue(slowest.get(0).isFailed());
+        assertTrue(slowest.get(0).getStageMillis().isEmpty());
+        assertEquals(1, registry.meter("equiv.PA.item.errors").getCount());
+    }
+
+    @Test
+    public void testOnlySlowestSubjectsWithinWindowAreKept() {
+        SlowestEquivalenceSubjects slowest = SlowestEquivalenceSubjects.create(
+                2,
+                Duration.standardHours(1),
+                clock
+        );
+
+        slowest.offer(timing("a", NOW.minusMinutes(90), 500));
+        slowest.offer(timing("b", NOW, 30));
+        slowest.offer(timing("c", NOW, 10));
+        slowest.offer(timing("d", NOW, 20));
+        slowest.offer(timing("e", NOW, 5));
+
+        assertEquals(ImmutableList.of("b", "d"), uris(slowest.get()));
+
+        clock.jumpTo(NOW.plusMinutes(61));
+        assertTrue(slowest.get().isEmpty());
+    }
+
+    private EquivalenceSubjectTiming timing(String uri, DateTime started, long nanos) {
+        return EquivalenceSubjectTiming.builder()
+                .withSubject(null, uri)
+                .withUpdater("PA", "item")
+                .withStarted(started)
+                .build(nanos, false);
+    }
+
+    private List<String> uris(List<EquivalenceSubjectTiming> timings) {
+        ImmutableList.Builder<String> uris = ImmutableList.builder();
+        for (EquivalenceSubjectTiming timing : timings) {
+            uris.add(timing.getUri());
+        }
+        return uris.build();
+    }
+
+    private EquivToTelescopeResult telescopeResult() {
+        return EquivToTelescopeResult.create("id", Publisher.PA.key());
+    }
+
+    private Item item(long id) {
+        Item item = new Item("http://example.org/" + id, "curie" + id, Publisher.PA);
+        item.setId(id);
+        return item;
+    }
+}
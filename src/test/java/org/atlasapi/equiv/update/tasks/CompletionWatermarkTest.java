@@ -0,0 +1,37 @@
+package org.atlasapi.equiv.update.tasks;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+
+public class CompletionWatermarkTest {
+
+    private final CompletionWatermark<String> watermark = new CompletionWatermark<>();
+
+    @Test
+    public void testWatermarkOnlyAdvancesPastContiguousCompletions() {
+        long first = watermark.started("first");
+        long second = watermark.started("second");
+        long third = watermark.started("third");
+
+        watermark.completed(second);
+        assertFalse(watermark.lowWatermark().isPresent());
+
+        watermark.completed(first);
+        assertThat(watermark.lowWatermark().get(), is("second"));
+
+        watermark.completed(third);
+        assertThat(watermark.lowWatermark().get(), is("third"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotCompleteTwice() {
+        watermark.started("first");
+        long second = watermark.started("second");
+
+        watermark.completed(second);
+        watermark.completed(second);
+    }
+}
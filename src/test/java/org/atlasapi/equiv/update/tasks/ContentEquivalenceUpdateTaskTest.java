@@ -3,7 +3,9 @@ package org.atlasapi.equiv.update.tasks;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import junit.framework.TestCase;
 import org.atlasapi.equiv.update.EquivalenceUpdater;
@@ -27,6 +29,7 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -35,9 +38,8 @@ import static org.atlasapi.equiv.update.tasks.ContentEquivalenceUpdateTask.SAVE_
 import static org.atlasapi.media.entity.Publisher.BBC;
 import static org.atlasapi.media.entity.Publisher.C4;
 import static org.atlasapi.media.entity.Publisher.PA;
-import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Matchers.any;
-import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -73,9 +75,21 @@ public class ContentEquivalenceUpdateTaskTest extends TestCase {
         };
     }
 
-    public void setUpContentResolving(Content content) {
-        when(contentResolver.findByCanonicalUris(argThat(hasItem(content.getCanonicalUri()))))
-                .thenReturn(ResolvedContent.builder().put(content.getCanonicalUri(), content).build());
+    public void setUpContentResolving(Iterable<Content> contents) {
+        Map<String, Content> contentByUri = Maps.newHashMap();
+        for (Content content : contents) {
+            contentByUri.put(content.getCanonicalUri(), content);
+        }
+        when(contentResolver.findByCanonicalUris(anyCollectionOf(String.class)))
+                .thenAnswer(invocation -> {
+                    ResolvedContent.ResolvedContentBuilder resolved = ResolvedContent.builder();
+                    for (Object uri : (Iterable<?>) invocation.getArguments()[0]) {
+                        if (contentByUri.containsKey(uri)) {
+                            resolved.put((String) uri, contentByUri.get(uri));
+                        }
+                    }
+                    return resolved.build();
+                });
     }
 
     public void testCallUpdateOnContent(ExecutorService executor) {
@@ -97,10 +111,7 @@ public class ContentEquivalenceUpdateTaskTest extends TestCase {
                 .build();
         SelectedContentLister contentLister = listerForContent(contentMap);
 
-        for(Content content : contentMap.values()){
-            setUpContentResolving(content);
-        }
-        setUpContentResolving(paEp);
+        setUpContentResolving(Iterables.concat(contentMap.values(), ImmutableList.of(paEp)));
 
 
         String taskName = "pressassociation.com-bbc.co.uk-channel4.com-equivalence";
@@ -19,6 +19,8 @@ import org.atlasapi.media.entity.Version;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ResolvedContent;
 import org.atlasapi.persistence.content.ScheduleResolver;
+import org.atlasapi.persistence.content.listing.ContentListingProgress;
+import org.atlasapi.persistence.content.tasks.ScheduleTaskProgressStore;
 import org.atlasapi.reporting.telescope.OwlTelescopeReporter;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
@@ -31,10 +33,12 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.Executors;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -80,11 +84,11 @@ public class ScheduleEquivalenceUpdateTaskTest {
         };
     };
     
+    private final Channel bbcOne = new Channel(Publisher.METABROADCAST, "BBC One", "bbcone", false, MediaType.VIDEO, "bbconeuri");
+
     @Test
     public void testUpdateScheduleEquivalences() {
         
-        Channel bbcOne = new Channel(Publisher.METABROADCAST, "BBC One", "bbcone", false, MediaType.VIDEO, "bbconeuri");
-        
         Item yvItemOne = new Item("yv1", "yv1c", Publisher.YOUVIEW);
         Version version = new Version();
         Broadcast broadcast = new Broadcast("bbcone", DateTime.now(), DateTime.now());
@@ -105,10 +109,11 @@ public class ScheduleEquivalenceUpdateTaskTest {
         Schedule schedule1 = new Schedule(ImmutableList.of(schChannel1), new Interval(today.toDateTimeAtStartOfDay(), tomorrow.toDateTimeAtStartOfDay()));
         
         ScheduleResolver resolver = scheduleResolver(schedule1);
-        ResolvedContent yv1 = ResolvedContent.builder().put("yv1", yvItemOne).build();
-        ResolvedContent yv2 = ResolvedContent.builder().put("yv2", yvItemTwo).build();
-        when(contentResolver.findByCanonicalUris(ImmutableSet.of("yv1"))).thenReturn(yv1);
-        when(contentResolver.findByCanonicalUris(ImmutableSet.of("yv2"))).thenReturn(yv2);
+        ResolvedContent resolved = ResolvedContent.builder()
+                .put("yv1", yvItemOne)
+                .put("yv2", yvItemTwo)
+                .build();
+        when(contentResolver.findByCanonicalUris(ImmutableSet.of("yv1", "yv2"))).thenReturn(resolved);
         ScheduleEquivalenceUpdateTask.builder()
             .withBack(0)
             .withForward(0)
@@ -124,4 +129,75 @@ public class ScheduleEquivalenceUpdateTaskTest {
         verify(updater).updateEquivalences(eq(yvItemTwo), any(OwlTelescopeReporter.class));
     }
 
+    @Test
+    public void testResumesAfterCheckpointedChannelDayAndResetsProgressWhenFinished() {
+        Item yvItemOne = new Item("yv1", "yv1c", Publisher.YOUVIEW);
+        LocalDate today = new LocalDate();
+        Schedule schedule = new Schedule(
+                ImmutableList.of(new ScheduleChannel(bbcOne, ImmutableList.of(yvItemOne))),
+                new Interval(today.toDateTimeAtStartOfDay(), today.plusDays(1).toDateTimeAtStartOfDay())
+        );
+        when(contentResolver.findByCanonicalUris(ImmutableSet.of("yv1")))
+                .thenReturn(ResolvedContent.builder().put("yv1", yvItemOne).build());
+
+        ScheduleTaskProgressStore progressStore = mock(ScheduleTaskProgressStore.class);
+        String taskKey = Publisher.YOUVIEW.key() + "-schedule-equivalence";
+        when(progressStore.progressForTask(taskKey)).thenReturn(new ContentListingProgress(
+                null,
+                Publisher.YOUVIEW,
+                String.format("%s..%s/%s/%s/%s", today.minusDays(2), today, today, Publisher.YOUVIEW.key(), "bbconeuri")
+        ));
+
+        ScheduleEquivalenceUpdateTask.builder()
+            .withBack(2)
+            .withForward(0)
+            .withContentResolver(contentResolver)
+            .withPublishers(ImmutableList.of(Publisher.YOUVIEW))
+            .withChannelsSupplier(Suppliers.ofInstance((Iterable<Channel>)ImmutableList.of(bbcOne)))
+            .withScheduleResolver(scheduleResolver(schedule))
+            .withUpdater(updater)
+            .withExecutor(Executors.newFixedThreadPool(2), 2)
+            .withProgressStore(progressStore)
+            .build().run();
+
+        // today was checkpointed, so only the two days before it are equivalated
+        verify(updater, times(2)).updateEquivalences(eq(yvItemOne), any(OwlTelescopeReporter.class));
+        verify(progressStore).storeProgress(taskKey, ContentListingProgress.START);
+    }
+
+    @Test
+    public void testIgnoresCheckpointFromDifferentWindow() {
+        Item yvItemOne = new Item("yv1", "yv1c", Publisher.YOUVIEW);
+        LocalDate today = new LocalDate();
+        Schedule schedule = new Schedule(
+                ImmutableList.of(new ScheduleChannel(bbcOne, ImmutableList.of(yvItemOne))),
+                new Interval(today.toDateTimeAtStartOfDay(), today.plusDays(1).toDateTimeAtStartOfDay())
+        );
+        when(contentResolver.findByCanonicalUris(ImmutableSet.of("yv1")))
+                .thenReturn(ResolvedContent.builder().put("yv1", yvItemOne).build());
+
+        ScheduleTaskProgressStore progressStore = mock(ScheduleTaskProgressStore.class);
+        String taskKey = Publisher.YOUVIEW.key() + "-schedule-equivalence";
+        LocalDate yesterday = today.minusDays(1);
+        // checkpointed by yesterday's run, whose window ended a day earlier
+        when(progressStore.progressForTask(taskKey)).thenReturn(new ContentListingProgress(
+                null,
+                Publisher.YOUVIEW,
+                String.format("%s..%s/%s/%s/%s", yesterday.minusDays(2), yesterday, yesterday, Publisher.YOUVIEW.key(), "bbconeuri")
+        ));
+
+        ScheduleEquivalenceUpdateTask.builder()
+            .withBack(2)
+            .withForward(0)
+            .withContentResolver(contentResolver)
+            .withPublishers(ImmutableList.of(Publisher.YOUVIEW))
+            .withChannelsSupplier(Suppliers.ofInstance((Iterable<Channel>)ImmutableList.of(bbcOne)))
+            .withScheduleResolver(scheduleResolver(schedule))
+            .withUpdater(updater)
+            .withProgressStore(progressStore)
+            .build().run();
+
+        verify(updater, times(3)).updateEquivalences(eq(yvItemOne), any(OwlTelescopeReporter.class));
+    }
+
 }
@@ -0,0 +1,48 @@
+package org.atlasapi.input;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class JsonArrayElementsTest {
+
+    @Test
+    public void testReadsEachElementAsStandaloneDocument() throws IOException {
+        JsonArrayElements elements = elementsOf(
+                "[ {\"uri\": \"a\", \"tags\": [1, 2]}, {\"nested\": {\"uri\": \"b\"}} ]"
+        );
+
+        assertThat(elements.hasNext(), is(true));
+        assertThat(new String(elements.next()), is("{\"uri\":\"a\",\"tags\":[1,2]}"));
+        assertThat(elements.hasNext(), is(true));
+        assertThat(new String(elements.next()), is("{\"nested\":{\"uri\":\"b\"}}"));
+        assertThat(elements.hasNext(), is(false));
+    }
+
+    @Test
+    public void testEmptyArrayHasNoElements() throws IOException {
+        assertThat(elementsOf("[]").hasNext(), is(false));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testRejectsInputThatIsNotAnArray() throws IOException {
+        elementsOf("{\"uri\": \"a\"}");
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void testFailsOnTruncatedArray() throws IOException {
+        JsonArrayElements elements = elementsOf("[{\"uri\": \"a\"}");
+
+        elements.next();
+        elements.hasNext();
+    }
+
+    private JsonArrayElements elementsOf(String json) throws IOException {
+        return JsonArrayElements.from(new ByteArrayInputStream(json.getBytes()));
+    }
+}
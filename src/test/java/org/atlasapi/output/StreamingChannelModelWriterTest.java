@@ -0,0 +1,95 @@
+package org.atlasapi.output;
+
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.simple.ChannelQueryResult;
+import org.atlasapi.output.simple.ChannelModelSimplifier;
+
+import com.metabroadcast.common.servlet.StubHttpServletRequest;
+import com.metabroadcast.common.servlet.StubHttpServletResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StreamingChannelModelWriterTest {
+
+    private final ChannelModelSimplifier simplifier = mock(ChannelModelSimplifier.class);
+    private final Application application = mock(Application.class);
+    private final Set<Annotation> annotations = ImmutableSet.of();
+
+    private final JsonTranslator<ChannelQueryResult> translator = new JsonTranslator<>();
+    private final SimpleChannelModelWriter simpleWriter =
+            new SimpleChannelModelWriter(translator, simplifier);
+    private final StreamingChannelModelWriter streamingWriter =
+            new StreamingChannelModelWriter(translator, simpleWriter, null);
+
+    @Before
+    public void setUp() {
+        when(simplifier.simplify(
+                any(Channel.class),
+                anySetOf(Annotation.class),
+                any(Application.class)
+        )).thenAnswer(invocation -> {
+            Channel channel = (Channel) invocation.getArguments()[0];
+            org.atlasapi.media.entity.simple.Channel simple =
+                    new org.atlasapi.media.entity.simple.Channel();
+            simple.setUri(channel.getUri());
+            simple.setTitle(channel.getTitle());
+            return simple;
+        });
+    }
+
+    @Test
+    public void testWritesSameJsonAsSimpleChannelModelWriter() throws Exception {
+        ImmutableList.Builder<Channel> channels = ImmutableList.builder();
+        for (int i = 0; i < 50; i++) {
+            channels.add(channel("channel" + i));
+        }
+
+        assertThat(streamed(channels.build()), is(expected(channels.build())));
+    }
+
+    @Test
+    public void testWritesSameJsonForNoChannels() throws Exception {
+        assertThat(
+                streamed(ImmutableList.<Channel>of()),
+                is(expected(ImmutableList.<Channel>of()))
+        );
+    }
+
+    private String expected(Iterable<Channel> channels) throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        simpleWriter.writeTo(new StubHttpServletRequest(), response, channels, annotations, application);
+        return response.getResponseAsString();
+    }
+
+    private String streamed(Iterable<Channel> channels) throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        streamingWriter.writeTo(new StubHttpServletRequest(), response, channels, annotations, application);
+        return response.getResponseAsString();
+    }
+
+    private Channel channel(String key) {
+        return new Channel(
+                Publisher.METABROADCAST,
+                "Channel " + key,
+                key,
+                false,
+                MediaType.VIDEO,
+                "http://example.org/channels/" + key
+        );
+    }
+}
@@ -0,0 +1,120 @@
+package org.atlasapi.output;
+
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Identified;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.simple.ContentQueryResult;
+import org.atlasapi.media.entity.simple.Playlist;
+import org.atlasapi.output.simple.ContainerModelSimplifier;
+import org.atlasapi.output.simple.ImageSimplifier;
+import org.atlasapi.output.simple.ItemModelSimplifier;
+import org.atlasapi.output.simple.PersonModelSimplifier;
+import org.atlasapi.output.simple.PrefetchedAnnotations;
+import org.atlasapi.output.simple.ProductModelSimplifier;
+import org.atlasapi.output.simple.TopicModelSimplifier;
+
+import com.metabroadcast.common.servlet.StubHttpServletRequest;
+import com.metabroadcast.common.servlet.StubHttpServletResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StreamingContentModelWriterTest {
+
+    private final ItemModelSimplifier itemSimplifier = mock(ItemModelSimplifier.class);
+    private final ContainerModelSimplifier containerSimplifier = mock(ContainerModelSimplifier.class);
+    private final Application application = mock(Application.class);
+    private final Set<Annotation> annotations = ImmutableSet.of(Annotation.DESCRIPTION);
+
+    private final JsonTranslator<ContentQueryResult> translator = new JsonTranslator<>();
+    private final SimpleContentModelWriter simpleWriter = new SimpleContentModelWriter(
+            translator,
+            itemSimplifier,
+            containerSimplifier,
+            new TopicModelSimplifier("localhostName"),
+            new ProductModelSimplifier("localhostName"),
+            new ImageSimplifier(),
+            mock(PersonModelSimplifier.class)
+    );
+    private final StreamingContentModelWriter streamingWriter =
+            new StreamingContentModelWriter(translator, simpleWriter);
+
+    @Before
+    public void setUp() {
+        when(itemSimplifier.simplify(
+                any(Item.class),
+                anySetOf(Annotation.class),
+                any(Application.class),
+                any(PrefetchedAnnotations.class)
+        )).thenAnswer(invocation -> {
+            Item item = (Item) invocation.getArguments()[0];
+            org.atlasapi.media.entity.simple.Item simple = new org.atlasapi.media.entity.simple.Item();
+            simple.setUri(item.getCanonicalUri());
+            simple.setTitle(item.getTitle());
+            return simple;
+        });
+        when(containerSimplifier.simplify(
+                any(Container.class),
+                anySetOf(Annotation.class),
+                any(Application.class),
+                any(PrefetchedAnnotations.class)
+        )).thenAnswer(invocation -> {
+            Container container = (Container) invocation.getArguments()[0];
+            Playlist simple = new Playlist();
+            simple.setUri(container.getCanonicalUri());
+            simple.setTitle(container.getTitle());
+            return simple;
+        });
+    }
+
+    @Test
+    public void testWritesSameJsonAsSimpleContentModelWriter() throws Exception {
+        assertThat(streamed(result()), is(expected(result())));
+    }
+
+    @Test
+    public void testWritesSameJsonForEmptyResult() throws Exception {
+        QueryResult<Identified, Identified> empty = QueryResult.of(ImmutableList.<Identified>of());
+        assertThat(streamed(empty), is(expected(empty)));
+    }
+
+    private String expected(QueryResult<Identified, Identified> result) throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        simpleWriter.writeTo(new StubHttpServletRequest(), response, result, annotations, application);
+        return response.getResponseAsString();
+    }
+
+    private String streamed(QueryResult<Identified, Identified> result) throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        streamingWriter.writeTo(new StubHttpServletRequest(), response, result, annotations, application);
+        return response.getResponseAsString();
+    }
+
+    private QueryResult<Identified, Identified> result() {
+        ImmutableList.Builder<Identified> content = ImmutableList.builder();
+        Brand brand = new Brand("http://brand", "brand", Publisher.BBC);
+        brand.setTitle("Brand");
+        content.add(brand);
+        for (int i = 0; i < 50; i++) {
+            Episode episode = new Episode("http://episode/" + i, "episode" + i, Publisher.BBC);
+            episode.setTitle("Episode " + i);
+            content.add(episode);
+        }
+        return QueryResult.of(content.build());
+    }
+}
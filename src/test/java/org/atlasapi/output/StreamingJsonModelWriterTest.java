@@ -0,0 +1,202 @@
+package org.atlasapi.output;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.simple.Item;
+import org.atlasapi.media.entity.simple.ScheduleChannel;
+
+import com.metabroadcast.common.servlet.StubHttpServletRequest;
+import com.metabroadcast.common.servlet.StubHttpServletResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.gson.JsonParser;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamingJsonModelWriterTest {
+
+    private final JsonTranslator<ScheduleChannel> translator = new JsonTranslator<>();
+    private final StreamingJsonModelWriter<ScheduleChannel> streamingWriter =
+            new StreamingJsonModelWriter<ScheduleChannel>(translator) {
+
+                @Override
+                protected void writeBody(
+                        ScheduleChannel model,
+                        Set<Annotation> annotations,
+                        Application application,
+                        Body body
+                ) throws IOException {
+                    List<Item> items = model.getItems();
+                    model.setItems(ImmutableList.<Item>of());
+                    body.writeProperties(model, "items", arrayOf(items, Item.class));
+                }
+            };
+
+    @Test
+    public void testWritesSameJsonAsJsonTranslator() throws Exception {
+        StubHttpServletResponse expected = new StubHttpServletResponse();
+        translator.writeTo(
+                new StubHttpServletRequest(),
+                expected,
+                scheduleChannel(),
+                ImmutableSet.<Annotation>of(),
+                mock(Application.class)
+        );
+
+        StubHttpServletResponse streamed = new StubHttpServletResponse();
+        streamingWriter.writeTo(
+                new StubHttpServletRequest(),
+                streamed,
+                scheduleChannel(),
+                ImmutableSet.<Annotation>of(),
+                mock(Application.class)
+        );
+
+        JsonParser parser = new JsonParser();
+        assertThat(
+                parser.parse(streamed.getResponseAsString()),
+                is(parser.parse(expected.getResponseAsString()))
+        );
+    }
+
+    @Test
+    public void testKeepsPropertyOrderOfJsonTranslator() throws Exception {
+        StubHttpServletResponse expected = new StubHttpServletResponse();
+        translator.writeTo(
+                new StubHttpServletRequest(),
+                expected,
+                scheduleChannel(),
+                ImmutableSet.<Annotation>of(),
+                mock(Application.class)
+        );
+
+        StubHttpServletResponse streamed = new StubHttpServletResponse();
+        streamingWriter.writeTo(
+                new StubHttpServletRequest(),
+                streamed,
+                scheduleChannel(),
+                ImmutableSet.<Annotation>of(),
+                mock(Application.class)
+        );
+
+        assertThat(streamed.getResponseAsString(), is(expected.getResponseAsString()));
+    }
+
+    @Test
+    public void testDiscardsPartialOutputWhenFailingBeforeResponseIsCommitted() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(new DiscardingServletOutputStream());
+        when(response.isCommitted()).thenReturn(false);
+
+        try {
+            failingWriter().writeTo(
+                    new StubHttpServletRequest(),
+                    response,
+                    scheduleChannel(),
+                    ImmutableSet.<Annotation>of(),
+                    mock(Application.class)
+            );
+            fail("Expected writing to fail");
+        } catch (IllegalStateException e) {
+            verify(response).reset();
+        }
+    }
+
+    @Test
+    public void testDoesNotAppendErrorToCommittedResponse() throws Exception {
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.isCommitted()).thenReturn(true);
+
+        streamingWriter.writeError(
+                new StubHttpServletRequest(),
+                response,
+                AtlasErrorSummary.forException(new IllegalStateException())
+        );
+
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void testWrapsOutputInJsonpCallback() throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        streamingWriter.writeTo(
+                new StubHttpServletRequest().withParam(JsonTranslator.CALLBACK, "cb"),
+                response,
+                scheduleChannel(),
+                ImmutableSet.<Annotation>of(),
+                mock(Application.class)
+        );
+
+        assertThat(response.getResponseAsString(), startsWith("cb({"));
+        assertThat(response.getResponseAsString(), endsWith("});"));
+    }
+
+    private StreamingJsonModelWriter<ScheduleChannel> failingWriter() {
+        return new StreamingJsonModelWriter<ScheduleChannel>(translator) {
+
+            @Override
+            protected void writeBody(
+                    ScheduleChannel model,
+                    Set<Annotation> annotations,
+                    Application application,
+                    Body body
+            ) throws IOException {
+                body.writeProperties(model, "items", arrayOf(
+                        Iterables.transform(model.getItems(), item -> {
+                            throw new IllegalStateException();
+                        }),
+                        Item.class
+                ));
+            }
+        };
+    }
+
+    private ScheduleChannel scheduleChannel() {
+        ScheduleChannel scheduleChannel = new ScheduleChannel();
+        scheduleChannel.setChannelUri("http://www.bbc.co.uk/bbcone");
+        scheduleChannel.setChannelTitle("BBC One");
+        ImmutableList.Builder<Item> items = ImmutableList.builder();
+        for (int i = 0; i < 50; i++) {
+            Item item = new Item();
+            item.setUri("http://www.bbc.co.uk/programmes/" + i);
+            item.setTitle("Item " + i);
+            items.add(item);
+        }
+        scheduleChannel.setItems(items.build());
+        return scheduleChannel;
+    }
+
+    private static class DiscardingServletOutputStream extends ServletOutputStream {
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+    }
+}
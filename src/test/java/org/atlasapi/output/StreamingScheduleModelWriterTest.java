@@ -0,0 +1,107 @@
+package org.atlasapi.output;
+
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.simple.ScheduleQueryResult;
+import org.atlasapi.output.simple.ChannelSimplifier;
+import org.atlasapi.output.simple.ItemModelSimplifier;
+
+import com.metabroadcast.common.servlet.StubHttpServletRequest;
+import com.metabroadcast.common.servlet.StubHttpServletResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StreamingScheduleModelWriterTest {
+
+    private final ItemModelSimplifier itemSimplifier = mock(ItemModelSimplifier.class);
+    private final Application application = mock(Application.class);
+    private final Set<Annotation> annotations = ImmutableSet.of(Annotation.DESCRIPTION);
+
+    private final JsonTranslator<ScheduleQueryResult> translator = new JsonTranslator<>();
+    private final SimpleScheduleModelWriter simpleWriter = new SimpleScheduleModelWriter(
+            translator,
+            itemSimplifier,
+            mock(ChannelSimplifier.class)
+    );
+    private final StreamingScheduleModelWriter streamingWriter =
+            new StreamingScheduleModelWriter(translator, simpleWriter);
+
+    @Before
+    public void setUp() {
+        when(itemSimplifier.simplify(
+                any(Item.class),
+                anySetOf(Annotation.class),
+                any(Application.class)
+        )).thenAnswer(invocation -> {
+            Item item = (Item) invocation.getArguments()[0];
+            org.atlasapi.media.entity.simple.Item simple = new org.atlasapi.media.entity.simple.Item();
+            simple.setUri(item.getCanonicalUri());
+            simple.setTitle(item.getTitle());
+            return simple;
+        });
+    }
+
+    @Test
+    public void testWritesSameJsonAsSimpleScheduleModelWriter() throws Exception {
+        Iterable<ScheduleChannel> schedule = ImmutableList.of(
+                scheduleChannel("bbcone", 30),
+                scheduleChannel("bbctwo", 0),
+                scheduleChannel("bbcthree", 5)
+        );
+
+        assertThat(streamed(schedule), is(expected(schedule)));
+    }
+
+    @Test
+    public void testWritesSameJsonForEmptySchedule() throws Exception {
+        Iterable<ScheduleChannel> schedule = ImmutableList.of();
+
+        assertThat(streamed(schedule), is(expected(schedule)));
+    }
+
+    private String expected(Iterable<ScheduleChannel> schedule) throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        simpleWriter.writeTo(new StubHttpServletRequest(), response, schedule, annotations, application);
+        return response.getResponseAsString();
+    }
+
+    private String streamed(Iterable<ScheduleChannel> schedule) throws Exception {
+        StubHttpServletResponse response = new StubHttpServletResponse();
+        streamingWriter.writeTo(new StubHttpServletRequest(), response, schedule, annotations, application);
+        return response.getResponseAsString();
+    }
+
+    private ScheduleChannel scheduleChannel(String key, int itemCount) {
+        Channel channel = new Channel(
+                Publisher.METABROADCAST,
+                key,
+                key,
+                false,
+                MediaType.VIDEO,
+                "http://example.org/channels/" + key
+        );
+        ImmutableList.Builder<Item> items = ImmutableList.builder();
+        for (int i = 0; i < itemCount; i++) {
+            Item item = new Item("http://" + key + "/" + i, key + i, Publisher.PA);
+            item.setTitle("Item " + i);
+            items.add(item);
+        }
+        return new ScheduleChannel(channel, items.build());
+    }
+}
@@ -0,0 +1,141 @@
+package org.atlasapi.output.simple;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.channel.ChannelResolver;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.Clip;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.ParentRef;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Topic;
+import org.atlasapi.media.entity.TopicRef;
+import org.atlasapi.media.entity.simple.BrandSummary;
+import org.atlasapi.media.product.ProductResolver;
+import org.atlasapi.output.Annotation;
+import org.atlasapi.persistence.content.ContentGroupResolver;
+import org.atlasapi.persistence.content.PeopleQueryResolver;
+import org.atlasapi.persistence.output.ContainerSummaryResolver;
+import org.atlasapi.persistence.topic.TopicQueryResolver;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AnnotationPrefetcherTest {
+
+    private final TopicQueryResolver topicResolver = mock(TopicQueryResolver.class);
+    private final ContentGroupResolver contentGroupResolver = mock(ContentGroupResolver.class);
+    private final PeopleQueryResolver peopleResolver = mock(PeopleQueryResolver.class);
+    private final ProductResolver productResolver = mock(ProductResolver.class);
+    private final ContainerSummaryResolver containerSummaryResolver = mock(ContainerSummaryResolver.class);
+    private final ChannelResolver channelResolver = mock(ChannelResolver.class);
+    private final Application application = mock(Application.class);
+
+    private final AnnotationPrefetcher prefetcher = new AnnotationPrefetcher(
+            topicResolver,
+            contentGroupResolver,
+            peopleResolver,
+            productResolver,
+            containerSummaryResolver,
+            channelResolver
+    );
+
+    @Test
+    public void testResolvesSharedReferencesOnceForWholeResult() {
+        Brand brand = new Brand("http://brand", "brand", Publisher.BBC);
+        ParentRef brandRef = ParentRef.parentRefFrom(brand);
+
+        Topic topic = new Topic(9000L);
+        when(topicResolver.topicsForIds(Matchers.anyCollection()))
+                .thenReturn(ImmutableList.of(topic));
+        BrandSummary summary = new BrandSummary();
+        summary.setUri(brand.getCanonicalUri());
+        when(containerSummaryResolver.summarizeTopLevelContainer(brandRef))
+                .thenReturn(Optional.of(summary));
+
+        PrefetchedAnnotations prefetched = prefetcher.prefetch(
+                ImmutableList.of(episode("http://ep1", brand), episode("http://ep2", brand)),
+                ImmutableSet.of(Annotation.TOPICS, Annotation.BRAND_SUMMARY),
+                application
+        );
+
+        verify(topicResolver, times(1)).topicsForIds(Matchers.anyCollection());
+        verify(containerSummaryResolver, times(1)).summarizeTopLevelContainer(brandRef);
+        assertThat(prefetched.topics().get().get(9000L), is(topic));
+        assertThat(prefetched.brandSummaries().get().get(brand.getCanonicalUri()), is(summary));
+    }
+
+    @Test
+    public void testOnlyPrefetchesRequestedAnnotations() {
+        Brand brand = new Brand("http://brand", "brand", Publisher.BBC);
+
+        PrefetchedAnnotations prefetched = prefetcher.prefetch(
+                ImmutableList.of(episode("http://ep1", brand)),
+                ImmutableSet.of(Annotation.DESCRIPTION),
+                application
+        );
+
+        verify(topicResolver, never()).topicsForIds(Matchers.anyCollection());
+        verify(containerSummaryResolver, never())
+                .summarizeTopLevelContainer(Matchers.any(ParentRef.class));
+        assertFalse(prefetched.topics().isPresent());
+        assertFalse(prefetched.brandSummaries().isPresent());
+        assertFalse(prefetched.channels().isPresent());
+    }
+
+    @Test
+    public void testCollectsReferencesFromContainerClips() {
+        Brand brand = new Brand("http://brand", "brand", Publisher.BBC);
+        Clip clip = new Clip("http://clip", "clip", Publisher.BBC);
+        clip.setTopicRefs(ImmutableList.of(
+                new TopicRef(9001L, 1.0f, false, TopicRef.Relationship.ABOUT)
+        ));
+        brand.setClips(ImmutableList.of(clip));
+
+        Topic topic = new Topic(9001L);
+        when(topicResolver.topicsForIds(ImmutableSet.of(9001L)))
+                .thenReturn(ImmutableList.of(topic));
+
+        PrefetchedAnnotations prefetched = prefetcher.prefetch(
+                ImmutableList.of(brand),
+                ImmutableSet.of(Annotation.TOPICS, Annotation.CLIPS),
+                application
+        );
+
+        verify(topicResolver, times(1)).topicsForIds(ImmutableSet.of(9001L));
+        assertThat(prefetched.topics().get().get(9001L), is(topic));
+    }
+
+    @Test
+    public void testDoesNotAskResolverForEmptyReferences() {
+        PrefetchedAnnotations prefetched = prefetcher.prefetch(
+                ImmutableList.of(new Episode("http://ep1", "ep1", Publisher.BBC)),
+                ImmutableSet.of(Annotation.TOPICS),
+                application
+        );
+
+        verify(topicResolver, never()).topicsForIds(Matchers.anyCollection());
+        assertTrue(prefetched.topics().get().isEmpty());
+    }
+
+    private Episode episode(String uri, Brand brand) {
+        Episode episode = new Episode(uri, uri, Publisher.BBC);
+        episode.setContainer(brand);
+        episode.setTopicRefs(ImmutableList.of(
+                new TopicRef(9000L, 1.0f, false, TopicRef.Relationship.ABOUT)
+        ));
+        return episode;
+    }
+}
@@ -0,0 +1,108 @@
+package org.atlasapi.query.content;
+
+import org.atlasapi.media.entity.Alias;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.persistence.audit.NoLoggingPersistenceAuditLog;
+import org.atlasapi.persistence.lookup.entry.LookupEntry;
+import org.atlasapi.persistence.lookup.mongo.MongoLookupEntryStore;
+
+import com.metabroadcast.common.persistence.MongoTestHelper;
+import com.metabroadcast.common.persistence.mongo.DatabasedMongoClient;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.mongodb.ReadPreference;
+import org.joda.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CachingLookupEntryStoreTest {
+
+    private static final Alias OLD_ALIAS = new Alias("namespace", "old");
+    private static final Alias NEW_ALIAS = new Alias("namespace", "new");
+
+    private final MetricRegistry metrics = new MetricRegistry();
+
+    private MongoLookupEntryStore backingStore;
+    private CachingLookupEntryStore cachingStore;
+
+    @Before
+    public void setUp() {
+        DatabasedMongoClient mongoClient = MongoTestHelper.anEmptyTestDatabaseWithMongoClient();
+        backingStore = new MongoLookupEntryStore(
+                mongoClient,
+                "lookup",
+                new NoLoggingPersistenceAuditLog(),
+                ReadPreference.primary()
+        );
+        cachingStore = CachingLookupEntryStore.builder()
+                .withMongoClient(mongoClient)
+                .withCollectionName("lookup")
+                .withAuditLog(new NoLoggingPersistenceAuditLog())
+                .withReadPreference(ReadPreference.primary())
+                .withMaximumSize(100)
+                .withTimeToLive(Duration.standardMinutes(1))
+                .withMetrics(metrics, "lookup.cache")
+                .build();
+
+        backingStore.store(LookupEntry.lookupEntryFrom(item(OLD_ALIAS)));
+    }
+
+    @Test
+    public void testRepeatedLookupIsServedFromCache() {
+        cachingStore.entriesForIds(ImmutableSet.of(1L));
+        backingStore.store(LookupEntry.lookupEntryFrom(item(NEW_ALIAS)));
+
+        LookupEntry entry = Iterables.getOnlyElement(cachingStore.entriesForIds(ImmutableSet.of(1L)));
+
+        assertThat(entry.aliases(), contains(OLD_ALIAS));
+        assertThat(metrics.meter("lookup.cache.hits").getCount(), is(1L));
+        assertThat(metrics.meter("lookup.cache.misses").getCount(), is(1L));
+    }
+
+    @Test
+    public void testUriLookupSharesEntriesCachedById() {
+        cachingStore.entriesForCanonicalUris(ImmutableSet.of("uri"));
+        backingStore.store(LookupEntry.lookupEntryFrom(item(NEW_ALIAS)));
+
+        LookupEntry byId = Iterables.getOnlyElement(cachingStore.entriesForIds(ImmutableSet.of(1L)));
+        cachingStore.invalidate(1L);
+        LookupEntry byUri = Iterables.getOnlyElement(
+                cachingStore.entriesForCanonicalUris(ImmutableSet.of("uri"))
+        );
+
+        assertThat(byId.aliases(), contains(OLD_ALIAS));
+        assertThat(byUri.aliases(), contains(NEW_ALIAS));
+    }
+
+    @Test
+    public void testInvalidatedAliasLookupReadsThrough() {
+        cachingStore.entriesForAliases(Optional.of("namespace"), ImmutableSet.of("old"));
+        backingStore.store(LookupEntry.lookupEntryFrom(item(OLD_ALIAS, NEW_ALIAS)));
+
+        LookupEntry cached = Iterables.getOnlyElement(
+                cachingStore.entriesForAliases(Optional.of("namespace"), ImmutableSet.of("old"))
+        );
+        cachingStore.invalidate(1L);
+        LookupEntry reloaded = Iterables.getOnlyElement(
+                cachingStore.entriesForAliases(Optional.of("namespace"), ImmutableSet.of("old"))
+        );
+
+        assertThat(cached.aliases().size(), is(1));
+        assertThat(reloaded.aliases().size(), is(2));
+    }
+
+    private Item item(Alias... aliases) {
+        Item item = new Item("uri", "curie", Publisher.BBC);
+        item.setId(1L);
+        item.setAliases(ImmutableSet.copyOf(aliases));
+        return item;
+    }
+}
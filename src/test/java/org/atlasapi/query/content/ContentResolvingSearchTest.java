@@ -1,6 +1,8 @@
 package org.atlasapi.query.content;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import com.metabroadcast.applications.client.model.internal.Application;
 import junit.framework.TestCase;
@@ -12,22 +14,28 @@ import org.atlasapi.media.entity.Brand;
 import org.atlasapi.media.entity.Episode;
 import org.atlasapi.media.entity.Identified;
 import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Specialization;
 import org.atlasapi.media.entity.simple.ContentIdentifier;
 import org.atlasapi.persistence.content.PeopleQueryResolver;
 import org.atlasapi.persistence.content.query.KnownTypeQueryExecutor;
 import org.atlasapi.query.content.search.ContentResolvingSearcher;
+import org.atlasapi.query.content.search.HydratedSearchResults;
 import org.atlasapi.search.ContentSearcher;
 import org.atlasapi.search.model.SearchQuery;
 import org.atlasapi.search.model.SearchResults;
 import org.jmock.Expectations;
 import org.jmock.Mockery;
+import org.jmock.api.Invocation;
+import org.jmock.lib.action.CustomAction;
 import org.jmock.integration.junit4.JMock;
+import org.joda.time.Duration;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.metabroadcast.common.query.Selection;
 
@@ -76,4 +84,78 @@ public class ContentResolvingSearchTest extends TestCase {
         assertFalse(result.getChildRefs().isEmpty());
         assertTrue(result.getClips().isEmpty());
     }
+
+    @Test
+    public void testQueriesDifferingOnlyInCaseAndSpacingShareCachedSearchResults() {
+        searcher = ContentResolvingSearcher.builder(fuzzySearcher)
+                .withContentResolver(contentResolver)
+                .withPeopleQueryResolver(peopleResolver)
+                .withSearchCache(10, Duration.standardMinutes(1))
+                .build();
+
+        context.checking(new Expectations() {{
+            one(fuzzySearcher).search(with(any(SearchQuery.class))); will(returnValue(new SearchResults(ImmutableList.of(ContentIdentifier.identifierFrom("abc", brand.getCanonicalUri(), "brand")))));
+            exactly(2).of(contentResolver).executeUriQuery(with(equal(ImmutableList.of(brand.getCanonicalUri()))), with(any(ContentQuery.class))); will(returnValue(ImmutableMap.of(brand.getCanonicalUri(), ImmutableList.of(brand))));
+        }});
+
+        searcher.search(new SearchQuery("test  query", selection, publishers, 1.0f, 0.0f, 0.0f), mock(Application.class));
+        List<Identified> content = searcher.search(new SearchQuery(" Test query ", selection, publishers, 1.0f, 0.0f, 0.0f), mock(Application.class));
+
+        assertEquals(brand, Iterables.getOnlyElement(content));
+    }
+
+    @Test
+    public void testFilterMatchingTheTermDoesNotShareCachedSearchResults() {
+        searcher = ContentResolvingSearcher.builder(fuzzySearcher)
+                .withContentResolver(contentResolver)
+                .withPeopleQueryResolver(peopleResolver)
+                .withSearchCache(10, Duration.standardMinutes(1))
+                .build();
+
+        context.checking(new Expectations() {{
+            exactly(2).of(fuzzySearcher).search(with(any(SearchQuery.class))); will(returnValue(new SearchResults(ImmutableList.of(ContentIdentifier.identifierFrom("abc", brand.getCanonicalUri(), "brand")))));
+            exactly(2).of(contentResolver).executeUriQuery(with(equal(ImmutableList.of(brand.getCanonicalUri()))), with(any(ContentQuery.class))); will(returnValue(ImmutableMap.of(brand.getCanonicalUri(), ImmutableList.of(brand))));
+        }});
+
+        searcher.search(SearchQuery.builder("film")
+                .withSelection(selection)
+                .withPublishers(ImmutableSet.copyOf(publishers))
+                .withSpecializations(ImmutableSet.of(Specialization.FILM))
+                .build(), mock(Application.class));
+        searcher.search(SearchQuery.builder("film")
+                .withSelection(selection)
+                .withPublishers(ImmutableSet.copyOf(publishers))
+                .build(), mock(Application.class));
+    }
+
+    @Test
+    public void testHydrationPastDeadlineReturnsPartialResults() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        searcher = ContentResolvingSearcher.builder(fuzzySearcher)
+                .withContentResolver(contentResolver)
+                .withPeopleQueryResolver(peopleResolver)
+                .withHydrationExecutor(executor)
+                .withHydrationDeadline(Duration.millis(50))
+                .build();
+
+        context.checking(new Expectations() {{
+            one(fuzzySearcher).search(with(any(SearchQuery.class))); will(returnValue(new SearchResults(ImmutableList.of(ContentIdentifier.identifierFrom("abc", brand.getCanonicalUri(), "brand")))));
+            one(contentResolver).executeUriQuery(with(any(List.class)), with(any(ContentQuery.class))); will(new CustomAction("resolve slowly") {
+                @Override
+                public Object invoke(Invocation invocation) throws Throwable {
+                    Thread.sleep(5000);
+                    return ImmutableMap.of(brand.getCanonicalUri(), ImmutableList.of(brand));
+                }
+            });
+        }});
+
+        try {
+            HydratedSearchResults results = searcher.hydratedSearch(new SearchQuery("test", selection, publishers, 1.0f, 0.0f, 0.0f), mock(Application.class));
+
+            assertTrue(results.isPartial());
+            assertTrue(results.results().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package org.atlasapi.query.content.schedule;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Schedule;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.persistence.content.ScheduleResolver;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.joda.time.Interval;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingScheduleResolverTest {
+
+    private static final DateTime BLOCK_START = new DateTime(2018, 6, 1, 10, 0, DateTimeZone.UTC);
+    private static final DateTime BLOCK_END = BLOCK_START.plusHours(1);
+
+    private final ScheduleResolver delegate = mock(ScheduleResolver.class);
+    private final MetricRegistry metrics = new MetricRegistry();
+
+    private final Channel channel = new Channel(
+            Publisher.METABROADCAST,
+            "BBC One",
+            "bbcone",
+            false,
+            MediaType.VIDEO,
+            "bbconeuri"
+    );
+    private final Item earlier = item("earlier", BLOCK_START.minusMinutes(30), BLOCK_START.plusMinutes(30));
+    private final Item later = item("later", BLOCK_START.plusMinutes(30), BLOCK_END);
+
+    private CachingScheduleResolver resolver;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        channel.setId(1L);
+        when(delegate.schedule(
+                any(DateTime.class),
+                any(DateTime.class),
+                anyCollectionOf(Channel.class),
+                anyCollectionOf(Publisher.class),
+                any(Optional.class)
+        )).thenReturn(new Schedule(
+                ImmutableList.of(new ScheduleChannel(channel, ImmutableList.of(earlier, later))),
+                new Interval(BLOCK_START, BLOCK_END)
+        ));
+
+        resolver = CachingScheduleResolver.builder()
+                .withDelegate(delegate)
+                .withMaximumItems(100)
+                .withTimeToLive(Duration.standardMinutes(1))
+                .withMetrics(metrics, "schedule.cache")
+                .build();
+    }
+
+    @Test
+    public void testPointInTimeRequestsInTheSameBlockShareAnEntry() {
+        Schedule first = now(BLOCK_START.plusMinutes(5));
+        Schedule second = now(BLOCK_START.plusMinutes(40));
+
+        assertThat(items(first), contains(earlier));
+        assertThat(items(second), contains(later));
+        verify(delegate).schedule(
+                BLOCK_START,
+                BLOCK_END,
+                ImmutableSet.of(channel),
+                ImmutableSet.of(Publisher.PA),
+                Optional.<Application>absent()
+        );
+        assertThat(metrics.meter("schedule.cache.hits").getCount(), is(1L));
+        assertThat(metrics.meter("schedule.cache.misses").getCount(), is(1L));
+    }
+
+    @Test
+    public void testReplacingAnOverlappingBlockInvalidates() {
+        now(BLOCK_START.plusMinutes(5));
+        resolver.invalidate(
+                Publisher.PA,
+                1L,
+                new Interval(BLOCK_START.plusMinutes(50), BLOCK_END.plusHours(1))
+        );
+        now(BLOCK_START.plusMinutes(5));
+
+        verify(delegate, times(2)).schedule(
+                BLOCK_START,
+                BLOCK_END,
+                ImmutableSet.of(channel),
+                ImmutableSet.of(Publisher.PA),
+                Optional.<Application>absent()
+        );
+        assertThat(metrics.meter("schedule.cache.invalidations").getCount(), is(1L));
+    }
+
+    @Test
+    public void testReplacingOtherSchedulesDoesNotInvalidate() {
+        now(BLOCK_START.plusMinutes(5));
+        resolver.invalidate(Publisher.PA, 2L, new Interval(BLOCK_START, BLOCK_END));
+        resolver.invalidate(Publisher.BBC, 1L, new Interval(BLOCK_START, BLOCK_END));
+        resolver.invalidate(Publisher.PA, 1L, new Interval(BLOCK_END, BLOCK_END.plusHours(1)));
+        now(BLOCK_START.plusMinutes(5));
+
+        assertThat(metrics.meter("schedule.cache.hits").getCount(), is(1L));
+        assertThat(metrics.meter("schedule.cache.invalidations").getCount(), is(0L));
+    }
+
+    @Test
+    public void testChangesToReturnedItemsDoNotReachTheCache() {
+        Item returned = Iterables.getOnlyElement(items(now(BLOCK_START.plusMinutes(5))));
+        returned.setTitle("Changed");
+
+        Item next = Iterables.getOnlyElement(items(now(BLOCK_START.plusMinutes(5))));
+
+        assertThat(next, is(not(sameInstance(returned))));
+        assertThat(next.getTitle(), is(nullValue()));
+        assertThat(metrics.meter("schedule.cache.hits").getCount(), is(1L));
+    }
+
+    @Test
+    public void testAlignsIntervalsToScheduleBlocks() {
+        assertThat(
+                CachingScheduleResolver.alignToBlocks(BLOCK_START, BLOCK_START),
+                is(new Interval(BLOCK_START, BLOCK_END))
+        );
+        assertThat(
+                CachingScheduleResolver.alignToBlocks(
+                        BLOCK_START.plusMinutes(10),
+                        BLOCK_END.plusMinutes(10)
+                ),
+                is(new Interval(BLOCK_START, BLOCK_END.plusHours(1)))
+        );
+    }
+
+    private Schedule now(DateTime when) {
+        return resolver.schedule(
+                when,
+                when,
+                ImmutableSet.of(channel),
+                ImmutableSet.of(Publisher.PA),
+                Optional.absent()
+        );
+    }
+
+    private Iterable<Item> items(Schedule schedule) {
+        return Iterables.getOnlyElement(schedule.scheduleChannels()).items();
+    }
+
+    private Item item(String uri, DateTime start, DateTime end) {
+        Item item = new Item(uri, uri, Publisher.PA);
+        Version version = new Version();
+        version.addBroadcast(new Broadcast(channel.getUri(), start, end));
+        item.addVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,230 @@
+package org.atlasapi.query.v2;
+
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.channel.ChannelGroup;
+import org.atlasapi.media.channel.ChannelGroupResolver;
+import org.atlasapi.media.channel.ChannelGroupType;
+import org.atlasapi.media.channel.ChannelNumbering;
+import org.atlasapi.media.channel.ChannelQuery;
+import org.atlasapi.media.channel.ChannelResolver;
+import org.atlasapi.media.channel.Platform;
+import org.atlasapi.media.channel.Region;
+import org.atlasapi.media.entity.Publisher;
+
+import com.metabroadcast.common.time.Clock;
+import com.metabroadcast.common.time.DateTimeZones;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.joda.time.DateTime;
+import org.joda.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChannelCatalogueTest {
+
+    private final DateTime now = new DateTime(2026, 10, 18, 12, 0, 0, 0, DateTimeZones.UTC);
+
+    private ChannelResolver channelResolver;
+    private ChannelGroupResolver channelGroupResolver;
+    private Clock clock;
+    private ChannelCatalogue catalogue;
+
+    private Platform platform;
+    private Region region;
+    private Region otherRegion;
+    private Channel one;
+    private Channel two;
+    private Channel three;
+
+    @Before
+    public void setUp() {
+        channelResolver = mock(ChannelResolver.class);
+        channelGroupResolver = mock(ChannelGroupResolver.class);
+        clock = mock(Clock.class);
+        when(clock.now()).thenReturn(now);
+
+        platform = new Platform();
+        platform.setId(1L);
+        platform.setPublisher(Publisher.METABROADCAST);
+        region = region(2L, Publisher.METABROADCAST);
+        otherRegion = region(3L, Publisher.BT_TV_CHANNELS);
+
+        one = channel(10L, "Zeta", Publisher.BBC, numbering(10L, 2L, "1"));
+        two = channel(11L, "Alpha", Publisher.ITV, numbering(11L, 3L, "301"));
+        three = channel(12L, "Zeta", Publisher.BBC, numbering(12L, 3L, "2"));
+        otherRegion.setChannelNumberings(ImmutableSet.of(
+                numbering(11L, 3L, "301"),
+                numbering(12L, 3L, "2")
+        ));
+
+        when(channelResolver.all()).thenReturn(ImmutableList.of(one, two, three));
+        when(channelGroupResolver.channelGroups())
+                .thenReturn(ImmutableList.<ChannelGroup>of(platform, region, otherRegion));
+
+        catalogue = ChannelCatalogue.create(
+                channelResolver,
+                channelGroupResolver,
+                Duration.standardMinutes(5),
+                clock
+        );
+    }
+
+    @Test
+    public void testChannelGroupsAreIndexedByPlatformTypeAndPublisher() {
+        ChannelCatalogue.Snapshot snapshot = catalogue.current();
+
+        assertEquals(
+                ImmutableList.of(region, otherRegion),
+                snapshot.channelGroups(Optional.absent(), Optional.of(1L), Optional.absent())
+        );
+        assertEquals(
+                ImmutableList.of(platform),
+                snapshot.channelGroups(Optional.of(ChannelGroupType.PLATFORM), Optional.absent(), Optional.absent())
+        );
+        assertEquals(
+                ImmutableList.of(otherRegion),
+                snapshot.channelGroups(Optional.absent(), Optional.of(1L), Optional.of(Publisher.BT_TV_CHANNELS))
+        );
+    }
+
+    @Test
+    public void testChannelsMatchingQueryKeepResolverOrder() {
+        ChannelQuery query = ChannelQuery.builder()
+                .withChannelGroups(ImmutableSet.of(3L, 2L))
+                .withBroadcaster(Publisher.BBC)
+                .build();
+
+        List<Channel> channels = catalogue.current().channels(query, Optional.absent());
+
+        assertEquals(ImmutableList.of(one, three), channels);
+    }
+
+    @Test
+    public void testTitleOrderingKeepsResolverOrderForEqualTitles() {
+        ChannelCatalogue.Snapshot snapshot = catalogue.current();
+
+        assertEquals(
+                ImmutableList.of(two, one, three),
+                snapshot.titleOrdering().sortedCopy(ImmutableList.of(three, one, two))
+        );
+        assertEquals(
+                ImmutableList.of(one, three, two),
+                snapshot.titleOrdering().reverse().sortedCopy(ImmutableList.of(one, three, two))
+        );
+    }
+
+    @Test
+    public void testDttAndIpViewsSplitNumberingsAndAreShared() {
+        ChannelCatalogue.Snapshot snapshot = catalogue.current();
+
+        ChannelGroup dtt = snapshot.dttView(otherRegion);
+        ChannelGroup ip = snapshot.ipView(otherRegion);
+
+        assertEquals(ImmutableSet.of(numbering(12L, 3L, "2")), dtt.getChannelNumberings());
+        assertEquals(ImmutableSet.of(numbering(11L, 3L, "301")), ip.getChannelNumberings());
+        assertSame(dtt, snapshot.dttView(otherRegion));
+    }
+
+    @Test
+    public void testInvalidatedCatalogueIsRebuiltOnNextReadWithNewETag() {
+        ChannelCatalogue.Snapshot before = catalogue.current();
+        List<String> request = ImmutableList.of("/channels.json", "");
+
+        when(channelResolver.all()).thenReturn(ImmutableList.of(one, two));
+        catalogue.invalidate();
+        catalogue.invalidate();
+        verify(channelResolver, never()).refreshCache();
+
+        ChannelCatalogue.Snapshot after = catalogue.current();
+
+        verify(channelResolver, times(1)).refreshCache();
+        assertEquals(3, before.channels(ChannelQuery.builder().build(), Optional.absent()).size());
+        assertEquals(2, after.channels(ChannelQuery.builder().build(), Optional.absent()).size());
+        assertNotEquals(before.eTag(request), after.eTag(request));
+        assertEquals(after.eTag(request), catalogue.current().eTag(request));
+    }
+
+    @Test
+    public void testExpiredSnapshotIsRebuiltWithSameVersionWhenNothingChanged() {
+        ChannelCatalogue.Snapshot first = catalogue.current();
+        assertSame(first, catalogue.current());
+
+        when(clock.now()).thenReturn(now.plusMinutes(5));
+        ChannelCatalogue.Snapshot rebuilt = catalogue.current();
+
+        assertNotSame(first, rebuilt);
+        assertEquals(first.version(), rebuilt.version());
+    }
+
+    @Test
+    public void testCataloguesOverSameChannelsShareETags() {
+        ChannelCatalogue other = ChannelCatalogue.create(
+                channelResolver,
+                channelGroupResolver,
+                Duration.standardMinutes(5),
+                clock
+        );
+        List<String> request = ImmutableList.of("/channels.json", "");
+
+        assertEquals(catalogue.current().eTag(request), other.current().eTag(request));
+    }
+
+    @Test
+    public void testVersionDoesNotDependOnResolverOrder() {
+        ChannelResolver reorderedChannels = mock(ChannelResolver.class);
+        when(reorderedChannels.all()).thenReturn(ImmutableList.of(three, one, two));
+        ChannelGroupResolver reorderedGroups = mock(ChannelGroupResolver.class);
+        when(reorderedGroups.channelGroups())
+                .thenReturn(ImmutableList.<ChannelGroup>of(otherRegion, platform, region));
+        ChannelCatalogue reordered = ChannelCatalogue.create(
+                reorderedChannels,
+                reorderedGroups,
+                Duration.standardMinutes(5),
+                clock
+        );
+
+        assertEquals(catalogue.current().version(), reordered.current().version());
+    }
+
+    private Region region(long id, Publisher publisher) {
+        Region region = new Region();
+        region.setId(id);
+        region.setPublisher(publisher);
+        region.setPlatform(platform);
+        return region;
+    }
+
+    private Channel channel(long id, String title, Publisher broadcaster, ChannelNumbering numbering) {
+        Channel channel = Channel.builder()
+                .withUri("http://example.com/channels/" + id)
+                .withTitle(title)
+                .withSource(Publisher.METABROADCAST)
+                .withBroadcaster(broadcaster)
+                .build();
+        channel.setId(id);
+        channel.setChannelNumbers(ImmutableSet.of(numbering));
+        return channel;
+    }
+
+    private ChannelNumbering numbering(long channel, long channelGroup, String number) {
+        return ChannelNumbering.builder()
+                .withChannel(channel)
+                .withChannelGroup(channelGroup)
+                .withChannelNumber(number)
+                .build();
+    }
+}
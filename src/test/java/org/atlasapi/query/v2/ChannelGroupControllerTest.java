@@ -63,6 +63,7 @@ public class ChannelGroupControllerTest {
                 .withAtlasModelWriter(atlasModelWriter)
                 .withModelReader(new DefaultJacksonModelReader())
                 .withChannelGroupResolver(channelGroupResolver)
+                .withChannelCatalogue(mock(ChannelCatalogue.class))
                 .withChannelGroupTransformer(channelGroupTransformer)
                 .withChannelGroupWriteExecutor(executor)
                 .withChannelResolver(channelResolver)
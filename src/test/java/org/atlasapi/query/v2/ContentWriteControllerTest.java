@@ -2,6 +2,7 @@ package org.atlasapi.query.v2;
 
 import com.amazonaws.util.IOUtils;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.metabroadcast.applications.client.model.internal.Application;
 import com.metabroadcast.applications.client.model.internal.ApplicationConfiguration;
@@ -273,6 +274,80 @@ public class ContentWriteControllerTest {
                 is(true));
     }
 
+    @Test
+    public void postBatchSynchronouslyWritesDocumentsTogether() throws Exception {
+        when(request.getInputStream()).thenReturn(batchInputStream());
+        when(writeExecutor.writeContents(anyList(), eq(true), any(BroadcastMerger.class)))
+                .thenReturn(ImmutableMap.of());
+
+        BatchWriteResponse batchResponse = controller.postContents(request, response);
+
+        verify(writeExecutor, times(2)).parseInputStream(any(InputStream.class), anyBoolean());
+        verify(writeExecutor).writeContents(
+                eq(ImmutableList.of(inputContent, inputContent)),
+                eq(true),
+                any(BroadcastMerger.class)
+        );
+        verify(messageSender, never()).sendMessage(any(ContentWriteMessage.class), any());
+
+        assertThat(batchResponse.getResults().size(), is(2));
+        assertThat(batchResponse.getResults().get(0).getStatus(), is(HttpStatus.OK.value()));
+        assertThat(batchResponse.getResults().get(1).getUri(), is(uri));
+        verify(response).setStatus(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void postBatchAsynchronouslySendsMessagePerDocument() throws Exception {
+        when(request.getParameter(ContentWriteController.ASYNC_PARAMETER))
+                .thenReturn("true");
+        when(request.getInputStream()).thenReturn(batchInputStream());
+
+        BatchWriteResponse batchResponse = controller.postContents(request, response);
+
+        verify(writeExecutor, never()).writeContents(anyList(), anyBoolean(), any());
+        verify(messageSender, times(2)).sendMessage(
+                messageCaptor.capture(), eq(String.valueOf(contentId).getBytes())
+        );
+        assertThat(
+                new String(messageCaptor.getAllValues().get(0).getContentBytes()),
+                is("{\"uri\":\"first\"}")
+        );
+        assertThat(
+                new String(messageCaptor.getAllValues().get(1).getContentBytes()),
+                is("{\"uri\":\"second\"}")
+        );
+
+        assertThat(batchResponse.getResults().get(1).getStatus(), is(HttpStatus.ACCEPTED.value()));
+        verify(response).setStatus(HttpStatus.ACCEPTED.value());
+    }
+
+    @Test
+    public void postBatchReportsUnparseableDocumentsWithoutFailingOthers() throws Exception {
+        when(request.getInputStream()).thenReturn(batchInputStream());
+        when(writeExecutor.parseInputStream(any(InputStream.class), anyBoolean()))
+                .thenThrow(new IllegalArgumentException("bad document"))
+                .thenReturn(inputContent);
+        when(writeExecutor.writeContents(anyList(), eq(true), any(BroadcastMerger.class)))
+                .thenReturn(ImmutableMap.of());
+
+        BatchWriteResponse batchResponse = controller.postContents(request, response);
+
+        assertThat(batchResponse.getResults().get(0).getStatus(), is(HttpStatus.BAD_REQUEST.value()));
+        assertThat(batchResponse.getResults().get(0).getError(), is("bad document"));
+        assertThat(batchResponse.getResults().get(1).getStatus(), is(HttpStatus.OK.value()));
+        verify(writeExecutor).writeContents(
+                eq(ImmutableList.of(inputContent)),
+                eq(true),
+                any(BroadcastMerger.class)
+        );
+    }
+
+    private DelegatingServletInputStream batchInputStream() {
+        return new DelegatingServletInputStream(new ByteArrayInputStream(
+                "[{\"uri\":\"first\"}, {\"uri\":\"second\"}]".getBytes()
+        ));
+    }
+
     @Test
     public void deactivateContentWithCorrectParams() throws Exception {
 
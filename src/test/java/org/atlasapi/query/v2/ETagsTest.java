@@ -0,0 +1,61 @@
+package org.atlasapi.query.v2;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.HttpHeaders;
+
+import com.google.common.base.Optional;
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ETagsTest {
+
+    private static final String ETAG = "\"abc\"";
+
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+
+    @Test
+    public void testMatchingETagIsNotModified() {
+        when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"other\", W/" + ETAG);
+
+        assertTrue(ETags.notModified(request, response, ETAG));
+
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response).setHeader(HttpHeaders.ETAG, ETAG);
+    }
+
+    @Test
+    public void testETagIsNotSetBeforeRendering() {
+        when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"other\"");
+
+        assertFalse(ETags.notModified(request, response, ETAG));
+
+        verify(response, never()).setHeader(anyString(), anyString());
+    }
+
+    @Test
+    public void testETagIsSetWhenSuccessfulResponseIsWritten() throws Exception {
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_OK);
+
+        ETags.onSuccess(response, Optional.of(ETAG)).getOutputStream();
+
+        verify(response).setHeader(HttpHeaders.ETAG, ETAG);
+    }
+
+    @Test
+    public void testETagIsNotSetWhenErrorIsWritten() throws Exception {
+        when(response.getStatus()).thenReturn(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+
+        ETags.onSuccess(response, Optional.of(ETAG)).getWriter();
+
+        verify(response, never()).setHeader(anyString(), anyString());
+    }
+}
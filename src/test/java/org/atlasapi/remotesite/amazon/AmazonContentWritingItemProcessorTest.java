@@ -133,6 +133,33 @@ public class AmazonContentWritingItemProcessorTest {
                 .createOrUpdateIndex(amazonTitleIndexEntryArgumentCaptor.capture());
     }
 
+    @Test
+    public void testPartitionedHierarchyIsIngestedWithoutDuplicates()
+            throws ParserConfigurationException, SAXException, IOException {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        SAXParser saxParser = factory.newSAXParser();
+        TestAmazonProcessor testProcessor = new TestAmazonProcessor();
+        AmazonContentHandler handler = new AmazonContentHandler(testProcessor);
+        saxParser.parse(getFileAsInputStream("hierarchy.xml"), handler);
+
+        int partitions = 4;
+        processor.prepare(telescope);
+        for (int partition = 0; partition < partitions; partition++) {
+            AmazonItemProcessor partitionProcessor = processor.forPartition();
+            partitionProcessor.prepare(telescope);
+            for (AmazonItem item : testProcessor.getItems()) {
+                if (AmazonContentWritingItemProcessor.partitionOf(item, partitions) == partition) {
+                    partitionProcessor.process(item);
+                }
+            }
+            partitionProcessor.finish();
+        }
+        processor.finish();
+
+        verify(writer, times(3)).createOrUpdate(itemArgumentCaptor.capture());
+        verify(writer, times(3)).createOrUpdate(containerArgumentCaptor.capture());
+    }
+
     private InputStream getFileAsInputStream(String fileName) throws IOException {
         URL testFile = Resources.getResource(getClass(), fileName);
         return Resources.newInputStreamSupplier(testFile).getInput();
@@ -4,9 +4,11 @@ import static org.atlasapi.remotesite.amazon.AmazonGenre.ACTION;
 import static org.atlasapi.remotesite.amazon.AmazonGenre.ADVENTURE;
 import static org.atlasapi.remotesite.amazon.AmazonGenre.THRILLER;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -74,6 +76,22 @@ public class AmazonItemExtractionTest {
         assertEquals("http://www.amazon.com/gp/product/B007FUIBHM/ref=atv_feed_catalog", item.getUrl());
     }
     
+    @Test
+    public void testParsingStopsWhenProcessorReturnsFalse() throws ParserConfigurationException, IOException {
+        SAXParser saxParser = SAXParserFactory.newInstance().newSAXParser();
+
+        TestAmazonProcessor processor = new TestAmazonProcessor(1);
+        AmazonContentHandler handler = new AmazonContentHandler(processor);
+        try {
+            saxParser.parse(getFileAsInputStream("hierarchy.xml"), handler);
+            fail("Expected parse to stop after the first item");
+        } catch (SAXException e) {
+            assertThat(e, is(instanceOf(AmazonContentHandler.ProcessingStoppedException.class)));
+        }
+
+        assertEquals(1, processor.getItems().size());
+    }
+
     private InputStream getFileAsInputStream(String fileName) throws IOException {
         URL testFile = Resources.getResource(getClass(), fileName);
         return Resources.newInputStreamSupplier(testFile).getInput();
@@ -83,12 +101,21 @@ public class AmazonItemExtractionTest {
 
         private UpdateProgress progress = UpdateProgress.START;
         private final List<AmazonItem> items = Lists.newArrayList();
+        private final int limit;
+
+        public TestAmazonProcessor() {
+            this(Integer.MAX_VALUE);
+        }
+
+        public TestAmazonProcessor(int limit) {
+            this.limit = limit;
+        }
         
         @Override
         public boolean process(AmazonItem aUItem) {
             items.add(aUItem);
             progress = progress.reduce(UpdateProgress.SUCCESS);
-            return true;
+            return items.size() < limit;
         }
 
         @Override
@@ -1,8 +1,12 @@
 package org.atlasapi.remotesite.bbc.nitro;
 
 import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.atlasapi.media.entity.Broadcast;
@@ -13,6 +17,9 @@ import org.atlasapi.media.entity.Version;
 import org.atlasapi.persistence.content.ContentResolver;
 import org.atlasapi.persistence.content.ContentWriter;
 import org.atlasapi.persistence.content.ResolvedContent;
+import org.atlasapi.remotesite.util.ContentChangeDetector;
+import org.atlasapi.remotesite.util.ContentFingerprint;
+import org.atlasapi.remotesite.util.ContentFingerprintStore;
 import org.joda.time.DateTime;
 import org.joda.time.Duration;
 import org.junit.Before;
@@ -21,11 +28,13 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.metabroadcast.common.base.Maybe;
 import com.metabroadcast.common.time.TimeMachine;
@@ -201,6 +210,48 @@ public class LastUpdatedSettingContentWriterTest {
         assertEquals(NOW, currentEncoding.getLastUpdated());
     }
 
+    @Test
+    public void testUnchangedFingerprintSkipsWrite() {
+        LastUpdatedSettingContentWriter detectingWriter = changeDetectingWriter();
+        when(resolver.findByCanonicalUris(ImmutableList.of(ITEM_URI)))
+                .thenReturn(resolvedContent(item()));
+
+        detectingWriter.createOrUpdate(item());
+        Item unchanged = detectingWriter.createOrUpdate(item());
+
+        verify(writer, times(1)).createOrUpdate(any(Item.class));
+        assertEquals(Long.valueOf(1L), unchanged.getId());
+    }
+
+    @Test
+    public void testChangedFingerprintIsWritten() {
+        LastUpdatedSettingContentWriter detectingWriter = changeDetectingWriter();
+        when(resolver.findByCanonicalUris(ImmutableList.of(ITEM_URI)))
+                .thenReturn(resolvedContent(item()));
+
+        detectingWriter.createOrUpdate(item());
+        Item changed = item();
+        changed.setTitle("Really nice item, renamed");
+        detectingWriter.createOrUpdate(changed);
+
+        verify(writer, times(2)).createOrUpdate(any(Item.class));
+        assertEquals(NOW, changed.getLastUpdated());
+    }
+
+    private LastUpdatedSettingContentWriter changeDetectingWriter() {
+        when(writer.createOrUpdate(any(Item.class))).thenAnswer(invocation -> {
+            Item written = (Item) invocation.getArguments()[0];
+            written.setId(1L);
+            return written;
+        });
+        ContentChangeDetector changeDetector = ContentChangeDetector.create(
+                new InMemoryFingerprintStore(),
+                clock,
+                Duration.standardDays(1)
+        );
+        return new LastUpdatedSettingContentWriter(resolver, writer, clock, Optional.of(changeDetector));
+    }
+
     private ResolvedContent resolvedContent(Item item) {
         return new ResolvedContent(
                 ImmutableMap.of(item.getCanonicalUri(), Maybe.<Identified>just(item))
@@ -285,4 +336,18 @@ public class LastUpdatedSettingContentWriterTest {
         }).get();
     }
 
-}
\ No newline at end of file
+    private static class InMemoryFingerprintStore implements ContentFingerprintStore {
+
+        private final Map<String, ContentFingerprint> fingerprints = Maps.newHashMap();
+
+        @Override
+        public Optional<ContentFingerprint> fingerprintFor(String canonicalUri) {
+            return Optional.fromNullable(fingerprints.get(canonicalUri));
+        }
+
+        @Override
+        public void store(ContentFingerprint fingerprint) {
+            fingerprints.put(fingerprint.getCanonicalUri(), fingerprint);
+        }
+    }
+}
@@ -7,8 +7,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import junit.framework.TestCase;
 
@@ -16,10 +19,13 @@ import org.atlasapi.remotesite.itunes.epf.model.EpfTableColumn;
 import org.atlasapi.remotesite.itunes.epf.model.EpfTableRow;
 import org.junit.Test;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import com.google.common.io.CharStreams;
+import com.google.common.io.Files;
 import com.metabroadcast.common.time.Timestamp;
 
 public class EpfTableTest extends TestCase {
@@ -122,4 +128,58 @@ public class EpfTableTest extends TestCase {
         assertThat(row.get(TestEpfRow.NAME), is(equalTo(name)));
         
     }
+
+    @Test
+    public void testMappedTableSkipsCommentsAndJoinsRowsOverMultipleLines() throws IOException {
+        
+        final String name = "On a \nnew line";
+        File file = tableFile(
+                "#export_date" + (char) 1 + "artist_id" + (char) 1 + "name" + (char) 2 + "\n"
+                + fsJoiner.join(ImmutableList.of("1321437625956", "341126\n", "\n" + name + (char) 2 + "\n"))
+                + fsJoiner.join(ImmutableList.of("1320832802897", "341127", "Zoltán Kocsis" + (char) 2 + "\n"))
+                + "#recordsWritten:2" + (char) 2 + "\n"
+        );
+        
+        List<TestEpfRow> processed = EpfTable.mapped(file, convertToTestRow)
+                .processRows(new CapturingTableRowProcessor());
+        
+        assertThat(processed.size(), is(2));
+        assertThat(processed.get(0).get(TestEpfRow.ARTIST_ID), is(equalTo(341126)));
+        assertThat(processed.get(0).get(TestEpfRow.NAME), is(equalTo(name)));
+        assertThat(processed.get(1).get(TestEpfRow.NAME), is(equalTo("Zoltán Kocsis")));
+        
+    }
+
+    @Test
+    public void testMappedTableProcessesChunksInParallelInTableOrder() throws IOException {
+        
+        StringBuilder rows = new StringBuilder();
+        for (int id = 0; id < 100; id++) {
+            rows.append(fsJoiner.join(ImmutableList.of("1321437625956", String.valueOf(id), "name\n" + id + (char) 2 + "\n")));
+        }
+        EpfTable<TestEpfRow> table = new MappedEpfTable<TestEpfRow>(MappedEpfFile.create(tableFile(rows.toString()), 64), convertToTestRow);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<List<TestEpfRow>> chunks = table.processRowsInParallel(CapturingTableRowProcessor::new, executor);
+            
+            assertThat(chunks.size() > 1, is(true));
+            List<TestEpfRow> processed = ImmutableList.copyOf(Iterables.concat(chunks));
+            assertThat(processed.size(), is(100));
+            for (int id = 0; id < 100; id++) {
+                assertThat(processed.get(id).get(TestEpfRow.ARTIST_ID), is(equalTo(id)));
+                assertThat(processed.get(id).get(TestEpfRow.NAME), is(equalTo("name\n" + id)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        
+    }
+
+    private File tableFile(String contents) throws IOException {
+        File file = File.createTempFile("epf", "table");
+        file.deleteOnExit();
+        Files.write(contents, file, Charsets.UTF_8);
+        return file;
+    }
 }
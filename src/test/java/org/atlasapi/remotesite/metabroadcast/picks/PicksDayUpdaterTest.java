@@ -0,0 +1,176 @@
+package org.atlasapi.remotesite.metabroadcast.picks;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.atlasapi.media.channel.Channel;
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.ChildRef;
+import org.atlasapi.media.entity.ContentGroup;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Schedule;
+import org.atlasapi.media.entity.Schedule.ScheduleChannel;
+import org.atlasapi.media.entity.Version;
+import org.atlasapi.persistence.content.ContentGroupResolver;
+import org.atlasapi.persistence.content.ContentGroupWriter;
+import org.atlasapi.persistence.content.ContentResolver;
+import org.atlasapi.persistence.content.ResolvedContent;
+import org.atlasapi.persistence.content.ScheduleResolver;
+import org.atlasapi.remotesite.bbc.nitro.ChannelDay;
+import org.atlasapi.reporting.OwlReporter;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Interval;
+import org.joda.time.LocalDate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.metabroadcast.common.scheduling.UpdateProgress;
+
+public class PicksDayUpdaterTest {
+
+    private static final String CONTENT_GROUP = "http://picks.metabroadcast.com/schedule-picks";
+    private static final LocalDate DAY = new LocalDate(2018, 1, 10);
+    private static final DateTime DAY_START = DAY.toDateTimeAtStartOfDay(DateTimeZone.UTC);
+    private static final DateTime DAY_END = DAY.plusDays(1).toDateTimeAtStartOfDay(DateTimeZone.UTC);
+
+    private final ScheduleResolver scheduleResolver = mock(ScheduleResolver.class);
+    private final ContentGroupResolver contentGroupResolver = mock(ContentGroupResolver.class);
+    private final ContentResolver contentResolver = mock(ContentResolver.class);
+    private final ContentGroupWriter contentGroupWriter = mock(ContentGroupWriter.class);
+    private final PicksChannelsSupplier picksChannelsSupplier = mock(PicksChannelsSupplier.class);
+    private final OwlReporter owlReporter = mock(OwlReporter.class);
+
+    private final Channel bbcOne = channel("bbcone", 1L);
+    private final Channel bbcTwo = channel("bbctwo", 2L);
+
+    private final Item first = item("first", 1L, bbcOne, DAY_START.plusHours(20));
+    private final Item second = item("second", 2L, bbcOne, DAY_START.plusHours(21));
+    private final Item third = item("third", 3L, bbcTwo, DAY_START.plusHours(20));
+
+    private PicksDayUpdater updater;
+
+    @Before
+    public void setUp() {
+        when(picksChannelsSupplier.get()).thenReturn(ImmutableSet.of(bbcOne, bbcTwo));
+        scheduleFor(bbcOne, first, second);
+        scheduleFor(bbcTwo, third);
+        when(contentResolver.findByCanonicalUris(anyCollectionOf(String.class))).thenReturn(
+                ResolvedContent.builder()
+                        .put(first.getCanonicalUri(), first)
+                        .put(second.getCanonicalUri(), second)
+                        .put(third.getCanonicalUri(), third)
+                        .build()
+        );
+
+        updater = new PicksDayUpdater(
+                scheduleResolver,
+                contentGroupResolver,
+                contentResolver,
+                contentGroupWriter,
+                picksChannelsSupplier
+        );
+    }
+
+    @Test
+    public void testPicksFromEveryChannelDayAreWrittenOnce() throws Exception {
+        resolveContentGroup(new ContentGroup(CONTENT_GROUP, Publisher.METABROADCAST_PICKS));
+
+        assertThat(updater.process(new ChannelDay(bbcOne, DAY), owlReporter), is(UpdateProgress.SUCCESS));
+        assertThat(updater.process(new ChannelDay(bbcTwo, DAY), owlReporter), is(UpdateProgress.SUCCESS));
+        verify(contentGroupWriter, never()).createOrUpdate(any(ContentGroup.class));
+
+        updater.writePendingPicks();
+
+        ArgumentCaptor<ContentGroup> written = ArgumentCaptor.forClass(ContentGroup.class);
+        verify(contentGroupWriter, times(1)).createOrUpdate(written.capture());
+        assertThat(uris(written.getValue().getContents()), contains("first", "second", "third"));
+
+        updater.writePendingPicks();
+
+        verify(contentGroupWriter, times(1)).createOrUpdate(any(ContentGroup.class));
+    }
+
+    @Test
+    public void testNothingIsWrittenWhenPicksAreAlreadyInContentGroup() throws Exception {
+        ContentGroup contentGroup = new ContentGroup(CONTENT_GROUP, Publisher.METABROADCAST_PICKS);
+        contentGroup.setContents(ImmutableList.of(first.childRef(), second.childRef(), third.childRef()));
+        resolveContentGroup(contentGroup);
+
+        updater.process(new ChannelDay(bbcOne, DAY), owlReporter);
+        updater.process(new ChannelDay(bbcTwo, DAY), owlReporter);
+        updater.writePendingPicks();
+
+        verify(contentGroupWriter, never()).createOrUpdate(any(ContentGroup.class));
+    }
+
+    @Test
+    public void testNothingIsWrittenWhenNoPicksArePending() {
+        updater.writePendingPicks();
+
+        verify(contentGroupResolver, never()).findByCanonicalUris(anyCollectionOf(String.class));
+        verify(contentGroupWriter, never()).createOrUpdate(any(ContentGroup.class));
+    }
+
+    private void scheduleFor(Channel channel, Item... items) {
+        when(scheduleResolver.unmergedSchedule(
+                DAY_START,
+                DAY_END,
+                ImmutableSet.of(channel),
+                ImmutableSet.of(Publisher.PA)
+        )).thenReturn(new Schedule(
+                ImmutableList.of(new ScheduleChannel(channel, ImmutableList.copyOf(items))),
+                new Interval(DAY_START, DAY_END)
+        ));
+    }
+
+    private void resolveContentGroup(ContentGroup contentGroup) {
+        when(contentGroupResolver.findByCanonicalUris(ImmutableSet.of(CONTENT_GROUP))).thenReturn(
+                ResolvedContent.builder()
+                        .put(CONTENT_GROUP, contentGroup)
+                        .build()
+        );
+    }
+
+    private List<String> uris(Iterable<ChildRef> childRefs) {
+        return ImmutableList.copyOf(Iterables.transform(childRefs, ChildRef::getUri));
+    }
+
+    private Channel channel(String key, long id) {
+        Channel channel = new Channel(
+                Publisher.METABROADCAST,
+                key,
+                key,
+                false,
+                MediaType.VIDEO,
+                "http://example.org/channels/" + key
+        );
+        channel.setId(id);
+        return channel;
+    }
+
+    private Item item(String uri, long id, Channel channel, DateTime start) {
+        Item item = new Item(uri, uri, Publisher.PA);
+        item.setId(id);
+        Version version = new Version();
+        version.addBroadcast(new Broadcast(channel.getUri(), start, start.plusHours(1)));
+        item.addVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,132 @@
+package org.atlasapi.remotesite.metabroadcast.similar;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import com.metabroadcast.applications.client.model.internal.Application;
+import org.atlasapi.media.entity.Brand;
+import org.atlasapi.media.entity.ChildRef;
+import org.atlasapi.media.entity.Container;
+import org.atlasapi.media.entity.Content;
+import org.atlasapi.media.entity.EntityType;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.SimilarContentRef;
+import org.atlasapi.media.entity.testing.BrandTestDataBuilder;
+import org.atlasapi.persistence.content.listing.ContentLister;
+import org.atlasapi.persistence.content.listing.ContentListingCriteria;
+import org.atlasapi.persistence.output.AvailableItemsResolver;
+import org.atlasapi.persistence.output.UpcomingItemsResolver;
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+
+public class IndexedSimilarContentProviderTest {
+
+    private static final ImmutableMultimap<Publisher, ChildRef> NOTHING = ImmutableMultimap.of();
+
+    private final ContentLister contentLister = mock(ContentLister.class);
+    private final TraitHashCalculator traitHashCalculator = mock(TraitHashCalculator.class);
+    private final AvailableItemsResolver availableItemsResolver = mock(AvailableItemsResolver.class);
+    private final UpcomingItemsResolver upcomingItemsResolver = mock(UpcomingItemsResolver.class);
+    private final Application application = mock(Application.class);
+
+    private Brand subject;
+    private Brand available;
+    private Brand upcoming;
+
+    @Before
+    public void setUp() {
+        subject = brand(1, 1, 2, 3);
+        Brand sharingTwo = brand(2, 1, 2);
+        available = brand(3, 1);
+        upcoming = brand(4, 9);
+        Brand sharingNothing = brand(5);
+        Brand alsoSharingTwo = brand(6, 2, 3);
+
+        when(contentLister.listContent((ContentListingCriteria) anyObject())).thenReturn(
+                ImmutableList.<Content>of(
+                        alsoSharingTwo, sharingNothing, upcoming, available, sharingTwo, subject
+                ).iterator()
+        );
+        when(availableItemsResolver.availableItemsByPublisherFor((Container) anyObject(), (Application) anyObject()))
+                .thenReturn(NOTHING);
+        when(upcomingItemsResolver.upcomingItemsByPublisherFor((Container) anyObject()))
+                .thenReturn(NOTHING);
+        when(availableItemsResolver.availableItemsByPublisherFor(available, application))
+                .thenReturn(ImmutableMultimap.of(Publisher.BBC, childRef(30)));
+        when(upcomingItemsResolver.upcomingItemsByPublisherFor(upcoming))
+                .thenReturn(ImmutableMultimap.of(Publisher.BBC, childRef(40)));
+    }
+
+    @Test
+    public void testRanksBySharedTraitsAndAvailabilityThenId() {
+        List<SimilarContentRef> similar = provider(4).similarTo(subject);
+
+        assertEquals(ImmutableList.of(3L, 4L, 2L, 6L), ids(similar));
+        assertEquals(ImmutableList.of(4, 3, 2, 2), scores(similar));
+    }
+
+    @Test
+    public void testFillsLimitWithContentSharingNothingButNeverTheSubject() {
+        List<SimilarContentRef> similar = provider(10).similarTo(subject);
+
+        assertEquals(ImmutableList.of(3L, 4L, 2L, 6L, 5L), ids(similar));
+        assertEquals(0, (int) scores(similar).get(4));
+    }
+
+    private IndexedSimilarContentProvider provider(int limit) {
+        IndexedSimilarContentProvider provider = new IndexedSimilarContentProvider(
+                contentLister,
+                Publisher.BBC,
+                limit,
+                traitHashCalculator,
+                availableItemsResolver,
+                upcomingItemsResolver,
+                application,
+                MoreExecutors.sameThreadExecutor()
+        );
+        provider.initialise();
+        return provider;
+    }
+
+    private Brand brand(long id, Integer... traits) {
+        Brand brand = BrandTestDataBuilder
+                .brand()
+                .withCanonicalUri(String.format("http://brand.com/%d", id))
+                .withId(id)
+                .build();
+        Set<Integer> hashes = ImmutableSet.copyOf(traits);
+        when(traitHashCalculator.traitHashesFor(brand)).thenReturn(hashes);
+        return brand;
+    }
+
+    private ChildRef childRef(long id) {
+        return new ChildRef(id, "", "", DateTime.now(), EntityType.EPISODE);
+    }
+
+    private List<Long> ids(List<SimilarContentRef> similar) {
+        ImmutableList.Builder<Long> ids = ImmutableList.builder();
+        for (SimilarContentRef ref : similar) {
+            ids.add(ref.getId());
+        }
+        return ids.build();
+    }
+
+    private List<Integer> scores(List<SimilarContentRef> similar) {
+        ImmutableList.Builder<Integer> scores = ImmutableList.builder();
+        for (SimilarContentRef ref : similar) {
+            scores.add(ref.getScore());
+        }
+        return scores.build();
+    }
+}
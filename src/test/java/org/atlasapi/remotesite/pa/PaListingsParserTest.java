@@ -0,0 +1,65 @@
+package org.atlasapi.remotesite.pa;
+
+import java.io.File;
+import java.util.List;
+
+import org.atlasapi.remotesite.pa.listings.bindings.ChannelData;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Resources;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class PaListingsParserTest {
+
+    private final PaListingsParser parser = new PaListingsParser();
+    private final File file = new File(Resources.getResource("20110115_tvdata.xml").getFile());
+
+    @Test
+    public void testReadsChannelAttributesAndProgrammes() throws Exception {
+        List<ChannelData> processed = Lists.newArrayList();
+
+        parser.parse(file, new PaListingsParser.ChannelHandler() {
+
+            @Override
+            public boolean shouldProcess(ChannelData channel) {
+                return true;
+            }
+
+            @Override
+            public void process(ChannelData channel) {
+                processed.add(channel);
+            }
+        });
+
+        assertThat(processed.size(), is(1));
+        ChannelData channel = processed.get(0);
+        assertThat(channel.getChannelId(), is("4"));
+        assertThat(channel.getStartTime(), is("2011-01-15T06:00:00+00:00"));
+        assertThat(channel.getProgData().size(), is(1));
+        assertThat(channel.getProgData().get(0).getProgId(), is("1424497"));
+    }
+
+    @Test
+    public void testSkipsUnwantedChannels() throws Exception {
+        List<ChannelData> processed = Lists.newArrayList();
+
+        parser.parse(file, new PaListingsParser.ChannelHandler() {
+
+            @Override
+            public boolean shouldProcess(ChannelData channel) {
+                return false;
+            }
+
+            @Override
+            public void process(ChannelData channel) {
+                processed.add(channel);
+            }
+        });
+
+        assertTrue(processed.isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package org.atlasapi.remotesite.rovi.indexing;
+
+import static org.atlasapi.remotesite.rovi.RoviConstants.FILE_CHARSET;
+import static org.atlasapi.remotesite.rovi.RoviTestUtils.fileFromResource;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+
+import org.atlasapi.remotesite.rovi.RoviPredicates;
+import org.atlasapi.remotesite.rovi.model.RoviEpisodeSequenceLine;
+import org.atlasapi.remotesite.rovi.model.RoviSeriesLine;
+import org.atlasapi.remotesite.rovi.parsers.RoviEpisodeSequenceLineParser;
+import org.atlasapi.remotesite.rovi.parsers.RoviSeriesLineParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.io.Files;
+
+
+public class MappedKeyedFileIndexerTest {
+
+    private static final String SMALL_FILE = "org/atlasapi/remotesite/rovi/rovi_series_small.txt";
+    private static final String NOT_PARSABLE_FILE = "org/atlasapi/remotesite/rovi/not_parsable_episode_sequence.txt";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIndexing() throws IOException, IndexAccessException {
+        KeyedFileIndex<String, RoviSeriesLine> index = createIndexer(false).index(fileFromResource(SMALL_FILE));
+
+        String key = "919489";
+        Collection<RoviSeriesLine> seriesLines = index.getLinesForKey(key);
+
+        assertEquals(1, seriesLines.size());
+
+        RoviSeriesLine seriesLine = seriesLines.iterator().next();
+
+        assertEquals(key, seriesLine.getKey());
+        assertEquals("Empires of Industry", seriesLine.getFullTitle().get());
+        assertEquals(seriesLine.getFullTitle(), index.getFirstForKey(key).get().getFullTitle());
+        assertTrue(index.getKeys().contains(key));
+        assertFalse(index.getFirstForKey("not-a-key").isPresent());
+    }
+
+    @Test
+    public void testIndexingWithPredicate() throws IOException, IndexAccessException {
+        KeyedFileIndex<String, RoviSeriesLine> index = createIndexer(false)
+                .index(fileFromResource(SMALL_FILE), RoviPredicates.IS_INSERT);
+
+        assertTrue(index.getLinesForKey("20521012").isEmpty());
+    }
+
+    @Test
+    public void testIndexingFirstLine() throws IOException, IndexAccessException {
+        KeyedFileIndex<String, RoviSeriesLine> index = createIndexer(false).index(fileFromResource(SMALL_FILE));
+
+        assertEquals(1, index.getLinesForKey("99").size());
+    }
+
+    @Test
+    public void testPersistedIndexIsReused() throws IOException, IndexAccessException {
+        File file = folder.newFile("rovi_series_small.txt");
+        Files.copy(fileFromResource(SMALL_FILE), file);
+
+        KeyedFileIndex<String, RoviSeriesLine> built = createIndexer(true).index(file);
+        assertTrue(MappedKeyedFileIndexer.indexFileFor(file).exists());
+
+        KeyedFileIndex<String, RoviSeriesLine> reused = createIndexer(true).index(file);
+
+        assertEquals(built.getKeys(), reused.getKeys());
+        assertEquals(
+                built.getFirstForKey("919489").get().getFullTitle(),
+                reused.getFirstForKey("919489").get().getFullTitle()
+        );
+    }
+
+    @Test(expected = IndexAccessException.class)
+    public void testReleasedIndexCannotBeRead() throws IOException, IndexAccessException {
+        KeyedFileIndex<String, RoviSeriesLine> index = createIndexer(false).index(fileFromResource(SMALL_FILE));
+        index.releaseResources();
+
+        index.getLinesForKey("919489");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testStopProcessIfErrorWhileIndexing() throws IOException {
+        File file = fileFromResource(NOT_PARSABLE_FILE);
+
+        MappedKeyedFileIndexer<String, RoviEpisodeSequenceLine> indexer = new MappedKeyedFileIndexer<>(FILE_CHARSET, new RoviEpisodeSequenceLineParser(), false);
+        indexer.index(file);
+    }
+
+    private MappedKeyedFileIndexer<String, RoviSeriesLine> createIndexer(boolean persistIndex) {
+        return new MappedKeyedFileIndexer<>(FILE_CHARSET, new RoviSeriesLineParser(), persistIndex);
+    }
+
+}
@@ -0,0 +1,93 @@
+package org.atlasapi.remotesite.rovi.processing;
+
+import static org.atlasapi.remotesite.rovi.RoviConstants.FILE_CHARSET;
+import static org.atlasapi.remotesite.rovi.RoviTestUtils.countTotalLines;
+import static org.atlasapi.remotesite.rovi.RoviTestUtils.fileFromResource;
+import static org.atlasapi.remotesite.rovi.processing.restartable.IngestStep.BRANDS_NO_PARENT;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.atlasapi.remotesite.rovi.processing.restartable.IngestParallelFileProcessingStep;
+import org.atlasapi.remotesite.rovi.processing.restartable.IngestStatus;
+import org.atlasapi.remotesite.rovi.processing.restartable.IngestStatusStore;
+import org.atlasapi.remotesite.rovi.processing.restartable.IngestStep;
+import org.atlasapi.remotesite.rovi.processing.restartable.UnrecoverableIngestStatusException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import com.google.common.collect.ImmutableMap;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IngestParallelFileProcessingStepTest {
+
+    private static final String FILE_PATH = "org/atlasapi/remotesite/rovi/program.txt";
+
+    @Mock
+    private IngestStatusStore statusStore;
+
+    @Test
+    public void testAllLinesAreProcessedWithNoRecoveredStatus() throws IOException {
+        File file = fileFromResource(FILE_PATH);
+
+        IngestParallelFileProcessingStep ingestStep = createStep(file, BRANDS_NO_PARENT);
+
+        long totalLines = countTotalLines(file, FILE_CHARSET);
+        RoviDataProcessingResult result = ingestStep.execute();
+
+        assertEquals(totalLines, result.getProcessedLines());
+    }
+
+    @Test
+    public void testRemainingLinesAreProcessedWithRecoveredStatus() throws IOException {
+        File file = fileFromResource(FILE_PATH);
+        // The first range always starts at the beginning of the file
+        IngestStatus recoveredStatus = new IngestStatus(BRANDS_NO_PARENT, 0, ImmutableMap.of(0L, 2L));
+
+        IngestParallelFileProcessingStep ingestStep = createStep(file, BRANDS_NO_PARENT);
+
+        long totalLines = countTotalLines(file, FILE_CHARSET);
+        RoviDataProcessingResult result = ingestStep.execute(recoveredStatus);
+
+        assertEquals(totalLines - 2, result.getProcessedLines());
+    }
+
+    @Test
+    public void testNoLinesAreProcessedWhenRecoveringACompletedStep() throws IOException {
+        File file = fileFromResource(FILE_PATH);
+
+        createStep(file, BRANDS_NO_PARENT).execute();
+
+        ArgumentCaptor<IngestStatus> persisted = ArgumentCaptor.forClass(IngestStatus.class);
+        verify(statusStore, atLeastOnce()).persistIngestStatus(persisted.capture());
+        IngestStatus recoveredStatus = persisted.getValue();
+
+        RoviDataProcessingResult result = createStep(file, BRANDS_NO_PARENT).execute(recoveredStatus);
+
+        assertEquals(0, result.getProcessedLines());
+    }
+
+    @Test(expected = UnrecoverableIngestStatusException.class)
+    public void testIngestFailsIfRecoveringFromADifferentStep() {
+        File file = fileFromResource(FILE_PATH);
+        IngestStatus recoveredStatus = new IngestStatus(IngestStep.ITEMS_NO_PARENT, 3);
+
+        createStep(file, BRANDS_NO_PARENT).execute(recoveredStatus);
+    }
+
+    private IngestParallelFileProcessingStep createStep(File file, IngestStep step) {
+        return IngestParallelFileProcessingStep.builder(FILE_CHARSET, statusStore)
+                .withStep(step)
+                .withFile(file)
+                .withProcessors(CountingLineProcessor::new)
+                .withParallelism(3)
+                .build();
+    }
+
+}
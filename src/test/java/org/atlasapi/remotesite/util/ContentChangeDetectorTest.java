@@ -0,0 +1,89 @@
+package org.atlasapi.remotesite.util;
+
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Publisher;
+
+import com.metabroadcast.common.time.TimeMachine;
+
+import com.google.common.base.Optional;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ContentChangeDetectorTest {
+
+    private static final String URI = "http://example.org/1";
+    private static final DateTime NOW = new DateTime(2014, 12, 16, 17, 10, 0, 0, DateTimeZone.UTC);
+
+    private final TimeMachine clock = new TimeMachine();
+    private ContentFingerprintStore store;
+    private ContentChangeDetector detector;
+
+    @Before
+    public void setUp() {
+        clock.jumpTo(NOW);
+        store = mock(ContentFingerprintStore.class);
+        detector = ContentChangeDetector.create(store, clock, Duration.standardDays(7));
+    }
+
+    @Test
+    public void testRecentlyWrittenContentWithSameFingerprintIsUnchangedAndGetsItsId() {
+        Item item = item();
+        String fingerprint = detector.fingerprint(item);
+        when(store.fingerprintFor(URI)).thenReturn(Optional.of(
+                new ContentFingerprint(URI, fingerprint, 1234L, NOW.minusDays(6))
+        ));
+
+        assertTrue(detector.isUnchanged(item, fingerprint));
+        assertEquals(Long.valueOf(1234L), item.getId());
+    }
+
+    @Test
+    public void testContentIsChangedWhenFingerprintDiffersOrIsTooOld() {
+        Item item = item();
+        String fingerprint = detector.fingerprint(item);
+
+        when(store.fingerprintFor(URI)).thenReturn(Optional.<ContentFingerprint>absent());
+        assertFalse(detector.isUnchanged(item, fingerprint));
+
+        when(store.fingerprintFor(URI)).thenReturn(Optional.of(
+                new ContentFingerprint(URI, "different", 1234L, NOW.minusDays(1))
+        ));
+        assertFalse(detector.isUnchanged(item, fingerprint));
+
+        when(store.fingerprintFor(URI)).thenReturn(Optional.of(
+                new ContentFingerprint(URI, fingerprint, 1234L, NOW.minusDays(8))
+        ));
+        assertFalse(detector.isUnchanged(item, fingerprint));
+        assertNull(item.getId());
+    }
+
+    @Test
+    public void testOnlyContentWrittenWithAnIdIsRecorded() {
+        Item item = item();
+        detector.recordWritten(item, "fingerprint");
+        verify(store, never()).store(any(ContentFingerprint.class));
+
+        item.setId(1234L);
+        detector.recordWritten(item, "fingerprint");
+        verify(store).store(new ContentFingerprint(URI, "fingerprint", 1234L, NOW));
+    }
+
+    private Item item() {
+        Item item = new Item(URI, "ex:1", Publisher.BBC);
+        item.setTitle("Title");
+        return item;
+    }
+}
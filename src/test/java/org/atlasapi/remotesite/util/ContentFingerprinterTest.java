@@ -0,0 +1,144 @@
+package org.atlasapi.remotesite.util;
+
+import java.util.function.Consumer;
+
+import org.atlasapi.media.entity.Broadcast;
+import org.atlasapi.media.entity.Clip;
+import org.atlasapi.media.entity.Encoding;
+import org.atlasapi.media.entity.Episode;
+import org.atlasapi.media.entity.Item;
+import org.atlasapi.media.entity.Location;
+import org.atlasapi.media.entity.MediaType;
+import org.atlasapi.media.entity.Policy;
+import org.atlasapi.media.entity.Publisher;
+import org.atlasapi.media.entity.Specialization;
+import org.atlasapi.media.entity.Version;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ContentFingerprinterTest {
+
+    private static final DateTime START = new DateTime(2014, 12, 23, 10, 0, 0, 0, DateTimeZone.UTC);
+
+    private final ContentFingerprinter fingerprinter = new ContentFingerprinter();
+
+    @Test
+    public void testContentBuiltTwiceHasTheSameFingerprint() {
+        Item item = item(START);
+        item.setGenres(ImmutableSet.of("drama", "comedy"));
+
+        Item rebuilt = item(START.toDateTime(DateTimeZone.forID("Europe/London")));
+        rebuilt.setGenres(ImmutableSet.of("comedy", "drama"));
+
+        assertEquals(fingerprinter.fingerprint(item), fingerprinter.fingerprint(rebuilt));
+    }
+
+    @Test
+    public void testIdsAndLastUpdatedTimesAreIgnored() {
+        Item item = item(START);
+        Item written = item(START);
+        written.setId(1234L);
+        written.setLastUpdated(START);
+        written.getVersions().iterator().next().setLastUpdated(START);
+
+        assertEquals(fingerprinter.fingerprint(item), fingerprinter.fingerprint(written));
+    }
+
+    @Test
+    public void testBroadcastChangesChangeTheFingerprint() {
+        Item item = item(START);
+        Item moved = item(START.plusMinutes(5));
+
+        assertNotEquals(fingerprinter.fingerprint(item), fingerprinter.fingerprint(moved));
+
+        Item repeat = item(START);
+        repeat.getVersions().iterator().next().getBroadcasts().iterator().next().setRepeat(true);
+
+        assertNotEquals(fingerprinter.fingerprint(item), fingerprinter.fingerprint(repeat));
+    }
+
+    @Test
+    public void testEpisodeFieldsAreIncluded() {
+        Episode episode = new Episode("http://example.org/1", "ex:1", Publisher.BBC);
+        episode.setEpisodeNumber(1);
+        Episode renumbered = new Episode("http://example.org/1", "ex:1", Publisher.BBC);
+        renumbered.setEpisodeNumber(2);
+
+        assertNotEquals(fingerprinter.fingerprint(episode), fingerprinter.fingerprint(renumbered));
+    }
+
+    @Test
+    public void testCoveredFieldsChangeTheFingerprint() {
+        ImmutableMap<String, Consumer<Item>> changes = ImmutableMap.<String, Consumer<Item>>builder()
+                .put("title", item -> item.setTitle("Other title"))
+                .put("description", item -> item.setDescription("Description"))
+                .put("image", item -> item.setImage("http://example.org/1.jpg"))
+                .put("genres", item -> item.setGenres(ImmutableSet.of("drama")))
+                .put("year", item -> item.setYear(2014))
+                .put("media type", item -> item.setMediaType(MediaType.AUDIO))
+                .put("specialization", item -> item.setSpecialization(Specialization.FILM))
+                .put("black and white", item -> item.setBlackAndWhite(true))
+                .put("version duration", item -> version(item).setDuration(Duration.standardMinutes(60)))
+                .put("encoding", item -> encoding(item).setVideoBitRate(1500))
+                .put("location", item -> location(item).setUri("http://example.org/1/play"))
+                .put("policy", item -> location(item).getPolicy().setAvailabilityEnd(START.plusDays(7)))
+                .put("clips", item -> item.setClips(ImmutableList.of(
+                        new Clip("http://example.org/1/clip", "ex:1:clip", Publisher.BBC))))
+                .build();
+
+        String fingerprint = fingerprinter.fingerprint(available(item(START)));
+        for (String field : changes.keySet()) {
+            Item changed = available(item(START));
+            changes.get(field).accept(changed);
+
+            assertNotEquals(field, fingerprint, fingerprinter.fingerprint(changed));
+        }
+    }
+
+    private Item available(Item item) {
+        Policy policy = new Policy();
+        policy.setAvailabilityStart(START);
+        Location location = new Location();
+        location.setUri("http://example.org/1/location");
+        location.setPolicy(policy);
+        Encoding encoding = new Encoding();
+        encoding.setAvailableAt(ImmutableSet.of(location));
+        version(item).setManifestedAs(ImmutableSet.of(encoding));
+        return item;
+    }
+
+    private Version version(Item item) {
+        return item.getVersions().iterator().next();
+    }
+
+    private Encoding encoding(Item item) {
+        return version(item).getManifestedAs().iterator().next();
+    }
+
+    private Location location(Item item) {
+        return encoding(item).getAvailableAt().iterator().next();
+    }
+
+    private Item item(DateTime start) {
+        Item item = new Item("http://example.org/1", "ex:1", Publisher.BBC);
+        item.setTitle("Title");
+
+        Broadcast broadcast = new Broadcast("http://example.org/channel", start, start.plusMinutes(30))
+                .withId("broadcast1");
+        Version version = new Version();
+        version.setCanonicalUri("http://example.org/1/version");
+        version.setDuration(Duration.standardMinutes(30));
+        version.setBroadcasts(ImmutableSet.of(broadcast));
+        item.setVersions(ImmutableSet.of(version));
+        return item;
+    }
+}
@@ -0,0 +1,87 @@
+package org.atlasapi.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedLockServiceTest {
+
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final KeyedLockService<String> locks = KeyedLockService.create("test", metrics);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDifferentKeysDoNotContend() throws Exception {
+        locks.lock("brand1");
+
+        Future<Boolean> other = executor.submit(
+                () -> locks.tryLock("brand2", 1, TimeUnit.SECONDS)
+        );
+
+        assertTrue(other.get());
+        assertThat(metrics.meter("test.contended").getCount(), is(0L));
+    }
+
+    @Test
+    public void testSameKeyTimesOutWhileHeld() throws Exception {
+        locks.lock("brand");
+
+        Future<Boolean> other = executor.submit(
+                () -> locks.tryLock("brand", 10, TimeUnit.MILLISECONDS)
+        );
+
+        assertFalse(other.get());
+        assertThat(metrics.meter("test.contended").getCount(), is(1L));
+        assertThat(metrics.meter("test.timeouts").getCount(), is(1L));
+    }
+
+    @Test
+    public void testWaiterAcquiresOnceUnlocked() throws Exception {
+        locks.lock("brand");
+        CountDownLatch waiting = new CountDownLatch(1);
+
+        Future<Boolean> other = executor.submit(() -> {
+            waiting.countDown();
+            boolean acquired = locks.tryLock("brand", 5, TimeUnit.SECONDS);
+            locks.unlock("brand");
+            return acquired;
+        });
+
+        waiting.await();
+        locks.unlock("brand");
+
+        assertTrue(other.get());
+    }
+
+    @Test
+    public void testLocksAreDroppedWhenReleased() throws Exception {
+        locks.lock("brand");
+        locks.lock("brand");
+        locks.unlock("brand");
+        assertThat(locks.activeKeys(), is(1));
+
+        locks.unlock("brand");
+        assertThat(locks.activeKeys(), is(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCannotUnlockKeyNotHeld() {
+        locks.unlock("brand");
+    }
+}